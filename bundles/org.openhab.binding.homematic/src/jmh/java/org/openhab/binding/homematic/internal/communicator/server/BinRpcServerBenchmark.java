@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the BIN-RPC callback server for bursts of system.multicall event batches, like the ones a gateway sends
+ * after a restart or for a larger group of devices.
+ *
+ * Compares decoding the batches with the {@link BinRpcCallDecoder} against decoding the whole message with
+ * {@link BinRpcMessage} first, and measures the {@link BinRpcNetworkService} over a loopback connection. Each
+ * benchmark operation is one batch, the events per second are reported as the secondary "events" metric.
+ *
+ * Run with the jmh profile, for example
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="BinRpcServerBenchmark -p eventsPerBatch=10,50 -prof gc"
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinRpcServerBenchmark {
+
+    private static final String ENCODING = "ISO-8859-1";
+    private static final int BATCHES = 64;
+
+    private static final String[] DATAPOINTS = { "LEVEL", "STATE", "WORKING", "ACTUAL_TEMPERATURE", "SET_TEMPERATURE",
+            "HUMIDITY", "LOWBAT", "UNREACH", "RSSI_DEVICE", "PRESS_SHORT" };
+
+    static {
+        // Logging at debug level would dominate the measurements, JMH runs the benchmark in a forked JVM of its own
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+    }
+
+    /**
+     * Events delivered to the listener, reported by JMH next to the batches
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Events {
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    /**
+     * Network service listening on loopback, with a connection like the one of the gateway
+     */
+    @State(Scope.Thread)
+    public static class Loopback {
+        private final byte[] result = new byte[1024];
+        private BinRpcNetworkService networkService;
+        private Thread networkServiceThread;
+        private Socket socket;
+        private OutputStream out;
+        private DataInputStream in;
+
+        @Setup
+        public void start(BinRpcServerBenchmark benchmark) throws IOException {
+            HomematicConfig config = new HomematicConfig();
+            config.setBindAddress("127.0.0.1");
+            config.setBinCallbackPort(getFreePort());
+            config.setSocketMaxAlive(900);
+
+            networkService = new BinRpcNetworkService(benchmark.createListener(), config);
+            networkServiceThread = new Thread(networkService, "HomematicRpcServer");
+            networkServiceThread.start();
+            socket = new Socket("127.0.0.1", config.getBinCallbackPort());
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new DataInputStream(socket.getInputStream());
+        }
+
+        @TearDown
+        public void stop() throws IOException, InterruptedException {
+            socket.close();
+            networkService.shutdown();
+            networkServiceThread.join(1000);
+        }
+    }
+
+    @Param("50")
+    public int eventsPerBatch;
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private byte[][] batches;
+    private int batch;
+    private RpcResponseHandler<byte[]> handler;
+    private BinRpcCallDecoder decoder;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        batches = createBatches(eventsPerBatch);
+        handler = createResponseHandler();
+        decoder = new BinRpcCallDecoder(handler, new HomematicConfig());
+        buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+        binRpcCallDecoder(new Events());
+        if (receivedEvents.get() != eventsPerBatch) {
+            throw new IllegalStateException(
+                    "Decoded " + receivedEvents.get() + " events of a batch of " + eventsPerBatch);
+        }
+    }
+
+    private byte[] nextBatch() {
+        batch = batch + 1 < BATCHES ? batch + 1 : 0;
+        return batches[batch];
+    }
+
+    @Benchmark
+    public Object binRpcMessage(Events events) throws IOException, ParseException {
+        BinRpcMessage message = new BinRpcMessage(nextBatch(), true, ENCODING);
+        events.events += eventsPerBatch;
+        return handler.handleMethodCall(message.getMethodName(), message.getResponseData());
+    }
+
+    @Benchmark
+    public Object binRpcCallDecoder(Events events) throws IOException {
+        buffer.clear();
+        buffer.put(nextBatch());
+        buffer.flip();
+        events.events += eventsPerBatch;
+        return decoder.decode(buffer);
+    }
+
+    /**
+     * Sends a batch to the server and waits for its result, like the gateway does.
+     */
+    @Benchmark
+    public byte[] loopback(Loopback loopback, Events events) throws IOException {
+        byte[] result = loopback.result;
+        loopback.out.write(nextBatch());
+        loopback.in.readFully(result, 0, 8);
+        loopback.in.readFully(result, 8, ByteBuffer.wrap(result, 4, 4).getInt());
+        events.events += eventsPerBatch;
+        return result;
+    }
+
+    /**
+     * Creates system.multicall batches of events from random devices and datapoints.
+     */
+    private static byte[][] createBatches(int eventsPerBatch) {
+        Random random = new Random(42);
+        byte[][] batches = new byte[BATCHES][];
+        for (int b = 0; b < BATCHES; b++) {
+            List<Object> calls = new ArrayList<>();
+            for (int e = 0; e < eventsPerBatch; e++) {
+                String address = String.format("NEQ%07d:%d", random.nextInt(100), random.nextInt(8));
+                String datapoint = DATAPOINTS[random.nextInt(DATAPOINTS.length)];
+                Object value;
+                switch (random.nextInt(3)) {
+                    case 0:
+                        value = random.nextInt(100) / 100.0;
+                        break;
+                    case 1:
+                        value = random.nextBoolean();
+                        break;
+                    default:
+                        value = random.nextInt(256) - 128;
+                        break;
+                }
+                Map<String, Object> call = new LinkedHashMap<>();
+                call.put("methodName", RPC_METHODNAME_EVENT);
+                call.put("params", Arrays.asList("BidCos-RF", address, datapoint, value));
+                calls.add(call);
+            }
+            BinRpcMessage message = new BinRpcMessage(RPC_METHODNAME_SYSTEM_MULTICALL, ENCODING);
+            message.addArg(calls);
+            batches[b] = message.createMessage();
+        }
+        return batches;
+    }
+
+    private RpcEventListener createListener() {
+        return new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                receivedEvents.incrementAndGet();
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        };
+    }
+
+    private RpcResponseHandler<byte[]> createResponseHandler() {
+        return new RpcResponseHandler<byte[]>(createListener()) {
+            @Override
+            protected byte[] getEmptyStringResult() {
+                return new byte[0];
+            }
+
+            @Override
+            protected byte[] getEmptyArrayResult() {
+                return new byte[0];
+            }
+
+            @Override
+            protected byte[] getEmptyEventListResult() {
+                return new byte[0];
+            }
+
+            @Override
+            protected RpcRequest<byte[]> createRpcRequest() {
+                return new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, ENCODING);
+            }
+        };
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -53,6 +53,7 @@ public class HomematicConfig {
     private int binCallbackPort;
 
     private int socketMaxAlive = 900;
+    private int multicallSize = 50;
     private int timeout = 15;
     private int installModeDuration = DEFAULT_INSTALL_MODE_DURATION;
     private long discoveryTimeToLive = -1;
@@ -169,6 +170,20 @@ public class HomematicConfig {
         this.socketMaxAlive = socketMaxAlive;
     }
 
+    /**
+     * Returns the maximum number of value reads that are sent together in one system.multicall request.
+     */
+    public int getMulticallSize() {
+        return multicallSize;
+    }
+
+    /**
+     * Sets the maximum number of value reads that are sent together in one system.multicall request.
+     */
+    public void setMulticallSize(int multicallSize) {
+        this.multicallSize = multicallSize;
+    }
+
     /**
      * Returns the timeout for the communication to a Homematic gateway in seconds.
      */
@@ -404,7 +419,7 @@ public class HomematicConfig {
                 .append("rfPort", getRfPort()).append("wiredPort", getWiredPort()).append("hmIpPort", getHmIpPort())
                 .append("cuxdPort", getCuxdPort()).append("groupPort", getGroupPort()).append("timeout", timeout)
                 .append("discoveryTimeToLive", discoveryTimeToLive).append("installModeDuration", installModeDuration)
-                .append("socketMaxAlive", socketMaxAlive);
+                .append("socketMaxAlive", socketMaxAlive).append("multicallSize", multicallSize);
         return tsb.toString();
     }
 }
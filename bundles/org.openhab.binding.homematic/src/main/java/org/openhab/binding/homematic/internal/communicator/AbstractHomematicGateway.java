@@ -14,6 +14,7 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,12 +26,17 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
@@ -90,6 +96,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_LOADER_POOL_NAME = "homematicMetadata";
+    private static final String METADATA_CACHE_FOLDER_NAME = "homematic";
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
@@ -106,7 +114,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
@@ -371,61 +379,115 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
+        // loading datapoints for all channels, the devices are loaded in parallel but reported in order
+        DeviceMetadataCache metadataCache = createMetadataCache();
+        metadataCache.load();
         Set<String> loadedDevices = new HashSet<>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
-        for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
+        Set<String> channelIds = ConcurrentHashMap.newKeySet();
+        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new ConcurrentHashMap<>();
+        ExecutorService executor = ThreadPoolManager.getPool(METADATA_LOADER_POOL_NAME);
+        List<Future<?>> futures = new ArrayList<>(deviceDescriptions.size());
+        try {
+            for (HmDevice device : deviceDescriptions) {
+                futures.add(executor.submit(() -> {
+                    if (!cancelLoadAllMetadata) {
+                        loadDeviceMetadata(device, metadataCache, datapointsByChannelIdCache, channelIds);
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < deviceDescriptions.size(); i++) {
+                HmDevice device = deviceDescriptions.get(i);
                 try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+                    futures.get(i).get();
+                    if (!cancelLoadAllMetadata) {
+                        prepareDevice(device);
+                        loadedDevices.add(device.getAddress());
+                        gatewayAdapter.onDeviceLoaded(device);
+                    }
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof IOException) {
+                        logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(),
+                                id, ex.getCause().getMessage());
                     } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
-                            }
-                        }
+                        logger.warn("Can't load device with address '{}' from gateway '{}'", device.getAddress(), id,
+                                ex.getCause());
                     }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
                 }
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancelLoadAllMetadata = true;
+        } finally {
+            // the pool is shared, only stop the tasks of this load
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
         }
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
+            metadataCache.retainAll(channelIds);
         }
+        metadataCache.save();
         initialized = true;
     }
 
+    /**
+     * Loads the datapoints of all channels of the device, either from the caches or from the gateway.
+     */
+    private void loadDeviceMetadata(HmDevice device, DeviceMetadataCache metadataCache,
+            Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache, Set<String> channelIds)
+            throws IOException {
+        logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+        if (device.isGatewayExtras()) {
+            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+        } else {
+            for (HmChannel channel : device.getChannels()) {
+                logger.trace("  Loading channel {}", channel);
+                // speed up metadata generation a little bit for equal channels in the gateway devices
+                if ((DEVICE_TYPE_VIRTUAL.equals(device.getType()) || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType()))
+                        && channel.getNumber() > 1) {
+                    HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                    cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                } else {
+                    String channelId = DeviceMetadataCache.getChannelId(channel);
+                    Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                    if (cachedDatapoints == null) {
+                        cachedDatapoints = metadataCache.getDatapoints(channel);
+                    }
+                    if (cachedDatapoints != null) {
+                        // clone all datapoints
+                        cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                        channelIds.add(channelId);
+                    } else {
+                        logger.trace("    Loading datapoints into channel {}", channel);
+                        addChannelDatapoints(channel, HmParamsetType.MASTER);
+                        addChannelDatapoints(channel, HmParamsetType.VALUES);
+
+                        // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                        // the data point set might change depending on the selected mode.
+                        if (!channel.isReconfigurable()) {
+                            datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                            metadataCache.putDatapoints(channel);
+                            channelIds.add(channelId);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the persistent cache for the datapoint metadata of this gateway.
+     */
+    protected DeviceMetadataCache createMetadataCache() {
+        HmGatewayInfo gatewayInfo = config.getGatewayInfo();
+        File folder = new File(ConfigConstants.getUserDataFolder(), METADATA_CACHE_FOLDER_NAME);
+        return new DeviceMetadataCache(new File(folder, id + ".metadata"),
+                gatewayInfo.getType() + ":" + gatewayInfo.getFirmware());
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -487,7 +549,37 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             setChannelDatapointValues(channel, HmParamsetType.MASTER);
             setChannelDatapointValues(channel, HmParamsetType.VALUES);
         }
+        channelValuesLoaded(channel);
+    }
+
+    @Override
+    public void loadDeviceValues(HmDevice device) throws IOException {
+        List<HmChannel> channels = new ArrayList<>();
+        for (HmChannel channel : device.getChannels()) {
+            if (!channel.isInitialized()) {
+                channels.add(channel);
+            }
+        }
+        if (device.isGatewayExtras() || channels.size() <= 1) {
+            for (HmChannel channel : channels) {
+                loadChannelValues(channel);
+            }
+            return;
+        }
+
+        logger.debug("Loading values for {} channels of device '{}'", channels.size(), device.getAddress());
+        Collection<HmChannel> failedChannels = getRpcClient(device.getHmInterface()).loadChannelValues(channels);
+        for (HmChannel channel : channels) {
+            if (failedChannels.contains(channel)) {
+                // read the values again one by one, with the fallbacks for the single paramsets
+                loadChannelValues(channel);
+            } else {
+                channelValuesLoaded(channel);
+            }
+        }
+    }
 
+    private void channelValuesLoaded(HmChannel channel) {
         for (HmDatapoint dp : channel.getDatapoints()) {
             handleVirtualDatapointEvent(dp, false);
         }
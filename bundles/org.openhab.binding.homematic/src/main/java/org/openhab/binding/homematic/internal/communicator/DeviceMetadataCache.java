@@ -0,0 +1,334 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the datapoint metadata (the MASTER and VALUES paramset descriptions) of all channels of a gateway, so they
+ * don't have to be fetched again from the gateway on every start.
+ *
+ * The metadata is stored per device type, firmware and channel number, the same key that is used to share the
+ * metadata between equal channels of different devices. Each entry also stores the fingerprint of the channel
+ * description from listDevices (channel type, interface and description version), an entry is only used if the
+ * fingerprint still matches. The whole cache is discarded if the type or firmware of the gateway changed.
+ *
+ * This class is thread-safe.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCache {
+    private final Logger logger = LoggerFactory.getLogger(DeviceMetadataCache.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_STRING = 5;
+
+    private final File file;
+    private final String gatewayFingerprint;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    private static class Entry {
+        final String fingerprint;
+        final List<HmDatapoint> datapoints;
+
+        Entry(String fingerprint, List<HmDatapoint> datapoints) {
+            this.fingerprint = fingerprint;
+            this.datapoints = datapoints;
+        }
+    }
+
+    /**
+     * Creates a cache that is stored in the given file.
+     *
+     * @param file the cache file
+     * @param gatewayFingerprint identifies the gateway type and firmware, a cache file written for another
+     *            fingerprint is ignored
+     */
+    public DeviceMetadataCache(File file, String gatewayFingerprint) {
+        this.file = file;
+        this.gatewayFingerprint = gatewayFingerprint;
+    }
+
+    /**
+     * Returns the key of the channel in the cache.
+     */
+    public static String getChannelId(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
+    }
+
+    private static String getFingerprint(HmChannel channel) {
+        return channel.getType() + ":" + channel.getDevice().getHmInterface() + ":" + channel.getVersion();
+    }
+
+    /**
+     * Returns the cached datapoints of the channel or null, if there are none or they are outdated.
+     */
+    public Collection<HmDatapoint> getDatapoints(HmChannel channel) {
+        Entry entry = entries.get(getChannelId(channel));
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.fingerprint.equals(getFingerprint(channel))) {
+            logger.debug("Cached metadata of channel {} of device '{}' is outdated", channel,
+                    channel.getDevice().getAddress());
+            return null;
+        }
+        return entry.datapoints;
+    }
+
+    /**
+     * Stores all non virtual datapoints of the channel.
+     */
+    public void putDatapoints(HmChannel channel) {
+        List<HmDatapoint> datapoints = new ArrayList<>();
+        for (HmDatapoint dp : channel.getDatapoints()) {
+            if (!dp.isVirtual()) {
+                datapoints.add(dp.clone());
+            }
+        }
+        entries.put(getChannelId(channel), new Entry(getFingerprint(channel), datapoints));
+        modified = true;
+    }
+
+    /**
+     * Removes all entries, which are not in the given set of channel ids.
+     */
+    public void retainAll(Set<String> channelIds) {
+        if (entries.keySet().retainAll(channelIds)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Returns the number of cached channels.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads the cache file. A missing, unreadable or outdated file results in an empty cache.
+     */
+    public synchronized void load() {
+        entries.clear();
+        modified = false;
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !gatewayFingerprint.equals(in.readUTF())) {
+                logger.debug("Ignoring outdated metadata cache file '{}'", file);
+                modified = true;
+                return;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String channelId = in.readUTF();
+                String fingerprint = in.readUTF();
+                int datapointCount = in.readInt();
+                List<HmDatapoint> datapoints = new ArrayList<>(datapointCount);
+                for (int j = 0; j < datapointCount; j++) {
+                    datapoints.add(readDatapoint(in));
+                }
+                entries.put(channelId, new Entry(fingerprint, datapoints));
+            }
+            logger.debug("Loaded metadata of {} channels from cache file '{}'", entries.size(), file);
+        } catch (IOException | RuntimeException ex) {
+            logger.info("Can't read metadata cache file '{}', loading all metadata from the gateway: {}", file,
+                    ex.getMessage());
+            entries.clear();
+            modified = true;
+        }
+    }
+
+    /**
+     * Writes the cache file, if the cache has been modified since it was loaded or saved.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            File folder = file.getParentFile();
+            if (folder != null && !folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Can't create folder " + folder);
+            }
+            modified = false;
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(gatewayFingerprint);
+                List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, Entry> mapEntry : snapshot) {
+                    out.writeUTF(mapEntry.getKey());
+                    out.writeUTF(mapEntry.getValue().fingerprint);
+                    out.writeInt(mapEntry.getValue().datapoints.size());
+                    for (HmDatapoint dp : mapEntry.getValue().datapoints) {
+                        writeDatapoint(out, dp);
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("Saved metadata of {} channels to cache file '{}'", entries.size(), file);
+        } catch (IOException ex) {
+            modified = true;
+            logger.warn("Can't write metadata cache file '{}': {}", file, ex.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Removes all entries and deletes the cache file.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        modified = false;
+        if (file.exists() && !file.delete()) {
+            logger.warn("Can't delete metadata cache file '{}'", file);
+        }
+    }
+
+    private void writeDatapoint(DataOutputStream out, HmDatapoint dp) throws IOException {
+        out.writeUTF(dp.getName());
+        writeString(out, dp.getDescription());
+        out.writeUTF(dp.getType().name());
+        out.writeUTF(dp.getParamsetType().name());
+        writeObject(out, dp.getMinValue());
+        writeObject(out, dp.getMaxValue());
+        writeObject(out, dp.getStep());
+        writeObject(out, dp.getDefaultValue());
+        String[] options = dp.getOptions();
+        out.writeInt(options == null ? -1 : options.length);
+        if (options != null) {
+            for (String option : options) {
+                writeString(out, option);
+            }
+        }
+        out.writeBoolean(dp.isReadOnly());
+        out.writeBoolean(dp.isReadable());
+        out.writeBoolean(dp.isTrigger());
+        writeString(out, dp.getInfo());
+        writeString(out, dp.getUnit());
+    }
+
+    private HmDatapoint readDatapoint(DataInputStream in) throws IOException {
+        HmDatapoint dp = new HmDatapoint();
+        dp.setName(in.readUTF());
+        dp.setDescription(readString(in));
+        dp.setType(HmValueType.valueOf(in.readUTF()));
+        dp.setParamsetType(HmParamsetType.valueOf(in.readUTF()));
+        dp.setMinValue((Number) readObject(in));
+        dp.setMaxValue((Number) readObject(in));
+        dp.setStep((Number) readObject(in));
+        dp.setDefaultValue(readObject(in));
+        int optionCount = in.readInt();
+        if (optionCount >= 0) {
+            String[] options = new String[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = readString(in);
+            }
+            dp.setOptions(options);
+        }
+        dp.setReadOnly(in.readBoolean());
+        dp.setReadable(in.readBoolean());
+        dp.setTrigger(in.readBoolean());
+        dp.setInfo(readString(in));
+        dp.setUnit(readString(in));
+        dp.setValue(dp.getDefaultValue());
+        return dp;
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void writeObject(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Number) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF(Objects.toString(value));
+        }
+    }
+
+    private Object readObject(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_STRING:
+                return in.readUTF();
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+}
@@ -63,6 +63,12 @@ public interface HomematicGateway {
      */
     public void loadChannelValues(HmChannel channel) throws IOException;
 
+    /**
+     * Loads all values into the channels of the given device that are not initialized. The values of all channels are
+     * read together.
+     */
+    public void loadDeviceValues(HmDevice device) throws IOException;
+
     /**
      * Loads the value of the given {@link HmDatapoint} from the device.
      * 
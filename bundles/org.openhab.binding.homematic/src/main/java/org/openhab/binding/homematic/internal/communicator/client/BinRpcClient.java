@@ -80,7 +80,7 @@ public class BinRpcClient extends RpcClient<byte[]> {
             socket.getOutputStream().write(request.createMessage());
             resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
             return new RpcResponseParser(request).parse(resp.getResponseData());
-        } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
+        } catch (UnknownRpcFailureException | UnknownParameterSetException | UnknownMethodException rpcEx) {
             // throw immediately, don't retry the message
             throw rpcEx;
         } catch (IOException ioEx) {
@@ -13,12 +13,23 @@
 package org.openhab.binding.homematic.internal.communicator.client;
 
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*;
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.RPC_METHODNAME_SYSTEM_MULTICALL;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -33,6 +44,8 @@ import org.openhab.binding.homematic.internal.communicator.parser.GetValueParser
 import org.openhab.binding.homematic.internal.communicator.parser.HomegearLoadDeviceNamesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListDevicesParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcResponseParser;
 import org.openhab.binding.homematic.internal.communicator.parser.RssiInfoParser;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -56,6 +69,35 @@ public abstract class RpcClient<T> {
 
     protected HomematicConfig config;
 
+    private final Deque<PendingRead> pendingReads = new ArrayDeque<>();
+    private final Object multicallLock = new Object();
+    private final Set<Integer> multicallUnsupportedPorts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * A value read (getParamset or getValue) that waits to be sent to the gateway.
+     */
+    private static class PendingRead {
+        private final int port;
+        private final String methodName;
+        private final Object[] params;
+        private Object[] result;
+        private IOException failure;
+        private boolean done;
+
+        private PendingRead(int port, String methodName, Object... params) {
+            this.port = port;
+            this.methodName = methodName;
+            this.params = params;
+        }
+
+        private Object[] getResult() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+
     public RpcClient(HomematicConfig config) {
         this.config = config;
     }
@@ -192,14 +234,15 @@ public abstract class RpcClient<T> {
             return;
         }
 
-        RpcRequest<T> request = createRpcRequest("getParamset");
-        request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
-        request.addArg(paramsetType.toString());
         if (channel.getDevice().getHmInterface() == HmInterface.CUXD && paramsetType == HmParamsetType.VALUES) {
             setChannelDatapointValues(channel);
         } else {
             try {
-                new GetParamsetParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
+                PendingRead read = new PendingRead(config.getRpcPort(channel), "getParamset",
+                        getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel),
+                        paramsetType.toString());
+                readValues(Collections.singletonList(read));
+                new GetParamsetParser(channel, paramsetType).parse(read.getResult());
             } catch (UnknownRpcFailureException ex) {
                 if (paramsetType == HmParamsetType.VALUES) {
                     logger.debug(
@@ -218,9 +261,70 @@ public abstract class RpcClient<T> {
      * exception.
      */
     private void setChannelDatapointValues(HmChannel channel) throws IOException {
+        List<HmDatapoint> datapoints = new ArrayList<>();
+        List<PendingRead> reads = new ArrayList<>();
         for (HmDatapoint dp : channel.getDatapoints()) {
-            getDatapointValue(dp);
+            if (isValueReadable(dp)) {
+                datapoints.add(dp);
+                reads.add(createGetValueRead(dp));
+            }
+        }
+        readValues(reads);
+        for (int i = 0; i < reads.size(); i++) {
+            new GetValueParser(datapoints.get(i)).parse(reads.get(i).getResult());
+        }
+    }
+
+    /**
+     * Sets the MASTER and VALUES datapoint values of all given channels, e.g. of all channels of a device. The reads of
+     * all channels are queued before they are sent, so they are combined into as few system.multicall requests as
+     * possible.
+     *
+     * @return the channels whose values could not be read, they can be read one by one with
+     *         {@link #setChannelDatapointValues(HmChannel, HmParamsetType)}, which applies the fallbacks
+     */
+    public Collection<HmChannel> loadChannelValues(Collection<HmChannel> channels) {
+        List<HmChannel> readChannels = new ArrayList<>();
+        List<RpcParser<Object[], Void>> parsers = new ArrayList<>();
+        List<PendingRead> reads = new ArrayList<>();
+        for (HmChannel channel : channels) {
+            for (HmParamsetType paramsetType : Arrays.asList(HmParamsetType.MASTER, HmParamsetType.VALUES)) {
+                if (isConfigurationChannel(channel) && paramsetType != HmParamsetType.MASTER) {
+                    // The configuration channel only has a MASTER Paramset, so there is nothing to load
+                    continue;
+                }
+                if (channel.getDevice().getHmInterface() == HmInterface.CUXD
+                        && paramsetType == HmParamsetType.VALUES) {
+                    for (HmDatapoint dp : channel.getDatapoints()) {
+                        if (isValueReadable(dp)) {
+                            readChannels.add(channel);
+                            parsers.add(new GetValueParser(dp));
+                            reads.add(createGetValueRead(dp));
+                        }
+                    }
+                } else {
+                    readChannels.add(channel);
+                    parsers.add(new GetParamsetParser(channel, paramsetType));
+                    reads.add(new PendingRead(config.getRpcPort(channel), "getParamset",
+                            getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel),
+                            paramsetType.toString()));
+                }
+            }
+        }
+
+        readValues(reads);
+        Set<HmChannel> failedChannels = new LinkedHashSet<>();
+        for (int i = 0; i < reads.size(); i++) {
+            HmChannel channel = readChannels.get(i);
+            try {
+                parsers.get(i).parse(reads.get(i).getResult());
+            } catch (IOException ex) {
+                logger.debug("Can't load values for device: {}, channel: {}: {}", channel.getDevice().getAddress(),
+                        channel.getNumber(), ex.getMessage());
+                failedChannels.add(channel);
+            }
         }
+        return failedChannels;
     }
 
     /**
@@ -350,12 +454,155 @@ public abstract class RpcClient<T> {
      * @throws IOException If there is a problem while communicating to the gateway
      */
     public void getDatapointValue(HmDatapoint dp) throws IOException {
-        if (dp.isReadable() && !dp.isVirtual() && dp.getParamsetType() == HmParamsetType.VALUES) {
-            RpcRequest<T> request = createRpcRequest("getValue");
-            request.addArg(getRpcAddress(dp.getChannel().getDevice().getAddress()) + getChannelSuffix(dp.getChannel()));
-            request.addArg(dp.getName());
-            new GetValueParser(dp).parse(sendMessage(config.getRpcPort(dp.getChannel()), request));
+        if (isValueReadable(dp)) {
+            PendingRead read = createGetValueRead(dp);
+            readValues(Collections.singletonList(read));
+            new GetValueParser(dp).parse(read.getResult());
+        }
+    }
+
+    private boolean isValueReadable(HmDatapoint dp) {
+        return dp.isReadable() && !dp.isVirtual() && dp.getParamsetType() == HmParamsetType.VALUES;
+    }
+
+    private PendingRead createGetValueRead(HmDatapoint dp) {
+        return new PendingRead(config.getRpcPort(dp.getChannel()), "getValue",
+                getRpcAddress(dp.getChannel().getDevice().getAddress()) + getChannelSuffix(dp.getChannel()),
+                dp.getName());
+    }
+
+    /**
+     * Sends the value reads to the gateway. Value reads that are outstanding at the same time, also the ones of other
+     * threads, are combined into system.multicall requests of up to multicallSize reads per port. The thread that gets
+     * the lock first sends the reads of all waiting threads, the results are assigned back to the individual reads.
+     * Reads for ports that don't support system.multicall are sent one by one.
+     */
+    private void readValues(List<PendingRead> reads) {
+        List<PendingRead> multicallReads = new ArrayList<>(reads.size());
+        for (PendingRead read : reads) {
+            if (isMulticallEnabled(read.port)) {
+                multicallReads.add(read);
+            } else {
+                sendRead(read);
+            }
+        }
+        if (multicallReads.isEmpty()) {
+            return;
+        }
+
+        synchronized (pendingReads) {
+            pendingReads.addAll(multicallReads);
+        }
+        synchronized (multicallLock) {
+            for (PendingRead read : multicallReads) {
+                if (!read.done) {
+                    sendPendingReads(read);
+                }
+            }
+        }
+    }
+
+    private boolean isMulticallEnabled(int port) {
+        return config.getMulticallSize() > 1 && !multicallUnsupportedPorts.contains(port);
+    }
+
+    /**
+     * Sends the given read together with the outstanding reads for the same port.
+     */
+    private void sendPendingReads(PendingRead first) {
+        List<PendingRead> batch = new ArrayList<>();
+        synchronized (pendingReads) {
+            pendingReads.remove(first);
+            batch.add(first);
+            Iterator<PendingRead> iterator = pendingReads.iterator();
+            while (iterator.hasNext() && batch.size() < config.getMulticallSize()) {
+                PendingRead read = iterator.next();
+                if (read.port == first.port) {
+                    iterator.remove();
+                    batch.add(read);
+                }
+            }
+        }
+
+        if (batch.size() == 1 || !isMulticallEnabled(first.port)) {
+            for (PendingRead read : batch) {
+                sendRead(read);
+            }
+            return;
+        }
+
+        List<Object> calls = new ArrayList<>(batch.size());
+        for (PendingRead read : batch) {
+            Map<String, Object> call = new LinkedHashMap<>();
+            call.put("methodName", read.methodName);
+            call.put("params", Arrays.asList(read.params));
+            calls.add(call);
+        }
+        RpcRequest<T> request = createRpcRequest(RPC_METHODNAME_SYSTEM_MULTICALL);
+        request.addArg(calls);
+
+        Object[] results;
+        try {
+            Object[] response = sendMessage(first.port, request);
+            if (!(response[0] instanceof Object[]) || ((Object[]) response[0]).length != batch.size()) {
+                throw new IOException("Unexpected result of " + RPC_METHODNAME_SYSTEM_MULTICALL);
+            }
+            results = (Object[]) response[0];
+        } catch (UnknownMethodException ex) {
+            logger.info("Gateway doesn't support {} on port {}, values are read one by one",
+                    RPC_METHODNAME_SYSTEM_MULTICALL, first.port);
+            multicallUnsupportedPorts.add(first.port);
+            for (PendingRead read : batch) {
+                sendRead(read);
+            }
+            return;
+        } catch (IOException ex) {
+            logger.debug("Sending {} value reads with {} failed: {}", batch.size(), RPC_METHODNAME_SYSTEM_MULTICALL,
+                    ex.getMessage());
+            // system.multicall stays enabled, the failure may be temporary
+            sendRead(first);
+            boolean gatewayReachable = first.failure == null || first.failure instanceof UnknownRpcFailureException
+                    || first.failure instanceof UnknownParameterSetException;
+            for (PendingRead read : batch.subList(1, batch.size())) {
+                if (gatewayReachable) {
+                    sendRead(read);
+                } else {
+                    // don't wait for the timeout of every single read
+                    read.failure = first.failure;
+                    read.done = true;
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingRead read = batch.get(i);
+            // a successful call returns an array with the result, a failed one a fault struct
+            Object[] result = results[i] instanceof Object[] ? (Object[]) results[i] : new Object[] { results[i] };
+            try {
+                read.result = new RpcResponseParser(createRequest(read)).parse(result);
+            } catch (IOException ex) {
+                read.failure = ex;
+            }
+            read.done = true;
+        }
+    }
+
+    private void sendRead(PendingRead read) {
+        try {
+            read.result = sendMessage(read.port, createRequest(read));
+        } catch (IOException ex) {
+            read.failure = ex;
+        }
+        read.done = true;
+    }
+
+    private RpcRequest<T> createRequest(PendingRead read) {
+        RpcRequest<T> request = createRpcRequest(read.methodName);
+        for (Object param : read.params) {
+            request.addArg(param);
         }
+        return request;
     }
 
     /**
@@ -109,7 +109,7 @@ public class XmlRpcClient extends RpcClient<String> {
             Object[] data = new XmlRpcResponse(new ByteArrayInputStream(respData.toByteArray()), config.getEncoding())
                     .getResponseData();
             return new RpcResponseParser(request).parse(data);
-        } catch (UnknownRpcFailureException | UnknownParameterSetException ex) {
+        } catch (UnknownRpcFailureException | UnknownParameterSetException | UnknownMethodException ex) {
             throw ex;
         } catch (Exception ex) {
             if ("init".equals(request.getMethodName()) || rpcRetryCounter >= MAX_RPC_RETRY) {
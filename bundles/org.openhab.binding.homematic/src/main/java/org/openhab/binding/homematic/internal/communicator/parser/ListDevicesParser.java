@@ -58,7 +58,9 @@ public class ListDevicesParser extends CommonRpcParser<Object[], Collection<HmDe
 
                 HmDevice device = new HmDevice(address, hmInterface, type, config.getGatewayInfo().getId(), id,
                         firmware);
-                device.addChannel(new HmChannel(type, CONFIGURATION_CHANNEL_NUMBER));
+                HmChannel configurationChannel = new HmChannel(type, CONFIGURATION_CHANNEL_NUMBER);
+                configurationChannel.setVersion(toInteger(data.get("VERSION")));
+                device.addChannel(configurationChannel);
                 devices.put(address, device);
             } else {
                 // channel
@@ -68,7 +70,9 @@ public class ListDevicesParser extends CommonRpcParser<Object[], Collection<HmDe
                 String type = toString(data.get("TYPE"));
                 Integer number = toInteger(data.get("INDEX"));
 
-                device.addChannel(new HmChannel(type, number));
+                HmChannel channel = new HmChannel(type, number);
+                channel.setVersion(toInteger(data.get("VERSION")));
+                device.addChannel(channel);
             }
         }
         return devices.values();
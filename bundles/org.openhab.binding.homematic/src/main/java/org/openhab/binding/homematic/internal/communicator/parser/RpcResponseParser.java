@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.openhab.binding.homematic.internal.communicator.client.UnknownMethodException;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownRpcFailureException;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
@@ -47,6 +48,9 @@ public class RpcResponseParser extends CommonRpcParser<Object[], Object[]> {
                         throw new UnknownRpcFailureException(faultMessage);
                     } else if (faultCode.intValue() == -3 && StringUtils.equals("Unknown paramset", faultString)) {
                         throw new UnknownParameterSetException(faultMessage);
+                    } else if (faultCode.intValue() == -32601
+                            || StringUtils.contains(StringUtils.lowerCase(faultString), "method not found")) {
+                        throw new UnknownMethodException(faultMessage);
                     }
                     throw new IOException(faultMessage);
                 }
@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+
+/**
+ * Decodes BIN-RPC method calls from the Homematic gateway directly from the receive buffer of the
+ * {@link BinRpcNetworkService}. The events of a system.multicall are passed to the {@link RpcResponseHandler} one by
+ * one while decoding, the call is never materialized as a whole. Method and struct member names are compared with the
+ * raw bytes and short strings, which repeat in almost every event (interface id, address, datapoint name), are taken
+ * from a small cache.
+ *
+ * The values are decoded exactly like {@link org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage}
+ * does. Instances are not thread-safe.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcCallDecoder {
+    static final int HEADER_LENGTH = 8;
+
+    private static final int TYPE_INTEGER = 1;
+    private static final int TYPE_BOOLEAN = 2;
+    private static final int TYPE_STRING = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_DATE = 5;
+    private static final int TYPE_ARRAY = 0x100;
+    private static final int TYPE_STRUCT = 0x101;
+
+    private static final String[] METHOD_NAMES = { RPC_METHODNAME_EVENT, RPC_METHODNAME_SYSTEM_MULTICALL,
+            RPC_METHODNAME_LIST_DEVICES, RPC_METHODNAME_UPDATE_DEVICE, RPC_METHODNAME_DELETE_DEVICES,
+            RPC_METHODNAME_NEW_DEVICES, RPC_METHODNAME_SYSTEM_LISTMETHODS, RPC_METHODNAME_SET_CONFIG_READY };
+    private static final byte[][] METHOD_NAME_BYTES = new byte[METHOD_NAMES.length][];
+    private static final byte[] MEMBER_METHOD_NAME = "methodName".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MEMBER_PARAMS = "params".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int STRING_CACHE_SIZE = 1024;
+    private static final int MAX_CACHED_STRING_LENGTH = 32;
+
+    static {
+        for (int i = 0; i < METHOD_NAMES.length; i++) {
+            METHOD_NAME_BYTES[i] = METHOD_NAMES[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final RpcResponseHandler<byte[]> rpcResponseHandler;
+    private final HomematicConfig config;
+
+    private String encoding;
+    private Charset charset;
+    private byte[] chars = new byte[256];
+    private final byte[][] cachedBytes = new byte[STRING_CACHE_SIZE][];
+    private final String[] cachedStrings = new String[STRING_CACHE_SIZE];
+
+    private ByteBuffer buffer;
+
+    public BinRpcCallDecoder(RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
+        this.rpcResponseHandler = rpcResponseHandler;
+        this.config = config;
+    }
+
+    /**
+     * Returns true if the complete BIN-RPC message between the position and the limit of the buffer is an event or a
+     * system.multicall. They are cheap to handle and can be decoded on the network thread.
+     */
+    public static boolean isEventCall(ByteBuffer message) {
+        int offset = message.position() + HEADER_LENGTH;
+        if (message.limit() - offset < 4) {
+            return false;
+        }
+        int length = message.getInt(offset);
+        return methodNameEquals(message, offset + 4, length, METHOD_NAME_BYTES[0])
+                || methodNameEquals(message, offset + 4, length, METHOD_NAME_BYTES[1]);
+    }
+
+    private static boolean methodNameEquals(ByteBuffer message, int offset, int length, byte[] name) {
+        if (length != name.length || offset + length > message.limit()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (message.get(offset + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the complete BIN-RPC method call between the position and the limit of the buffer, handles it and
+     * returns the result for the Homematic gateway. The position of the buffer is moved to the limit.
+     */
+    public byte[] decode(ByteBuffer message) throws IOException {
+        String currentEncoding = config.getEncoding();
+        if (!currentEncoding.equals(encoding)) {
+            charset = Charset.forName(currentEncoding);
+            encoding = currentEncoding;
+            clearStringCache();
+        }
+
+        buffer = message;
+        try {
+            buffer.position(buffer.position() + HEADER_LENGTH);
+            String methodName = readMethodName();
+            // the number of arguments, like BinRpcMessage all values up to the end of the message are read
+            readInt();
+
+            if (RPC_METHODNAME_SYSTEM_MULTICALL.equals(methodName)) {
+                decodeMulticall();
+                return rpcResponseHandler.getEmptyEventListResult();
+            }
+            List<Object> values = new ArrayList<>(4);
+            while (buffer.hasRemaining()) {
+                values.add(readRpcValue());
+            }
+            return rpcResponseHandler.handleMethodCall(methodName, values.toArray());
+        } catch (RuntimeException ex) {
+            // BufferUnderflowException, ClassCastException, ...
+            throw new IOException("Invalid BIN-RPC message: " + ex.getMessage(), ex);
+        } finally {
+            buffer = null;
+        }
+    }
+
+    /**
+     * Handles each call of the multicall array right after it has been decoded.
+     */
+    private void decodeMulticall() throws IOException {
+        int type = readInt();
+        if (type != TYPE_ARRAY) {
+            throw new IOException("Expected an array of calls in system.multicall but got type " + type);
+        }
+        int numCalls = readCount();
+        while (numCalls-- > 0) {
+            type = readInt();
+            if (type != TYPE_STRUCT) {
+                readRpcValue(type);
+                continue;
+            }
+            String method = null;
+            Object[] params = null;
+            int numMembers = readCount();
+            while (numMembers-- > 0) {
+                int length = readInt();
+                if (nameEquals(length, MEMBER_METHOD_NAME)) {
+                    Object value = readRpcValue();
+                    method = value == null ? null : value.toString();
+                } else if (nameEquals(length, MEMBER_PARAMS)) {
+                    params = (Object[]) readRpcValue();
+                } else {
+                    buffer.position(buffer.position() + length);
+                    readRpcValue();
+                }
+            }
+            if (method != null && params != null) {
+                rpcResponseHandler.handleMethodCall(method, params);
+            }
+        }
+    }
+
+    /**
+     * Compares the next bytes with the given name and skips them if they match.
+     */
+    private boolean nameEquals(int length, byte[] name) {
+        if (length != name.length) {
+            return false;
+        }
+        int offset = buffer.position();
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != name[i]) {
+                return false;
+            }
+        }
+        buffer.position(offset + length);
+        return true;
+    }
+
+    private String readMethodName() {
+        int length = readInt();
+        for (int i = 0; i < METHOD_NAMES.length; i++) {
+            if (nameEquals(length, METHOD_NAME_BYTES[i])) {
+                return METHOD_NAMES[i];
+            }
+        }
+        return readString(length);
+    }
+
+    private int readInt() {
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads the number of elements of an array or struct, every element takes at least four bytes.
+     */
+    private int readCount() throws IOException {
+        int count = readInt();
+        if (count < 0 || count > buffer.remaining() / 4) {
+            throw new IOException("Invalid number of elements " + count);
+        }
+        return count;
+    }
+
+    private String readString(int length) {
+        if (length > chars.length) {
+            chars = new byte[Math.max(length, chars.length * 2)];
+        }
+        buffer.get(chars, 0, length);
+        if (length > MAX_CACHED_STRING_LENGTH) {
+            return new String(chars, 0, length, charset);
+        }
+
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int index = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+        byte[] cached = cachedBytes[index];
+        if (cached != null && cached.length == length) {
+            int i = 0;
+            while (i < length && cached[i] == chars[i]) {
+                i++;
+            }
+            if (i == length) {
+                return cachedStrings[index];
+            }
+        }
+        byte[] bytes = new byte[length];
+        System.arraycopy(chars, 0, bytes, 0, length);
+        String string = new String(bytes, charset);
+        cachedBytes[index] = bytes;
+        cachedStrings[index] = string;
+        return string;
+    }
+
+    private void clearStringCache() {
+        for (int i = 0; i < STRING_CACHE_SIZE; i++) {
+            cachedBytes[i] = null;
+            cachedStrings[i] = null;
+        }
+    }
+
+    private Object readRpcValue() throws IOException {
+        return readRpcValue(readInt());
+    }
+
+    private Object readRpcValue(int type) throws IOException {
+        switch (type) {
+            case TYPE_INTEGER:
+                return Integer.valueOf(readInt());
+            case TYPE_BOOLEAN:
+                return buffer.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
+            case TYPE_STRING:
+                return readString(readInt());
+            case TYPE_DOUBLE:
+                int mantissa = readInt();
+                int exponent = readInt();
+                BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
+                return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+            case TYPE_DATE:
+                return new Date(readInt() * 1000);
+            case TYPE_ARRAY:
+                int numElements = readCount();
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readRpcValue();
+                }
+                return array;
+            case TYPE_STRUCT:
+                numElements = readCount();
+                Map<String, Object> struct = new TreeMap<>();
+                while (numElements-- > 0) {
+                    String name = readString(readInt());
+                    struct.put(name, readRpcValue());
+                }
+                return struct;
+            default:
+                throw new IOException("Unknown data type " + type);
+        }
+    }
+}
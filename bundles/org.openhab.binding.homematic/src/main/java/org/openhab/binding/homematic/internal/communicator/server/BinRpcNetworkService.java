@@ -13,31 +13,75 @@
 package org.openhab.binding.homematic.internal.communicator.server;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Receives the messages from the Homematic gateway on a single selector thread.
+ *
+ * Every connection reads into a direct buffer from a small pool. Events and system.multicall event batches are decoded
+ * straight from that buffer by the {@link BinRpcCallDecoder} and handled on the selector thread, all other method calls
+ * (newDevices, ...) may call back the gateway and are handled in the RPC thread pool. The gateway waits for the result
+ * of a call before it sends the next one on the same connection.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 8;
+    private static final int MAX_MESSAGE_SIZE = 16 * 1024 * 1024;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean accept = true;
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
+    private BinRpcCallDecoder decoder;
+
+    private final Deque<ByteBuffer> bufferPool = new ArrayDeque<>();
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The state of a connection from the Homematic gateway, only accessed by the selector thread.
+     */
+    private static class Connection {
+        private final SocketChannel channel;
+        private final long created = System.currentTimeMillis();
+        private ByteBuffer buffer;
+        private ByteBuffer result;
+        private boolean busy;
+
+        private Connection(SocketChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
 
     /**
      * Creates the socket for listening to events from the Homematic gateway.
@@ -45,9 +89,12 @@ public class BinRpcNetworkService implements Runnable {
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -71,33 +118,243 @@ public class BinRpcNetworkService implements Runnable {
                 return new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, config.getEncoding());
             }
         };
+        this.decoder = new BinRpcCallDecoder(rpcResponseHandler, config);
     }
 
     /**
-     * Listening for events and starts the callbackHandler if a event received.
+     * Accepts the connections and handles the messages until the service is shut down.
      */
     @Override
     public void run() {
-        while (accept) {
+        try {
+            while (accept) {
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid()) {
+                        if (key.isAcceptable()) {
+                            acceptConnection();
+                        } else {
+                            handleConnection(key);
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            if (accept) {
+                logger.warn("BIN-RPC server stopped: {}", ex.getMessage(), ex);
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    close(key);
+                }
+            }
             try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
-            } catch (IOException ex) {
+                selector.close();
+            } catch (IOException ioe) {
                 // ignore
             }
         }
     }
 
+    private void acceptConnection() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel != null) {
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel, acquireBuffer()));
+            }
+        } catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    private void handleConnection(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isWritable()) {
+                writeResult(key, connection);
+            } else if (key.isReadable()) {
+                if (connection.channel.read(connection.buffer) == -1) {
+                    close(key);
+                    return;
+                }
+            }
+            handleMessages(key, connection);
+        } catch (IOException ex) {
+            logger.debug("Closing BIN-RPC connection: {}", ex.getMessage());
+            close(key);
+        } catch (RuntimeException ex) {
+            logger.warn("{}", ex.getMessage(), ex);
+            close(key);
+        }
+    }
+
+    /**
+     * Handles all complete messages in the buffer of the connection, one after another.
+     */
+    private void handleMessages(SelectionKey key, Connection connection) throws IOException {
+        ByteBuffer buffer = connection.buffer;
+        while (key.isValid() && !connection.busy && connection.result == null
+                && buffer.position() >= BinRpcCallDecoder.HEADER_LENGTH) {
+            if (buffer.get(0) != 'B' || buffer.get(1) != 'i' || buffer.get(2) != 'n') {
+                throw new UnsupportedEncodingException("No BinX signature");
+            }
+            int messageLength = BinRpcCallDecoder.HEADER_LENGTH + buffer.getInt(4);
+            if (messageLength < BinRpcCallDecoder.HEADER_LENGTH || messageLength > MAX_MESSAGE_SIZE) {
+                throw new IOException("Invalid BIN-RPC message length " + messageLength);
+            }
+            if (messageLength > buffer.capacity()) {
+                buffer = growBuffer(connection, messageLength);
+            }
+            int received = buffer.position();
+            if (received < messageLength) {
+                break;
+            }
+
+            buffer.position(0);
+            buffer.limit(messageLength);
+            if (BinRpcCallDecoder.isEventCall(buffer)) {
+                byte[] result = decoder.decode(buffer);
+                connection.result = ByteBuffer.wrap(result);
+            } else {
+                byte[] message = new byte[messageLength];
+                buffer.get(message);
+                connection.busy = true;
+                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(() -> handleMethodCall(key, connection, message));
+            }
+            buffer.position(messageLength);
+            buffer.limit(received);
+            buffer.compact();
+
+            if (connection.result != null) {
+                writeResult(key, connection);
+            }
+        }
+        if (key.isValid()) {
+            key.interestOps(connection.busy ? 0
+                    : connection.result != null ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Handles a method call in the RPC thread pool, the result is written by the selector thread. If the call fails,
+     * the connection is closed, as the caller would otherwise wait for a response that never comes.
+     */
+    private void handleMethodCall(SelectionKey key, Connection connection, byte[] message) {
+        byte[] result = null;
+        boolean failed = false;
+        try {
+            BinRpcMessage binRpcMessage = new BinRpcMessage(message, true, config.getEncoding());
+            logger.trace("Event BinRpcMessage: {}", binRpcMessage);
+            result = rpcResponseHandler.handleMethodCall(binRpcMessage.getMethodName(),
+                    binRpcMessage.getResponseData());
+        } catch (Exception ex) {
+            logger.warn("{}", ex.getMessage(), ex);
+            failed = true;
+        }
+
+        final byte[] callResult = result;
+        final boolean callFailed = failed;
+        selectorTasks.add(() -> {
+            connection.busy = false;
+            if (!key.isValid()) {
+                return;
+            }
+            if (callFailed) {
+                close(key);
+                return;
+            }
+            try {
+                if (callResult != null) {
+                    connection.result = ByteBuffer.wrap(callResult);
+                    writeResult(key, connection);
+                }
+                handleMessages(key, connection);
+            } catch (IOException ex) {
+                logger.debug("Closing BIN-RPC connection: {}", ex.getMessage());
+                close(key);
+            } catch (RuntimeException ex) {
+                logger.warn("{}", ex.getMessage(), ex);
+                close(key);
+            }
+        });
+        selector.wakeup();
+    }
+
+    /**
+     * Writes the pending result, the connection is closed when the socketMaxAlive time is reached.
+     */
+    private void writeResult(SelectionKey key, Connection connection) throws IOException {
+        connection.channel.write(connection.result);
+        if (!connection.result.hasRemaining()) {
+            connection.result = null;
+            if (System.currentTimeMillis() - connection.created > (config.getSocketMaxAlive() * 1000)) {
+                close(key);
+            }
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        if (buffer.capacity() == BUFFER_SIZE && bufferPool.size() < MAX_POOLED_BUFFERS) {
+            buffer.clear();
+            bufferPool.push(buffer);
+        }
+    }
+
+    /**
+     * Replaces the buffer of the connection with a larger one for messages exceeding the pooled buffer size.
+     */
+    private ByteBuffer growBuffer(Connection connection, int messageLength) {
+        int capacity = connection.buffer.capacity();
+        while (capacity < messageLength) {
+            capacity *= 2;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+        connection.buffer.flip();
+        buffer.put(connection.buffer);
+        releaseBuffer(connection.buffer);
+        connection.buffer = buffer;
+        return buffer;
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        Connection connection = (Connection) key.attachment();
+        try {
+            connection.channel.close();
+        } catch (IOException ioe) {
+            // ignore
+        }
+        if (connection.buffer != null) {
+            releaseBuffer(connection.buffer);
+            connection.buffer = null;
+        }
+    }
+
     /**
      * Stops the listening.
      */
     public void shutdown() {
         accept = false;
         try {
-            serverSocket.close();
+            serverChannel.close();
         } catch (IOException ioe) {
             // ignore
         }
+        selector.wakeup();
     }
 }
@@ -41,6 +41,7 @@ public class HmChannel {
     private HmDevice device;
     private boolean initialized;
     private Integer lastFunction;
+    private Integer version;
     private Map<HmDatapointInfo, HmDatapoint> datapoints = new HashMap<>();
 
     public HmChannel(String type, Integer number) {
@@ -76,6 +77,20 @@ public class HmChannel {
         return type;
     }
 
+    /**
+     * Returns the version of the channel description.
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the channel description.
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     /**
      * Sets the flag, if the values for all datapoints has been loaded.
      *
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link DeviceMetadataCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCacheTest {
+
+    private File folder;
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("homematic").toFile();
+        file = new File(folder, "gateway.metadata");
+    }
+
+    @After
+    public void cleanup() {
+        file.delete();
+        folder.delete();
+    }
+
+    @Test
+    public void datapointsAreRestoredFromFile() {
+        HmChannel channel = createChannel(5);
+
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.47.22");
+        cache.load();
+        assertThat(cache.getDatapoints(channel), is(nullValue()));
+        cache.putDatapoints(channel);
+        cache.save();
+
+        DeviceMetadataCache restoredCache = new DeviceMetadataCache(file, "CCU3:3.47.22");
+        restoredCache.load();
+        Collection<HmDatapoint> datapoints = restoredCache.getDatapoints(createChannel(5));
+        assertThat(datapoints.size(), is(2));
+
+        List<HmDatapoint> sorted = new ArrayList<>(datapoints);
+        Collections.sort(sorted, (dp1, dp2) -> dp1.getName().compareTo(dp2.getName()));
+        HmDatapoint level = sorted.get(0);
+        assertThat(level.getName(), is("LEVEL"));
+        assertThat(level.getType(), is(HmValueType.FLOAT));
+        assertThat(level.getParamsetType(), is(HmParamsetType.VALUES));
+        assertThat(level.getMinValue(), is(0.0));
+        assertThat(level.getMaxValue(), is(1.01));
+        assertThat(level.getDefaultValue(), is(0.0));
+        assertThat(level.getUnit(), is("100%"));
+        assertThat(level.isReadOnly(), is(false));
+        assertThat(level.isReadable(), is(true));
+
+        HmDatapoint mode = sorted.get(1);
+        assertThat(mode.getName(), is("RAMP_MODE"));
+        assertThat(mode.getMinValue(), is(0));
+        assertThat(mode.getDefaultValue(), is(1));
+        assertThat(mode.getOptions(), is(new String[] { "OFF", "ON" }));
+        assertThat(mode.getUnit(), is(nullValue()));
+    }
+
+    @Test
+    public void outdatedChannelDescriptionIsIgnored() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.47.22");
+        cache.putDatapoints(createChannel(5));
+
+        assertThat(cache.getDatapoints(createChannel(6)), is(nullValue()));
+    }
+
+    @Test
+    public void cacheOfOtherGatewayFirmwareIsIgnored() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.47.22");
+        cache.putDatapoints(createChannel(5));
+        cache.save();
+
+        DeviceMetadataCache restoredCache = new DeviceMetadataCache(file, "CCU3:3.49.17");
+        restoredCache.load();
+        assertThat(restoredCache.size(), is(0));
+    }
+
+    @Test
+    public void unusedEntriesAreRemoved() {
+        HmChannel channel = createChannel(5);
+        DeviceMetadataCache cache = new DeviceMetadataCache(file, "CCU3:3.47.22");
+        cache.putDatapoints(channel);
+
+        cache.retainAll(Collections.singleton(DeviceMetadataCache.getChannelId(channel)));
+        assertThat(cache.size(), is(1));
+        cache.retainAll(Collections.emptySet());
+        assertThat(cache.size(), is(0));
+    }
+
+    private HmChannel createChannel(int version) {
+        HmChannel channel = createDimmerHmChannel();
+        channel.setVersion(version);
+
+        HmDatapoint level = new HmDatapoint("LEVEL", "LEVEL", HmValueType.FLOAT, 0.0, false, HmParamsetType.VALUES);
+        level.setMinValue(0.0);
+        level.setMaxValue(1.01);
+        level.setDefaultValue(0.0);
+        level.setUnit("100%");
+        level.setReadable(true);
+        channel.addDatapoint(level);
+
+        HmDatapoint mode = new HmDatapoint("RAMP_MODE", "RAMP_MODE", HmValueType.ENUM, 1, false,
+                HmParamsetType.MASTER);
+        mode.setMinValue(0);
+        mode.setMaxValue(1);
+        mode.setDefaultValue(1);
+        mode.setOptions(new String[] { "OFF", "ON" });
+        mode.setReadable(true);
+        channel.addDatapoint(mode);
+
+        HmDatapoint virtual = new HmDatapoint("RSSI", "RSSI", HmValueType.INTEGER, null, true, HmParamsetType.VALUES);
+        virtual.setVirtual(true);
+        channel.addDatapoint(virtual);
+        return channel;
+    }
+}
@@ -19,14 +19,21 @@ import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.smarthome.test.java.JavaTest;
 import org.junit.Before;
 import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 import org.openhab.binding.homematic.internal.communicator.message.XmlRpcRequest;
 import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
 import org.openhab.binding.homematic.test.util.RpcClientMockImpl;
 
 /**
@@ -95,6 +102,110 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
     }
 
+    @Test
+    public void valueReadsOfChannelAreSentInOneMulticall() throws IOException {
+        HmChannel channel = createChannelWithValueDatapoints();
+        rpcClient.paramsetFailure = true;
+
+        rpcClient.setChannelDatapointValues(channel, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_VALUE_NAME), is(nullValue()));
+        for (HmDatapoint dp : channel.getDatapoints()) {
+            assertThat(dp.getValue(), is(VALUE));
+        }
+    }
+
+    @Test
+    public void valueReadsAreSentOneByOneIfMulticallIsDisabled() throws IOException {
+        HomematicConfig config = new HomematicConfig();
+        config.setMulticallSize(1);
+        rpcClient = new RpcClientMockImpl(config);
+        HmChannel channel = createChannelWithValueDatapoints();
+        rpcClient.paramsetFailure = true;
+
+        rpcClient.setChannelDatapointValues(channel, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(nullValue()));
+        assertThat(rpcClient.numberOfCalls.get(GET_VALUE_NAME), is(3));
+    }
+
+    @Test
+    public void valueReadsAreSentOneByOneIfMulticallIsNotSupported() throws IOException {
+        HmChannel channel = createChannelWithValueDatapoints();
+        rpcClient.paramsetFailure = true;
+        rpcClient.multicallUnsupportedPorts.add(new HomematicConfig().getRpcPort(channel));
+
+        rpcClient.setChannelDatapointValues(channel, HmParamsetType.VALUES);
+        rpcClient.setChannelDatapointValues(channel, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_VALUE_NAME), is(6));
+        for (HmDatapoint dp : channel.getDatapoints()) {
+            assertThat(dp.getValue(), is(VALUE));
+        }
+    }
+
+    @Test
+    public void multicallIsOnlyDisabledForThePortThatDoesNotSupportIt() throws IOException {
+        HmChannel rfChannel = createChannelWithValueDatapoints();
+        HmChannel hmIpChannel = createChannelWithValueDatapoints();
+        hmIpChannel.setDevice(new HmDevice("0001D3C99C6AB3", HmInterface.HMIP, "HmIP-BSM", "CCU2", "", "1"));
+        rpcClient.paramsetFailure = true;
+        rpcClient.multicallUnsupportedPorts.add(new HomematicConfig().getRpcPort(rfChannel));
+
+        rpcClient.setChannelDatapointValues(rfChannel, HmParamsetType.VALUES);
+        rpcClient.setChannelDatapointValues(hmIpChannel, HmParamsetType.VALUES);
+        rpcClient.setChannelDatapointValues(rfChannel, HmParamsetType.VALUES);
+        rpcClient.setChannelDatapointValues(hmIpChannel, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(3));
+        assertThat(rpcClient.numberOfCalls.get(GET_VALUE_NAME), is(6));
+    }
+
+    @Test
+    public void multicallIsNotDisabledByOtherFailures() throws IOException {
+        HmChannel channel = createChannelWithValueDatapoints();
+        rpcClient.paramsetFailure = true;
+        rpcClient.multicallFailure = new IOException("Timeout");
+
+        rpcClient.setChannelDatapointValues(channel, HmParamsetType.VALUES);
+        rpcClient.multicallFailure = null;
+        rpcClient.setChannelDatapointValues(channel, HmParamsetType.VALUES);
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(2));
+        assertThat(rpcClient.numberOfCalls.get(GET_VALUE_NAME), is(3));
+        for (HmDatapoint dp : channel.getDatapoints()) {
+            assertThat(dp.getValue(), is(VALUE));
+        }
+    }
+
+    @Test
+    public void channelValuesOfManyChannelsAreReadWithFewMulticalls() throws IOException {
+        List<HmChannel> channels = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            channels.add(createChannelWithValueDatapoints());
+        }
+
+        // MASTER and VALUES paramset of each channel, in batches of 50 reads
+        assertThat(rpcClient.loadChannelValues(channels).isEmpty(), is(true));
+
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(3));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
+    }
+
+    @Test
+    public void channelsWithFailedReadsAreReturned() throws IOException {
+        List<HmChannel> channels = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            channels.add(createChannelWithValueDatapoints());
+        }
+        rpcClient.paramsetFailure = true;
+
+        assertThat(new ArrayList<>(rpcClient.loadChannelValues(channels)), is(channels));
+        assertThat(rpcClient.numberOfCalls.get(SYSTEM_MULTICALL_NAME), is(1));
+    }
+
     @Test
     public void burstRxModeIsConfiguredAsParameterOnRequest() throws IOException {
         RpcRequest<String> request = new XmlRpcRequest("setValue");
@@ -130,4 +241,17 @@ public class RpcClientTest extends JavaTest {
 
         assertThat(request.createMessage(), not(containsString("<value>")));
     }
+
+    private HmChannel createChannelWithValueDatapoints() {
+        HmChannel channel = createDimmerHmChannel();
+        for (String name : new String[] { "LEVEL", "OLD_LEVEL", "RAMP_TIME" }) {
+            HmDatapoint dp = new HmDatapoint();
+            dp.setName(name);
+            dp.setType(HmValueType.FLOAT);
+            dp.setParamsetType(HmParamsetType.VALUES);
+            dp.setReadable(true);
+            channel.addDatapoint(dp);
+        }
+        return channel;
+    }
 }
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+
+/**
+ * Tests for {@link BinRpcCallDecoder}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcCallDecoderTest {
+    private static final byte[] EMPTY_STRING = { 1 };
+    private static final byte[] EMPTY_ARRAY = { 2 };
+    private static final byte[] EMPTY_EVENT_LIST = { 3 };
+
+    private final List<HmDatapointInfo> events = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private final List<String> newDevices = new ArrayList<>();
+    private RpcResponseHandler<byte[]> handler;
+    private BinRpcCallDecoder decoder;
+
+    @Before
+    public void setup() {
+        RpcEventListener listener = new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                events.add(dpInfo);
+                values.add(newValue);
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+                newDevices.addAll(adresses);
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        };
+        handler = new RpcResponseHandler<byte[]>(listener) {
+            @Override
+            protected byte[] getEmptyStringResult() {
+                return EMPTY_STRING;
+            }
+
+            @Override
+            protected byte[] getEmptyArrayResult() {
+                return EMPTY_ARRAY;
+            }
+
+            @Override
+            protected byte[] getEmptyEventListResult() {
+                return EMPTY_EVENT_LIST;
+            }
+
+            @Override
+            protected RpcRequest<byte[]> createRpcRequest() {
+                return new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, "ISO-8859-1");
+            }
+        };
+        decoder = new BinRpcCallDecoder(handler, new HomematicConfig());
+    }
+
+    @Test
+    public void eventIsDecoded() throws IOException {
+        ByteBuffer message = toBuffer(createEvent("NEQ0000001:1", "LEVEL", 0.55));
+
+        assertThat(BinRpcCallDecoder.isEventCall(message), is(true));
+        assertThat(decoder.decode(message), is(EMPTY_STRING));
+        assertThat(message.hasRemaining(), is(false));
+
+        assertThat(events.size(), is(1));
+        assertThat(events.get(0), is(new HmDatapointInfo("NEQ0000001", HmParamsetType.VALUES, 1, "LEVEL")));
+        assertThat(values.get(0), is(0.55));
+    }
+
+    @Test
+    public void multicallEventsAreDecodedLikeBinRpcMessage() throws Exception {
+        BinRpcMessage multicall = new BinRpcMessage(RPC_METHODNAME_SYSTEM_MULTICALL, "ISO-8859-1");
+        List<Object> calls = new ArrayList<>();
+        calls.add(createCall(true, "NEQ0000001:1", "LEVEL", 0.2));
+        calls.add(createCall(false, "NEQ0000002:4", "STATE", Boolean.TRUE));
+        calls.add(createCall(true, "", "Gaeste anwesend", "ja"));
+        calls.add(createCall(false, "NEQ0000003:0", "UNREACH", Integer.valueOf(7)));
+        multicall.addArg(calls);
+        byte[] encoded = multicall.createMessage();
+
+        assertThat(BinRpcCallDecoder.isEventCall(toBuffer(encoded)), is(true));
+        assertThat(decoder.decode(toBuffer(encoded)), is(EMPTY_EVENT_LIST));
+        List<HmDatapointInfo> decodedEvents = new ArrayList<>(events);
+        List<Object> decodedValues = new ArrayList<>(values);
+        assertThat(decodedEvents.size(), is(4));
+        assertThat(decodedEvents.get(1), is(new HmDatapointInfo("NEQ0000002", HmParamsetType.VALUES, 4, "STATE")));
+
+        // the same events in the same order as decoding the whole message first
+        events.clear();
+        values.clear();
+        BinRpcMessage decoded = new BinRpcMessage(encoded, true, "ISO-8859-1");
+        handler.handleMethodCall(decoded.getMethodName(), decoded.getResponseData());
+        assertThat(events, is(decodedEvents));
+        assertThat(values, is(decodedValues));
+    }
+
+    @Test
+    public void otherMethodsAreHandledByTheResponseHandler() throws IOException {
+        BinRpcMessage message = new BinRpcMessage(RPC_METHODNAME_NEW_DEVICES, "ISO-8859-1");
+        message.addArg("BidCos-RF");
+        Map<String, Object> device = new LinkedHashMap<>();
+        device.put("ADDRESS", "NEQ0000004");
+        device.put("VERSION", 12);
+        message.addArg(Arrays.asList(device));
+        ByteBuffer buffer = toBuffer(message.createMessage());
+
+        assertThat(BinRpcCallDecoder.isEventCall(buffer), is(false));
+        assertThat(decoder.decode(buffer), is(EMPTY_ARRAY));
+        assertThat(newDevices, is(Arrays.asList("NEQ0000004")));
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedMessageIsRejected() throws IOException {
+        byte[] event = createEvent("NEQ0000001:1", "LEVEL", 0.55);
+        ByteBuffer buffer = toBuffer(event);
+        buffer.limit(event.length - 3);
+        decoder.decode(buffer);
+    }
+
+    private static byte[] createEvent(String address, String name, Object value) {
+        BinRpcMessage message = new BinRpcMessage(RPC_METHODNAME_EVENT, "ISO-8859-1");
+        message.addArg("BidCos-RF");
+        message.addArg(address);
+        message.addArg(name);
+        message.addArg(value);
+        return message.createMessage();
+    }
+
+    /**
+     * Creates a multicall entry, the gateway doesn't guarantee the order of the struct members.
+     */
+    private static Map<String, Object> createCall(boolean methodNameFirst, String address, String name, Object value) {
+        Map<String, Object> call = new LinkedHashMap<>();
+        List<Object> params = Arrays.asList("BidCos-RF", address, name, value);
+        if (methodNameFirst) {
+            call.put("methodName", RPC_METHODNAME_EVENT);
+            call.put("params", params);
+        } else {
+            call.put("params", params);
+            call.put("methodName", RPC_METHODNAME_EVENT);
+        }
+        return call;
+    }
+
+    private static ByteBuffer toBuffer(byte[] message) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(message.length);
+        buffer.put(message);
+        buffer.flip();
+        return buffer;
+    }
+}
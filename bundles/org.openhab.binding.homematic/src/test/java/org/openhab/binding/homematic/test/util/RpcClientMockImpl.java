@@ -13,12 +13,18 @@
 package org.openhab.binding.homematic.test.util;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
+import org.openhab.binding.homematic.internal.communicator.client.UnknownMethodException;
+import org.openhab.binding.homematic.internal.communicator.client.UnknownRpcFailureException;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
 
 /**
@@ -28,8 +34,14 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     public static final String GET_PARAMSET_DESCRIPTION_NAME = "getParamsetDescription";
     public static final String GET_PARAMSET_NAME = "getParamset";
+    public static final String GET_VALUE_NAME = "getValue";
+    public static final String SYSTEM_MULTICALL_NAME = "system.multicall";
+    public static final Double VALUE = 0.5;
 
     public Map<String, Integer> numberOfCalls = new HashMap<>();
+    public boolean paramsetFailure;
+    public Set<Integer> multicallUnsupportedPorts = new HashSet<>();
+    public IOException multicallFailure;
 
     public RpcClientMockImpl() throws IOException {
         this(new HomematicConfig());
@@ -47,6 +59,33 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
         increaseNumberOfCalls(methodName);
 
+        if (paramsetFailure && GET_PARAMSET_NAME.equals(methodName)) {
+            throw new UnknownRpcFailureException("-1 Failure");
+        } else if (GET_VALUE_NAME.equals(methodName)) {
+            return new Object[] { VALUE };
+        } else if (SYSTEM_MULTICALL_NAME.equals(methodName)) {
+            if (multicallUnsupportedPorts.contains(port)) {
+                throw new UnknownMethodException("-32601 Requested method not found");
+            } else if (multicallFailure != null) {
+                throw multicallFailure;
+            }
+            List<?> calls = (List<?>) ((MockRpcRequest) request).args.get(0);
+            Object[] results = new Object[calls.size()];
+            for (int i = 0; i < results.length; i++) {
+                String callMethodName = (String) ((Map<?, ?>) calls.get(i)).get("methodName");
+                if (paramsetFailure && GET_PARAMSET_NAME.equals(callMethodName)) {
+                    Map<String, Object> fault = new HashMap<>();
+                    fault.put("faultCode", -1);
+                    fault.put("faultString", "Failure");
+                    results[i] = fault;
+                } else if (GET_VALUE_NAME.equals(callMethodName)) {
+                    results[i] = new Object[] { VALUE };
+                } else {
+                    results[i] = mockResponse();
+                }
+            }
+            return new Object[] { results };
+        }
         return mockResponse();
     }
 
@@ -67,22 +106,31 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     @Override
     protected RpcRequest<String> createRpcRequest(String methodName) {
-        return new RpcRequest<String>() {
+        return new MockRpcRequest(methodName);
+    }
 
-            @Override
-            public void addArg(Object arg) {
-            }
+    private static class MockRpcRequest implements RpcRequest<String> {
+        private final String methodName;
+        private final List<Object> args = new ArrayList<>();
 
-            @Override
-            public String createMessage() {
-                return null;
-            }
+        private MockRpcRequest(String methodName) {
+            this.methodName = methodName;
+        }
 
-            @Override
-            public String getMethodName() {
-                return methodName;
-            }
-        };
+        @Override
+        public void addArg(Object arg) {
+            args.add(arg);
+        }
+
+        @Override
+        public String createMessage() {
+            return null;
+        }
+
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
     }
 
     @Override
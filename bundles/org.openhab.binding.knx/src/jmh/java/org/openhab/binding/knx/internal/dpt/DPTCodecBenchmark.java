@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.dpt;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.types.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
+/**
+ * Decoding throughput of the cached {@link DPTCodec}s against creating a translator and formatting its value for
+ * every telegram, for the most common datapoint types.
+ *
+ * Run with the jmh profile, allocations per telegram are reported by the gc profiler:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="DPTCodecBenchmark -prof gc"
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DPTCodecBenchmark {
+
+    private static final String[] DPTS = { "1.001", "5.001", "9.001", "14.056", "232.600" };
+    private static final byte[][] ASDUS = { { 1 }, { (byte) 0x80 }, { 0x0c, 0x1a }, { 0x44, (byte) 0x9a, 0x50, 0x00 },
+            { (byte) 0xff, (byte) 0x80, 0x00 } };
+
+    static {
+        // Logging at debug level would dominate the measurements, JMH runs the benchmark in a forked JVM of its own
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+    }
+
+    @Param({ "1.001", "5.001", "9.001", "14.056", "232.600" })
+    public String dpt;
+
+    private byte[] asdu;
+    private DPTCodec codec;
+
+    @Setup
+    public void setUp() {
+        asdu = ASDUS[Arrays.asList(DPTS).indexOf(dpt)];
+        DPTCodec codec = new KNXCoreTypeMapper().getCodec(dpt);
+        if (codec == null) {
+            throw new IllegalStateException("DPT " + dpt + " is not supported");
+        }
+        this.codec = codec;
+    }
+
+    @Benchmark
+    public String translatorPerTelegram() throws KNXException {
+        DPTXlator translator = TranslatorTypes.createTranslator(0, dpt);
+        translator.setData(asdu);
+        return translator.getValue();
+    }
+
+    @Benchmark
+    public Type codec() {
+        Type type = codec.decode(asdu);
+        if (type == null) {
+            throw new IllegalStateException("Couldn't decode telegram");
+        }
+        return type;
+    }
+}
@@ -198,6 +198,12 @@ public abstract class KNXChannelType {
         return result.isPresent() ? result.get() : null;
     }
 
+    public final Set<String> getListenDPTs(Configuration configuration) {
+        return getAllGAKeys().stream()
+                .map(key -> new ListenSpecImpl(parse((String) configuration.get(key)), getDefaultDPT(key)))
+                .filter(spec -> !spec.getGroupAddresses().isEmpty()).map(spec -> spec.getDPT()).collect(toSet());
+    }
+
     protected abstract String getDefaultDPT(String gaConfigKey);
 
     public final @Nullable OutboundSpec getResponseSpec(Configuration configuration, GroupAddress groupAddress,
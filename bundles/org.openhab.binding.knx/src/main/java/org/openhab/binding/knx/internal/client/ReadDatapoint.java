@@ -24,6 +24,10 @@ public class ReadDatapoint {
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private ReadPriority priority = ReadPriority.INITIAL;
+    private long sequence;
+    private long requestTime;
+    private long sendTime;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
         this.datapoint = datapoint;
@@ -31,6 +35,13 @@ public class ReadDatapoint {
         this.limit = limit;
     }
 
+    ReadDatapoint(Datapoint datapoint, int limit, ReadPriority priority, long sequence, long requestTime) {
+        this(datapoint, limit);
+        this.priority = priority;
+        this.sequence = sequence;
+        this.requestTime = requestTime;
+    }
+
     public Datapoint getDatapoint() {
         return datapoint;
     }
@@ -47,6 +58,39 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public ReadPriority getPriority() {
+        return priority;
+    }
+
+    void setPriority(ReadPriority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * The order in which the read requests with the same priority have been queued.
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * The time in nanoseconds when the read has been requested.
+     */
+    long getRequestTime() {
+        return requestTime;
+    }
+
+    /**
+     * The time in nanoseconds when the read request has been sent to the bus the last time.
+     */
+    long getSendTime() {
+        return sendTime;
+    }
+
+    void setSendTime(long sendTime) {
+        this.sendTime = sendTime;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
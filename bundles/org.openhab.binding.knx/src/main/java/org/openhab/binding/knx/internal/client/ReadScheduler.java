@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Schedules the read requests of datapoints on the KNX bus.
+ *
+ * Read requests are queued by priority and sent one per call of {@link #sendNext()}, which is called once per reading
+ * pause, so the bus load stays within the budget. The answer is not waited for: Up to a configurable number of read
+ * requests may be pending at the same time. A read request is answered by any group write or group read response
+ * telegram to its group address, which is received by a listener. Pending read requests that are not answered within
+ * the response timeout are retried, up to the retries limit.
+ *
+ * Every group address is queued at most once. Queued reads of group addresses that received a value since the read
+ * has been requested are skipped.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ReadScheduler {
+
+    @FunctionalInterface
+    interface ReadRequestSender {
+        void sendReadRequest(Datapoint datapoint) throws KNXException, InterruptedException;
+    }
+
+    private static final Comparator<ReadDatapoint> QUEUE_ORDER = Comparator.comparing(ReadDatapoint::getPriority)
+            .thenComparingLong(ReadDatapoint::getSequence);
+
+    private final Logger logger = LoggerFactory.getLogger(ReadScheduler.class);
+
+    private final ReadRequestSender sender;
+    private final int maxPendingReads;
+    private final long responseTimeoutInNanos;
+    private final int readRetriesLimit;
+    private final LongSupplier clock;
+
+    private final TreeSet<ReadDatapoint> queue = new TreeSet<>(QUEUE_ORDER);
+    private final Map<GroupAddress, ReadDatapoint> queued = new HashMap<>();
+    // ordered by send time
+    private final Map<GroupAddress, ReadDatapoint> pending = new LinkedHashMap<>();
+    private final Map<GroupAddress, Long> lastReceived = new HashMap<>();
+    private long sequence = 0;
+
+    /**
+     * @param sender Sends a group read request telegram without waiting for the answer
+     * @param maxPendingReads The maximum number of read requests waiting for an answer
+     * @param responseTimeout Seconds to wait for an answer
+     * @param readRetriesLimit The maximum number of read requests for a datapoint
+     */
+    ReadScheduler(ReadRequestSender sender, int maxPendingReads, int responseTimeout, int readRetriesLimit) {
+        this(sender, maxPendingReads, responseTimeout, readRetriesLimit, System::nanoTime);
+    }
+
+    ReadScheduler(ReadRequestSender sender, int maxPendingReads, int responseTimeout, int readRetriesLimit,
+            LongSupplier clock) {
+        this.sender = sender;
+        this.maxPendingReads = Math.max(1, maxPendingReads);
+        this.responseTimeoutInNanos = TimeUnit.SECONDS.toNanos(responseTimeout);
+        this.readRetriesLimit = readRetriesLimit;
+        this.clock = clock;
+    }
+
+    /**
+     * Queues a read request for the given datapoint. If its group address is already queued with a lower priority,
+     * the priority is raised. Nothing happens if the group address is already waiting for an answer.
+     */
+    synchronized void enqueue(Datapoint datapoint, ReadPriority priority) {
+        GroupAddress address = datapoint.getMainAddress();
+        ReadDatapoint existing = queued.get(address);
+        if (existing != null) {
+            if (priority.compareTo(existing.getPriority()) < 0) {
+                queue.remove(existing);
+                existing.setPriority(priority);
+                queue.add(existing);
+            }
+            return;
+        }
+        if (pending.containsKey(address)) {
+            return;
+        }
+        ReadDatapoint read = new ReadDatapoint(datapoint, readRetriesLimit, priority, sequence++, clock.getAsLong());
+        queued.put(address, read);
+        queue.add(read);
+    }
+
+    /**
+     * A value for the given group address has been received and passed to the listeners.
+     */
+    synchronized void received(GroupAddress address) {
+        lastReceived.put(address, clock.getAsLong());
+        if (pending.remove(address) != null) {
+            logger.trace("Read request for {} has been answered", address);
+        }
+    }
+
+    /**
+     * Sends the next queued read request, unless the maximum number of pending read requests is reached.
+     */
+    void sendNext() {
+        ReadDatapoint read;
+        synchronized (this) {
+            long now = clock.getAsLong();
+            expirePending(now);
+            if (pending.size() >= maxPendingReads) {
+                return;
+            }
+            read = pollUnanswered();
+            if (read == null) {
+                return;
+            }
+            read.incrementRetries();
+            read.setSendTime(now);
+            pending.put(read.getDatapoint().getMainAddress(), read);
+        }
+
+        try {
+            logger.trace("Sending a Group Read Request telegram for {}", read.getDatapoint().getMainAddress());
+            sender.sendReadRequest(read.getDatapoint());
+        } catch (KNXException e) {
+            synchronized (this) {
+                if (pending.remove(read.getDatapoint().getMainAddress(), read)) {
+                    retry(read, e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Interrupted sending KNX read request");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Removes all queued and pending read requests.
+     */
+    synchronized void clear() {
+        queue.clear();
+        queued.clear();
+        pending.clear();
+        lastReceived.clear();
+    }
+
+    synchronized int getQueuedReads() {
+        return queue.size();
+    }
+
+    synchronized int getPendingReads() {
+        return pending.size();
+    }
+
+    private @Nullable ReadDatapoint pollUnanswered() {
+        ReadDatapoint read;
+        while ((read = queue.pollFirst()) != null) {
+            GroupAddress address = read.getDatapoint().getMainAddress();
+            queued.remove(address);
+            Long received = lastReceived.get(address);
+            if (received == null || received - read.getRequestTime() < 0) {
+                return read;
+            }
+            logger.trace("Skipping read request for {}, a value has been received in the meantime", address);
+        }
+        return null;
+    }
+
+    private void expirePending(long now) {
+        Iterator<ReadDatapoint> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            ReadDatapoint read = iterator.next();
+            if (now - read.getSendTime() < responseTimeoutInNanos) {
+                break;
+            }
+            iterator.remove();
+            retry(read, "no response");
+        }
+    }
+
+    private void retry(ReadDatapoint read, @Nullable String reason) {
+        GroupAddress address = read.getDatapoint().getMainAddress();
+        if (read.getRetries() < read.getLimit()) {
+            logger.debug("Could not read value for datapoint {}: {}. Going to retry.", address, reason);
+            if (!queued.containsKey(address)) {
+                queued.put(address, read);
+                queue.add(read);
+            }
+        } else {
+            logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.", address,
+                    read.getLimit());
+        }
+    }
+}
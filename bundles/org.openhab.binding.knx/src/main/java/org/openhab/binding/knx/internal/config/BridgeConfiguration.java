@@ -26,6 +26,7 @@ public class BridgeConfiguration {
     private int autoReconnectPeriod;
     private BigDecimal readingPause;
     private BigDecimal readRetriesLimit;
+    private BigDecimal maxPendingReads = BigDecimal.valueOf(10);
     private BigDecimal responseTimeout;
 
     public int getAutoReconnectPeriod() {
@@ -40,6 +41,10 @@ public class BridgeConfiguration {
         return readRetriesLimit;
     }
 
+    public BigDecimal getMaxPendingReads() {
+        return maxPendingReads;
+    }
+
     public BigDecimal getResponseTimeout() {
         return responseTimeout;
     }
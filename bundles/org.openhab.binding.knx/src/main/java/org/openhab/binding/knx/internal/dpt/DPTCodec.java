@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.dpt;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.StopMoveType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
+/**
+ * Decodes the ASDU of one KNX datapoint type into an openHAB type.
+ *
+ * A codec is resolved once per datapoint type by {@link KNXCoreTypeMapper#getCodec(String)}, so the datapoint type id
+ * is parsed and the openHAB type class is looked up only once. Boolean (1.x), 4-byte float (14.x) and RGB (232.x)
+ * values are decoded straight from the ASDU bytes. All other datapoint types are decoded by a calimero translator,
+ * which is created once per thread and reused for every telegram.
+ *
+ * Instances are thread-safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class DPTCodec {
+
+    private final Logger logger = LoggerFactory.getLogger(DPTCodec.class);
+
+    private final KNXCoreTypeMapper mapper;
+    private final String dptId;
+    private final int mainNumber;
+    private final int subNumber;
+    private final Class<? extends Type> typeClass;
+    private final ThreadLocal<@Nullable DPTXlator> translators = ThreadLocal.withInitial(this::createTranslator);
+
+    /** the types of a boolean (1.x) datapoint type for the values 1 and 0 */
+    private final @Nullable Type trueType;
+    private final @Nullable Type falseType;
+
+    DPTCodec(KNXCoreTypeMapper mapper, String dptId, int mainNumber, int subNumber,
+            Class<? extends Type> typeClass) {
+        this.mapper = mapper;
+        this.dptId = dptId;
+        this.mainNumber = mainNumber;
+        this.subNumber = subNumber;
+        this.typeClass = typeClass;
+
+        if (mainNumber == 1) {
+            switch (subNumber) {
+                case 8:
+                    trueType = UpDownType.DOWN;
+                    falseType = UpDownType.UP;
+                    break;
+                case 9:
+                case 19:
+                    trueType = OpenClosedType.OPEN;
+                    falseType = OpenClosedType.CLOSED;
+                    break;
+                case 10:
+                    trueType = StopMoveType.MOVE;
+                    falseType = StopMoveType.STOP;
+                    break;
+                case 22:
+                    trueType = new DecimalType(1);
+                    falseType = new DecimalType(0);
+                    break;
+                default:
+                    trueType = OnOffType.ON;
+                    falseType = OnOffType.OFF;
+                    break;
+            }
+        } else {
+            trueType = null;
+            falseType = null;
+        }
+    }
+
+    /**
+     * @return the datapoint type id this codec decodes, e.g. "9.001"
+     */
+    public String getDPT() {
+        return dptId;
+    }
+
+    /**
+     * @return the openHAB type class the decoded values are mapped to
+     */
+    public Class<? extends Type> getTypeClass() {
+        return typeClass;
+    }
+
+    /**
+     * Maps a datapoint value to an openHAB command or state.
+     *
+     * @param asdu the datapoint value as an ASDU byte array
+     * @return a command or state of openHAB or {@code null} if the value couldn't be decoded
+     */
+    public @Nullable Type decode(byte[] asdu) {
+        switch (mainNumber) {
+            case 1:
+                if (asdu.length < 1) {
+                    return invalidData(asdu);
+                }
+                return (asdu[0] & 0x01) != 0 ? trueType : falseType;
+            case 14:
+                if (asdu.length < 4) {
+                    return invalidData(asdu);
+                }
+                float value = Float.intBitsToFloat(((asdu[0] & 0xff) << 24) | ((asdu[1] & 0xff) << 16)
+                        | ((asdu[2] & 0xff) << 8) | (asdu[3] & 0xff));
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
+                    return invalidData(asdu);
+                }
+                return new DecimalType(value);
+            case 232:
+                if (asdu.length < 3) {
+                    return invalidData(asdu);
+                }
+                return HSBType.fromRGB(asdu[0] & 0xff, asdu[1] & 0xff, asdu[2] & 0xff);
+            default:
+                DPTXlator translator = translators.get();
+                if (translator == null) {
+                    return null;
+                }
+                return mapper.toType(translator, mainNumber, subNumber, typeClass, asdu);
+        }
+    }
+
+    private @Nullable Type invalidData(byte[] asdu) {
+        logger.info("Couldn't decode {} byte(s) of data for datapoint type '{}'.", asdu.length, dptId);
+        return null;
+    }
+
+    private @Nullable DPTXlator createTranslator() {
+        try {
+            return TranslatorTypes.createTranslator(0, dptId);
+        } catch (KNXException e) {
+            logger.warn("Failed creating a translator for datapoint type '{}'.", dptId, e);
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DPTCodec [dpt=" + dptId + ", typeClass=" + typeClass.getSimpleName() + "]";
+    }
+}
@@ -13,8 +13,6 @@
 package org.openhab.binding.knx.internal.dpt;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -24,7 +22,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
@@ -107,6 +107,9 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /** stores the codecs of all datapoint types that have been resolved so far */
+    private final Map<String, DPTCodec> codecs = new ConcurrentHashMap<>();
+
     public KNXCoreTypeMapper() {
         @SuppressWarnings("unused")
         final List<Class<?>> xlators = Arrays.<Class<?>> asList(DPTXlator1BitControlled.class,
@@ -672,45 +675,80 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
+        DPTCodec codec = getCodec(datapoint.getDPT());
+        return codec != null ? codec.decode(data) : null;
+    }
+
+    /**
+     * Resolves the codec for a datapoint type. Codecs are created on first use and cached afterwards, so this should
+     * be called when a channel is configured and the returned codec be used for every received telegram.
+     *
+     * @param dptID the datapoint type id, e.g. "9.001"
+     * @return the codec or {@code null} if the datapoint type is not supported
+     */
+    @Nullable
+    public DPTCodec getCodec(String dptID) {
+        DPTCodec codec = codecs.get(dptID);
+        if (codec == null) {
+            codec = createCodec(dptID);
+            if (codec != null) {
+                DPTCodec previous = codecs.putIfAbsent(dptID, codec);
+                if (previous != null) {
+                    codec = previous;
+                }
+            }
+        }
+        return codec;
+    }
+
+    @Nullable
+    private DPTCodec createCodec(String dptID) {
+        Class<? extends Type> typeClass = toTypeClass(dptID);
+        if (typeClass == null) {
+            return null;
+        }
+        String id;
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
+            // also verifies that calimero supports the datapoint type
+            id = TranslatorTypes.createTranslator(0, dptID).getType().getID();
+        } catch (KNXException e) {
+            logger.warn("Failed creating a translator for datapoint type '{}'.", dptID, e);
+            return null;
+        }
 
-            String id = translator.getType().getID();
-            logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
+        int mainNumber = getMainNumber(id);
+        if (mainNumber == -1) {
+            logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            return null;
+        }
+        int subNumber = getSubNumber(id);
+        if (subNumber == -1) {
+            logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
+            return null;
+        }
+        return new DPTCodec(this, id, mainNumber, subNumber, typeClass);
+    }
 
-            int mainNumber = getMainNumber(id);
-            if (mainNumber == -1) {
-                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
-                return null;
-            }
-            int subNumber = getSubNumber(id);
-            if (subNumber == -1) {
-                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
-                return null;
-            }
+    /**
+     * Maps a datapoint value to an openHAB command or state with the help of a calimero translator. Used by
+     * {@link DPTCodec} for the datapoint types it doesn't decode itself.
+     *
+     * @param translator the translator of the datapoint type, will be loaded with the given data
+     * @param mainNumber the main number of the datapoint type
+     * @param subNumber the sub number of the datapoint type
+     * @param typeClass the openHAB type class of the datapoint type
+     * @param data the datapoint value as an ASDU byte array
+     * @return a command or state of openHAB
+     */
+    Type toType(DPTXlator translator, int mainNumber, int subNumber, Class<? extends Type> typeClass, byte[] data) {
+        try {
+            translator.setData(data);
             /*
              * Following code section deals with specific mapping of values from KNX to openHAB types were the String
              * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
              */
             switch (mainNumber) {
-                case 1:
-                    DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
-                    switch (subNumber) {
-                        case 8:
-                            return translatorBoolean.getValueBoolean() ? UpDownType.DOWN : UpDownType.UP;
-                        case 9:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 10:
-                            return translatorBoolean.getValueBoolean() ? StopMoveType.MOVE : StopMoveType.STOP;
-                        case 19:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 22:
-                            return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
-                        default:
-                            return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
-                    }
                 case 2:
                     DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
                     int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
@@ -729,36 +767,6 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                         case 8:
                             return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
                     }
-                case 14:
-                    /*
-                     * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
-                     * locale when
-                     * translating a Float to String. It could happen the a ',' is used as separator, such as
-                     * 3,14159E20.
-                     * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
-                     * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
-                     * there.
-                     */
-                    DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
-                    Float f = translator4ByteFloat.getValueFloat();
-                    if (Math.abs(f) < 100000) {
-                        value = String.valueOf(f);
-                    } else {
-                        NumberFormat dcf = NumberFormat.getInstance(Locale.US);
-                        if (dcf instanceof DecimalFormat) {
-                            ((DecimalFormat) dcf).applyPattern("0.#####E0");
-                        }
-                        value = dcf.format(f);
-                    }
-                    break;
-                case 18:
-                    DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
-                    int decimalValue = translatorSceneControl.getSceneNumber();
-                    if (value.startsWith("learn")) {
-                        decimalValue += 0x80;
-                    }
-                    value = String.valueOf(decimalValue);
-
                     break;
                 case 19:
                     DPTXlatorDateTime translatorDateTime = (DPTXlatorDateTime) translator;
@@ -791,8 +799,8 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                             && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
                         // Pure date format, no time information
                         cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
+                        return DateTimeType
+                                .valueOf(new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime()));
                     } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
                             && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
                         // Pure time format, no date information
@@ -800,23 +808,18 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                         cal.set(Calendar.HOUR_OF_DAY, translatorDateTime.getHour());
                         cal.set(Calendar.MINUTE, translatorDateTime.getMinute());
                         cal.set(Calendar.SECOND, translatorDateTime.getSecond());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
+                        return DateTimeType
+                                .valueOf(new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime()));
                     } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
                             && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
                         // Date format and time information
                         cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
-                        return DateTimeType.valueOf(value);
+                        return DateTimeType
+                                .valueOf(new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime()));
                     }
                     break;
             }
 
-            Class<? extends Type> typeClass = toTypeClass(id);
-            if (typeClass == null) {
-                return null;
-            }
-
             if (typeClass.equals(PercentType.class)) {
                 return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
             }
@@ -824,11 +827,11 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                 return new DecimalType(translator.getNumericValue());
             }
             if (typeClass.equals(StringType.class)) {
-                return StringType.valueOf(value);
+                return StringType.valueOf(translator.getValue());
             }
 
             if (typeClass.equals(DateTimeType.class)) {
-                String date = formatDateTime(value, datapoint.getDPT());
+                String date = formatDateTime(translator.getValue(), translator.getType().getID());
                 if ((date == null) || (date.isEmpty())) {
                     logger.debug("toType: KNX clock msg ignored: date object null or empty {}.", date);
                     return null;
@@ -837,23 +840,12 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                 }
             }
 
-            if (typeClass.equals(HSBType.class)) {
-                // value has format of "r:<red value> g:<green value> b:<blue value>"
-                int r = Integer.parseInt(value.split(" ")[0].split(":")[1]);
-                int g = Integer.parseInt(value.split(" ")[1].split(":")[1]);
-                int b = Integer.parseInt(value.split(" ")[2].split(":")[1]);
-
-                return HSBType.fromRGB(r, g, b);
-            }
-
         } catch (KNXFormatException kfe) {
             logger.info("Translator couldn't parse data for datapoint type '{}' (KNXFormatException).",
-                    datapoint.getDPT());
+                    translator.getType().getID());
         } catch (KNXIllegalArgumentException kiae) {
             logger.info("Translator couldn't parse data for datapoint type '{}' (KNXIllegalArgumentException).",
-                    datapoint.getDPT());
-        } catch (KNXException e) {
-            logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+                    translator.getType().getID());
         }
 
         return null;
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Tests the {@link ReadScheduler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ReadSchedulerTest {
+    private final List<GroupAddress> sent = new ArrayList<>();
+    private long now = 0;
+    private boolean failSending = false;
+    private ReadScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new ReadScheduler(datapoint -> {
+            if (failSending) {
+                throw new KNXException("test");
+            }
+            sent.add(datapoint.getMainAddress());
+        }, 2, 10, 2, () -> now);
+    }
+
+    private static GroupAddress address(int raw) {
+        return new GroupAddress(raw);
+    }
+
+    private static Datapoint datapoint(int raw) {
+        return new CommandDP(address(raw), "test", 0, "1.001");
+    }
+
+    @Test
+    public void readsAreDeduplicatedAndSentByPriority() {
+        scheduler.enqueue(datapoint(1), ReadPriority.REFRESH);
+        scheduler.enqueue(datapoint(2), ReadPriority.INITIAL);
+        scheduler.enqueue(datapoint(1), ReadPriority.REFRESH);
+        scheduler.enqueue(datapoint(3), ReadPriority.INITIAL);
+        scheduler.enqueue(datapoint(1), ReadPriority.HIGH);
+        assertEquals(3, scheduler.getQueuedReads());
+
+        scheduler.sendNext();
+        scheduler.sendNext();
+        assertEquals(2, scheduler.getPendingReads());
+
+        // The maximum number of pending reads is reached
+        scheduler.sendNext();
+        assertEquals(2, sent.size());
+
+        scheduler.received(address(1));
+        scheduler.sendNext();
+        assertEquals(3, sent.size());
+        assertEquals(address(1), sent.get(0));
+        assertEquals(address(2), sent.get(1));
+        assertEquals(address(3), sent.get(2));
+    }
+
+    @Test
+    public void readsAnsweredInTheMeantimeAreSkipped() {
+        scheduler.enqueue(datapoint(1), ReadPriority.INITIAL);
+        scheduler.enqueue(datapoint(2), ReadPriority.INITIAL);
+        now++;
+        scheduler.received(address(1));
+
+        scheduler.sendNext();
+        assertEquals(1, sent.size());
+        assertEquals(address(2), sent.get(0));
+        assertEquals(0, scheduler.getQueuedReads());
+    }
+
+    @Test
+    public void unansweredReadsAreRetriedUpToTheLimit() {
+        scheduler.enqueue(datapoint(1), ReadPriority.INITIAL);
+        scheduler.sendNext();
+        now += TimeUnit.SECONDS.toNanos(10);
+        scheduler.sendNext();
+        assertEquals(2, sent.size());
+        assertEquals(1, scheduler.getPendingReads());
+
+        now += TimeUnit.SECONDS.toNanos(10);
+        scheduler.sendNext();
+        assertEquals(2, sent.size());
+        assertEquals(0, scheduler.getPendingReads());
+        assertEquals(0, scheduler.getQueuedReads());
+    }
+
+    @Test
+    public void failedReadsAreRequeued() {
+        failSending = true;
+        scheduler.enqueue(datapoint(1), ReadPriority.INITIAL);
+        scheduler.sendNext();
+        assertEquals(0, scheduler.getPendingReads());
+        assertEquals(1, scheduler.getQueuedReads());
+
+        failSending = false;
+        scheduler.sendNext();
+        assertEquals(1, sent.size());
+    }
+}
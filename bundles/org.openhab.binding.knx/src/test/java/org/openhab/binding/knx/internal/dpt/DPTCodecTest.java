@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.dpt;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class DPTCodecTest {
+
+    private final KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+
+    @Test
+    public void testCodecIsResolvedOnce() {
+        DPTCodec codec = mapper.getCodec("9.001");
+        assertNotNull(codec);
+        assertSame(codec, mapper.getCodec("9.001"));
+        assertEquals(DecimalType.class, codec.getTypeClass());
+    }
+
+    @Test
+    public void testUnsupportedDPT() {
+        assertNull(mapper.getCodec("255.001"));
+    }
+
+    @Test
+    public void testBoolean() {
+        assertEquals(OnOffType.ON, codec("1.001").decode(new byte[] { 1 }));
+        assertEquals(OnOffType.OFF, codec("1.001").decode(new byte[] { 0 }));
+        assertEquals(UpDownType.DOWN, codec("1.008").decode(new byte[] { 1 }));
+        assertEquals(new DecimalType(1), codec("1.022").decode(new byte[] { 1 }));
+        assertNull(codec("1.001").decode(new byte[0]));
+    }
+
+    @Test
+    public void testUnsigned8Bit() {
+        assertEquals(new PercentType(100), codec("5.001").decode(new byte[] { (byte) 0xff }));
+        assertEquals(new DecimalType(200), codec("5.010").decode(new byte[] { (byte) 200 }));
+    }
+
+    @Test
+    public void testFloat2Byte() {
+        // 0x0c1a = 0.01 * 1050 * 2^1 = 21.0
+        assertEquals(21.0, ((DecimalType) codec("9.001").decode(new byte[] { 0x0c, 0x1a })).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testFloat4Byte() {
+        int bits = Float.floatToIntBits(1234.5f);
+        byte[] asdu = new byte[] { (byte) (bits >> 24), (byte) (bits >> 16), (byte) (bits >> 8), (byte) bits };
+        assertEquals(new DecimalType(1234.5f), codec("14.056").decode(asdu));
+        assertNull(codec("14.056").decode(new byte[] { 0, 0 }));
+    }
+
+    @Test
+    public void testRGB() {
+        assertEquals(HSBType.fromRGB(255, 128, 0), codec("232.600").decode(new byte[] { (byte) 0xff, (byte) 0x80, 0 }));
+        assertNull(codec("232.600").decode(new byte[] { 0 }));
+    }
+
+    private DPTCodec codec(String dptID) {
+        DPTCodec codec = mapper.getCodec(dptID);
+        assertNotNull("DPT " + dptID + " is not supported", codec);
+        return codec;
+    }
+}
@@ -39,6 +39,12 @@ public class SunSpecConfiguration {
      */
     public int length;
 
+    /**
+     * Interval to update all the channels, in milliseconds. Meanwhile only the channels whose registers have changed are
+     * updated. Zero or negative value updates all the channels on every poll.
+     */
+    public long updateUnchangedValuesEveryMillis;
+
     /**
      * Gets refresh period in milliseconds
      */
@@ -17,6 +17,7 @@ import static org.openhab.binding.modbus.sunspec.internal.SunSpecConstants.*;
 import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.measure.Unit;
 
@@ -32,12 +33,14 @@ import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.sunspec.internal.SunSpecConfiguration;
 import org.openhab.binding.modbus.sunspec.internal.dto.ModelBlock;
+import org.openhab.binding.modbus.sunspec.internal.parser.ModelField;
 import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.BasicPollTaskImpl;
 import org.openhab.io.transport.modbus.BitArray;
@@ -62,6 +65,7 @@ import org.slf4j.LoggerFactory;
  * - common properties are parsed and published
  * - other values are submitted to child implementations
  * - handles disposal of the device by removing any handlers
+ * - tracks which registers have changed, so that only the affected channels are updated, if configured so
  * - implements some tool methods
  *
  * @author Nagy Attila Gabor - Initial contribution
@@ -99,6 +103,26 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
      */
     protected final ModbusManager managerRef;
 
+    /**
+     * Register values of the last handled poll, used to detect changed registers
+     */
+    private int @Nullable [] lastRegisterValues;
+
+    /**
+     * Registers that have changed since the previous poll, or all registers when every channel should be updated
+     */
+    private boolean @Nullable [] changedRegisters;
+
+    /**
+     * Time when all the channels were last updated, in milliseconds
+     */
+    private long lastFullUpdateMillis;
+
+    /**
+     * Channel UIDs by group and channel id, so that these are not constructed on every poll
+     */
+    private final Map<String, Map<String, ChannelUID>> channelUIDs = new ConcurrentHashMap<>();
+
     /**
      * Instances of this handler should get a reference to the modbus manager
      *
@@ -112,10 +136,14 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
 
     /**
      * Handle incoming commands. This binding is read-only by default
+     *
+     * REFRESH makes the channels to be updated on next poll, even if the registers have not changed.
      */
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
-        // Currently we do not support any commands
+        if (RefreshType.REFRESH == command) {
+            resetLastData();
+        }
     }
 
     /**
@@ -236,6 +264,7 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
     private void tearDown() {
         unregisterPollTask();
         unregisterEndpoint();
+        resetLastData();
     }
 
     /**
@@ -352,7 +381,12 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
                     return;
                 }
 
-                handlePolledData(registers);
+                if (!detectChangedRegisters(registers)) {
+                    logger.trace("Received unchanged data, skipping parsing");
+                    resetCommunicationError();
+                } else {
+                    handlePolledData(registers);
+                }
 
                 if (getThing().getStatus() != ThingStatus.ONLINE) {
                     updateStatus(ThingStatus.ONLINE);
@@ -381,9 +415,108 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
     /**
      * This method should handle incoming poll data, and update the channels
      * with the values received
+     *
+     * Implementations decode only the fields of the channels to update, see
+     * {@link #updateScaledChannel(ModbusRegisterArray, String, String, ModelField, ModelField, Unit)}
      */
     protected abstract void handlePolledData(ModbusRegisterArray registers);
 
+    /**
+     * Compare the polled registers to the previously handled ones, and mark the changed registers
+     *
+     * All registers are marked changed if updateUnchangedValuesEveryMillis is not positive, or if the channels have
+     * not been updated within that interval.
+     *
+     * @param registers polled data
+     * @return true if any register is marked changed, i.e. the data needs to be handled
+     */
+    private synchronized boolean detectChangedRegisters(ModbusRegisterArray registers) {
+        SunSpecConfiguration myconfig = config;
+        int size = registers.size();
+        int[] values = lastRegisterValues;
+        boolean[] changed = changedRegisters;
+        boolean updateAll = myconfig == null || myconfig.updateUnchangedValuesEveryMillis <= 0;
+        if (values == null || changed == null || values.length != size) {
+            values = new int[size];
+            changed = new boolean[size];
+            lastRegisterValues = values;
+            changedRegisters = changed;
+            updateAll = true;
+        }
+        long now = System.currentTimeMillis();
+        if (myconfig != null && now - lastFullUpdateMillis >= myconfig.updateUnchangedValuesEveryMillis) {
+            updateAll = true;
+        }
+        if (updateAll) {
+            lastFullUpdateMillis = now;
+        }
+        boolean anyChanged = false;
+        for (int i = 0; i < size; i++) {
+            int value = registers.getRegister(i).toUnsignedShort();
+            changed[i] = updateAll || values[i] != value;
+            values[i] = value;
+            anyChanged |= changed[i];
+        }
+        return anyChanged;
+    }
+
+    /**
+     * Forget the previously handled data, so that all channels are updated on next poll
+     */
+    private synchronized void resetLastData() {
+        lastRegisterValues = null;
+        changedRegisters = null;
+    }
+
+    /**
+     * Check whether the registers of the field have changed since the previous poll
+     *
+     * @param field the field to check
+     * @return true if the channels depending on the field should be updated
+     */
+    protected boolean hasChanged(ModelField field) {
+        boolean[] changed = changedRegisters;
+        if (changed == null || field.getOffset() + field.getLength() > changed.length) {
+            return true;
+        }
+        for (int i = field.getOffset(); i < field.getOffset() + field.getLength(); i++) {
+            if (changed[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the registers of the value or its scale factor have changed since the previous poll
+     *
+     * @param value the value field
+     * @param scaleFactor the scale factor field
+     * @return true if the channel should be updated
+     */
+    protected boolean hasChanged(ModelField value, ModelField scaleFactor) {
+        return hasChanged(value) || hasChanged(scaleFactor);
+    }
+
+    /**
+     * Update the channel with a scaled value, if the registers of the value or its scale factor have changed
+     *
+     * The value is decoded only when the channel is updated.
+     *
+     * @param registers the register array of the model block
+     * @param group the channel group
+     * @param id the channel id in that group
+     * @param value the value field
+     * @param scaleFactor the scale factor field
+     * @param unit unit of the value
+     */
+    protected void updateScaledChannel(ModbusRegisterArray registers, String group, String id, ModelField value,
+            ModelField scaleFactor, Unit<?> unit) {
+        if (hasChanged(value, scaleFactor)) {
+            updateState(channelUID(group, id), getScaled(registers, value, scaleFactor, unit));
+        }
+    }
+
     @Override
     public void bridgeStatusChanged(ThingStatusInfo bridgeStatusInfo) {
         super.bridgeStatusChanged(bridgeStatusInfo);
@@ -429,6 +562,8 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
         }
         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                 String.format("Error with read: %s: %s", cls, msg));
+        // Publish all the values once the communication recovers
+        resetLastData();
     }
 
     /**
@@ -461,32 +596,32 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
      * @return the globally unique channel uid
      */
     ChannelUID channelUID(String group, String id) {
-        return new ChannelUID(getThing().getUID(), group, id);
+        Map<String, ChannelUID> groupUIDs = channelUIDs.get(group);
+        if (groupUIDs == null) {
+            groupUIDs = new ConcurrentHashMap<>();
+            channelUIDs.put(group, groupUIDs);
+        }
+        ChannelUID uid = groupUIDs.get(id);
+        if (uid == null) {
+            uid = new ChannelUID(getThing().getUID(), group, id);
+            groupUIDs.put(id, uid);
+        }
+        return uid;
     }
 
     /**
      * Returns value multiplied by the 10 on the power of scaleFactory
      *
-     * @param value the value to alter
-     * @param scaleFactor the scale factor to use (may be negative)
-     * @return the scaled value as a DecimalType
+     * @param registers the register array of the model block
+     * @param value the value field
+     * @param scaleFactor the scale factor field (may be negative)
+     * @return the scaled value as a QuantityType, or UNDEF if the value or scale factor is not implemented
      */
-    protected State getScaled(Optional<? extends Number> value, Optional<Short> scaleFactor, Unit<?> unit) {
-        if (!value.isPresent() || !scaleFactor.isPresent()) {
+    protected State getScaled(ModbusRegisterArray registers, ModelField value, ModelField scaleFactor, Unit<?> unit) {
+        if (!value.isPresent(registers) || !scaleFactor.isPresent(registers)) {
             return UnDefType.UNDEF;
         }
-        return getScaled(value.get().longValue(), scaleFactor.get(), unit);
-    }
-
-    /**
-     * Returns value multiplied by the 10 on the power of scaleFactory
-     *
-     * @param value the value to alter
-     * @param scaleFactor the scale factor to use (may be negative)
-     * @return the scaled value as a DecimalType
-     */
-    protected State getScaled(Optional<? extends Number> value, Short scaleFactor, Unit<?> unit) {
-        return getScaled(value, Optional.of(scaleFactor), unit);
+        return getScaled(value.getValue(registers), (short) scaleFactor.getValue(registers), unit);
     }
 
     /**
@@ -494,12 +629,12 @@ public abstract class AbstractSunSpecHandler extends BaseThingHandler {
      *
      * @param value the value to alter
      * @param scaleFactor the scale factor to use (may be negative)
-     * @return the scaled value as a DecimalType
+     * @return the scaled value as a QuantityType
      */
-    protected State getScaled(Number value, Short scaleFactor, Unit<?> unit) {
+    protected State getScaled(long value, short scaleFactor, Unit<?> unit) {
         if (scaleFactor == 1) {
-            return new QuantityType<>(value.longValue(), unit);
+            return new QuantityType<>(value, unit);
         }
-        return new QuantityType<>(BigDecimal.valueOf(value.longValue(), scaleFactor * -1), unit);
+        return new QuantityType<>(BigDecimal.valueOf(value, scaleFactor * -1), unit);
     }
 }
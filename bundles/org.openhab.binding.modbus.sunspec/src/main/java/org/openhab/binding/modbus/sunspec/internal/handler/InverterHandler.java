@@ -15,16 +15,13 @@ package org.openhab.binding.modbus.sunspec.internal.handler;
 import static org.eclipse.smarthome.core.library.unit.SIUnits.CELSIUS;
 import static org.eclipse.smarthome.core.library.unit.SmartHomeUnits.*;
 import static org.openhab.binding.modbus.sunspec.internal.SunSpecConstants.*;
-
-import java.util.Optional;
+import static org.openhab.binding.modbus.sunspec.internal.parser.InverterModelParser.*;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.modbus.sunspec.internal.InverterStatus;
-import org.openhab.binding.modbus.sunspec.internal.dto.InverterModelBlock;
-import org.openhab.binding.modbus.sunspec.internal.parser.InverterModelParser;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusRegisterArray;
 import org.slf4j.Logger;
@@ -39,11 +36,6 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class InverterHandler extends AbstractSunSpecHandler {
 
-    /**
-     * Parser used to convert incoming raw messages into model blocks
-     */
-    private final InverterModelParser parser = new InverterModelParser();
-
     /**
      * Logger instance
      */
@@ -55,8 +47,8 @@ public class InverterHandler extends AbstractSunSpecHandler {
 
     /**
      * This method is called each time new data has been polled from the modbus slave
-     * The register array is first parsed, then each of the channels are updated
-     * to the new values
+     * The channels whose registers have changed are decoded straight from the
+     * register array and updated to the new values
      *
      * @param registers byte array read from the modbus slave
      */
@@ -64,87 +56,75 @@ public class InverterHandler extends AbstractSunSpecHandler {
     protected void handlePolledData(ModbusRegisterArray registers) {
         logger.trace("Model block received, size: {}", registers.size());
 
-        InverterModelBlock block = parser.parse(registers);
-
         // Device information group
-        updateState(channelUID(GROUP_DEVICE_INFO, CHANNEL_CABINET_TEMPERATURE),
-                getScaled(block.temperatureCabinet, block.temperatureSF, CELSIUS));
-
-        updateState(channelUID(GROUP_DEVICE_INFO, CHANNEL_HEATSINK_TEMPERATURE),
-                getScaled(block.temperatureHeatsink, Optional.of(block.temperatureSF), CELSIUS));
-
-        updateState(channelUID(GROUP_DEVICE_INFO, CHANNEL_TRANSFORMER_TEMPERATURE),
-                getScaled(block.temperatureTransformer, Optional.of(block.temperatureSF), CELSIUS));
-
-        updateState(channelUID(GROUP_DEVICE_INFO, CHANNEL_OTHER_TEMPERATURE),
-                getScaled(block.temperatureOther, Optional.of(block.temperatureSF), CELSIUS));
-
-        InverterStatus status = InverterStatus.getByCode(block.status);
-        updateState(channelUID(GROUP_DEVICE_INFO, CHANNEL_STATUS),
-                status == null ? UnDefType.UNDEF : new StringType(status.name()));
+        updateScaledChannel(registers, GROUP_DEVICE_INFO, CHANNEL_CABINET_TEMPERATURE, TEMPERATURE_CABINET,
+                TEMPERATURE_SF, CELSIUS);
+        updateScaledChannel(registers, GROUP_DEVICE_INFO, CHANNEL_HEATSINK_TEMPERATURE, TEMPERATURE_HEATSINK,
+                TEMPERATURE_SF, CELSIUS);
+        updateScaledChannel(registers, GROUP_DEVICE_INFO, CHANNEL_TRANSFORMER_TEMPERATURE, TEMPERATURE_TRANSFORMER,
+                TEMPERATURE_SF, CELSIUS);
+        updateScaledChannel(registers, GROUP_DEVICE_INFO, CHANNEL_OTHER_TEMPERATURE, TEMPERATURE_OTHER,
+                TEMPERATURE_SF, CELSIUS);
+
+        if (hasChanged(STATUS)) {
+            InverterStatus status = InverterStatus.getByCode((int) STATUS.getValue(registers));
+            updateState(channelUID(GROUP_DEVICE_INFO, CHANNEL_STATUS),
+                    status == null ? UnDefType.UNDEF : new StringType(status.name()));
+        }
 
         // AC General group
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_CURRENT),
-                getScaled(block.acCurrentTotal, block.acCurrentSF, AMPERE));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_POWER), getScaled(block.acPower, block.acPowerSF, WATT));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_FREQUENCY),
-                getScaled(block.acFrequency, block.acFrequencySF, HERTZ));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_APPARENT_POWER),
-                getScaled(block.acApparentPower, block.acApparentPowerSF, WATT)); // TODO: VA currently not supported,
-                                                                                  // see:
-                                                                                  // https://github.com/openhab/openhab-core/pull/1347
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_REACTIVE_POWER),
-                getScaled(block.acReactivePower, block.acReactivePowerSF, WATT)); // TODO: var currently not supported,
-                                                                                  // see:
-                                                                                  // https://github.com/openhab/openhab-core/pull/1347
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_POWER_FACTOR),
-                getScaled(block.acPowerFactor, block.acPowerFactorSF, PERCENT));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_LIFETIME_ENERGY),
-                getScaled(block.acEnergyLifetime, block.acEnergyLifetimeSF, WATT_HOUR));
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_CURRENT, AC_CURRENT_TOTAL, AC_CURRENT_SF,
+                AMPERE);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_POWER, AC_POWER, AC_POWER_SF, WATT);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_FREQUENCY, AC_FREQUENCY, AC_FREQUENCY_SF, HERTZ);
+        // TODO: VA currently not supported, see: https://github.com/openhab/openhab-core/pull/1347
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_APPARENT_POWER, AC_APPARENT_POWER,
+                AC_APPARENT_POWER_SF, WATT);
+        // TODO: var currently not supported, see: https://github.com/openhab/openhab-core/pull/1347
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_REACTIVE_POWER, AC_REACTIVE_POWER,
+                AC_REACTIVE_POWER_SF, WATT);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_POWER_FACTOR, AC_POWER_FACTOR,
+                AC_POWER_FACTOR_SF, PERCENT);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_LIFETIME_ENERGY, AC_ENERGY_LIFETIME,
+                AC_ENERGY_LIFETIME_SF, WATT_HOUR);
 
         // DC General group
-        updateState(channelUID(GROUP_DC_GENERAL, CHANNEL_DC_CURRENT),
-                getScaled(block.dcCurrent, block.dcCurrentSF, AMPERE));
-        updateState(channelUID(GROUP_DC_GENERAL, CHANNEL_DC_VOLTAGE),
-                getScaled(block.dcVoltage, block.dcVoltageSF, VOLT));
-        updateState(channelUID(GROUP_DC_GENERAL, CHANNEL_DC_POWER), getScaled(block.dcPower, block.dcPowerSF, WATT));
+        updateScaledChannel(registers, GROUP_DC_GENERAL, CHANNEL_DC_CURRENT, DC_CURRENT, DC_CURRENT_SF, AMPERE);
+        updateScaledChannel(registers, GROUP_DC_GENERAL, CHANNEL_DC_VOLTAGE, DC_VOLTAGE, DC_VOLTAGE_SF, VOLT);
+        updateScaledChannel(registers, GROUP_DC_GENERAL, CHANNEL_DC_POWER, DC_POWER, DC_POWER_SF, WATT);
 
         // AC Phase specific groups
         // All types of inverters
-        updateState(channelUID(GROUP_AC_PHASE_A, CHANNEL_AC_PHASE_CURRENT),
-                getScaled(block.acCurrentPhaseA, block.acCurrentSF, AMPERE));
-        updateState(channelUID(GROUP_AC_PHASE_A, CHANNEL_AC_VOLTAGE_TO_NEXT),
-                getScaled(block.acVoltageAB, block.acVoltageSF, VOLT));
-        updateState(channelUID(GROUP_AC_PHASE_A, CHANNEL_AC_VOLTAGE_TO_N),
-                getScaled(block.acVoltageAtoN, block.acVoltageSF, VOLT));
+        updateScaledChannel(registers, GROUP_AC_PHASE_A, CHANNEL_AC_PHASE_CURRENT, AC_CURRENT_PHASE_A, AC_CURRENT_SF,
+                AMPERE);
+        updateScaledChannel(registers, GROUP_AC_PHASE_A, CHANNEL_AC_VOLTAGE_TO_NEXT, AC_VOLTAGE_AB, AC_VOLTAGE_SF,
+                VOLT);
+        updateScaledChannel(registers, GROUP_AC_PHASE_A, CHANNEL_AC_VOLTAGE_TO_N, AC_VOLTAGE_A_TO_N, AC_VOLTAGE_SF,
+                VOLT);
+
+        long phaseConfiguration = PHASE_CONFIGURATION.getValue(registers);
 
         // Split phase and three phase
         if ((thing.getThingTypeUID().equals(THING_TYPE_INVERTER_SPLIT_PHASE)
                 || thing.getThingTypeUID().equals(THING_TYPE_INVERTER_THREE_PHASE))
-                && block.phaseConfiguration >= INVERTER_SPLIT_PHASE) {
-            updateState(channelUID(GROUP_AC_PHASE_B, CHANNEL_AC_PHASE_CURRENT),
-                    getScaled(block.acCurrentPhaseB, block.acCurrentSF, AMPERE));
-            updateState(channelUID(GROUP_AC_PHASE_B, CHANNEL_AC_VOLTAGE_TO_NEXT),
-                    getScaled(block.acVoltageBC, block.acVoltageSF, VOLT));
-            updateState(channelUID(GROUP_AC_PHASE_B, CHANNEL_AC_VOLTAGE_TO_N),
-                    getScaled(block.acVoltageBtoN, block.acVoltageSF, VOLT));
+                && phaseConfiguration >= INVERTER_SPLIT_PHASE) {
+            updateScaledChannel(registers, GROUP_AC_PHASE_B, CHANNEL_AC_PHASE_CURRENT, AC_CURRENT_PHASE_B,
+                    AC_CURRENT_SF, AMPERE);
+            updateScaledChannel(registers, GROUP_AC_PHASE_B, CHANNEL_AC_VOLTAGE_TO_NEXT, AC_VOLTAGE_BC, AC_VOLTAGE_SF,
+                    VOLT);
+            updateScaledChannel(registers, GROUP_AC_PHASE_B, CHANNEL_AC_VOLTAGE_TO_N, AC_VOLTAGE_B_TO_N,
+                    AC_VOLTAGE_SF, VOLT);
         }
 
         // Three phase only
         if (thing.getThingTypeUID().equals(THING_TYPE_INVERTER_THREE_PHASE)
-                && block.phaseConfiguration >= INVERTER_THREE_PHASE) {
-            updateState(channelUID(GROUP_AC_PHASE_C, CHANNEL_AC_PHASE_CURRENT),
-                    getScaled(block.acCurrentPhaseC, block.acCurrentSF, AMPERE));
-            updateState(channelUID(GROUP_AC_PHASE_C, CHANNEL_AC_VOLTAGE_TO_NEXT),
-                    getScaled(block.acVoltageCA, block.acVoltageSF, VOLT));
-            updateState(channelUID(GROUP_AC_PHASE_C, CHANNEL_AC_VOLTAGE_TO_N),
-                    getScaled(block.acVoltageCtoN, block.acVoltageSF, VOLT));
+                && phaseConfiguration >= INVERTER_THREE_PHASE) {
+            updateScaledChannel(registers, GROUP_AC_PHASE_C, CHANNEL_AC_PHASE_CURRENT, AC_CURRENT_PHASE_C,
+                    AC_CURRENT_SF, AMPERE);
+            updateScaledChannel(registers, GROUP_AC_PHASE_C, CHANNEL_AC_VOLTAGE_TO_NEXT, AC_VOLTAGE_CA, AC_VOLTAGE_SF,
+                    VOLT);
+            updateScaledChannel(registers, GROUP_AC_PHASE_C, CHANNEL_AC_VOLTAGE_TO_N, AC_VOLTAGE_C_TO_N,
+                    AC_VOLTAGE_SF, VOLT);
         }
 
         resetCommunicationError();
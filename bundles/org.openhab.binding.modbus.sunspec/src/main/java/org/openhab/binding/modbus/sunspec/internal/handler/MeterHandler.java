@@ -14,11 +14,11 @@ package org.openhab.binding.modbus.sunspec.internal.handler;
 
 import static org.eclipse.smarthome.core.library.unit.SmartHomeUnits.*;
 import static org.openhab.binding.modbus.sunspec.internal.SunSpecConstants.*;
+import static org.openhab.binding.modbus.sunspec.internal.parser.MeterModelParser.*;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.smarthome.core.thing.Thing;
-import org.openhab.binding.modbus.sunspec.internal.dto.MeterModelBlock;
-import org.openhab.binding.modbus.sunspec.internal.parser.MeterModelParser;
+import org.openhab.binding.modbus.sunspec.internal.parser.MeterModelParser.PhaseFields;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusRegisterArray;
 import org.slf4j.Logger;
@@ -33,11 +33,6 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class MeterHandler extends AbstractSunSpecHandler {
 
-    /**
-     * Parser used to convert incoming raw messages into model blocks
-     */
-    private final MeterModelParser parser = new MeterModelParser();
-
     /**
      * Logger instance
      */
@@ -48,30 +43,30 @@ public class MeterHandler extends AbstractSunSpecHandler {
     }
 
     /**
-     * Receive polled data, parse then update states
+     * Receive polled data, then update the states of the channels whose registers have changed
      */
     @Override
     protected void handlePolledData(ModbusRegisterArray registers) {
         logger.trace("Model block received, size: {}", registers.size());
 
-        MeterModelBlock block = parser.parse(registers);
-
         // AC General group
-        updateTotalValues(block);
+        updateTotalValues(registers);
+
+        updatePhaseValues(registers, PHASE_A, GROUP_AC_PHASE_A);
 
-        updatePhaseValues(block, block.phaseA, GROUP_AC_PHASE_A);
+        long sunspecDID = SUNSPEC_DID.getValue(registers);
 
         // Split phase, wye/delta phase
-        if (block.sunspecDID >= METER_SPLIT_PHASE && (thing.getThingTypeUID().equals(THING_TYPE_METER_SPLIT_PHASE)
+        if (sunspecDID >= METER_SPLIT_PHASE && (thing.getThingTypeUID().equals(THING_TYPE_METER_SPLIT_PHASE)
                 || thing.getThingTypeUID().equals(THING_TYPE_METER_WYE_PHASE)
                 || thing.getThingTypeUID().equals(THING_TYPE_METER_DELTA_PHASE))) {
-            updatePhaseValues(block, block.phaseB, GROUP_AC_PHASE_B);
+            updatePhaseValues(registers, PHASE_B, GROUP_AC_PHASE_B);
         }
 
         // Three phase (wye/delta) only
-        if (block.sunspecDID >= INVERTER_THREE_PHASE && (thing.getThingTypeUID().equals(THING_TYPE_METER_WYE_PHASE)
+        if (sunspecDID >= INVERTER_THREE_PHASE && (thing.getThingTypeUID().equals(THING_TYPE_METER_WYE_PHASE)
                 || thing.getThingTypeUID().equals(THING_TYPE_METER_DELTA_PHASE))) {
-            updatePhaseValues(block, block.phaseC, GROUP_AC_PHASE_C);
+            updatePhaseValues(registers, PHASE_C, GROUP_AC_PHASE_C);
         }
 
         resetCommunicationError();
@@ -80,133 +75,83 @@ public class MeterHandler extends AbstractSunSpecHandler {
     /**
      * Update the total states from the received block
      *
-     * @param block
+     * @param registers the register array of the model block
      */
-    private void updateTotalValues(MeterModelBlock block) {
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_CURRENT),
-                getScaled(block.acCurrentTotal, block.acCurrentSF, AMPERE));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_AVERAGE_VOLTAGE_TO_N),
-                getScaled(block.acVoltageLineToNAverage, block.acVoltageSF, VOLT));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_AVERAGE_VOLTAGE_TO_NEXT),
-                getScaled(block.acVoltageLineToLineAverage, block.acVoltageSF, VOLT));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_FREQUENCY),
-                getScaled(block.acFrequency, block.acFrequencySF.orElse((short) 1), HERTZ));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_REAL_POWER),
-                getScaled(block.acRealPowerTotal, block.acRealPowerSF, WATT));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_APPARENT_POWER),
-                getScaled(block.acApparentPowerTotal, block.acApparentPowerSF, WATT)); // TODO: this should be VA
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_REACTIVE_POWER),
-                getScaled(block.acReactivePowerTotal, block.acReactivePowerSF, WATT)); // TODO: this should be VAR
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_AVERAGE_POWER_FACTOR),
-                getScaled(block.acPowerFactor, block.acPowerFactorSF, PERCENT));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_REAL_ENERGY),
-                getScaled(block.acExportedRealEnergyTotal, block.acRealEnergySF, WATT_HOUR));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_REAL_ENERGY),
-                getScaled(block.acImportedRealEnergyTotal, block.acRealEnergySF, WATT_HOUR));
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_APPARENT_ENERGY),
-                getScaled(block.acExportedApparentEnergyTotal, block.acApparentEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                      // should be
-                                                                                                      // VA_HOUR
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_APPARENT_ENERGY),
-                getScaled(block.acImportedApparentEnergyTotal, block.acApparentEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                      // should be
-                                                                                                      // VA_HOUR
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_REACTIVE_ENERGY_Q1),
-                getScaled(block.acImportedReactiveEnergyQ1Total, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_REACTIVE_ENERGY_Q2),
-                getScaled(block.acImportedReactiveEnergyQ2Total, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_REACTIVE_ENERGY_Q3),
-                getScaled(block.acExportedReactiveEnergyQ3Total, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
-
-        updateState(channelUID(GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_REACTIVE_ENERGY_Q4),
-                getScaled(block.acExportedReactiveEnergyQ4Total, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
+    private void updateTotalValues(ModbusRegisterArray registers) {
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_CURRENT, AC_CURRENT_TOTAL,
+                AC_CURRENT_SF, AMPERE);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_AVERAGE_VOLTAGE_TO_N, AC_VOLTAGE_LINE_TO_N_AVERAGE,
+                AC_VOLTAGE_SF, VOLT);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_AVERAGE_VOLTAGE_TO_NEXT,
+                AC_VOLTAGE_LINE_TO_LINE_AVERAGE, AC_VOLTAGE_SF, VOLT);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_FREQUENCY, AC_FREQUENCY, AC_FREQUENCY_SF, HERTZ);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_REAL_POWER, AC_REAL_POWER_TOTAL,
+                AC_REAL_POWER_SF, WATT);
+        // TODO: this should be VA
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_APPARENT_POWER, AC_APPARENT_POWER_TOTAL,
+                AC_APPARENT_POWER_SF, WATT);
+        // TODO: this should be VAR
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_REACTIVE_POWER, AC_REACTIVE_POWER_TOTAL,
+                AC_REACTIVE_POWER_SF, WATT);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_AVERAGE_POWER_FACTOR, AC_POWER_FACTOR,
+                AC_POWER_FACTOR_SF, PERCENT);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_REAL_ENERGY,
+                AC_EXPORTED_REAL_ENERGY_TOTAL, AC_REAL_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_REAL_ENERGY,
+                AC_IMPORTED_REAL_ENERGY_TOTAL, AC_REAL_ENERGY_SF, WATT_HOUR);
+        // TODO: this should be VA_HOUR
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_APPARENT_ENERGY,
+                AC_EXPORTED_APPARENT_ENERGY_TOTAL, AC_APPARENT_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_APPARENT_ENERGY,
+                AC_IMPORTED_APPARENT_ENERGY_TOTAL, AC_APPARENT_ENERGY_SF, WATT_HOUR);
+        // TODO: this should be VAR_HOUR
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_REACTIVE_ENERGY_Q1,
+                AC_IMPORTED_REACTIVE_ENERGY_Q1_TOTAL, AC_REACTIVE_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_IMPORTED_REACTIVE_ENERGY_Q2,
+                AC_IMPORTED_REACTIVE_ENERGY_Q2_TOTAL, AC_REACTIVE_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_REACTIVE_ENERGY_Q3,
+                AC_EXPORTED_REACTIVE_ENERGY_Q3_TOTAL, AC_REACTIVE_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, GROUP_AC_GENERAL, CHANNEL_AC_TOTAL_EXPORTED_REACTIVE_ENERGY_Q4,
+                AC_EXPORTED_REACTIVE_ENERGY_Q4_TOTAL, AC_REACTIVE_ENERGY_SF, WATT_HOUR);
     }
 
     /**
      * Update phase related channels for the selected phase.
      *
-     * @param block the main block for scale
-     * @param phaseBlock the block containing the raw values for the selected phase
+     * @param registers the register array of the model block
+     * @param phase the fields of the selected phase
      * @param group channel group id for the output
      */
-    private void updatePhaseValues(MeterModelBlock block, MeterModelBlock.PhaseBlock phaseBlock, String group) {
-        updateState(channelUID(group, CHANNEL_AC_PHASE_CURRENT),
-                getScaled(phaseBlock.acPhaseCurrent, block.acCurrentSF, AMPERE));
-
-        updateState(channelUID(group, CHANNEL_AC_VOLTAGE_TO_N),
-                getScaled(phaseBlock.acVoltageToN, block.acVoltageSF, VOLT));
-
-        updateState(channelUID(group, CHANNEL_AC_VOLTAGE_TO_NEXT),
-                getScaled(phaseBlock.acVoltageToNext, block.acVoltageSF, VOLT));
-
-        updateState(channelUID(group, CHANNEL_AC_REAL_POWER),
-                getScaled(phaseBlock.acRealPower, block.acRealPowerSF, WATT));
-
-        updateState(channelUID(group, CHANNEL_AC_APPARENT_POWER),
-                getScaled(phaseBlock.acApparentPower, block.acApparentPowerSF, WATT)); // TODO: this should be VA
-
-        updateState(channelUID(group, CHANNEL_AC_REACTIVE_POWER),
-                getScaled(phaseBlock.acReactivePower, block.acReactivePowerSF, WATT)); // TODO: this should be VAR
-
-        updateState(channelUID(group, CHANNEL_AC_POWER_FACTOR),
-                getScaled(phaseBlock.acPowerFactor, block.acPowerFactorSF, PERCENT));
-
-        updateState(channelUID(group, CHANNEL_AC_EXPORTED_REAL_ENERGY),
-                getScaled(phaseBlock.acExportedRealEnergy, block.acRealEnergySF, WATT_HOUR));
-
-        updateState(channelUID(group, CHANNEL_AC_IMPORTED_REAL_ENERGY),
-                getScaled(phaseBlock.acImportedRealEnergy, block.acRealEnergySF, WATT_HOUR));
-
-        updateState(channelUID(group, CHANNEL_AC_EXPORTED_APPARENT_ENERGY),
-                getScaled(phaseBlock.acExportedApparentEnergy, block.acApparentEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                      // should be
-                                                                                                      // VA_HOUR
-
-        updateState(channelUID(group, CHANNEL_AC_IMPORTED_APPARENT_ENERGY),
-                getScaled(phaseBlock.acImportedApparentEnergy, block.acApparentEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                      // should be
-                                                                                                      // VA_HOUR
-
-        updateState(channelUID(group, CHANNEL_AC_IMPORTED_REACTIVE_ENERGY_Q1),
-                getScaled(phaseBlock.acImportedReactiveEnergyQ1, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
-
-        updateState(channelUID(group, CHANNEL_AC_IMPORTED_REACTIVE_ENERGY_Q2),
-                getScaled(phaseBlock.acImportedReactiveEnergyQ2, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
-
-        updateState(channelUID(group, CHANNEL_AC_EXPORTED_REACTIVE_ENERGY_Q3),
-                getScaled(phaseBlock.acExportedReactiveEnergyQ3, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
-
-        updateState(channelUID(group, CHANNEL_AC_EXPORTED_REACTIVE_ENERGY_Q4),
-                getScaled(phaseBlock.acExportedReactiveEnergyQ4, block.acReactiveEnergySF, WATT_HOUR)); // TODO: this
-                                                                                                        // should be
-                                                                                                        // VAR_HOUR
+    private void updatePhaseValues(ModbusRegisterArray registers, PhaseFields phase, String group) {
+        updateScaledChannel(registers, group, CHANNEL_AC_PHASE_CURRENT, phase.acPhaseCurrent, AC_CURRENT_SF, AMPERE);
+        updateScaledChannel(registers, group, CHANNEL_AC_VOLTAGE_TO_N, phase.acVoltageToN, AC_VOLTAGE_SF, VOLT);
+        updateScaledChannel(registers, group, CHANNEL_AC_VOLTAGE_TO_NEXT, phase.acVoltageToNext, AC_VOLTAGE_SF, VOLT);
+        updateScaledChannel(registers, group, CHANNEL_AC_REAL_POWER, phase.acRealPower, AC_REAL_POWER_SF, WATT);
+        // TODO: this should be VA
+        updateScaledChannel(registers, group, CHANNEL_AC_APPARENT_POWER, phase.acApparentPower,
+                AC_APPARENT_POWER_SF, WATT);
+        // TODO: this should be VAR
+        updateScaledChannel(registers, group, CHANNEL_AC_REACTIVE_POWER, phase.acReactivePower,
+                AC_REACTIVE_POWER_SF, WATT);
+        updateScaledChannel(registers, group, CHANNEL_AC_POWER_FACTOR, phase.acPowerFactor,
+                AC_POWER_FACTOR_SF, PERCENT);
+        updateScaledChannel(registers, group, CHANNEL_AC_EXPORTED_REAL_ENERGY, phase.acExportedRealEnergy,
+                AC_REAL_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, group, CHANNEL_AC_IMPORTED_REAL_ENERGY, phase.acImportedRealEnergy,
+                AC_REAL_ENERGY_SF, WATT_HOUR);
+        // TODO: this should be VA_HOUR
+        updateScaledChannel(registers, group, CHANNEL_AC_EXPORTED_APPARENT_ENERGY, phase.acExportedApparentEnergy,
+                AC_APPARENT_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, group, CHANNEL_AC_IMPORTED_APPARENT_ENERGY, phase.acImportedApparentEnergy,
+                AC_APPARENT_ENERGY_SF, WATT_HOUR);
+        // TODO: this should be VAR_HOUR
+        updateScaledChannel(registers, group, CHANNEL_AC_IMPORTED_REACTIVE_ENERGY_Q1, phase.acImportedReactiveEnergyQ1,
+                AC_REACTIVE_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, group, CHANNEL_AC_IMPORTED_REACTIVE_ENERGY_Q2, phase.acImportedReactiveEnergyQ2,
+                AC_REACTIVE_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, group, CHANNEL_AC_EXPORTED_REACTIVE_ENERGY_Q3, phase.acExportedReactiveEnergyQ3,
+                AC_REACTIVE_ENERGY_SF, WATT_HOUR);
+        updateScaledChannel(registers, group, CHANNEL_AC_EXPORTED_REACTIVE_ENERGY_Q4, phase.acExportedReactiveEnergyQ4,
+                AC_REACTIVE_ENERGY_SF, WATT_HOUR);
     }
 }
@@ -15,7 +15,6 @@ package org.openhab.binding.modbus.sunspec.internal.parser;
 import java.util.Optional;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.openhab.io.transport.modbus.ModbusBitUtilities;
 import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
 import org.openhab.io.transport.modbus.ModbusRegisterArray;
@@ -23,6 +22,8 @@ import org.openhab.io.transport.modbus.ModbusRegisterArray;
 /**
  * Base class for parsers with some helper methods
  *
+ * Values are decoded straight from the register array, without intermediate {@code DecimalType} states.
+ *
  * @author Nagy Attila Gabor - Initial contribution
  *
  */
@@ -37,8 +38,8 @@ public class AbstractBaseParser {
      * @return the parsed value or empty if the field is not implemented
      */
     protected Optional<Short> extractOptionalInt16(ModbusRegisterArray raw, int index) {
-        return ModbusBitUtilities.extractStateFromRegisters(raw, index, ValueType.INT16).map(DecimalType::shortValue)
-                .filter(value -> value != (short) 0x8000);
+        short value = (short) ModbusBitUtilities.extractIntFromRegisters(raw, index, ValueType.INT16);
+        return value == (short) 0x8000 ? Optional.empty() : Optional.of(value);
     }
 
     /**
@@ -61,8 +62,8 @@ public class AbstractBaseParser {
      * @return the parsed value or empty if the field is not implemented
      */
     protected Optional<Integer> extractOptionalUInt16(ModbusRegisterArray raw, int index) {
-        return ModbusBitUtilities.extractStateFromRegisters(raw, index, ValueType.UINT16).map(DecimalType::intValue)
-                .filter(value -> value != 0xffff);
+        int value = ModbusBitUtilities.extractIntFromRegisters(raw, index, ValueType.UINT16);
+        return value == 0xffff ? Optional.empty() : Optional.of(value);
     }
 
     /**
@@ -85,8 +86,8 @@ public class AbstractBaseParser {
      * @return the parsed value or empty if the field is not implemented
      */
     protected Optional<Long> extractOptionalAcc32(ModbusRegisterArray raw, int index) {
-        return ModbusBitUtilities.extractStateFromRegisters(raw, index, ValueType.UINT32).map(DecimalType::longValue)
-                .filter(value -> value != 0);
+        long value = ModbusBitUtilities.extractLongFromRegisters(raw, index, ValueType.UINT32);
+        return value == 0 ? Optional.empty() : Optional.of(value);
     }
 
     /**
@@ -109,8 +110,7 @@ public class AbstractBaseParser {
      * @return the parsed value or empty if the field is not implemented
      */
     protected Optional<Short> extractOptionalSunSSF(ModbusRegisterArray raw, int index) {
-        return ModbusBitUtilities.extractStateFromRegisters(raw, index, ValueType.INT16).map(DecimalType::shortValue)
-                .filter(value -> value != (short) 0x8000);
+        return extractOptionalInt16(raw, index);
     }
 
     /**
@@ -123,4 +123,92 @@ public class AbstractBaseParser {
     protected Short extractSunSSF(ModbusRegisterArray raw, int index) {
         return extractOptionalSunSSF(raw, index).orElse((short) 1);
     }
+
+    /**
+     * Extract an optional int16 field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or empty if the field is not implemented
+     */
+    protected Optional<Short> extractOptionalInt16(ModbusRegisterArray raw, ModelField field) {
+        return extractOptionalInt16(raw, field.getOffset());
+    }
+
+    /**
+     * Extract a mandatory int16 field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or the default of the field if it is not implemented
+     */
+    protected Short extractInt16(ModbusRegisterArray raw, ModelField field) {
+        return (short) field.getValue(raw);
+    }
+
+    /**
+     * Extract an optional uint16 field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or empty if the field is not implemented
+     */
+    protected Optional<Integer> extractOptionalUInt16(ModbusRegisterArray raw, ModelField field) {
+        return extractOptionalUInt16(raw, field.getOffset());
+    }
+
+    /**
+     * Extract a mandatory uint16 field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or the default of the field if it is not implemented
+     */
+    protected Integer extractUInt16(ModbusRegisterArray raw, ModelField field) {
+        return (int) field.getValue(raw);
+    }
+
+    /**
+     * Extract an optional acc32 field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or empty if the field is not implemented
+     */
+    protected Optional<Long> extractOptionalAcc32(ModbusRegisterArray raw, ModelField field) {
+        return extractOptionalAcc32(raw, field.getOffset());
+    }
+
+    /**
+     * Extract a mandatory acc32 field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or the default of the field if it is not implemented
+     */
+    protected Long extractAcc32(ModbusRegisterArray raw, ModelField field) {
+        return field.getValue(raw);
+    }
+
+    /**
+     * Extract an optional scale factor field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or empty if the field is not implemented
+     */
+    protected Optional<Short> extractOptionalSunSSF(ModbusRegisterArray raw, ModelField field) {
+        return extractOptionalSunSSF(raw, field.getOffset());
+    }
+
+    /**
+     * Extract a mandatory scale factor field
+     *
+     * @param raw the register array to extract from
+     * @param field the field to extract
+     * @return the parsed value or 1 if the field is not implemented
+     */
+    protected Short extractSunSSF(ModbusRegisterArray raw, ModelField field) {
+        return (short) field.getValue(raw);
+    }
 }
@@ -26,53 +26,95 @@ import org.openhab.io.transport.modbus.ModbusRegisterArray;
 @NonNullByDefault
 public class InverterModelParser extends AbstractBaseParser implements SunspecParser<InverterModelBlock> {
 
+    /*
+     * Fields of the inverter model blocks 101, 102 and 103
+     */
+    public static final ModelField PHASE_CONFIGURATION = ModelField.uint16(0, SunSpecConstants.INVERTER_SINGLE_PHASE);
+    public static final ModelField AC_CURRENT_TOTAL = ModelField.uint16(2, 0);
+    public static final ModelField AC_CURRENT_PHASE_A = ModelField.uint16(3, 0);
+    public static final ModelField AC_CURRENT_PHASE_B = ModelField.optionalUInt16(4);
+    public static final ModelField AC_CURRENT_PHASE_C = ModelField.optionalUInt16(5);
+    public static final ModelField AC_CURRENT_SF = ModelField.sunSSF(6);
+    public static final ModelField AC_VOLTAGE_AB = ModelField.optionalUInt16(7);
+    public static final ModelField AC_VOLTAGE_BC = ModelField.optionalUInt16(8);
+    public static final ModelField AC_VOLTAGE_CA = ModelField.optionalUInt16(9);
+    public static final ModelField AC_VOLTAGE_A_TO_N = ModelField.uint16(10, 0);
+    public static final ModelField AC_VOLTAGE_B_TO_N = ModelField.optionalUInt16(11);
+    public static final ModelField AC_VOLTAGE_C_TO_N = ModelField.optionalUInt16(12);
+    public static final ModelField AC_VOLTAGE_SF = ModelField.sunSSF(13);
+    public static final ModelField AC_POWER = ModelField.int16(14, 0);
+    public static final ModelField AC_POWER_SF = ModelField.sunSSF(15);
+    public static final ModelField AC_FREQUENCY = ModelField.uint16(16, 0);
+    public static final ModelField AC_FREQUENCY_SF = ModelField.sunSSF(17);
+    public static final ModelField AC_APPARENT_POWER = ModelField.optionalInt16(18);
+    public static final ModelField AC_APPARENT_POWER_SF = ModelField.optionalSunSSF(19);
+    public static final ModelField AC_REACTIVE_POWER = ModelField.optionalInt16(20);
+    public static final ModelField AC_REACTIVE_POWER_SF = ModelField.optionalSunSSF(21);
+    public static final ModelField AC_POWER_FACTOR = ModelField.optionalInt16(22);
+    public static final ModelField AC_POWER_FACTOR_SF = ModelField.optionalSunSSF(23);
+    public static final ModelField AC_ENERGY_LIFETIME = ModelField.acc32(24, 0);
+    public static final ModelField AC_ENERGY_LIFETIME_SF = ModelField.sunSSF(26);
+    public static final ModelField DC_CURRENT = ModelField.optionalUInt16(27);
+    public static final ModelField DC_CURRENT_SF = ModelField.optionalSunSSF(28);
+    public static final ModelField DC_VOLTAGE = ModelField.optionalUInt16(29);
+    public static final ModelField DC_VOLTAGE_SF = ModelField.optionalSunSSF(30);
+    public static final ModelField DC_POWER = ModelField.optionalInt16(31);
+    public static final ModelField DC_POWER_SF = ModelField.optionalSunSSF(32);
+    public static final ModelField TEMPERATURE_CABINET = ModelField.int16(33, 0);
+    public static final ModelField TEMPERATURE_HEATSINK = ModelField.optionalInt16(34);
+    public static final ModelField TEMPERATURE_TRANSFORMER = ModelField.optionalInt16(35);
+    public static final ModelField TEMPERATURE_OTHER = ModelField.optionalInt16(36);
+    public static final ModelField TEMPERATURE_SF = ModelField.sunSSF(37);
+    public static final ModelField STATUS = ModelField.uint16(38, 1);
+    public static final ModelField STATUS_VENDOR = ModelField.optionalUInt16(39);
+
     @Override
     public InverterModelBlock parse(ModbusRegisterArray raw) {
         InverterModelBlock block = new InverterModelBlock();
 
-        block.phaseConfiguration = extractUInt16(raw, 0, SunSpecConstants.INVERTER_SINGLE_PHASE);
+        block.phaseConfiguration = extractUInt16(raw, PHASE_CONFIGURATION);
         block.length = extractUInt16(raw, 1, raw.size());
-        block.acCurrentTotal = extractUInt16(raw, 2, 0);
-        block.acCurrentPhaseA = extractUInt16(raw, 3, 0);
-        block.acCurrentPhaseB = extractOptionalUInt16(raw, 4);
-        block.acCurrentPhaseC = extractOptionalUInt16(raw, 5);
-        block.acCurrentSF = extractSunSSF(raw, 6);
+        block.acCurrentTotal = extractUInt16(raw, AC_CURRENT_TOTAL);
+        block.acCurrentPhaseA = extractUInt16(raw, AC_CURRENT_PHASE_A);
+        block.acCurrentPhaseB = extractOptionalUInt16(raw, AC_CURRENT_PHASE_B);
+        block.acCurrentPhaseC = extractOptionalUInt16(raw, AC_CURRENT_PHASE_C);
+        block.acCurrentSF = extractSunSSF(raw, AC_CURRENT_SF);
 
-        block.acVoltageAB = extractOptionalUInt16(raw, 7);
-        block.acVoltageBC = extractOptionalUInt16(raw, 8);
-        block.acVoltageCA = extractOptionalUInt16(raw, 9);
-        block.acVoltageAtoN = extractUInt16(raw, 10, 0);
-        block.acVoltageBtoN = extractOptionalUInt16(raw, 11);
-        block.acVoltageCtoN = extractOptionalUInt16(raw, 12);
-        block.acVoltageSF = extractSunSSF(raw, 13);
+        block.acVoltageAB = extractOptionalUInt16(raw, AC_VOLTAGE_AB);
+        block.acVoltageBC = extractOptionalUInt16(raw, AC_VOLTAGE_BC);
+        block.acVoltageCA = extractOptionalUInt16(raw, AC_VOLTAGE_CA);
+        block.acVoltageAtoN = extractUInt16(raw, AC_VOLTAGE_A_TO_N);
+        block.acVoltageBtoN = extractOptionalUInt16(raw, AC_VOLTAGE_B_TO_N);
+        block.acVoltageCtoN = extractOptionalUInt16(raw, AC_VOLTAGE_C_TO_N);
+        block.acVoltageSF = extractSunSSF(raw, AC_VOLTAGE_SF);
 
-        block.acPower = extractInt16(raw, 14, (short) 0);
-        block.acPowerSF = extractSunSSF(raw, 15);
-        block.acFrequency = extractUInt16(raw, 16, 0);
-        block.acFrequencySF = extractSunSSF(raw, 17);
-        block.acApparentPower = extractOptionalInt16(raw, 18);
-        block.acApparentPowerSF = extractOptionalSunSSF(raw, 19);
-        block.acReactivePower = extractOptionalInt16(raw, 20);
-        block.acReactivePowerSF = extractOptionalSunSSF(raw, 21);
-        block.acPowerFactor = extractOptionalInt16(raw, 22);
-        block.acPowerFactorSF = extractOptionalSunSSF(raw, 23);
-        block.acEnergyLifetime = extractAcc32(raw, 24, 0);
-        block.acEnergyLifetimeSF = extractSunSSF(raw, 26);
+        block.acPower = extractInt16(raw, AC_POWER);
+        block.acPowerSF = extractSunSSF(raw, AC_POWER_SF);
+        block.acFrequency = extractUInt16(raw, AC_FREQUENCY);
+        block.acFrequencySF = extractSunSSF(raw, AC_FREQUENCY_SF);
+        block.acApparentPower = extractOptionalInt16(raw, AC_APPARENT_POWER);
+        block.acApparentPowerSF = extractOptionalSunSSF(raw, AC_APPARENT_POWER_SF);
+        block.acReactivePower = extractOptionalInt16(raw, AC_REACTIVE_POWER);
+        block.acReactivePowerSF = extractOptionalSunSSF(raw, AC_REACTIVE_POWER_SF);
+        block.acPowerFactor = extractOptionalInt16(raw, AC_POWER_FACTOR);
+        block.acPowerFactorSF = extractOptionalSunSSF(raw, AC_POWER_FACTOR_SF);
+        block.acEnergyLifetime = extractAcc32(raw, AC_ENERGY_LIFETIME);
+        block.acEnergyLifetimeSF = extractSunSSF(raw, AC_ENERGY_LIFETIME_SF);
 
-        block.dcCurrent = extractOptionalUInt16(raw, 27);
-        block.dcCurrentSF = extractOptionalSunSSF(raw, 28);
-        block.dcVoltage = extractOptionalUInt16(raw, 29);
-        block.dcVoltageSF = extractOptionalSunSSF(raw, 30);
-        block.dcPower = extractOptionalInt16(raw, 31);
-        block.dcPowerSF = extractOptionalSunSSF(raw, 32);
+        block.dcCurrent = extractOptionalUInt16(raw, DC_CURRENT);
+        block.dcCurrentSF = extractOptionalSunSSF(raw, DC_CURRENT_SF);
+        block.dcVoltage = extractOptionalUInt16(raw, DC_VOLTAGE);
+        block.dcVoltageSF = extractOptionalSunSSF(raw, DC_VOLTAGE_SF);
+        block.dcPower = extractOptionalInt16(raw, DC_POWER);
+        block.dcPowerSF = extractOptionalSunSSF(raw, DC_POWER_SF);
 
-        block.temperatureCabinet = extractInt16(raw, 33, (short) 0);
-        block.temperatureHeatsink = extractOptionalInt16(raw, 34);
-        block.temperatureTransformer = extractOptionalInt16(raw, 35);
-        block.temperatureOther = extractOptionalInt16(raw, 36);
-        block.temperatureSF = extractSunSSF(raw, 37);
-        block.status = extractUInt16(raw, 38, 1);
-        block.statusVendor = extractOptionalUInt16(raw, 39);
+        block.temperatureCabinet = extractInt16(raw, TEMPERATURE_CABINET);
+        block.temperatureHeatsink = extractOptionalInt16(raw, TEMPERATURE_HEATSINK);
+        block.temperatureTransformer = extractOptionalInt16(raw, TEMPERATURE_TRANSFORMER);
+        block.temperatureOther = extractOptionalInt16(raw, TEMPERATURE_OTHER);
+        block.temperatureSF = extractSunSSF(raw, TEMPERATURE_SF);
+        block.status = extractUInt16(raw, STATUS);
+        block.statusVendor = extractOptionalUInt16(raw, STATUS_VENDOR);
 
         return block;
     }
@@ -26,92 +26,170 @@ import org.openhab.io.transport.modbus.ModbusRegisterArray;
 @NonNullByDefault
 public class MeterModelParser extends AbstractBaseParser implements SunspecParser<MeterModelBlock> {
 
+    /*
+     * Fields of the meter model blocks 201, 202, 203 and 204
+     */
+    public static final ModelField SUNSPEC_DID = ModelField.uint16(0, SunSpecConstants.METER_SINGLE_PHASE);
+    public static final ModelField AC_CURRENT_TOTAL = ModelField.int16(2, 0);
+    public static final ModelField AC_CURRENT_SF = ModelField.sunSSF(6);
+    public static final ModelField AC_VOLTAGE_LINE_TO_N_AVERAGE = ModelField.optionalInt16(7);
+    public static final ModelField AC_VOLTAGE_LINE_TO_LINE_AVERAGE = ModelField.optionalInt16(11);
+    public static final ModelField AC_VOLTAGE_SF = ModelField.sunSSF(15);
+    public static final ModelField AC_FREQUENCY = ModelField.int16(16, 0);
+    // the model block exposes the frequency scale factor as optional, channels default it to 1
+    public static final ModelField AC_FREQUENCY_SF = ModelField.sunSSF(17);
+    public static final ModelField AC_REAL_POWER_TOTAL = ModelField.int16(18, 0);
+    public static final ModelField AC_REAL_POWER_SF = ModelField.sunSSF(22);
+    public static final ModelField AC_APPARENT_POWER_TOTAL = ModelField.optionalInt16(23);
+    public static final ModelField AC_APPARENT_POWER_SF = ModelField.optionalSunSSF(27);
+    public static final ModelField AC_REACTIVE_POWER_TOTAL = ModelField.optionalInt16(28);
+    public static final ModelField AC_REACTIVE_POWER_SF = ModelField.optionalSunSSF(32);
+    public static final ModelField AC_POWER_FACTOR = ModelField.optionalInt16(33);
+    public static final ModelField AC_POWER_FACTOR_SF = ModelField.optionalSunSSF(37);
+    public static final ModelField AC_EXPORTED_REAL_ENERGY_TOTAL = ModelField.optionalAcc32(38);
+    public static final ModelField AC_IMPORTED_REAL_ENERGY_TOTAL = ModelField.acc32(46, 0);
+    public static final ModelField AC_REAL_ENERGY_SF = ModelField.sunSSF(54);
+    public static final ModelField AC_EXPORTED_APPARENT_ENERGY_TOTAL = ModelField.optionalAcc32(55);
+    public static final ModelField AC_IMPORTED_APPARENT_ENERGY_TOTAL = ModelField.optionalAcc32(63);
+    public static final ModelField AC_APPARENT_ENERGY_SF = ModelField.optionalSunSSF(71);
+    public static final ModelField AC_IMPORTED_REACTIVE_ENERGY_Q1_TOTAL = ModelField.optionalAcc32(72);
+    public static final ModelField AC_IMPORTED_REACTIVE_ENERGY_Q2_TOTAL = ModelField.optionalAcc32(80);
+    public static final ModelField AC_EXPORTED_REACTIVE_ENERGY_Q3_TOTAL = ModelField.optionalAcc32(88);
+    public static final ModelField AC_EXPORTED_REACTIVE_ENERGY_Q4_TOTAL = ModelField.optionalAcc32(96);
+    public static final ModelField AC_REACTIVE_ENERGY_SF = ModelField.optionalSunSSF(104);
+
+    /**
+     * Fields of a single phase in the meter model blocks
+     */
+    public static class PhaseFields {
+        public final ModelField acPhaseCurrent;
+        public final ModelField acVoltageToN;
+        public final ModelField acVoltageToNext;
+        public final ModelField acRealPower;
+        public final ModelField acApparentPower;
+        public final ModelField acReactivePower;
+        public final ModelField acPowerFactor;
+        public final ModelField acExportedRealEnergy;
+        public final ModelField acImportedRealEnergy;
+        public final ModelField acExportedApparentEnergy;
+        public final ModelField acImportedApparentEnergy;
+        public final ModelField acImportedReactiveEnergyQ1;
+        public final ModelField acImportedReactiveEnergyQ2;
+        public final ModelField acExportedReactiveEnergyQ3;
+        public final ModelField acExportedReactiveEnergyQ4;
+
+        /**
+         * @param phase index of the phase, 0 for phase A
+         */
+        private PhaseFields(int phase) {
+            acPhaseCurrent = ModelField.optionalInt16(3 + phase);
+            acVoltageToN = ModelField.optionalInt16(8 + phase);
+            acVoltageToNext = ModelField.optionalInt16(12 + phase);
+            acRealPower = ModelField.optionalInt16(19 + phase);
+            acApparentPower = ModelField.optionalInt16(24 + phase);
+            acReactivePower = ModelField.optionalInt16(29 + phase);
+            acPowerFactor = ModelField.optionalInt16(34 + phase);
+            acExportedRealEnergy = ModelField.optionalAcc32(40 + phase * 2);
+            acImportedRealEnergy = ModelField.optionalAcc32(48 + phase * 2);
+            acExportedApparentEnergy = ModelField.optionalAcc32(57 + phase * 2);
+            acImportedApparentEnergy = ModelField.optionalAcc32(65 + phase * 2);
+            acImportedReactiveEnergyQ1 = ModelField.optionalAcc32(74 + phase * 2);
+            acImportedReactiveEnergyQ2 = ModelField.optionalAcc32(82 + phase * 2);
+            acExportedReactiveEnergyQ3 = ModelField.optionalAcc32(90 + phase * 2);
+            acExportedReactiveEnergyQ4 = ModelField.optionalAcc32(98 + phase * 2);
+        }
+    }
+
+    public static final PhaseFields PHASE_A = new PhaseFields(0);
+    public static final PhaseFields PHASE_B = new PhaseFields(1);
+    public static final PhaseFields PHASE_C = new PhaseFields(2);
+
     @Override
     public MeterModelBlock parse(ModbusRegisterArray raw) {
         MeterModelBlock block = new MeterModelBlock();
 
-        block.sunspecDID = extractUInt16(raw, 0, SunSpecConstants.METER_SINGLE_PHASE);
+        block.sunspecDID = extractUInt16(raw, SUNSPEC_DID);
         block.length = extractUInt16(raw, 1, raw.size());
-        block.acCurrentTotal = extractInt16(raw, 2, (short) 0);
-        block.phaseA.acPhaseCurrent = extractOptionalInt16(raw, 3);
-        block.phaseB.acPhaseCurrent = extractOptionalInt16(raw, 4);
-        block.phaseC.acPhaseCurrent = extractOptionalInt16(raw, 5);
-        block.acCurrentSF = extractSunSSF(raw, 6);
-
-        block.acVoltageLineToNAverage = extractOptionalInt16(raw, 7);
-        block.phaseA.acVoltageToN = extractOptionalInt16(raw, 8);
-        block.phaseB.acVoltageToN = extractOptionalInt16(raw, 9);
-        block.phaseC.acVoltageToN = extractOptionalInt16(raw, 10);
-        block.acVoltageLineToLineAverage = extractOptionalInt16(raw, 11);
-        block.phaseA.acVoltageToNext = extractOptionalInt16(raw, 12);
-        block.phaseB.acVoltageToNext = extractOptionalInt16(raw, 13);
-        block.phaseC.acVoltageToNext = extractOptionalInt16(raw, 14);
-        block.acVoltageSF = extractSunSSF(raw, 15);
-
-        block.acFrequency = extractInt16(raw, 16, (short) 0);
-        block.acFrequencySF = extractOptionalSunSSF(raw, 17);
-
-        block.acRealPowerTotal = extractInt16(raw, 18, (short) 0);
-        block.phaseA.acRealPower = extractOptionalInt16(raw, 19);
-        block.phaseB.acRealPower = extractOptionalInt16(raw, 20);
-        block.phaseC.acRealPower = extractOptionalInt16(raw, 21);
-        block.acRealPowerSF = extractSunSSF(raw, 22);
-
-        block.acApparentPowerTotal = extractOptionalInt16(raw, 23);
-        block.phaseA.acApparentPower = extractOptionalInt16(raw, 24);
-        block.phaseB.acApparentPower = extractOptionalInt16(raw, 25);
-        block.phaseC.acApparentPower = extractOptionalInt16(raw, 26);
-        block.acApparentPowerSF = extractOptionalSunSSF(raw, 27);
-
-        block.acReactivePowerTotal = extractOptionalInt16(raw, 28);
-        block.phaseA.acReactivePower = extractOptionalInt16(raw, 29);
-        block.phaseB.acReactivePower = extractOptionalInt16(raw, 30);
-        block.phaseC.acReactivePower = extractOptionalInt16(raw, 31);
-        block.acReactivePowerSF = extractOptionalSunSSF(raw, 32);
-
-        block.acPowerFactor = extractOptionalInt16(raw, 33);
-        block.phaseA.acPowerFactor = extractOptionalInt16(raw, 34);
-        block.phaseB.acPowerFactor = extractOptionalInt16(raw, 35);
-        block.phaseC.acPowerFactor = extractOptionalInt16(raw, 36);
-        block.acPowerFactorSF = extractOptionalSunSSF(raw, 37);
-
-        block.acExportedRealEnergyTotal = extractOptionalAcc32(raw, 38);
-        block.phaseA.acExportedRealEnergy = extractOptionalAcc32(raw, 40);
-        block.phaseB.acExportedRealEnergy = extractOptionalAcc32(raw, 42);
-        block.phaseC.acExportedRealEnergy = extractOptionalAcc32(raw, 44);
-        block.acImportedRealEnergyTotal = extractAcc32(raw, 46, 0);
-        block.phaseA.acImportedRealEnergy = extractOptionalAcc32(raw, 48);
-        block.phaseB.acImportedRealEnergy = extractOptionalAcc32(raw, 50);
-        block.phaseC.acImportedRealEnergy = extractOptionalAcc32(raw, 52);
-        block.acRealEnergySF = extractSunSSF(raw, 54);
-
-        block.acExportedApparentEnergyTotal = extractOptionalAcc32(raw, 55);
-        block.phaseA.acExportedApparentEnergy = extractOptionalAcc32(raw, 57);
-        block.phaseB.acExportedApparentEnergy = extractOptionalAcc32(raw, 59);
-        block.phaseC.acExportedApparentEnergy = extractOptionalAcc32(raw, 61);
-        block.acImportedApparentEnergyTotal = extractOptionalAcc32(raw, 63);
-        block.phaseA.acImportedApparentEnergy = extractOptionalAcc32(raw, 65);
-        block.phaseB.acImportedApparentEnergy = extractOptionalAcc32(raw, 67);
-        block.phaseC.acImportedApparentEnergy = extractOptionalAcc32(raw, 69);
-        block.acApparentEnergySF = extractOptionalSunSSF(raw, 71);
-
-        block.acImportedReactiveEnergyQ1Total = extractOptionalAcc32(raw, 72);
-        block.phaseA.acImportedReactiveEnergyQ1 = extractOptionalAcc32(raw, 74);
-        block.phaseB.acImportedReactiveEnergyQ1 = extractOptionalAcc32(raw, 76);
-        block.phaseC.acImportedReactiveEnergyQ1 = extractOptionalAcc32(raw, 78);
-        block.acImportedReactiveEnergyQ2Total = extractOptionalAcc32(raw, 80);
-        block.phaseA.acImportedReactiveEnergyQ2 = extractOptionalAcc32(raw, 82);
-        block.phaseB.acImportedReactiveEnergyQ2 = extractOptionalAcc32(raw, 84);
-        block.phaseC.acImportedReactiveEnergyQ2 = extractOptionalAcc32(raw, 86);
-        block.acExportedReactiveEnergyQ3Total = extractOptionalAcc32(raw, 88);
-        block.phaseA.acExportedReactiveEnergyQ3 = extractOptionalAcc32(raw, 90);
-        block.phaseB.acExportedReactiveEnergyQ3 = extractOptionalAcc32(raw, 92);
-        block.phaseC.acExportedReactiveEnergyQ3 = extractOptionalAcc32(raw, 94);
-        block.acExportedReactiveEnergyQ4Total = extractOptionalAcc32(raw, 96);
-        block.phaseA.acExportedReactiveEnergyQ4 = extractOptionalAcc32(raw, 98);
-        block.phaseB.acExportedReactiveEnergyQ4 = extractOptionalAcc32(raw, 100);
-        block.phaseC.acExportedReactiveEnergyQ4 = extractOptionalAcc32(raw, 102);
-        block.acReactiveEnergySF = extractOptionalSunSSF(raw, 104);
+        block.acCurrentTotal = extractInt16(raw, AC_CURRENT_TOTAL);
+        block.phaseA.acPhaseCurrent = extractOptionalInt16(raw, PHASE_A.acPhaseCurrent);
+        block.phaseB.acPhaseCurrent = extractOptionalInt16(raw, PHASE_B.acPhaseCurrent);
+        block.phaseC.acPhaseCurrent = extractOptionalInt16(raw, PHASE_C.acPhaseCurrent);
+        block.acCurrentSF = extractSunSSF(raw, AC_CURRENT_SF);
+
+        block.acVoltageLineToNAverage = extractOptionalInt16(raw, AC_VOLTAGE_LINE_TO_N_AVERAGE);
+        block.phaseA.acVoltageToN = extractOptionalInt16(raw, PHASE_A.acVoltageToN);
+        block.phaseB.acVoltageToN = extractOptionalInt16(raw, PHASE_B.acVoltageToN);
+        block.phaseC.acVoltageToN = extractOptionalInt16(raw, PHASE_C.acVoltageToN);
+        block.acVoltageLineToLineAverage = extractOptionalInt16(raw, AC_VOLTAGE_LINE_TO_LINE_AVERAGE);
+        block.phaseA.acVoltageToNext = extractOptionalInt16(raw, PHASE_A.acVoltageToNext);
+        block.phaseB.acVoltageToNext = extractOptionalInt16(raw, PHASE_B.acVoltageToNext);
+        block.phaseC.acVoltageToNext = extractOptionalInt16(raw, PHASE_C.acVoltageToNext);
+        block.acVoltageSF = extractSunSSF(raw, AC_VOLTAGE_SF);
+
+        block.acFrequency = extractInt16(raw, AC_FREQUENCY);
+        block.acFrequencySF = extractOptionalSunSSF(raw, AC_FREQUENCY_SF);
+
+        block.acRealPowerTotal = extractInt16(raw, AC_REAL_POWER_TOTAL);
+        block.phaseA.acRealPower = extractOptionalInt16(raw, PHASE_A.acRealPower);
+        block.phaseB.acRealPower = extractOptionalInt16(raw, PHASE_B.acRealPower);
+        block.phaseC.acRealPower = extractOptionalInt16(raw, PHASE_C.acRealPower);
+        block.acRealPowerSF = extractSunSSF(raw, AC_REAL_POWER_SF);
+
+        block.acApparentPowerTotal = extractOptionalInt16(raw, AC_APPARENT_POWER_TOTAL);
+        block.phaseA.acApparentPower = extractOptionalInt16(raw, PHASE_A.acApparentPower);
+        block.phaseB.acApparentPower = extractOptionalInt16(raw, PHASE_B.acApparentPower);
+        block.phaseC.acApparentPower = extractOptionalInt16(raw, PHASE_C.acApparentPower);
+        block.acApparentPowerSF = extractOptionalSunSSF(raw, AC_APPARENT_POWER_SF);
+
+        block.acReactivePowerTotal = extractOptionalInt16(raw, AC_REACTIVE_POWER_TOTAL);
+        block.phaseA.acReactivePower = extractOptionalInt16(raw, PHASE_A.acReactivePower);
+        block.phaseB.acReactivePower = extractOptionalInt16(raw, PHASE_B.acReactivePower);
+        block.phaseC.acReactivePower = extractOptionalInt16(raw, PHASE_C.acReactivePower);
+        block.acReactivePowerSF = extractOptionalSunSSF(raw, AC_REACTIVE_POWER_SF);
+
+        block.acPowerFactor = extractOptionalInt16(raw, AC_POWER_FACTOR);
+        block.phaseA.acPowerFactor = extractOptionalInt16(raw, PHASE_A.acPowerFactor);
+        block.phaseB.acPowerFactor = extractOptionalInt16(raw, PHASE_B.acPowerFactor);
+        block.phaseC.acPowerFactor = extractOptionalInt16(raw, PHASE_C.acPowerFactor);
+        block.acPowerFactorSF = extractOptionalSunSSF(raw, AC_POWER_FACTOR_SF);
+
+        block.acExportedRealEnergyTotal = extractOptionalAcc32(raw, AC_EXPORTED_REAL_ENERGY_TOTAL);
+        block.phaseA.acExportedRealEnergy = extractOptionalAcc32(raw, PHASE_A.acExportedRealEnergy);
+        block.phaseB.acExportedRealEnergy = extractOptionalAcc32(raw, PHASE_B.acExportedRealEnergy);
+        block.phaseC.acExportedRealEnergy = extractOptionalAcc32(raw, PHASE_C.acExportedRealEnergy);
+        block.acImportedRealEnergyTotal = extractAcc32(raw, AC_IMPORTED_REAL_ENERGY_TOTAL);
+        block.phaseA.acImportedRealEnergy = extractOptionalAcc32(raw, PHASE_A.acImportedRealEnergy);
+        block.phaseB.acImportedRealEnergy = extractOptionalAcc32(raw, PHASE_B.acImportedRealEnergy);
+        block.phaseC.acImportedRealEnergy = extractOptionalAcc32(raw, PHASE_C.acImportedRealEnergy);
+        block.acRealEnergySF = extractSunSSF(raw, AC_REAL_ENERGY_SF);
+
+        block.acExportedApparentEnergyTotal = extractOptionalAcc32(raw, AC_EXPORTED_APPARENT_ENERGY_TOTAL);
+        block.phaseA.acExportedApparentEnergy = extractOptionalAcc32(raw, PHASE_A.acExportedApparentEnergy);
+        block.phaseB.acExportedApparentEnergy = extractOptionalAcc32(raw, PHASE_B.acExportedApparentEnergy);
+        block.phaseC.acExportedApparentEnergy = extractOptionalAcc32(raw, PHASE_C.acExportedApparentEnergy);
+        block.acImportedApparentEnergyTotal = extractOptionalAcc32(raw, AC_IMPORTED_APPARENT_ENERGY_TOTAL);
+        block.phaseA.acImportedApparentEnergy = extractOptionalAcc32(raw, PHASE_A.acImportedApparentEnergy);
+        block.phaseB.acImportedApparentEnergy = extractOptionalAcc32(raw, PHASE_B.acImportedApparentEnergy);
+        block.phaseC.acImportedApparentEnergy = extractOptionalAcc32(raw, PHASE_C.acImportedApparentEnergy);
+        block.acApparentEnergySF = extractOptionalSunSSF(raw, AC_APPARENT_ENERGY_SF);
+
+        block.acImportedReactiveEnergyQ1Total = extractOptionalAcc32(raw, AC_IMPORTED_REACTIVE_ENERGY_Q1_TOTAL);
+        block.phaseA.acImportedReactiveEnergyQ1 = extractOptionalAcc32(raw, PHASE_A.acImportedReactiveEnergyQ1);
+        block.phaseB.acImportedReactiveEnergyQ1 = extractOptionalAcc32(raw, PHASE_B.acImportedReactiveEnergyQ1);
+        block.phaseC.acImportedReactiveEnergyQ1 = extractOptionalAcc32(raw, PHASE_C.acImportedReactiveEnergyQ1);
+        block.acImportedReactiveEnergyQ2Total = extractOptionalAcc32(raw, AC_IMPORTED_REACTIVE_ENERGY_Q2_TOTAL);
+        block.phaseA.acImportedReactiveEnergyQ2 = extractOptionalAcc32(raw, PHASE_A.acImportedReactiveEnergyQ2);
+        block.phaseB.acImportedReactiveEnergyQ2 = extractOptionalAcc32(raw, PHASE_B.acImportedReactiveEnergyQ2);
+        block.phaseC.acImportedReactiveEnergyQ2 = extractOptionalAcc32(raw, PHASE_C.acImportedReactiveEnergyQ2);
+        block.acExportedReactiveEnergyQ3Total = extractOptionalAcc32(raw, AC_EXPORTED_REACTIVE_ENERGY_Q3_TOTAL);
+        block.phaseA.acExportedReactiveEnergyQ3 = extractOptionalAcc32(raw, PHASE_A.acExportedReactiveEnergyQ3);
+        block.phaseB.acExportedReactiveEnergyQ3 = extractOptionalAcc32(raw, PHASE_B.acExportedReactiveEnergyQ3);
+        block.phaseC.acExportedReactiveEnergyQ3 = extractOptionalAcc32(raw, PHASE_C.acExportedReactiveEnergyQ3);
+        block.acExportedReactiveEnergyQ4Total = extractOptionalAcc32(raw, AC_EXPORTED_REACTIVE_ENERGY_Q4_TOTAL);
+        block.phaseA.acExportedReactiveEnergyQ4 = extractOptionalAcc32(raw, PHASE_A.acExportedReactiveEnergyQ4);
+        block.phaseB.acExportedReactiveEnergyQ4 = extractOptionalAcc32(raw, PHASE_B.acExportedReactiveEnergyQ4);
+        block.phaseC.acExportedReactiveEnergyQ4 = extractOptionalAcc32(raw, PHASE_C.acExportedReactiveEnergyQ4);
+        block.acReactiveEnergySF = extractOptionalSunSSF(raw, AC_REACTIVE_ENERGY_SF);
 
         return block;
     }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.parser;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Offset and type of a field in a SunSpec model block
+ *
+ * The model parsers define their fields with these, and handlers use the same definitions to decode single fields
+ * straight from the register array of the block when needed, and to find out whether the registers of a field have
+ * changed.
+ *
+ * Optional fields are not present when the device reports the "not implemented" value of the type. Mandatory fields
+ * are always present, and evaluate to their default value in that case.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModelField {
+
+    /**
+     * SunSpec field types
+     */
+    public enum Type {
+        INT16(1, -0x8000),
+        UINT16(1, 0xffff),
+        ACC32(2, 0),
+        SUNSSF(1, -0x8000);
+
+        private final int length;
+        private final long notImplemented;
+
+        private Type(int length, long notImplemented) {
+            this.length = length;
+            this.notImplemented = notImplemented;
+        }
+    }
+
+    private final int offset;
+    private final Type type;
+    private final boolean mandatory;
+    private final long defaultValue;
+
+    private ModelField(int offset, Type type, boolean mandatory, long defaultValue) {
+        this.offset = offset;
+        this.type = type;
+        this.mandatory = mandatory;
+        this.defaultValue = defaultValue;
+    }
+
+    public static ModelField optionalInt16(int offset) {
+        return new ModelField(offset, Type.INT16, false, 0);
+    }
+
+    public static ModelField int16(int offset, long defaultValue) {
+        return new ModelField(offset, Type.INT16, true, defaultValue);
+    }
+
+    public static ModelField optionalUInt16(int offset) {
+        return new ModelField(offset, Type.UINT16, false, 0);
+    }
+
+    public static ModelField uint16(int offset, long defaultValue) {
+        return new ModelField(offset, Type.UINT16, true, defaultValue);
+    }
+
+    public static ModelField optionalAcc32(int offset) {
+        return new ModelField(offset, Type.ACC32, false, 0);
+    }
+
+    public static ModelField acc32(int offset, long defaultValue) {
+        return new ModelField(offset, Type.ACC32, true, defaultValue);
+    }
+
+    public static ModelField optionalSunSSF(int offset) {
+        return new ModelField(offset, Type.SUNSSF, false, 0);
+    }
+
+    /**
+     * Mandatory scale factor, defaults to 1 if not implemented
+     */
+    public static ModelField sunSSF(int offset) {
+        return new ModelField(offset, Type.SUNSSF, true, 1);
+    }
+
+    /**
+     * @return offset of the first register of the field within the block
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return number of registers of the field
+     */
+    public int getLength() {
+        return type.length;
+    }
+
+    /**
+     * Check whether the field is present in the block
+     *
+     * @param raw the register array of the block
+     * @return true if the field is mandatory, or the device implements it
+     */
+    public boolean isPresent(ModbusRegisterArray raw) {
+        return mandatory || decode(raw) != type.notImplemented;
+    }
+
+    /**
+     * Decode the value of the field
+     *
+     * @param raw the register array of the block
+     * @return the value, or the default value of a mandatory field that is not implemented. Value of an optional field
+     *         that is not present is undefined.
+     */
+    public long getValue(ModbusRegisterArray raw) {
+        long value = decode(raw);
+        return mandatory && value == type.notImplemented ? defaultValue : value;
+    }
+
+    private long decode(ModbusRegisterArray raw) {
+        switch (type) {
+            case INT16:
+            case SUNSSF:
+                return ModbusBitUtilities.extractIntFromRegisters(raw, offset, ValueType.INT16);
+            case UINT16:
+                return ModbusBitUtilities.extractIntFromRegisters(raw, offset, ValueType.UINT16);
+            case ACC32:
+                return ModbusBitUtilities.extractLongFromRegisters(raw, offset, ValueType.UINT32);
+            default:
+                throw new IllegalStateException("Unexpected field type " + type);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.openhab.binding.modbus.sunspec.internal.dto.CommonModelBlock;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+
+/**
+ * Tests for {@link CommonModelParser}, with the registers of a common model block
+ *
+ * @author agent - Initial contribution
+ */
+public class CommonModelParserTest {
+
+    private final CommonModelParser parser = new CommonModelParser();
+
+    /**
+     * Writes the string to the registers, two characters per register, high byte first
+     */
+    private static void putString(int[] registers, int index, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            registers[index + i / 2] |= (bytes[i] & 0xff) << (i % 2 == 0 ? 8 : 0);
+        }
+    }
+
+    private static int[] createCommonBlock() {
+        int[] registers = new int[68];
+        registers[0] = 1; // common block
+        registers[1] = 66; // block length
+        putString(registers, 2, "SunSpec Test Inc.");
+        putString(registers, 18, "Inverter 3000");
+        putString(registers, 42, "1.2.3");
+        putString(registers, 50, "SN0123456789");
+        registers[66] = 3; // device address
+        return registers;
+    }
+
+    @Test
+    public void testParseCommonBlock() {
+        CommonModelBlock block = parser.parse(new BasicModbusRegisterArray(createCommonBlock()));
+
+        assertThat(block.sunSpecDID, is(equalTo(1)));
+        assertThat(block.length, is(equalTo(66)));
+        assertThat(block.manufacturer, is(equalTo("SunSpec Test Inc.")));
+        assertThat(block.model, is(equalTo("Inverter 3000")));
+        assertThat(block.version, is(equalTo("1.2.3")));
+        assertThat(block.serialNumber, is(equalTo("SN0123456789")));
+        assertThat(block.deviceAddress, is(equalTo(3)));
+    }
+
+    @Test
+    public void testNotImplementedDeviceAddressUsesDefault() {
+        int[] registers = createCommonBlock();
+        registers[66] = 0xFFFF;
+
+        CommonModelBlock block = parser.parse(new BasicModbusRegisterArray(registers));
+
+        assertThat(block.deviceAddress, is(equalTo(1)));
+    }
+
+    @Test
+    public void testShortRead() {
+        int[] registers = new int[10];
+        System.arraycopy(createCommonBlock(), 0, registers, 0, registers.length);
+
+        CommonModelBlock block = parser.parse(new BasicModbusRegisterArray(registers));
+
+        // only the header is parsed
+        assertThat(block.sunSpecDID, is(equalTo(1)));
+        assertThat(block.length, is(equalTo(66)));
+        assertThat(block.manufacturer, is(equalTo("")));
+        assertThat(block.deviceAddress, is(equalTo(0)));
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.openhab.binding.modbus.sunspec.internal.dto.InverterModelBlock;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+
+/**
+ * Tests for {@link InverterModelParser}, with the registers of a three phase inverter model block
+ *
+ * @author agent - Initial contribution
+ */
+public class InverterModelParserTest {
+
+    private static final int[] INVERTER_BLOCK = { //
+            103, 50, // three phase inverter, block length
+            1234, 411, 412, 0xFFFF, 0xFFFE, // AC current total, phase A, B, C (not implemented), scale factor -2
+            4000, 4010, 0xFFFF, 2300, 2310, 2320, 0xFFFF, // voltage AB, BC, CA (not implemented), AN, BN, CN, SF -1
+            0xFC18, 0, // AC power -1000, scale factor 0
+            50000, 0xFFFD, // frequency, scale factor -3
+            0x8000, 0x8000, // apparent power and its scale factor not implemented
+            150, 0, // reactive power, scale factor 0
+            0xFF9C, 0xFFFE, // power factor -100, scale factor -2
+            0x0001, 0x86A0, 3, // lifetime energy 100000, scale factor 3
+            550, 0xFFFE, 3500, 0xFFFF, 1900, 0, // DC current, SF, DC voltage, SF, DC power, SF
+            450, 0xFFF6, 0x8000, 0x8000, 0xFFFF, // cabinet, heat sink, transformer, other temperature, SF -1
+            4, 0xFFFF, // status MPPT, vendor status not implemented
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 // events and vendor events
+    };
+
+    private final InverterModelParser parser = new InverterModelParser();
+
+    @Test
+    public void testParseInverterBlock() {
+        InverterModelBlock block = parser.parse(new BasicModbusRegisterArray(INVERTER_BLOCK));
+
+        assertThat(block.phaseConfiguration, is(equalTo(103)));
+        assertThat(block.length, is(equalTo(50)));
+
+        assertThat(block.acCurrentTotal, is(equalTo(1234)));
+        assertThat(block.acCurrentPhaseA, is(equalTo(411)));
+        assertThat(block.acCurrentPhaseB, is(equalTo(Optional.of(412))));
+        assertThat(block.acCurrentPhaseC, is(equalTo(Optional.empty())));
+        assertThat(block.acCurrentSF, is(equalTo((short) -2)));
+
+        assertThat(block.acVoltageAB, is(equalTo(Optional.of(4000))));
+        assertThat(block.acVoltageBC, is(equalTo(Optional.of(4010))));
+        assertThat(block.acVoltageCA, is(equalTo(Optional.empty())));
+        assertThat(block.acVoltageAtoN, is(equalTo(2300)));
+        assertThat(block.acVoltageBtoN, is(equalTo(Optional.of(2310))));
+        assertThat(block.acVoltageCtoN, is(equalTo(Optional.of(2320))));
+        assertThat(block.acVoltageSF, is(equalTo((short) -1)));
+
+        assertThat(block.acPower, is(equalTo((short) -1000)));
+        assertThat(block.acPowerSF, is(equalTo((short) 0)));
+        // uint16 values above 0x7FFF are not sign extended
+        assertThat(block.acFrequency, is(equalTo(50000)));
+        assertThat(block.acFrequencySF, is(equalTo((short) -3)));
+        assertThat(block.acApparentPower, is(equalTo(Optional.empty())));
+        assertThat(block.acApparentPowerSF, is(equalTo(Optional.empty())));
+        assertThat(block.acReactivePower, is(equalTo(Optional.of((short) 150))));
+        assertThat(block.acReactivePowerSF, is(equalTo(Optional.of((short) 0))));
+        assertThat(block.acPowerFactor, is(equalTo(Optional.of((short) -100))));
+        assertThat(block.acPowerFactorSF, is(equalTo(Optional.of((short) -2))));
+        assertThat(block.acEnergyLifetime, is(equalTo(100000L)));
+        assertThat(block.acEnergyLifetimeSF, is(equalTo((short) 3)));
+
+        assertThat(block.dcCurrent, is(equalTo(Optional.of(550))));
+        assertThat(block.dcCurrentSF, is(equalTo(Optional.of((short) -2))));
+        assertThat(block.dcVoltage, is(equalTo(Optional.of(3500))));
+        assertThat(block.dcVoltageSF, is(equalTo(Optional.of((short) -1))));
+        assertThat(block.dcPower, is(equalTo(Optional.of((short) 1900))));
+        assertThat(block.dcPowerSF, is(equalTo(Optional.of((short) 0))));
+
+        assertThat(block.temperatureCabinet, is(equalTo((short) 450)));
+        assertThat(block.temperatureHeatsink, is(equalTo(Optional.of((short) -10))));
+        assertThat(block.temperatureTransformer, is(equalTo(Optional.empty())));
+        assertThat(block.temperatureOther, is(equalTo(Optional.empty())));
+        assertThat(block.temperatureSF, is(equalTo((short) -1)));
+        assertThat(block.status, is(equalTo(4)));
+        assertThat(block.statusVendor, is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void testNotImplementedMandatoryFieldsUseDefaults() {
+        int[] registers = INVERTER_BLOCK.clone();
+        registers[0] = 0xFFFF; // phase configuration
+        registers[2] = 0xFFFF; // AC current total
+        registers[6] = 0x8000; // AC current scale factor
+        registers[14] = 0x8000; // AC power
+        registers[24] = 0; // lifetime energy
+        registers[25] = 0;
+        registers[38] = 0xFFFF; // status
+
+        InverterModelBlock block = parser.parse(new BasicModbusRegisterArray(registers));
+
+        assertThat(block.phaseConfiguration, is(equalTo(101)));
+        assertThat(block.acCurrentTotal, is(equalTo(0)));
+        assertThat(block.acCurrentSF, is(equalTo((short) 1)));
+        assertThat(block.acPower, is(equalTo((short) 0)));
+        assertThat(block.acEnergyLifetime, is(equalTo(0L)));
+        assertThat(block.status, is(equalTo(1)));
+    }
+}
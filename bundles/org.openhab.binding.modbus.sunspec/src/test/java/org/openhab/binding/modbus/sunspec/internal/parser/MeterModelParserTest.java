@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.openhab.binding.modbus.sunspec.internal.dto.MeterModelBlock;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+
+/**
+ * Tests for {@link MeterModelParser}, with the registers of a wye connected three phase meter model block
+ *
+ * @author agent - Initial contribution
+ */
+public class MeterModelParserTest {
+
+    private static int[] createMeterBlock() {
+        int[] registers = new int[107];
+        registers[0] = 203; // wye connected meter
+        registers[1] = 105; // block length
+        // AC current total and phases, scale factor -2
+        registers[2] = 1530;
+        registers[3] = 510;
+        registers[4] = 500;
+        registers[5] = 520;
+        registers[6] = 0xFFFE;
+        // voltage line to neutral average and phases, phase C not implemented
+        registers[7] = 2305;
+        registers[8] = 2300;
+        registers[9] = 2310;
+        registers[10] = 0x8000;
+        registers[11] = 3990;
+        registers[15] = 0xFFFF;
+        // frequency, scale factor -2
+        registers[16] = 5001;
+        registers[17] = 0xFFFE;
+        // real power total -2000 (exported), phase A -700
+        registers[18] = 0xF830;
+        registers[19] = 0xFD44;
+        // apparent power total not implemented
+        registers[23] = 0x8000;
+        // exported real energy total 0x80000001
+        registers[38] = 0x8000;
+        registers[39] = 0x0001;
+        // imported real energy total 100000, phase A not implemented
+        registers[46] = 0x0001;
+        registers[47] = 0x86A0;
+        // apparent energy scale factor not implemented
+        registers[71] = 0x8000;
+        // reactive energy scale factor -1
+        registers[104] = 0xFFFF;
+        return registers;
+    }
+
+    private final MeterModelParser parser = new MeterModelParser();
+
+    @Test
+    public void testParseMeterBlock() {
+        MeterModelBlock block = parser.parse(new BasicModbusRegisterArray(createMeterBlock()));
+
+        assertThat(block.sunspecDID, is(equalTo(203)));
+        assertThat(block.length, is(equalTo(105)));
+
+        assertThat(block.acCurrentTotal, is(equalTo((short) 1530)));
+        assertThat(block.phaseA.acPhaseCurrent, is(equalTo(Optional.of((short) 510))));
+        assertThat(block.phaseB.acPhaseCurrent, is(equalTo(Optional.of((short) 500))));
+        assertThat(block.phaseC.acPhaseCurrent, is(equalTo(Optional.of((short) 520))));
+        assertThat(block.acCurrentSF, is(equalTo((short) -2)));
+
+        assertThat(block.acVoltageLineToNAverage, is(equalTo(Optional.of((short) 2305))));
+        assertThat(block.phaseA.acVoltageToN, is(equalTo(Optional.of((short) 2300))));
+        assertThat(block.phaseB.acVoltageToN, is(equalTo(Optional.of((short) 2310))));
+        assertThat(block.phaseC.acVoltageToN, is(equalTo(Optional.empty())));
+        assertThat(block.acVoltageLineToLineAverage, is(equalTo(Optional.of((short) 3990))));
+        assertThat(block.acVoltageSF, is(equalTo((short) -1)));
+
+        assertThat(block.acFrequency, is(equalTo((short) 5001)));
+        assertThat(block.acFrequencySF, is(equalTo(Optional.of((short) -2))));
+
+        assertThat(block.acRealPowerTotal, is(equalTo((short) -2000)));
+        assertThat(block.phaseA.acRealPower, is(equalTo(Optional.of((short) -700))));
+        assertThat(block.phaseB.acRealPower, is(equalTo(Optional.of((short) 0))));
+        assertThat(block.acRealPowerSF, is(equalTo((short) 0)));
+
+        assertThat(block.acApparentPowerTotal, is(equalTo(Optional.empty())));
+
+        // acc32 values above 0x7FFFFFFF are not sign extended, zero means not implemented
+        assertThat(block.acExportedRealEnergyTotal, is(equalTo(Optional.of(0x80000001L))));
+        assertThat(block.phaseA.acExportedRealEnergy, is(equalTo(Optional.empty())));
+        assertThat(block.acImportedRealEnergyTotal, is(equalTo(100000L)));
+        assertThat(block.phaseA.acImportedRealEnergy, is(equalTo(Optional.empty())));
+        assertThat(block.acRealEnergySF, is(equalTo((short) 0)));
+
+        assertThat(block.acApparentEnergySF, is(equalTo(Optional.empty())));
+        assertThat(block.acImportedReactiveEnergyQ1Total, is(equalTo(Optional.empty())));
+        assertThat(block.acReactiveEnergySF, is(equalTo(Optional.of((short) -1))));
+    }
+
+    @Test
+    public void testNotImplementedMandatoryFieldsUseDefaults() {
+        int[] registers = createMeterBlock();
+        registers[0] = 0xFFFF; // meter type
+        registers[2] = 0x8000; // AC current total
+        registers[6] = 0x8000; // AC current scale factor
+        registers[46] = 0; // imported real energy total
+        registers[47] = 0;
+
+        MeterModelBlock block = parser.parse(new BasicModbusRegisterArray(registers));
+
+        assertThat(block.sunspecDID, is(equalTo(201)));
+        assertThat(block.acCurrentTotal, is(equalTo((short) 0)));
+        assertThat(block.acCurrentSF, is(equalTo((short) 1)));
+        assertThat(block.acImportedRealEnergyTotal, is(equalTo(0L)));
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.sunspec.internal.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Tests for {@link ModelField}
+ *
+ * @author agent - Initial contribution
+ */
+public class ModelFieldTest {
+
+    private final ModbusRegisterArray registers = new BasicModbusRegisterArray(new int[] { //
+            0xFC18, 0x8000, 50000, 0xFFFF, 0x0001, 0x86A0, 0, 0, 0xFFFE, 0x8000 });
+
+    @Test
+    public void testInt16() {
+        assertThat(ModelField.int16(0, 7).getValue(registers), is(equalTo(-1000L)));
+        assertThat(ModelField.optionalInt16(0).isPresent(registers), is(true));
+        assertThat(ModelField.optionalInt16(1).isPresent(registers), is(false));
+        assertThat(ModelField.int16(1, 7).isPresent(registers), is(true));
+        assertThat(ModelField.int16(1, 7).getValue(registers), is(equalTo(7L)));
+    }
+
+    @Test
+    public void testUInt16() {
+        // uint16 values above 0x7FFF are not sign extended
+        assertThat(ModelField.uint16(2, 0).getValue(registers), is(equalTo(50000L)));
+        assertThat(ModelField.optionalUInt16(2).isPresent(registers), is(true));
+        assertThat(ModelField.optionalUInt16(3).isPresent(registers), is(false));
+        assertThat(ModelField.uint16(3, 1).getValue(registers), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testAcc32() {
+        ModelField field = ModelField.optionalAcc32(4);
+        assertThat(field.getLength(), is(equalTo(2)));
+        assertThat(field.getValue(registers), is(equalTo(100000L)));
+        assertThat(field.isPresent(registers), is(true));
+        assertThat(ModelField.optionalAcc32(6).isPresent(registers), is(false));
+    }
+
+    @Test
+    public void testSunSSF() {
+        assertThat(ModelField.sunSSF(8).getValue(registers), is(equalTo(-2L)));
+        assertThat(ModelField.optionalSunSSF(9).isPresent(registers), is(false));
+        // mandatory scale factors default to 1, i.e. unscaled
+        assertThat(ModelField.sunSSF(9).getValue(registers), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testParserFieldsMatchBlockLayout() {
+        assertThat(InverterModelParser.STATUS.getOffset(), is(equalTo(38)));
+        assertThat(MeterModelParser.AC_REACTIVE_ENERGY_SF.getOffset(), is(equalTo(104)));
+        assertThat(MeterModelParser.PHASE_C.acExportedReactiveEnergyQ4.getOffset(), is(equalTo(102)));
+    }
+}
@@ -30,6 +30,7 @@ public class ModbusPollerConfiguration {
     private String type;
     private int maxTries = 3;// backwards compatibility and tests
     private long cacheMillis = 50L;
+    private long maxRefresh;
 
     /**
      * Gets refresh period in milliseconds
@@ -116,4 +117,20 @@ public class ModbusPollerConfiguration {
     public void setCacheMillis(long cacheMillis) {
         this.cacheMillis = cacheMillis;
     }
+
+    /**
+     * Gets maximum poll period in milliseconds, used with adaptive polling.
+     *
+     * Adaptive polling is enabled when this is larger than refresh.
+     */
+    public long getMaxRefresh() {
+        return maxRefresh;
+    }
+
+    /**
+     * Sets maximum poll period in milliseconds, used with adaptive polling.
+     */
+    public void setMaxRefresh(long maxRefresh) {
+        this.maxRefresh = maxRefresh;
+    }
 }
@@ -150,6 +150,11 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    /**
+     * Raw bits of the previously polled value, used to skip processing of unchanged data
+     */
+    private volatile long lastRawValue;
+    private volatile boolean lastRawValueValid;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -228,6 +233,7 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         BasicWriteTask writeTask = new BasicWriteTask(slaveEndpoint, request, this);
         logger.trace("Submitting write task: {}", writeTask);
         manager.submitOneTimeWrite(writeTask);
+        notifyPollerAboutWrite(request);
     }
 
     /**
@@ -331,9 +337,17 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         requests.stream().map(request -> new BasicWriteTask(slaveEndpoint, request, this)).forEach(writeTask -> {
             logger.trace("Submitting write task: {} (based from transformation {})", writeTask, transformOutput);
             manager.submitOneTimeWrite(writeTask);
+            notifyPollerAboutWrite(writeTask.getRequest());
         });
     }
 
+    private void notifyPollerAboutWrite(ModbusWriteRequestBlueprint request) {
+        ModbusPollerThingHandler poller = pollerHandler;
+        if (poller != null) {
+            poller.writeIssued(request);
+        }
+    }
+
     @Override
     public synchronized void initialize() {
         // Initialize the thing. If done set status to ONLINE to indicate proper working.
@@ -419,6 +433,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        lastRawValue = 0L;
+        lastRawValueValid = false;
     }
 
     @Override
@@ -428,6 +444,19 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         this.initialize();
     }
 
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        // Newly linked channel is updated only when the data is processed in full
+        lastRawValueValid = false;
+        super.channelLinked(channelUID);
+    }
+
+    @Override
+    public void channelUnlinked(ChannelUID channelUID) {
+        lastRawValueValid = false;
+        super.channelUnlinked(channelUID);
+    }
+
     private boolean hasConfigurationError() {
         ThingStatusInfo statusInfo = getThing().getStatusInfo();
         return statusInfo.getStatus() == ThingStatus.OFFLINE
@@ -683,8 +712,21 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+        long rawValue = ModbusBitUtilities.extractRawBitsFromRegisters(registers, extractIndex, readValueType);
+        if (lastRawValueValid && lastRawValue == rawValue) {
+            Optional<Map<ChannelUID, State>> values = processUnchangedValue();
+            if (values.isPresent()) {
+                logger.debug(
+                        "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> value unchanged (raw {}). Registers {} for request {}",
+                        thing.getUID(), values.get(), readValueType, readIndex, readSubIndex.orElse(0), extractIndex,
+                        rawValue, registers, request);
+                return;
+            }
+        }
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
+        lastRawValue = rawValue;
+        lastRawValueValid = true;
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
@@ -715,6 +757,7 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         } else if (!isReadEnabled) {
             return;
         }
+        lastRawValueValid = false;
         if (error instanceof ModbusConnectionException) {
             logger.error("Thing {} '{}' had {} error on read: {}", getThing().getUID(), getThing().getLabel(),
                     error.getClass().getSimpleName(), error.toString());
@@ -866,6 +909,40 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         return states;
     }
 
+    /**
+     * Update linked channels when the polled data is unchanged since the previous poll
+     *
+     * Previously updated states are re-used as is, avoiding the conversion and transformation of the data. This is
+     * possible only when all channels updated by the previous poll have been updated recently, i.e. none of them would
+     * be updated due to updateUnchangedValuesEveryMillis. Channels that could not be converted with the previous data
+     * are skipped as well. Linking or unlinking channels makes the next poll process the data in full.
+     *
+     * @return updated channel data, or empty if the data needs to be processed in full
+     */
+    private Optional<Map<ChannelUID, State>> processUnchangedValue() {
+        if (updateUnchangedValuesEveryMillis <= 0L) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        Map<ChannelUID, State> lastStates = channelLastState;
+        Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>(lastStates);
+        for (ChannelUID channelUID : lastStates.keySet()) {
+            if (channelUID.equals(lastReadSuccessUID)) {
+                continue;
+            }
+            long lastUpdatedMillis = channelLastUpdated.getOrDefault(channelUID, 0L);
+            if (lastUpdatedMillis <= 0L || now - lastUpdatedMillis > updateUnchangedValuesEveryMillis) {
+                return Optional.empty();
+            }
+        }
+        if (isLinked(lastReadSuccessUID)) {
+            states.put(lastReadSuccessUID, new DateTimeType());
+        }
+        updateExpiredChannels(states);
+        return Optional.of(states);
+    }
+
     private void updateExpiredChannels(Map<ChannelUID, State> states) {
         synchronized (this) {
             updateStatusIfChanged(ThingStatus.ONLINE);
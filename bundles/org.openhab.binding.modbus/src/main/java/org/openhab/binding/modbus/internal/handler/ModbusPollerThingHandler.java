@@ -17,6 +17,7 @@ import java.util.function.Supplier;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.io.transport.modbus.ModbusManager;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
 import org.openhab.io.transport.modbus.PollTask;
 
 /**
@@ -48,4 +49,13 @@ public interface ModbusPollerThingHandler {
      * Refresh data
      */
     public void refresh();
+
+    /**
+     * Notify about a write request issued to the slave of this poller
+     *
+     * With adaptive polling, poll interval is reset to minimum when the write overlaps the polled range.
+     *
+     * @param request write request
+     */
+    public void writeIssued(ModbusWriteRequestBlueprint request);
 }
@@ -14,6 +14,7 @@ package org.openhab.binding.modbus.internal.handler;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
@@ -46,6 +47,10 @@ import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusWriteFunctionCode;
+import org.openhab.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
 import org.openhab.io.transport.modbus.PollTask;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.slf4j.Logger;
@@ -82,6 +87,10 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             if (hasConfigurationError() || disposed) {
                 return;
             }
+            AtomicStampedKeyValue<ModbusReadRequestBlueprint, Object> lastData = getLastData();
+            adaptDataReceived(request,
+                    lastData != null && lastData.getValue() instanceof ModbusRegisterArray
+                            && registersEqual((ModbusRegisterArray) lastData.getValue(), registers));
             if (config.getCacheMillis() >= 0) {
                 AtomicStampedKeyValue<ModbusReadRequestBlueprint, ModbusRegisterArray> lastRegisters = this.lastRegisters;
                 if (lastRegisters == null) {
@@ -92,6 +101,7 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             }
             logger.debug("Thing {} received registers {} for request {}", thing.getUID(), registers, request);
             resetCommunicationError();
+            updateMergeRatioProperty();
             childCallbacks.forEach(handler -> handler.onRegisters(request, registers));
         }
 
@@ -101,6 +111,9 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             if (hasConfigurationError() || disposed) {
                 return;
             }
+            AtomicStampedKeyValue<ModbusReadRequestBlueprint, Object> lastData = getLastData();
+            adaptDataReceived(request, lastData != null && lastData.getValue() instanceof BitArray
+                    && ((BitArray) lastData.getValue()).sizeAndValuesEquals(coils));
             if (config.getCacheMillis() >= 0) {
                 AtomicStampedKeyValue<ModbusReadRequestBlueprint, BitArray> lastCoils = this.lastCoils;
                 if (lastCoils == null) {
@@ -111,6 +124,7 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             }
             logger.debug("Thing {} received coils {} for request {}", thing.getUID(), coils, request);
             resetCommunicationError();
+            updateMergeRatioProperty();
             childCallbacks.forEach(handler -> handler.onBits(request, coils));
         }
 
@@ -120,6 +134,7 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             if (hasConfigurationError() || disposed) {
                 return;
             }
+            adaptDataReceived(request, false);
             if (config.getCacheMillis() >= 0) {
                 AtomicStampedKeyValue<ModbusReadRequestBlueprint, Exception> lastError = this.lastError;
                 if (lastError == null) {
@@ -142,6 +157,18 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             }
         }
 
+        private boolean registersEqual(ModbusRegisterArray previous, ModbusRegisterArray registers) {
+            if (previous.size() != registers.size()) {
+                return false;
+            }
+            for (int i = 0; i < registers.size(); i++) {
+                if (previous.getRegister(i).toUnsignedShort() != registers.getRegister(i).toUnsignedShort()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private ThingUID getThingUID() {
             return getThing().getUID();
         }
@@ -246,18 +273,51 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
         }
     }
 
+    /**
+     * How the poll task is polled
+     */
+    private enum PollMode {
+        /**
+         * Not polled, data is read only on refresh
+         */
+        NONE,
+        /**
+         * Regular poll registered with the {@link ModbusManager}
+         */
+        REGULAR,
+        /**
+         * Regular poll registered with the {@link ModbusManager}, re-registered with new poll period as the poll
+         * interval adapts, see {@link #adaptDataReceived(ModbusReadRequestBlueprint, boolean)}
+         */
+        ADAPTIVE
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusPollerThingHandlerImpl.class);
 
     @NonNullByDefault({})
     private ModbusPollerConfiguration config;
     private long cacheMillis;
     private volatile @Nullable PollTask pollTask;
+    /**
+     * Poll mode of the registered poll task. Decided on registration, the configuration might have changed by the
+     * time the poll task is unregistered.
+     */
+    private volatile PollMode pollMode = PollMode.NONE;
     private Supplier<ModbusManager> managerRef;
     private volatile boolean disposed;
     private volatile List<ModbusReadCallback> childCallbacks = new CopyOnWriteArrayList<>();
 
     private ReadCallbackDelegator callbackDelegator = new ReadCallbackDelegator();
 
+    /**
+     * Current poll interval of adaptive polling
+     */
+    private volatile long currentRefresh;
+    /**
+     * Merge ratio last published as thing property, see {@link #updateMergeRatioProperty()}
+     */
+    private volatile @Nullable String publishedMergeRatio;
+
     public ModbusPollerThingHandlerImpl(Bridge bridge, Supplier<ModbusManager> managerRef) {
         super(bridge);
         this.managerRef = managerRef;
@@ -339,8 +399,12 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
         logger.debug("Unregistering polling from ModbusManager");
         @NonNull
         PollTask task = (@NonNull PollTask) pollTask;
-        managerRef.get().unregisterRegularPoll(task);
+        if (pollMode != PollMode.NONE) {
+            managerRef.get().unregisterRegularPoll(task);
+        }
         pollTask = null;
+        pollMode = PollMode.NONE;
+        publishedMergeRatio = null;
         updateStatus(ThingStatus.OFFLINE);
     }
 
@@ -381,11 +445,118 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
 
         if (config.getRefresh() <= 0L) {
             logger.debug("Not registering polling with ModbusManager since refresh disabled");
+            pollMode = PollMode.NONE;
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Not polling");
+        } else if (config.getMaxRefresh() > config.getRefresh()) {
+            logger.debug("Scheduling adaptive polling with poll interval between {} and {} ms", config.getRefresh(),
+                    config.getMaxRefresh());
+            pollMode = PollMode.ADAPTIVE;
+            currentRefresh = config.getRefresh();
+            managerRef.get().registerRegularPoll(task, currentRefresh, 0);
+            updateStatus(ThingStatus.ONLINE);
+            updateMergeRatioProperty();
         } else {
             logger.debug("Registering polling with ModbusManager");
+            pollMode = PollMode.REGULAR;
             managerRef.get().registerRegularPoll(task, config.getRefresh(), 0);
             updateStatus(ThingStatus.ONLINE);
+            updateMergeRatioProperty();
+        }
+    }
+
+    /**
+     * Publish the merge ratio of coalesced regular polls of the endpoint as thing property
+     *
+     * The ratio changes when polls of the endpoint are (un)registered, the property is updated only when the value
+     * changes.
+     */
+    private void updateMergeRatioProperty() {
+        PollTask pollTask = this.pollTask;
+        if (pollTask == null || pollMode == PollMode.NONE) {
+            return;
+        }
+        String ratio = String.format(Locale.ROOT, "%.2f",
+                managerRef.get().getCoalescingMergeRatio(pollTask.getEndpoint()));
+        if (!ratio.equals(publishedMergeRatio)) {
+            publishedMergeRatio = ratio;
+            updateProperty(ModbusBindingConstantsInternal.PROPERTY_COALESCING_MERGE_RATIO, ratio);
+        }
+    }
+
+    private boolean isAdaptivePolling() {
+        return pollMode == PollMode.ADAPTIVE;
+    }
+
+    /**
+     * Adapt poll interval based on received data
+     *
+     * Poll interval is doubled (up to maxRefresh) when data is unchanged, and reset back to refresh otherwise.
+     *
+     * @param request request of the received data. Data of polls registered before (re-)initialization of this handler
+     *            is ignored.
+     * @param unchanged whether the received data is identical to previous data
+     */
+    private void adaptDataReceived(ModbusReadRequestBlueprint request, boolean unchanged) {
+        if (!isAdaptivePolling()) {
+            return;
+        }
+        if (unchanged) {
+            adaptPollInterval(request, Math.min(config.getMaxRefresh(), currentRefresh * 2));
+        } else {
+            adaptPollInterval(request, config.getRefresh());
+        }
+    }
+
+    /**
+     * Change the poll interval of adaptive polling by re-registering the poll task with the new poll period
+     *
+     * The poll task stays registered with the {@link ModbusManager}, so the polls are queued and coalesced like
+     * regular polls.
+     *
+     * @param request request of the poll task that should be adapted. Nothing is done if the poll task has been
+     *            unregistered meanwhile.
+     * @param refresh new poll interval
+     */
+    private synchronized void adaptPollInterval(ModbusReadRequestBlueprint request, long refresh) {
+        PollTask pollTask = this.pollTask;
+        if (disposed || pollTask == null || pollTask.getRequest() != request || !isAdaptivePolling()
+                || currentRefresh == refresh) {
+            return;
+        }
+        logger.trace("Thing {}: poll interval is now {} ms", getThing().getUID(), refresh);
+        currentRefresh = refresh;
+        managerRef.get().registerRegularPoll(pollTask, refresh, refresh);
+    }
+
+    /**
+     * Reset adaptive polling to the minimum poll interval if the write overlaps the polled range
+     */
+    @Override
+    public void writeIssued(ModbusWriteRequestBlueprint request) {
+        PollTask pollTask = this.pollTask;
+        if (pollTask == null || disposed || !isAdaptivePolling()) {
+            return;
+        }
+        ModbusReadRequestBlueprint readRequest = pollTask.getRequest();
+        if (readRequest.getUnitID() != request.getUnitID()) {
+            return;
+        }
+        ModbusWriteFunctionCode functionCode = request.getFunctionCode();
+        boolean coilWrite = functionCode == ModbusWriteFunctionCode.WRITE_COIL
+                || functionCode == ModbusWriteFunctionCode.WRITE_MULTIPLE_COILS;
+        final int length;
+        if (coilWrite && readRequest.getFunctionCode() == ModbusReadFunctionCode.READ_COILS
+                && request instanceof ModbusWriteCoilRequestBlueprint) {
+            length = ((ModbusWriteCoilRequestBlueprint) request).getCoils().size();
+        } else if (!coilWrite && readRequest.getFunctionCode() == ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS
+                && request instanceof ModbusWriteRegisterRequestBlueprint) {
+            length = ((ModbusWriteRegisterRequestBlueprint) request).getRegisters().size();
+        } else {
+            return;
+        }
+        if (request.getReference() < readRequest.getReference() + readRequest.getDataLength()
+                && readRequest.getReference() < request.getReference() + length) {
+            adaptPollInterval(readRequest, config.getRefresh());
         }
     }
 
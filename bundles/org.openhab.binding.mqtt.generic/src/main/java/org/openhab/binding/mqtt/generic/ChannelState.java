@@ -30,6 +30,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.BatchedMessageDispatcher;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.slf4j.Logger;
@@ -61,6 +62,8 @@ public class ChannelState implements MqttMessageSubscriber {
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+    private volatile @Nullable BatchedMessageDispatcher messageDispatcher;
+    private final MqttMessageSubscriber dispatchedProcessor = this::processDispatchedMessage;
 
     /**
      * Creates a new channel state.
@@ -131,14 +134,48 @@ public class ChannelState implements MqttMessageSubscriber {
         return channelUID;
     }
 
+    /**
+     * Set a dispatcher to process incoming messages on a worker pool instead of the MQTT client thread.
+     *
+     * @param messageDispatcher A dispatcher or null to process messages directly
+     */
+    public void setMessageDispatcher(@Nullable BatchedMessageDispatcher messageDispatcher) {
+        final BatchedMessageDispatcher previous = this.messageDispatcher;
+        this.messageDispatcher = messageDispatcher;
+        if (previous != null && previous != messageDispatcher) {
+            previous.cancel(dispatchedProcessor);
+        }
+    }
+
     /**
      * Incoming message from the MqttBrokerConnection
      *
+     * If a message dispatcher is set, the message is processed later on a worker thread. Successive state updates
+     * might be collapsed so that only the latest is applied. Triggers and commands are never collapsed.
+     *
      * @param topic The topic. Is the same as the field stateTopic.
      * @param payload The byte payload. Must be UTF8 encoded text or binary data.
      */
     @Override
     public void processMessage(String topic, byte[] payload) {
+        final BatchedMessageDispatcher messageDispatcher = this.messageDispatcher;
+        if (messageDispatcher != null) {
+            messageDispatcher.dispatch(dispatchedProcessor, topic, payload, !config.trigger && !config.postCommand);
+        } else {
+            processMessageNow(topic, payload);
+        }
+    }
+
+    private void processDispatchedMessage(String topic, byte[] payload) {
+        if (messageDispatcher == null || channelStateUpdateListener == null) {
+            // Stopped or disposed while the message was queued
+            logger.trace("Dropping queued MQTT message for topic {} of stopped channel {}", topic, channelUID);
+            return;
+        }
+        processMessageNow(topic, payload);
+    }
+
+    private void processMessageNow(String topic, byte[] payload) {
         final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
         if (channelStateUpdateListener == null) {
             logger.warn("MQTT message received for topic {}, but MessageSubscriber object hasn't been started!", topic);
@@ -255,6 +292,10 @@ public class ChannelState implements MqttMessageSubscriber {
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
         cachedValue.resetState();
+        final BatchedMessageDispatcher messageDispatcher = this.messageDispatcher;
+        if (messageDispatcher != null) {
+            messageDispatcher.cancel(dispatchedProcessor);
+        }
     }
 
     private void receivedOrTimeout() {
@@ -18,6 +18,7 @@ import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
@@ -28,6 +29,7 @@ import org.eclipse.smarthome.core.transform.TransformationService;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.generic.internal.handler.GenericMQTTThingHandler;
+import org.openhab.binding.mqtt.generic.tools.BatchedMessageDispatcher;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -46,6 +48,12 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory implements
     private @NonNullByDefault({}) MqttChannelStateDescriptionProvider stateDescriptionProvider;
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Stream
             .of(MqttBindingConstants.GENERIC_MQTT_THING).collect(Collectors.toSet());
+    private static final String DISPATCH_THREAD_POOL_NAME = "mqtt-generic-dispatch";
+    private static final int DISPATCH_QUEUE_CAPACITY = 10000;
+    private static final int DISPATCH_MAX_BATCH_SIZE = 256;
+    private final BatchedMessageDispatcher messageDispatcher = new BatchedMessageDispatcher(
+            ThreadPoolManager.getPool(DISPATCH_THREAD_POOL_NAME), Runtime.getRuntime().availableProcessors(),
+            DISPATCH_QUEUE_CAPACITY, DISPATCH_MAX_BATCH_SIZE);
 
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
@@ -78,7 +86,7 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory implements
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(MqttBindingConstants.GENERIC_MQTT_THING)) {
-            return new GenericMQTTThingHandler(thing, stateDescriptionProvider, this, 1500);
+            return new GenericMQTTThingHandler(thing, stateDescriptionProvider, this, 1500, messageDispatcher);
         }
         return null;
     }
@@ -38,6 +38,7 @@ import org.openhab.binding.mqtt.generic.ChannelStateTransformation;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.MqttChannelStateDescriptionProvider;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.generic.tools.BatchedMessageDispatcher;
 import org.openhab.binding.mqtt.generic.utils.FutureCollector;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.generic.values.ValueFactory;
@@ -55,6 +56,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
     final Map<ChannelUID, ChannelState> channelStateByChannelUID = new HashMap<>();
     protected final MqttChannelStateDescriptionProvider stateDescProvider;
     protected final TransformationServiceProvider transformationServiceProvider;
+    protected final @Nullable BatchedMessageDispatcher messageDispatcher;
 
     /**
      * Creates a new Thing handler for generic MQTT channels.
@@ -66,9 +68,25 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
      */
     public GenericMQTTThingHandler(Thing thing, MqttChannelStateDescriptionProvider stateDescProvider,
             TransformationServiceProvider transformationServiceProvider, int subscribeTimeout) {
+        this(thing, stateDescProvider, transformationServiceProvider, subscribeTimeout, null);
+    }
+
+    /**
+     * Creates a new Thing handler for generic MQTT channels.
+     *
+     * @param thing The thing of this handler
+     * @param stateDescProvider A channel state provider
+     * @param transformationServiceProvider The transformation service provider
+     * @param subscribeTimeout The subscribe timeout
+     * @param messageDispatcher The dispatcher used if batched dispatch is configured for the thing
+     */
+    public GenericMQTTThingHandler(Thing thing, MqttChannelStateDescriptionProvider stateDescProvider,
+            TransformationServiceProvider transformationServiceProvider, int subscribeTimeout,
+            @Nullable BatchedMessageDispatcher messageDispatcher) {
         super(thing, subscribeTimeout);
         this.stateDescProvider = stateDescProvider;
         this.transformationServiceProvider = transformationServiceProvider;
+        this.messageDispatcher = messageDispatcher;
     }
 
     @Override
@@ -98,6 +116,8 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
         // Remove all state descriptions of this handler
         channelStateByChannelUID.forEach((uid, state) -> stateDescProvider.remove(uid));
         super.dispose();
+        // Drop messages still queued for the channels
+        channelStateByChannelUID.values().forEach(state -> state.setMessageDispatcher(null));
         // there is a design flaw, we can't clean up our stuff because it is needed by the super-class on disposal for
         // unsubscribing
         channelStateByChannelUID.clear();
@@ -161,6 +181,9 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
             try {
                 Value value = ValueFactory.createValueState(channelConfig, channelTypeUID.getId());
                 ChannelState channelState = createChannelState(channelConfig, channel.getUID(), value);
+                if (config.batchedDispatch) {
+                    channelState.setMessageDispatcher(messageDispatcher);
+                }
                 channelStateByChannelUID.put(channel.getUID(), channelState);
                 StateDescription description = value
                         .createStateDescription(StringUtils.isBlank(channelConfig.commandTopic)).build()
@@ -38,4 +38,9 @@ public class GenericThingConfiguration {
      * payload for the availability topic when the device is *not* available.
      */
     public String payloadNotAvailable = OnOffType.OFF.toString();
+
+    /**
+     * process received messages in batches on a worker pool instead of the MQTT client thread.
+     */
+    public boolean batchedDispatch = false;
 }
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands received MQTT messages over from the MQTT client thread to a worker pool, where they are processed in batches.
+ *
+ * <p>
+ * Messages are distributed to lanes by their target subscriber. Each lane is a bounded queue that is drained by at
+ * most one worker at a time, so messages to the same subscriber are processed in the order they were received.
+ * Different lanes are processed in parallel.
+ *
+ * <p>
+ * Within a batch, only the last of several collapsible messages to the same subscriber is processed. Use this for
+ * state updates, where only the most recent value matters, but not for triggers or commands.
+ *
+ * <p>
+ * When a lane is full, new collapsible messages for that lane are dropped and logged. Other messages are never dropped:
+ * the dispatching thread, usually the MQTT client thread, waits until the lane has room for them again.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BatchedMessageDispatcher {
+    private final Logger logger = LoggerFactory.getLogger(BatchedMessageDispatcher.class);
+
+    private final Executor executor;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final Lane[] lanes;
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    /** Interval to retry scheduling a full lane while waiting for room, in case the executor rejected it */
+    private static final long WAIT_FOR_ROOM_MILLIS = 100;
+
+    private static class Message {
+        final MqttMessageSubscriber target;
+        final String topic;
+        final byte[] payload;
+        final boolean collapsible;
+
+        Message(MqttMessageSubscriber target, String topic, byte[] payload, boolean collapsible) {
+            this.target = target;
+            this.topic = topic;
+            this.payload = payload;
+            this.collapsible = collapsible;
+        }
+    }
+
+    private class Lane implements Runnable {
+        private final BlockingQueue<Message> queue = new LinkedBlockingQueue<>(capacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean overflowing = new AtomicBoolean();
+
+        // Only accessed by the single worker draining this lane
+        private final List<Message> batch = new ArrayList<>();
+        private final Map<MqttMessageSubscriber, Integer> lastCollapsibleIndex = new IdentityHashMap<>();
+
+        void add(Message message) {
+            if (!queue.offer(message)) {
+                if (overflowing.compareAndSet(false, true)) {
+                    logger.warn("More than {} MQTT messages waiting to be processed, dropping state updates until "
+                            + "the backlog is processed. First message exceeding the limit on topic {}", capacity,
+                            message.topic);
+                }
+                if (message.collapsible) {
+                    droppedMessages.incrementAndGet();
+                    logger.debug("Dropped MQTT message on topic {}", message.topic);
+                } else {
+                    waitForRoom(message);
+                }
+            }
+            schedule();
+        }
+
+        /**
+         * Queue a message that must not be dropped, waiting until the lane has room for it.
+         */
+        private void waitForRoom(Message message) {
+            logger.debug("Waiting for room to queue MQTT message on topic {}", message.topic);
+            try {
+                do {
+                    schedule();
+                } while (!queue.offer(message, WAIT_FOR_ROOM_MILLIS, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Still not dropped, but processed out of order on the dispatching thread
+                try {
+                    message.target.processMessage(message.topic, message.payload);
+                } catch (RuntimeException re) {
+                    logger.warn("Processing MQTT message on topic {} failed", message.topic, re);
+                }
+            }
+        }
+
+        void remove(MqttMessageSubscriber target) {
+            queue.removeIf(message -> message.target == target);
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // The messages stay queued, another attempt is made with the next message
+                    scheduled.set(false);
+                    logger.warn("Executor rejected processing of {} queued MQTT messages", queue.size());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                processBatch();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void processBatch() {
+            Message message;
+            while (batch.size() < maxBatchSize && (message = queue.poll()) != null) {
+                if (message.collapsible) {
+                    lastCollapsibleIndex.put(message.target, batch.size());
+                }
+                batch.add(message);
+            }
+            if (queue.isEmpty() && overflowing.compareAndSet(true, false)) {
+                logger.info("MQTT message backlog processed, {} messages dropped so far", droppedMessages.get());
+            }
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    Message m = batch.get(i);
+                    if (m.collapsible && lastCollapsibleIndex.get(m.target) != i) {
+                        // A newer value for the same target follows in this batch
+                        continue;
+                    }
+                    try {
+                        m.target.processMessage(m.topic, m.payload);
+                    } catch (RuntimeException e) {
+                        logger.warn("Processing MQTT message on topic {} failed", m.topic, e);
+                    }
+                }
+            } finally {
+                batch.clear();
+                lastCollapsibleIndex.clear();
+            }
+        }
+    }
+
+    /**
+     * Creates a {@link BatchedMessageDispatcher}.
+     *
+     * @param executor The executor processing the batches
+     * @param lanes Number of lanes, i.e. maximum number of batches processed in parallel
+     * @param capacity Maximum number of queued messages per lane
+     * @param maxBatchSize Maximum number of messages processed in one batch
+     */
+    public BatchedMessageDispatcher(Executor executor, int lanes, int capacity, int maxBatchSize) {
+        if (lanes <= 0 || capacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Lanes, capacity and batch size need to be greater than 0!");
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.lanes = new Lane[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Queue a message for processing by the given target. Waits for room if the lane of the target is full and the
+     * message is not collapsible.
+     *
+     * @param target The subscriber processing the message on a worker thread
+     * @param topic The topic of the message
+     * @param payload The payload of the message
+     * @param collapsible True if the message may be skipped when a newer collapsible message to the same target is
+     *            processed in the same batch, or dropped if the lane of the target is full
+     */
+    public void dispatch(MqttMessageSubscriber target, String topic, byte[] payload, boolean collapsible) {
+        laneOf(target).add(new Message(target, topic, payload, collapsible));
+    }
+
+    /**
+     * Remove all queued messages of the given target, for example when the target is disposed. A batch that is being
+     * processed while this method is called might still contain messages for the target.
+     *
+     * @param target The subscriber passed to {@link #dispatch(MqttMessageSubscriber, String, byte[], boolean)}
+     */
+    public void cancel(MqttMessageSubscriber target) {
+        laneOf(target).remove(target);
+    }
+
+    private Lane laneOf(MqttMessageSubscriber target) {
+        return lanes[Math.floorMod(System.identityHashCode(target), lanes.length)];
+    }
+
+    /**
+     * Return the number of messages waiting to be processed.
+     */
+    public int getQueuedMessageCount() {
+        int count = 0;
+        for (Lane lane : lanes) {
+            count += lane.queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Return the number of collapsible messages dropped because the queue was full.
+     */
+    public long getDroppedMessageCount() {
+        return droppedMessages.get();
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link BatchedMessageDispatcher} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class BatchedMessageDispatcherTests {
+    private final Queue<Runnable> tasks = new LinkedList<>();
+    private final List<String> received = new ArrayList<>();
+    private final MqttMessageSubscriber subscriberA = (topic, payload) -> received
+            .add("A:" + new String(payload, StandardCharsets.UTF_8));
+    private final MqttMessageSubscriber subscriberB = (topic, payload) -> received
+            .add("B:" + new String(payload, StandardCharsets.UTF_8));
+
+    @Before
+    public void setUp() {
+        tasks.clear();
+        received.clear();
+    }
+
+    private void runAllTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void collapsesStateUpdatesAndKeepsOrder() {
+        BatchedMessageDispatcher dispatcher = new BatchedMessageDispatcher(tasks::add, 1, 100, 100);
+
+        dispatcher.dispatch(subscriberA, "a", bytes("1"), true);
+        dispatcher.dispatch(subscriberB, "b", bytes("1"), false);
+        dispatcher.dispatch(subscriberA, "a", bytes("2"), true);
+        dispatcher.dispatch(subscriberB, "b", bytes("2"), false);
+        dispatcher.dispatch(subscriberA, "a", bytes("3"), true);
+
+        // Nothing processed on the dispatching thread, and only one worker scheduled
+        assertThat(received.isEmpty(), is(true));
+        assertThat(tasks.size(), is(1));
+        assertThat(dispatcher.getQueuedMessageCount(), is(5));
+
+        runAllTasks();
+
+        assertThat(received, is(Arrays.asList("B:1", "B:2", "A:3")));
+        assertThat(dispatcher.getQueuedMessageCount(), is(0));
+    }
+
+    @Test
+    public void processesInBatchesOfMaxSize() {
+        BatchedMessageDispatcher dispatcher = new BatchedMessageDispatcher(tasks::add, 1, 100, 2);
+
+        dispatcher.dispatch(subscriberA, "a", bytes("1"), true);
+        dispatcher.dispatch(subscriberA, "a", bytes("2"), true);
+        dispatcher.dispatch(subscriberA, "a", bytes("3"), true);
+
+        // First batch contains two updates, of which only the latest is applied
+        tasks.poll().run();
+        assertThat(received, is(Arrays.asList("A:2")));
+        assertThat(tasks.size(), is(1));
+
+        runAllTasks();
+        assertThat(received, is(Arrays.asList("A:2", "A:3")));
+    }
+
+    @Test
+    public void failingSubscriberDoesNotStopProcessing() {
+        BatchedMessageDispatcher dispatcher = new BatchedMessageDispatcher(tasks::add, 1, 100, 100);
+        MqttMessageSubscriber failing = (topic, payload) -> {
+            throw new IllegalStateException("test");
+        };
+
+        dispatcher.dispatch(failing, "f", bytes("1"), false);
+        dispatcher.dispatch(subscriberA, "a", bytes("1"), false);
+        runAllTasks();
+
+        assertThat(received, is(Arrays.asList("A:1")));
+    }
+
+    @Test
+    public void dropsStateUpdatesWhenFull() {
+        BatchedMessageDispatcher dispatcher = new BatchedMessageDispatcher(tasks::add, 1, 2, 100);
+
+        dispatcher.dispatch(subscriberA, "a", bytes("1"), false);
+        dispatcher.dispatch(subscriberB, "b", bytes("1"), true);
+        // Returns immediately instead of waiting for room
+        dispatcher.dispatch(subscriberB, "b", bytes("2"), true);
+
+        assertThat(dispatcher.getQueuedMessageCount(), is(2));
+        assertThat(dispatcher.getDroppedMessageCount(), is(1L));
+
+        runAllTasks();
+        assertThat(received, is(Arrays.asList("A:1", "B:1")));
+
+        // Room again after the backlog is processed
+        dispatcher.dispatch(subscriberB, "b", bytes("3"), true);
+        runAllTasks();
+        assertThat(received, is(Arrays.asList("A:1", "B:1", "B:3")));
+        assertThat(dispatcher.getDroppedMessageCount(), is(1L));
+    }
+
+    @Test
+    public void waitsForRoomForOtherMessagesWhenFull() throws InterruptedException {
+        Queue<Runnable> concurrentTasks = new ConcurrentLinkedQueue<>();
+        List<String> concurrentReceived = new CopyOnWriteArrayList<>();
+        MqttMessageSubscriber subscriber = (topic, payload) -> concurrentReceived
+                .add(new String(payload, StandardCharsets.UTF_8));
+        BatchedMessageDispatcher dispatcher = new BatchedMessageDispatcher(concurrentTasks::add, 1, 2, 100);
+
+        dispatcher.dispatch(subscriber, "t", bytes("1"), false);
+        dispatcher.dispatch(subscriber, "t", bytes("2"), true);
+        Thread dispatching = new Thread(() -> dispatcher.dispatch(subscriber, "t", bytes("3"), false));
+        dispatching.start();
+        dispatching.join(200);
+
+        // The trigger is neither dropped nor processed on the dispatching thread
+        assertThat(dispatching.isAlive(), is(true));
+        assertThat(concurrentReceived.isEmpty(), is(true));
+
+        Runnable task;
+        while (dispatching.isAlive() || !concurrentTasks.isEmpty()) {
+            if ((task = concurrentTasks.poll()) != null) {
+                task.run();
+            } else {
+                dispatching.join(10);
+            }
+        }
+
+        assertThat(concurrentReceived, is(Arrays.asList("1", "2", "3")));
+        assertThat(dispatcher.getDroppedMessageCount(), is(0L));
+    }
+
+    @Test
+    public void rejectedExecutionDoesNotProcessInCallingThread() {
+        List<Runnable> accepted = new ArrayList<>();
+        boolean[] reject = { true };
+        BatchedMessageDispatcher dispatcher = new BatchedMessageDispatcher(task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException();
+            }
+            accepted.add(task);
+        }, 1, 100, 100);
+
+        dispatcher.dispatch(subscriberA, "a", bytes("1"), false);
+        assertThat(received.isEmpty(), is(true));
+        assertThat(dispatcher.getQueuedMessageCount(), is(1));
+
+        // The queued message is processed once the executor accepts again
+        reject[0] = false;
+        dispatcher.dispatch(subscriberA, "a", bytes("2"), false);
+        assertThat(accepted.size(), is(1));
+        accepted.get(0).run();
+        assertThat(received, is(Arrays.asList("A:1", "A:2")));
+    }
+
+    @Test
+    public void cancelRemovesQueuedMessagesOfTarget() {
+        BatchedMessageDispatcher dispatcher = new BatchedMessageDispatcher(tasks::add, 1, 100, 100);
+
+        dispatcher.dispatch(subscriberA, "a", bytes("1"), false);
+        dispatcher.dispatch(subscriberB, "b", bytes("1"), false);
+        dispatcher.dispatch(subscriberA, "a", bytes("2"), false);
+        dispatcher.cancel(subscriberA);
+
+        assertThat(dispatcher.getQueuedMessageCount(), is(1));
+        runAllTasks();
+        assertThat(received, is(Arrays.asList("B:1")));
+    }
+}
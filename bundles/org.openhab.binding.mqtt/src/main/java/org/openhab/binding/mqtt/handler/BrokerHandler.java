@@ -189,7 +189,7 @@ public class BrokerHandler extends AbstractBrokerHandler implements PinnedCallba
             throw new IllegalArgumentException("Host is empty!");
         }
 
-        final MqttBrokerConnection connection = new MqttBrokerConnection(host, config.port, config.secure,
+        final MqttBrokerConnection connection = new IndexedBrokerConnection(host, config.port, config.secure,
                 config.clientID);
 
         final String username = config.username;
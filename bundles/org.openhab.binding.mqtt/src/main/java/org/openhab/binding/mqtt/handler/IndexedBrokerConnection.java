@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MqttBrokerConnection} that keeps all subscriptions of this binding and its dependent bindings
+ * in an index by topic filter.
+ *
+ * Only one subscriber per unique topic filter is registered with the underlying connection, no matter how many
+ * channels subscribe to that filter. The broker therefore sees one SUBSCRIBE per unique filter, also when the
+ * subscriptions are renewed after a reconnect. The underlying connection matches an incoming message against the
+ * filters and hands it to the subscriber of every matching filter, which fans it out to the subscribers of its filter.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class IndexedBrokerConnection extends MqttBrokerConnection {
+    private final Logger logger = LoggerFactory.getLogger(IndexedBrokerConnection.class);
+
+    private final Map<String, FilterDispatcher> dispatchers = new HashMap<>();
+
+    /**
+     * The single subscriber of one unique topic filter on the underlying connection.
+     *
+     * Subscriptions change rarely compared to incoming messages, the copy on write set lets a message be fanned out
+     * without locking and without a copy of the subscribers.
+     */
+    private class FilterDispatcher implements MqttMessageSubscriber {
+        final Set<MqttMessageSubscriber> subscribers = new CopyOnWriteArraySet<>();
+        CompletableFuture<Boolean> subscribed = new CompletableFuture<>();
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            for (MqttMessageSubscriber subscriber : subscribers) {
+                try {
+                    subscriber.processMessage(topic, payload);
+                } catch (RuntimeException e) {
+                    logger.warn("Subscriber {} failed to process a message on topic {}", subscriber, topic, e);
+                }
+            }
+        }
+    }
+
+    IndexedBrokerConnection(String host, @Nullable Integer port, boolean secure, @Nullable String clientId) {
+        super(host, port, secure, clientId);
+    }
+
+    /**
+     * Adds the subscriber to the subscription index. The underlying connection only subscribes to the
+     * filter if it is not yet subscribed.
+     *
+     * @param topic The topic filter, wildcards are supported
+     * @param subscriber The subscriber
+     * @return Completes with true if successful. Completes with false if not connected yet. Exceptionally otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        final FilterDispatcher dispatcher;
+        synchronized (dispatchers) {
+            dispatcher = dispatchers.computeIfAbsent(topic, t -> new FilterDispatcher());
+            boolean first = dispatcher.subscribers.isEmpty();
+            dispatcher.subscribers.add(subscriber);
+            // The underlying connection may have dropped the subscription on its own, e.g. during stop()
+            if (!first && isFilterSubscribed(topic)) {
+                return dispatcher.subscribed;
+            }
+            dispatcher.subscribed = subscribeFilter(topic, dispatcher);
+            logger.trace("Subscribed to {}, {} unique filters", topic, dispatchers.size());
+        }
+        return dispatcher.subscribed;
+    }
+
+    /**
+     * Removes the subscriber from the subscription index. The underlying connection only unsubscribes from
+     * the filter if this was the last subscriber.
+     *
+     * @param topic The topic filter, as used for {@link #subscribe(String, MqttMessageSubscriber)}
+     * @param subscriber The subscriber
+     * @return Completes with true if successful. Exceptionally otherwise.
+     */
+    @Override
+    public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        final FilterDispatcher dispatcher;
+        synchronized (dispatchers) {
+            dispatcher = dispatchers.get(topic);
+            if (dispatcher == null || !dispatcher.subscribers.remove(subscriber) || !dispatcher.subscribers.isEmpty()) {
+                return CompletableFuture.completedFuture(true);
+            }
+            dispatchers.remove(topic);
+        }
+        return unsubscribeFilter(topic, dispatcher);
+    }
+
+    /**
+     * Returns the number of unique topic filters in the subscription index.
+     */
+    int getUniqueFilterCount() {
+        synchronized (dispatchers) {
+            return dispatchers.size();
+        }
+    }
+
+    /**
+     * Subscribes the dispatcher of a filter on the underlying connection.
+     */
+    CompletableFuture<Boolean> subscribeFilter(String filter, MqttMessageSubscriber dispatcher) {
+        return super.subscribe(filter, dispatcher);
+    }
+
+    /**
+     * Unsubscribes the dispatcher of a filter from the underlying connection.
+     */
+    CompletableFuture<Boolean> unsubscribeFilter(String filter, MqttMessageSubscriber dispatcher) {
+        return super.unsubscribe(filter, dispatcher);
+    }
+
+    /**
+     * Returns true if the underlying connection has a subscription for the filter.
+     */
+    boolean isFilterSubscribed(String filter) {
+        return subscribers.containsKey(filter);
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Test;
+
+/**
+ * Tests the subscription index of the {@link IndexedBrokerConnection}.
+ *
+ * The underlying connection is replaced by a map of the subscribed filters, messages are delivered to every
+ * matching filter like the underlying connection does.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class IndexedBrokerConnectionTest {
+
+    private static class IndexedBrokerConnectionEx extends IndexedBrokerConnection {
+        final Map<String, MqttMessageSubscriber> filters = new LinkedHashMap<>();
+        int subscribeCalls;
+        int unsubscribeCalls;
+
+        IndexedBrokerConnectionEx() {
+            super("123.123.123.123", null, false, "IndexedBrokerConnectionTest");
+        }
+
+        @Override
+        CompletableFuture<Boolean> subscribeFilter(String filter, MqttMessageSubscriber dispatcher) {
+            subscribeCalls++;
+            filters.put(filter, dispatcher);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        CompletableFuture<Boolean> unsubscribeFilter(String filter, MqttMessageSubscriber dispatcher) {
+            unsubscribeCalls++;
+            filters.remove(filter, dispatcher);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        boolean isFilterSubscribed(String filter) {
+            return filters.containsKey(filter);
+        }
+
+        void deliver(String topic, String payload) {
+            for (Map.Entry<String, MqttMessageSubscriber> entry : new ArrayList<>(filters.entrySet())) {
+                if (matches(entry.getKey(), topic)) {
+                    entry.getValue().processMessage(topic, payload.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        private static boolean matches(String filter, String topic) {
+            String[] filterLevels = filter.split("/", -1);
+            String[] topicLevels = topic.split("/", -1);
+            for (int i = 0; i < filterLevels.length; i++) {
+                if ("#".equals(filterLevels[i])) {
+                    return true;
+                }
+                if (i >= topicLevels.length
+                        || !("+".equals(filterLevels[i]) || filterLevels[i].equals(topicLevels[i]))) {
+                    return false;
+                }
+            }
+            return filterLevels.length == topicLevels.length;
+        }
+    }
+
+    private static class RecordingSubscriber implements MqttMessageSubscriber {
+        final List<String> topics = new ArrayList<>();
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            topics.add(topic);
+        }
+    }
+
+    private final IndexedBrokerConnectionEx connection = new IndexedBrokerConnectionEx();
+
+    @Test
+    public void wildcardFanOut() throws Exception {
+        RecordingSubscriber exact = new RecordingSubscriber();
+        RecordingSubscriber singleLevel = new RecordingSubscriber();
+        RecordingSubscriber multiLevel = new RecordingSubscriber();
+        RecordingSubscriber other = new RecordingSubscriber();
+
+        assertThat(connection.subscribe("home/kitchen/temp", exact).get(), is(true));
+        assertThat(connection.subscribe("home/+/temp", singleLevel).get(), is(true));
+        assertThat(connection.subscribe("home/#", multiLevel).get(), is(true));
+        assertThat(connection.subscribe("garden/+/temp", other).get(), is(true));
+
+        connection.deliver("home/kitchen/temp", "21");
+        connection.deliver("home/living/temp", "22");
+        connection.deliver("home/living/humidity", "40");
+
+        assertThat(exact.topics.size(), is(1));
+        assertThat(singleLevel.topics.size(), is(2));
+        assertThat(multiLevel.topics.size(), is(3));
+        assertThat(other.topics.size(), is(0));
+    }
+
+    @Test
+    public void oneUnderlyingSubscriptionPerFilter() throws Exception {
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+
+        connection.subscribe("home/+/temp", first).get();
+        connection.subscribe("home/+/temp", second).get();
+        // a repeated subscription of the same subscriber doesn't deliver twice
+        connection.subscribe("home/+/temp", first).get();
+
+        assertThat(connection.subscribeCalls, is(1));
+        assertThat(connection.getUniqueFilterCount(), is(1));
+
+        connection.deliver("home/kitchen/temp", "21");
+        assertThat(first.topics.size(), is(1));
+        assertThat(second.topics.size(), is(1));
+    }
+
+    @Test
+    public void unsubscribe() throws Exception {
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+        connection.subscribe("home/#", first).get();
+        connection.subscribe("home/#", second).get();
+
+        assertThat(connection.unsubscribe("home/#", first).get(), is(true));
+        // the filter stays subscribed for the remaining subscriber
+        assertThat(connection.unsubscribeCalls, is(0));
+        connection.deliver("home/kitchen/temp", "21");
+        assertThat(first.topics.size(), is(0));
+        assertThat(second.topics.size(), is(1));
+
+        // unknown subscribers and filters are ignored
+        assertThat(connection.unsubscribe("home/#", first).get(), is(true));
+        assertThat(connection.unsubscribe("garden/#", second).get(), is(true));
+        assertThat(connection.unsubscribeCalls, is(0));
+
+        // the last subscriber removes the filter from the underlying connection
+        assertThat(connection.unsubscribe("home/#", second).get(), is(true));
+        assertThat(connection.unsubscribeCalls, is(1));
+        assertThat(connection.getUniqueFilterCount(), is(0));
+        connection.deliver("home/kitchen/temp", "22");
+        assertThat(second.topics.size(), is(1));
+
+        // subscribing again subscribes the filter again
+        connection.subscribe("home/#", first).get();
+        assertThat(connection.subscribeCalls, is(2));
+        connection.deliver("home/kitchen/temp", "23");
+        assertThat(first.topics.size(), is(1));
+    }
+
+    @Test
+    public void failingSubscriberDoesNotStopFanOut() throws Exception {
+        RecordingSubscriber recording = new RecordingSubscriber();
+        connection.subscribe("home/+/temp", (topic, payload) -> {
+            throw new IllegalStateException("failing subscriber");
+        }).get();
+        connection.subscribe("home/+/temp", recording).get();
+
+        connection.deliver("home/kitchen/temp", "21");
+        assertThat(recording.topics.size(), is(1));
+    }
+}
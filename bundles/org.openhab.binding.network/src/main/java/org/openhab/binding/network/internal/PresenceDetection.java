@@ -12,18 +12,21 @@
  */
 package org.openhab.binding.network.internal;
 
-import java.io.IOException;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -53,6 +56,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
 
     NetworkUtils networkUtils = new NetworkUtils();
+    PresenceProbeEngine probeEngine = PresenceProbeEngine.getInstance();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
@@ -79,9 +83,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     ExpiringCacheAsync<PresenceDetectionValue> cache;
     private final PresenceDetectionListener updateListener;
     private @Nullable ScheduledFuture<?> refreshJob;
-    protected @Nullable ExecutorService executorService;
+    protected @Nullable CompletableFuture<@Nullable Void> detection;
     private String dhcpState = "off";
-    Integer currentCheck = 0;
     int detectionChecks;
 
     public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
@@ -178,6 +181,17 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
     }
 
+    /**
+     * Sets the ping method without a feature test, for example if it was already determined
+     * by {@link NetworkUtils#determinePingMethod()} for many presence detections.
+     *
+     * @param pingMethod The ping method or null to disable ICMP pings.
+     */
+    public void setIcmpPingMethod(@Nullable IpPingMethodEnum pingMethod) {
+        this.pingMethod = pingMethod;
+        ipPingState = pingMethod == null ? "Disabled" : pingMethod.name();
+    }
+
     /**
      * Enables or disables ARP pings. Will be automatically disabled if the destination
      * is not an IPv4 address. If the feature test for the native arping utility fails,
@@ -279,14 +293,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
-    public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
-    }
-
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. All checks are performed by the binding wide
+     * {@link PresenceProbeEngine}, no thread is blocked while waiting for a TCP connection.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -300,76 +310,61 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * @return Return true if a presence detection is performed and false otherwise.
      */
     public boolean performPresenceDetection(boolean waitForDetectionToFinish) {
-        if (executorService != null) {
-            logger.debug(
-                    "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
-                    hostname, tcpPorts);
-            return false;
-        }
+        final CompletableFuture<@Nullable Void> detection;
+        Set<String> interfaceNames = null;
+        synchronized (this) {
+            if (this.detection != null) {
+                logger.debug(
+                        "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
+                        hostname, tcpPorts);
+                return false;
+            }
 
-        if (!cache.isExpired()) {
-            return false;
-        }
+            if (!cache.isExpired()) {
+                return false;
+            }
 
-        Set<String> interfaceNames = null;
+            detectionChecks = tcpPorts.size();
+            if (pingMethod != null) {
+                detectionChecks += 1;
+            }
+            if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
+                interfaceNames = networkUtils.getInterfaceNames();
+                detectionChecks += interfaceNames.size();
+            }
 
-        currentCheck = 0;
-        detectionChecks = tcpPorts.size();
-        if (pingMethod != null) {
-            detectionChecks += 1;
-        }
-        if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
-            interfaceNames = networkUtils.getInterfaceNames();
-            detectionChecks += interfaceNames.size();
-        }
+            if (detectionChecks == 0) {
+                return false;
+            }
 
-        if (detectionChecks == 0) {
-            return false;
+            detection = new CompletableFuture<>();
+            this.detection = detection;
         }
 
-        final ExecutorService executorService = getThreadsFor(detectionChecks);
-        this.executorService = executorService;
-
+        List<CompletableFuture<@Nullable Void>> checks = new ArrayList<>();
         for (Integer tcpPort : tcpPorts) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
-                performServicePing(tcpPort);
-                checkIfFinished();
-            });
+            checks.add(performServicePing(tcpPort));
         }
 
-        // ARP ping for IPv4 addresses. Use single executor for Windows tool and
-        // each own executor for each network interface for other tools
+        // ARP ping for IPv4 addresses. Use single check for Windows tool and
+        // an own check for each network interface for other tools
         if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionARP_" + hostname + " ");
-                // arp-ping.exe tool capable of handling multiple interfaces by itself
-                performARPping("");
-                checkIfFinished();
-            });
+            // arp-ping.exe tool capable of handling multiple interfaces by itself
+            checks.add(performARPping(""));
         } else if (interfaceNames != null) {
             for (final String interfaceName : interfaceNames) {
-                executorService.execute(() -> {
-                    Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
-                    performARPping(interfaceName);
-                    checkIfFinished();
-                });
+                checks.add(performARPping(interfaceName));
             }
         }
 
         // ICMP ping
         if (pingMethod != null) {
-            executorService.execute(() -> {
-                if (pingMethod != IpPingMethodEnum.JAVA_PING) {
-                    Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
-                    performSystemPing();
-                } else {
-                    performJavaPing();
-                }
-                checkIfFinished();
-            });
+            checks.add(pingMethod != IpPingMethodEnum.JAVA_PING ? performSystemPing() : performJavaPing());
         }
 
+        CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[checks.size()]))
+                .whenComplete((result, e) -> submitFinalResult(detection));
+
         if (waitForDetectionToFinish) {
             waitForPresenceDetection();
         }
@@ -380,71 +375,65 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
-     * the presence detection process is finished and all threads are forcefully
-     * shut down.
+     * the presence detection process is finished, results of checks that are
+     * still running are ignored for the final result.
+     *
+     * @param detection The detection to finish. Nothing happens if it is not the ongoing detection anymore.
      */
-    private synchronized void submitFinalResult() {
-        // Do nothing if we are not in a detection process
-        ExecutorService service = executorService;
-        if (service == null) {
-            return;
-        }
-        // Finish the detection process
-        service.shutdownNow();
-        executorService = null;
-        detectionChecks = 0;
-
+    private void submitFinalResult(CompletableFuture<@Nullable Void> detection) {
         PresenceDetectionValue v;
-
-        // The cache will be expired by now if cache_time < timeoutInMS. But the device might be actually reachable.
-        // Therefore use lastSeenInMS here and not cache.isExpired() to determine if we got a ping response.
-        if (lastSeenInMS + timeoutInMS + 100 < System.currentTimeMillis()) {
-            // We haven't seen the device in the detection process
-            v = new PresenceDetectionValue(hostname, -1);
-        } else {
-            // Make the cache valid again and submit the value.
-            v = cache.getExpiredValue();
+        synchronized (this) {
+            // Do nothing if we are not in this detection process
+            if (this.detection != detection) {
+                return;
+            }
+            // Finish the detection process
+            this.detection = null;
+            detectionChecks = 0;
+
+            // The cache will be expired by now if cache_time < timeoutInMS. But the device might be actually
+            // reachable. Therefore use lastSeenInMS here and not cache.isExpired() to determine if we got a ping
+            // response.
+            if (lastSeenInMS + timeoutInMS + 100 < System.currentTimeMillis()) {
+                // We haven't seen the device in the detection process
+                v = new PresenceDetectionValue(hostname, -1);
+            } else {
+                // Make the cache valid again and submit the value.
+                v = cache.getExpiredValue();
+            }
+            cache.setValue(v);
         }
-        cache.setValue(v);
 
         if (!v.isReachable()) {
             // if target can't be reached, check if name resolution need to be updated
             destination.invalidateValue();
         }
         updateListener.finalDetectionResult(v);
+        detection.complete(null);
     }
 
     /**
-     * This method is called after each individual check and increases a check counter.
-     * If the counter equals the total checks,the final result is submitted. This will
-     * happen way before the "timeoutInMS", if all checks were successful.
-     * Thread safe.
-     */
-    private synchronized void checkIfFinished() {
-        currentCheck += 1;
-        if (currentCheck < detectionChecks) {
-            return;
-        }
-        submitFinalResult();
-    }
-
-    /**
-     * Waits for the presence detection threads to finish. Returns immediately
+     * Waits for the presence detection to finish, but not longer than the timeout. Returns immediately
      * if no presence detection is performed right now.
      */
     public void waitForPresenceDetection() {
-        ExecutorService service = executorService;
-        if (service == null) {
+        CompletableFuture<@Nullable Void> detection = this.detection;
+        if (detection == null) {
             return;
         }
         try {
             // We may get interrupted here by cancelRefreshJob().
-            service.awaitTermination(timeoutInMS + 100, TimeUnit.MILLISECONDS);
-            submitFinalResult();
+            detection.get(timeoutInMS + 100, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Checks may wait for a free process slot of the probe engine, don't wait for them any longer
+            submitFinalResult(detection);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Reset interrupt flag
-            service.shutdownNow();
-            executorService = null;
+            synchronized (this) {
+                if (this.detection == detection) {
+                    this.detection = null;
+                }
+            }
         }
     }
 
@@ -473,24 +462,29 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return v;
     }
 
-    protected void performServicePing(int tcpPort) {
+    protected CompletableFuture<@Nullable Void> performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
-        try {
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress != null) {
-                networkUtils.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS).ifPresent(o -> {
-                    if (o.isSuccess()) {
-                        PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
-                                getLatency(o, preferResponseTimeAsLatency));
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<@Nullable Void> detection = this.detection;
+        return probeEngine.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS).handle((o, e) -> {
+            if (e != null) {
+                // This should not happen and might be a user configuration issue, we log a warning message therefore.
+                logger.warn("Could not create a socket connection", e);
+            } else {
+                o.filter(PingResult::isSuccess).ifPresent(r -> {
+                    PresenceDetectionValue v = updateReachableValue(detection, PresenceDetectionType.TCP_CONNECTION,
+                            getLatency(r, preferResponseTimeAsLatency));
+                    if (v != null) {
                         v.addReachableTcpService(tcpPort);
                         updateListener.partialDetectionResult(v);
                     }
                 });
             }
-        } catch (IOException e) {
-            // This should not happen and might be a user configuration issue, we log a warning message therefore.
-            logger.warn("Could not create a socket connection", e);
-        }
+            return null;
+        });
     }
 
     /**
@@ -501,31 +495,33 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * @param interfaceName The interface name. You can request a list of interface names
      *            from {@see NetworkUtils.getInterfaceNames()} for example.
      */
-    protected void performARPping(String interfaceName) {
-        try {
-            logger.trace("Perform ARP ping presence detection for {} on interface: {}", hostname, interfaceName);
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress == null) {
-                return;
-            }
+    protected CompletableFuture<@Nullable Void> performARPping(String interfaceName) {
+        logger.trace("Perform ARP ping presence detection for {} on interface: {}", hostname, interfaceName);
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final boolean iosDevice = this.iosDevice;
+        final ArpPingUtilEnum arpPingMethod = this.arpPingMethod;
+        final String arpPingUtilPath = this.arpPingUtilPath;
+        final int timeoutInMS = this.timeoutInMS;
+        final String ipAddress = destinationAddress.getHostAddress();
+        String key = "arp " + arpPingMethod + " " + interfaceName + " " + ipAddress + (iosDevice ? " ios" : "");
+        final CompletableFuture<@Nullable Void> detection = this.detection;
+        return probeEngine.processPing(key, timeoutInMS, () -> {
             if (iosDevice) {
                 networkUtils.wakeUpIOS(destinationAddress);
                 Thread.sleep(50);
             }
-
-            networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName,
-                    destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
-                        if (o.isSuccess()) {
-                            PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING,
-                                    getLatency(o, preferResponseTimeAsLatency));
-                            updateListener.partialDetectionResult(v);
-                        }
-                    });
-        } catch (IOException e) {
-            logger.trace("Failed to execute an arp ping for ip {}", hostname, e);
-        } catch (InterruptedException ignored) {
-            // This can be ignored, the thread will end anyway
-        }
+            return networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName, ipAddress, timeoutInMS);
+        }).handle((o, e) -> {
+            if (e != null) {
+                logger.trace("Failed to execute an arp ping for ip {}", hostname, e);
+            } else {
+                submitPingResult(detection, o, PresenceDetectionType.ARP_PING);
+            }
+            return null;
+        });
     }
 
     /**
@@ -534,43 +530,73 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * the TCP echo service on port 7 which barely no device or server supports nowadays.
      * (http://docs.oracle.com/javase/7/docs/api/java/net/InetAddress.html#isReachable%28int%29)
      */
-    protected void performJavaPing() {
+    protected CompletableFuture<@Nullable Void> performJavaPing() {
         logger.trace("Perform java ping presence detection for {}", hostname);
 
         InetAddress destinationAddress = destination.getValue();
         if (destinationAddress == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        networkUtils.javaPing(timeoutInMS, destinationAddress).ifPresent(o -> {
-            if (o.isSuccess()) {
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
-                        getLatency(o, preferResponseTimeAsLatency));
+        final int timeoutInMS = this.timeoutInMS;
+        final CompletableFuture<@Nullable Void> detection = this.detection;
+        return probeEngine.processPing("java " + destinationAddress.getHostAddress(), timeoutInMS,
+                () -> networkUtils.javaPing(timeoutInMS, destinationAddress)).handle((o, e) -> {
+                    if (e == null) {
+                        submitPingResult(detection, o, PresenceDetectionType.ICMP_PING);
+                    }
+                    return null;
+                });
+    }
+
+    protected CompletableFuture<@Nullable Void> performSystemPing() {
+        logger.trace("Perform native ping presence detection for {}", hostname);
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final IpPingMethodEnum pingMethod = this.pingMethod;
+        final int timeoutInMS = this.timeoutInMS;
+        final String ipAddress = destinationAddress.getHostAddress();
+        final CompletableFuture<@Nullable Void> detection = this.detection;
+        return probeEngine.processPing("icmp " + pingMethod + " " + ipAddress, timeoutInMS,
+                () -> networkUtils.nativePing(pingMethod, ipAddress, timeoutInMS)).handle((o, e) -> {
+                    if (e != null) {
+                        logger.trace("Failed to execute a native ping for ip {}", hostname, e);
+                    } else {
+                        submitPingResult(detection, o, PresenceDetectionType.ICMP_PING);
+                    }
+                    return null;
+                });
+    }
+
+    private void submitPingResult(@Nullable CompletableFuture<@Nullable Void> detection,
+            Optional<PingResult> pingResult, PresenceDetectionType type) {
+        pingResult.filter(PingResult::isSuccess).ifPresent(o -> {
+            PresenceDetectionValue v = updateReachableValue(detection, type,
+                    getLatency(o, preferResponseTimeAsLatency));
+            if (v != null) {
                 updateListener.partialDetectionResult(v);
             }
         });
     }
 
-    protected void performSystemPing() {
-        try {
-            logger.trace("Perform native ping presence detection for {}", hostname);
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress == null) {
-                return;
-            }
-
-            networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
-                if (o.isSuccess()) {
-                    PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
-                            getLatency(o, preferResponseTimeAsLatency));
-                    updateListener.partialDetectionResult(v);
-                }
-            });
-        } catch (IOException e) {
-            logger.trace("Failed to execute a native ping for ip {}", hostname, e);
-        } catch (InterruptedException e) {
-            // This can be ignored, the thread will end anyway
+    /**
+     * Like {@link #updateReachableValue(PresenceDetectionType, double)}, for the result of a check of the given
+     * detection. Checks may still complete after their detection has finished, for example if they waited for a free
+     * process slot of the probe engine until the detection timed out. Their results are ignored.
+     *
+     * @param detection The detection that started the check
+     * @return The updated value, or null if the detection has finished already
+     */
+    private synchronized @Nullable PresenceDetectionValue updateReachableValue(
+            @Nullable CompletableFuture<@Nullable Void> detection, PresenceDetectionType type, double latency) {
+        if (this.detection != detection) {
+            logger.trace("Ignoring {} result for {} of a finished presence detection", type, hostname);
+            return null;
         }
+        return updateReachableValue(type, latency);
     }
 
     private double getLatency(PingResult pingResult, boolean preferResponseTimeAsLatency) {
@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+import org.openhab.binding.network.internal.utils.PingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A binding wide engine that performs the individual checks of all {@link PresenceDetection}s.
+ *
+ * TCP connection attempts are non-blocking and multiplexed on a single selector thread. External ping and arping
+ * processes (and Java pings) are executed by a thread pool with a bounded number of threads, further checks wait
+ * for a free thread. Identical checks that are requested while one is already running, for example by several
+ * things for the same host, share the running check and its result. Checks with a different timeout are not
+ * identical, a check with a shorter timeout must not wait for a longer one.
+ *
+ * The threads are only alive while there is something to do, so there is no need to explicitly shut the engine down.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceProbeEngine {
+    /** The maximum number of concurrently running ping/arping processes */
+    public static final int MAX_CONCURRENT_PROCESSES = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final PresenceProbeEngine INSTANCE = new PresenceProbeEngine(MAX_CONCURRENT_PROCESSES);
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceProbeEngine.class);
+
+    private final Map<String, CompletableFuture<Optional<PingResult>>> runningChecks = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor processExecutor;
+
+    private final Queue<TcpConnect> newConnects = new ConcurrentLinkedQueue<>();
+    private final Object selectorLock = new Object();
+    private @Nullable Selector selector;
+
+    /**
+     * A check that returns the result of a ping or arping process, see
+     * {@link org.openhab.binding.network.internal.utils.NetworkUtils}.
+     */
+    @FunctionalInterface
+    public interface ProcessCheck {
+        Optional<PingResult> run() throws IOException, InterruptedException;
+    }
+
+    private static class TcpConnect {
+        final InetSocketAddress address;
+        final long timeoutInNanos;
+        final CompletableFuture<Optional<PingResult>> future;
+        long startTimeInNanos;
+        long deadlineInNanos;
+
+        TcpConnect(InetSocketAddress address, int timeoutInMS, CompletableFuture<Optional<PingResult>> future) {
+            this.address = address;
+            this.timeoutInNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+            this.future = future;
+        }
+
+        void complete(boolean success) {
+            future.complete(Optional.of(new PingResult(success,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTimeInNanos) / 1000.0)));
+        }
+    }
+
+    /**
+     * Returns the engine shared by all presence detections of the binding.
+     */
+    public static PresenceProbeEngine getInstance() {
+        return INSTANCE;
+    }
+
+    PresenceProbeEngine(int maxConcurrentProcesses) {
+        processExecutor = new ThreadPoolExecutor(maxConcurrentProcesses, maxConcurrentProcesses, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("networkPresenceProbe", true));
+        processExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Tries to establish a TCP connection to the given port, without blocking a thread while waiting.
+     * The result is not successful if a timeout occurred or the connection was denied.
+     *
+     * @param host The IP address
+     * @param port The TCP port. Must be not 0.
+     * @param timeoutInMS Timeout in ms
+     * @return A future with the ping result information
+     */
+    public CompletableFuture<Optional<PingResult>> servicePing(String host, int port, int timeoutInMS) {
+        return coalesce("tcp " + host + " " + port, timeoutInMS, future -> {
+            TcpConnect connect = new TcpConnect(new InetSocketAddress(host, port), timeoutInMS, future);
+            synchronized (selectorLock) {
+                Selector selector = this.selector;
+                if (selector == null) {
+                    try {
+                        selector = Selector.open();
+                    } catch (IOException e) {
+                        future.completeExceptionally(e);
+                        return;
+                    }
+                    this.selector = selector;
+                    final Selector newSelector = selector;
+                    Thread thread = new Thread(() -> select(newSelector), "networkPresenceProbeSelector");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+                newConnects.add(connect);
+                selector.wakeup();
+            }
+        });
+    }
+
+    /**
+     * Executes a ping or arping process, as soon as less than the maximum number of processes are running.
+     *
+     * @param key Identifies the check, for example by the method, interface and destination. A check with the same
+     *            key and timeout that is already running is not executed again but its result is returned.
+     * @param timeoutInMS Timeout of the check in ms
+     * @param check The check
+     * @return A future with the ping result information. Completes exceptionally if the check failed with an
+     *         exception.
+     */
+    public CompletableFuture<Optional<PingResult>> processPing(String key, int timeoutInMS, ProcessCheck check) {
+        return coalesce(key, timeoutInMS, future -> processExecutor.execute(() -> {
+            try {
+                future.complete(check.run());
+            } catch (IOException | RuntimeException e) {
+                future.completeExceptionally(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+            }
+        }));
+    }
+
+    /**
+     * Returns the number of checks that are running or waiting for a thread.
+     */
+    public int getRunningChecks() {
+        return runningChecks.size();
+    }
+
+    private interface CheckStarter {
+        void start(CompletableFuture<Optional<PingResult>> future);
+    }
+
+    private CompletableFuture<Optional<PingResult>> coalesce(String check, int timeoutInMS, CheckStarter starter) {
+        String key = check + " " + timeoutInMS + "ms";
+        CompletableFuture<Optional<PingResult>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<PingResult>> running = runningChecks.putIfAbsent(key, future);
+        if (running != null) {
+            logger.trace("Joining running check {}", key);
+            return running;
+        }
+        future.whenComplete((result, e) -> runningChecks.remove(key, future));
+        starter.start(future);
+        return future;
+    }
+
+    private void select(Selector selector) {
+        int pendingConnects = 0;
+        try {
+            while (true) {
+                TcpConnect connect;
+                while ((connect = newConnects.poll()) != null) {
+                    if (startConnect(selector, connect)) {
+                        pendingConnects++;
+                    }
+                }
+
+                // Time out connects and determine the next deadline
+                long now = System.nanoTime();
+                long nextDeadline = Long.MAX_VALUE;
+                for (SelectionKey key : selector.keys()) {
+                    TcpConnect pending = (TcpConnect) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    } else if (pending.deadlineInNanos - now <= 0) {
+                        finishConnect(key, false);
+                        pendingConnects--;
+                    } else {
+                        nextDeadline = Math.min(nextDeadline, pending.deadlineInNanos);
+                    }
+                }
+
+                if (pendingConnects == 0) {
+                    synchronized (selectorLock) {
+                        if (newConnects.isEmpty()) {
+                            this.selector = null;
+                            return;
+                        }
+                    }
+                    continue;
+                }
+
+                selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadline - now)));
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (key.isValid() && key.isConnectable()) {
+                        boolean success;
+                        try {
+                            success = ((SocketChannel) key.channel()).finishConnect();
+                        } catch (IOException e) {
+                            // Connection refused, no route to host etc.
+                            success = false;
+                        }
+                        finishConnect(key, success);
+                        pendingConnects--;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("TCP presence detection failed", e);
+            synchronized (selectorLock) {
+                this.selector = null;
+            }
+            for (SelectionKey key : selector.keys()) {
+                ((TcpConnect) key.attachment()).future.completeExceptionally(e);
+            }
+            TcpConnect connect;
+            while ((connect = newConnects.poll()) != null) {
+                connect.future.completeExceptionally(e);
+            }
+        } finally {
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // nothing left to clean up
+            }
+        }
+    }
+
+    /**
+     * Starts a connection attempt. Returns true if the connect is pending and has been registered with the selector.
+     */
+    private boolean startConnect(Selector selector, TcpConnect connect) {
+        connect.startTimeInNanos = System.nanoTime();
+        connect.deadlineInNanos = connect.startTimeInNanos + connect.timeoutInNanos;
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            if (channel.connect(connect.address)) {
+                channel.close();
+                connect.complete(true);
+                return false;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, connect);
+            return true;
+        } catch (IOException e) {
+            logger.trace("Could not connect to {}: {}", connect.address, e.getMessage());
+            closeQuietly(channel);
+            connect.complete(false);
+            return false;
+        }
+    }
+
+    private void finishConnect(SelectionKey key, boolean success) {
+        key.cancel();
+        closeQuietly(key.channel());
+        ((TcpConnect) key.attachment()).complete(success);
+    }
+
+    private void closeQuietly(@Nullable Channel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // the channel is not used anymore
+            }
+        }
+    }
+}
@@ -14,14 +14,14 @@ package org.openhab.binding.network.internal.discovery;
 
 import static org.openhab.binding.network.internal.NetworkBindingConstants.*;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,6 +37,7 @@ import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -47,7 +48,9 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link NetworkDiscoveryService} is responsible for discovering devices on
  * the current Network. It uses every Network Interface which is connected to a network.
- * It tries common TCP ports to connect to, ICMP pings and ARP pings.
+ * It tries common TCP ports to connect to, with non-blocking connection attempts on a single thread
+ * and a limited rate of connection attempts. Hosts that don't answer on any of these ports are
+ * checked with ICMP pings and ARP pings.
  *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
@@ -65,12 +68,14 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     // TCP port 1025 (Xbox / MS-RPC)
     private Set<Integer> tcpServicePorts = Collections
             .unmodifiableSet(Stream.of(80, 548, 554, 1025).collect(Collectors.toSet()));
-    private Integer scannedIPcount = 0;
-    private @Nullable ExecutorService executorService = null;
+    private @Nullable Scan scan = null;
+    private @Nullable IpPingMethodEnum pingMethod = null;
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
+    private NetworkDiscoveryConfiguration discoveryConfiguration = new NetworkDiscoveryConfiguration();
     private final NetworkUtils networkUtils = new NetworkUtils();
 
     public NetworkDiscoveryService() {
+        // The sweep itself takes seconds, but the pings of hosts without open ports may take longer
         super(SUPPORTED_THING_TYPES_UIDS, (int) Math.round(
                 new NetworkUtils().getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE).size() * (PING_TIMEOUT_IN_MS / 1000.0)),
                 false);
@@ -91,13 +96,81 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         // configuration, the values are automatically available in all handlers. Because they all
         // share the same instance.
         configuration.update(new Configuration(config).as(NetworkBindingConfiguration.class));
+        discoveryConfiguration = new Configuration(config).as(NetworkDiscoveryConfiguration.class);
+        logger.debug("Updated discovery configuration to {}", discoveryConfiguration);
+    }
+
+    /**
+     * The state of one scan. Pings of a previous scan may still be running when the next scan starts, they are
+     * counted by the scan that started them.
+     */
+    class Scan implements SubnetSweep.Listener, PresenceDetectionListener {
+        private final AtomicInteger pendingPings = new AtomicInteger();
+        private volatile boolean sweepFinished;
+        private @Nullable SubnetSweep sweep;
+
+        @Override
+        public void serviceFound(String ip, int port) {
+            newServiceDevice(ip, port);
+        }
+
+        @Override
+        public void hostFound(String ip) {
+            newPingDevice(ip);
+        }
+
+        /**
+         * A host didn't answer on any of the TCP ports. Check it with ICMP and ARP pings, which are
+         * performed by the binding wide {@link org.openhab.binding.network.internal.PresenceProbeEngine}.
+         */
+        @Override
+        public void hostSilent(String ip) {
+            pendingPings.incrementAndGet();
+            if (!startPings(ip, this)) {
+                finalDetectionResult(new PresenceDetectionValue(ip, PresenceDetection.NOT_REACHABLE));
+            }
+        }
+
+        @Override
+        public void sweepFinished(int scannedHosts) {
+            logger.trace("Sweep of {} IPs successful", scannedHosts);
+            sweepFinished = true;
+            if (pendingPings.get() == 0) {
+                scanFinished(this);
+            }
+        }
+
+        @Override
+        public void partialDetectionResult(PresenceDetectionValue value) {
+            NetworkDiscoveryService.this.partialDetectionResult(value);
+        }
+
+        @Override
+        public void finalDetectionResult(PresenceDetectionValue value) {
+            if (pendingPings.decrementAndGet() == 0 && sweepFinished) {
+                logger.trace("Pings of silent hosts finished");
+                scanFinished(this);
+            }
+        }
+
+        int getPendingPings() {
+            return pendingPings.get();
+        }
+
+        void cancel() {
+            SubnetSweep sweep = this.sweep;
+            if (sweep != null) {
+                sweep.cancel();
+            }
+        }
     }
 
     @Override
     @Deactivate
     protected void deactivate() {
-        if (executorService != null) {
-            executorService.shutdown();
+        Scan scan = this.scan;
+        if (scan != null) {
+            scan.cancel();
         }
         super.deactivate();
     }
@@ -117,67 +190,80 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
 
     @Override
     public void finalDetectionResult(PresenceDetectionValue value) {
+        // The pings of a scan are counted by the scan
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Starts the pings of a host.
+     *
+     * @return false if no ping could be started, the listener is not called then
      */
-    @Override
-    protected void startScan() {
-        if (executorService == null) {
-            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+    boolean startPings(String ip, PresenceDetectionListener listener) {
+        final PresenceDetection s = new PresenceDetection(listener, 2000);
+        s.setHostname(ip);
+        s.setIOSDevice(true);
+        s.setUseDhcpSniffing(false);
+        s.setTimeout(discoveryConfiguration.hostTimeoutInMS);
+        s.setIcmpPingMethod(pingMethod);
+        s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
+        s.setServicePorts(Collections.emptySet());
+        return s.performPresenceDetection(false);
+    }
+
+    /**
+     * Creates the sweep of a scan, it is started by the caller.
+     */
+    SubnetSweep createSweep(List<String> ips, int[] ports, SubnetSweep.Listener listener) {
+        return new SubnetSweep(ips, ports, discoveryConfiguration.packetsPerSecond,
+                discoveryConfiguration.hostTimeoutInMS, listener);
+    }
+
+    /**
+     * Returns the running scan, if any.
+     */
+    synchronized @Nullable Scan getScan() {
+        return scan;
+    }
+
+    private synchronized void scanFinished(Scan scan) {
+        // A previous scan that was stopped must not stop the current one
+        if (this.scan == scan) {
+            stopScan();
         }
-        final ExecutorService service = executorService;
-        if (service == null) {
+    }
+
+    /**
+     * Sweeps every IP on each interface on the network
+     */
+    @Override
+    protected synchronized void startScan() {
+        if (scan != null) {
             return;
         }
         removeOlderResults(getTimestampOfLastScan(), null);
         logger.trace("Starting Network Device Discovery");
 
-        final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
-        scannedIPcount = 0;
-
-        for (String ip : networkIPs) {
-            final PresenceDetection s = new PresenceDetection(this, 2000);
-            s.setHostname(ip);
-            s.setIOSDevice(true);
-            s.setUseDhcpSniffing(false);
-            s.setTimeout(PING_TIMEOUT_IN_MS);
-            // Ping devices
-            s.setUseIcmpPing(true);
-            s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
-            // TCP devices
-            s.setServicePorts(tcpServicePorts);
-
-            service.execute(() -> {
-                Thread.currentThread().setName("Discovery thread " + ip);
-                s.performPresenceDetection(true);
-                synchronized (scannedIPcount) {
-                    scannedIPcount += 1;
-                    if (scannedIPcount == networkIPs.size()) {
-                        logger.trace("Scan of {} IPs successful", scannedIPcount);
-                        stopScan();
-                    }
-                }
-            });
-        }
+        // The feature test of the ping method is only performed once per scan
+        pingMethod = networkUtils.determinePingMethod();
+
+        final List<String> networkIPs = new ArrayList<>(networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE));
+        final int[] ports = tcpServicePorts.stream().mapToInt(Integer::intValue).toArray();
+        final Scan scan = new Scan();
+        final SubnetSweep sweep = createSweep(networkIPs, ports, scan);
+        scan.sweep = sweep;
+        this.scan = scan;
+        sweep.start();
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        final ExecutorService service = executorService;
-        if (service == null) {
+        final Scan scan = this.scan;
+        if (scan == null) {
             return;
         }
-
-        try {
-            service.awaitTermination(PING_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Reset interrupt flag
-        }
-        service.shutdown();
-        executorService = null;
+        scan.cancel();
+        this.scan = null;
     }
 
     public static ThingUID createServiceUID(String ip, int tcpPort) {
@@ -186,7 +272,7 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Submit newly discovered devices. This method is called by the spawned threads in {@link startScan}.
+     * Submit newly discovered devices. This method is called during the sweep started by {@link startScan}.
      *
      * @param ip The device IP
      * @param tcpPort The TCP port
@@ -229,7 +315,8 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Submit newly discovered devices. This method is called by the spawned threads in {@link startScan}.
+     * Submit newly discovered devices. This method is called during the sweep started by {@link startScan}
+     * or by the pings of hosts that didn't answer on any TCP port.
      *
      * @param ip The device IP
      */
@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sweeps a list of IP addresses for open TCP ports. All connection attempts are non-blocking and multiplexed on a
+ * single thread, the rate of new connection attempts (each one sends a SYN packet) is limited.
+ *
+ * Results are reported while the sweep is running:
+ * <ul>
+ * <li>{@link Listener#serviceFound(String, int)} for every accepted connection,</li>
+ * <li>{@link Listener#hostFound(String)} once for every host that accepted or refused a connection, which means
+ * that it is reachable,</li>
+ * <li>{@link Listener#hostSilent(String)} for a host without any answer on all ports.</li>
+ * </ul>
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class SubnetSweep implements Runnable {
+    /** Limits the number of open sockets */
+    static final int MAX_PENDING_CONNECTS = 512;
+
+    private final Logger logger = LoggerFactory.getLogger(SubnetSweep.class);
+
+    interface Listener {
+        void serviceFound(String ip, int port);
+
+        void hostFound(String ip);
+
+        void hostSilent(String ip);
+
+        void sweepFinished(int scannedHosts);
+    }
+
+    private static class Host {
+        final String ip;
+        int remainingConnects;
+        boolean answered;
+
+        Host(String ip, int remainingConnects) {
+            this.ip = ip;
+            this.remainingConnects = remainingConnects;
+        }
+    }
+
+    private static class Connect {
+        final Host host;
+        final int port;
+        final long deadlineInNanos;
+        final SelectionKey key;
+
+        Connect(Host host, int port, long deadlineInNanos, SelectionKey key) {
+            this.host = host;
+            this.port = port;
+            this.deadlineInNanos = deadlineInNanos;
+            this.key = key;
+        }
+    }
+
+    private final List<String> ips;
+    private final int[] ports;
+    private final long nanosPerConnect;
+    private final long timeoutInNanos;
+    private final Listener listener;
+
+    private volatile boolean cancelled;
+    private @Nullable Thread thread;
+
+    /**
+     * @param ips The IP addresses to sweep
+     * @param ports The TCP ports to try on every host
+     * @param packetsPerSecond The maximum number of connection attempts per second
+     * @param hostTimeoutInMS How long to wait for an answer to a connection attempt
+     * @param listener Receives the results
+     */
+    SubnetSweep(List<String> ips, int[] ports, int packetsPerSecond, int hostTimeoutInMS, Listener listener) {
+        this.ips = ips;
+        this.ports = ports;
+        this.nanosPerConnect = TimeUnit.SECONDS.toNanos(1) / Math.max(1, packetsPerSecond);
+        this.timeoutInNanos = TimeUnit.MILLISECONDS.toNanos(hostTimeoutInMS);
+        this.listener = listener;
+    }
+
+    synchronized void start() {
+        Thread thread = new Thread(this, "networkDiscoverySweep");
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the sweep. Results of pending connection attempts are not reported anymore.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        Thread thread = this.thread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void run() {
+        Map<SelectionKey, Connect> connects = new HashMap<>();
+        // All connects have the same timeout, so this queue is ordered by deadline
+        ArrayDeque<Connect> deadlines = new ArrayDeque<>();
+        Iterator<String> nextIps = ips.iterator();
+        Host host = null;
+        int nextPort = ports.length;
+        long nextConnectTime = System.nanoTime();
+
+        try (Selector selector = Selector.open()) {
+            while (!cancelled) {
+                long now = System.nanoTime();
+
+                // Start new connects, as far as the rate limit allows
+                while (connects.size() < MAX_PENDING_CONNECTS && nextConnectTime - now <= 0) {
+                    if (nextPort == ports.length) {
+                        if (!nextIps.hasNext()) {
+                            break;
+                        }
+                        host = new Host(nextIps.next(), ports.length);
+                        nextPort = 0;
+                    }
+                    if (host == null) {
+                        break;
+                    }
+                    startConnect(selector, host, ports[nextPort++], now, connects, deadlines);
+                    // Don't allow bursts after the selector woke up late
+                    nextConnectTime = Math.max(nextConnectTime + nanosPerConnect, now - nanosPerConnect);
+                }
+
+                // Time out connects
+                Connect oldest;
+                while ((oldest = deadlines.peek()) != null && oldest.deadlineInNanos - now <= 0) {
+                    deadlines.poll();
+                    if (connects.remove(oldest.key) != null) {
+                        finish(oldest, false, false);
+                    }
+                }
+
+                boolean moreToStart = nextPort < ports.length || nextIps.hasNext();
+                if (connects.isEmpty() && !moreToStart) {
+                    break;
+                }
+
+                long waitInNanos = Long.MAX_VALUE;
+                if (oldest != null) {
+                    waitInNanos = oldest.deadlineInNanos - now;
+                }
+                if (moreToStart && connects.size() < MAX_PENDING_CONNECTS) {
+                    waitInNanos = Math.min(waitInNanos, nextConnectTime - now);
+                }
+                if (waitInNanos > 0) {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitInNanos)));
+                } else {
+                    selector.selectNow();
+                }
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    Connect connect = connects.remove(key);
+                    if (connect == null || !key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        finish(connect, ((SocketChannel) key.channel()).finishConnect(), false);
+                    } catch (ConnectException e) {
+                        // Connection refused: There is a host, but no service on this port
+                        finish(connect, false, true);
+                    } catch (IOException e) {
+                        // No route to host etc.
+                        finish(connect, false, false);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Network discovery sweep failed", e);
+        } finally {
+            for (Connect connect : connects.values()) {
+                closeQuietly(connect.key);
+            }
+        }
+
+        if (!cancelled) {
+            listener.sweepFinished(ips.size());
+        }
+    }
+
+    private void startConnect(Selector selector, Host host, int port, long now, Map<SelectionKey, Connect> connects,
+            ArrayDeque<Connect> deadlines) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            boolean connected = channel.connect(new InetSocketAddress(host.ip, port));
+            SelectionKey key = channel.register(selector, SelectionKey.OP_CONNECT);
+            Connect connect = new Connect(host, port, now + timeoutInNanos, key);
+            if (connected) {
+                finish(connect, true, false);
+                return;
+            }
+            connects.put(key, connect);
+            deadlines.add(connect);
+        } catch (ConnectException e) {
+            closeQuietly(channel);
+            countDown(host, true);
+        } catch (IOException e) {
+            logger.trace("Could not connect to {}:{}: {}", host.ip, port, e.getMessage());
+            closeQuietly(channel);
+            countDown(host, false);
+        }
+    }
+
+    private void finish(Connect connect, boolean connected, boolean refused) {
+        closeQuietly(connect.key);
+        if (cancelled) {
+            return;
+        }
+        if (connected) {
+            listener.serviceFound(connect.host.ip, connect.port);
+        }
+        countDown(connect.host, connected || refused);
+    }
+
+    private void countDown(Host host, boolean answered) {
+        if (answered && !host.answered) {
+            host.answered = true;
+            listener.hostFound(host.ip);
+        }
+        host.remainingConnects--;
+        if (host.remainingConnects == 0 && !host.answered) {
+            listener.hostSilent(host.ip);
+        }
+    }
+
+    private void closeQuietly(SelectionKey key) {
+        key.cancel();
+        closeQuietly(key.channel());
+    }
+
+    private void closeQuietly(@Nullable Channel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // the channel is not used anymore
+            }
+        }
+    }
+}
@@ -19,9 +19,11 @@ import static org.mockito.Mockito.*;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -52,7 +54,7 @@ public class PresenceDetectionTest {
     PresenceDetectionListener listener;
 
     @Mock
-    ExecutorService executorService;
+    PresenceProbeEngine probeEngine;
 
     @Mock
     Consumer<PresenceDetectionValue> callback;
@@ -70,6 +72,7 @@ public class PresenceDetectionTest {
 
         subject = spy(new PresenceDetection(listener, (int) CACHETIME));
         subject.networkUtils = networkUtils;
+        subject.probeEngine = new PresenceProbeEngine(2);
         subject.cache = spy(new ExpiringCacheAsync<>(CACHETIME, () -> {
             subject.performPresenceDetection(false);
         }));
@@ -91,26 +94,43 @@ public class PresenceDetectionTest {
         subject.waitForPresenceDetection();
     }
 
-    // Depending on the amount of test methods an according amount of threads is spawned.
-    // We will check if they spawn and return in time.
+    // Depending on the amount of test methods an according amount of checks is performed.
+    // We will check if they are started and finish in time.
     @Test
-    public void threadCountTest() {
-        assertNull(subject.executorService);
+    public void checkCountTest() {
+        assertNull(subject.detection);
 
-        doNothing().when(subject).performARPping(any());
-        doNothing().when(subject).performJavaPing();
-        doNothing().when(subject).performSystemPing();
-        doNothing().when(subject).performServicePing(anyInt());
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        doReturn(pending).when(subject).performARPping(any());
+        doReturn(pending).when(subject).performJavaPing();
+        doReturn(pending).when(subject).performSystemPing();
+        doReturn(pending).when(subject).performServicePing(anyInt());
 
         subject.performPresenceDetection(false);
 
-        // Thread count: ARP + ICMP + 1*TCP
+        // Check count: ARP + ICMP + 1*TCP
         assertThat(subject.detectionChecks, is(3));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detection);
 
-        subject.waitForPresenceDetection();
+        pending.complete(null);
         assertThat(subject.detectionChecks, is(0));
-        assertNull(subject.executorService);
+        assertNull(subject.detection);
+    }
+
+    @Test
+    public void detectionFinishesAfterTimeout() {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        doReturn(pending).when(subject).performARPping(any());
+        doReturn(pending).when(subject).performSystemPing();
+        doReturn(pending).when(subject).performServicePing(anyInt());
+
+        assertTrue(subject.performPresenceDetection(false));
+        subject.waitForPresenceDetection();
+
+        assertNull(subject.detection);
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(capture.capture());
+        assertFalse(capture.getValue().isReachable());
     }
 
     @Test
@@ -119,7 +139,9 @@ public class PresenceDetectionTest {
                 anyString(), anyInt());
         doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils)
                 .nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(), any(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
+        subject.probeEngine = spy(subject.probeEngine);
+        doReturn(CompletableFuture.completedFuture(Optional.of(new PingResult(true, 10)))).when(subject.probeEngine)
+                .servicePing(anyString(), anyInt(), anyInt());
 
         assertTrue(subject.performPresenceDetection(false));
         subject.waitForPresenceDetection();
@@ -142,24 +164,34 @@ public class PresenceDetectionTest {
                 anyString(), anyInt());
         doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils)
                 .nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(), any(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
 
-        doReturn(executorService).when(subject).getThreadsFor(anyInt());
+        // Hold back the results of all checks
+        List<CompletableFuture<Optional<PingResult>>> checks = new ArrayList<>();
+        subject.probeEngine = probeEngine;
+        when(probeEngine.servicePing(anyString(), anyInt(), anyInt())).thenAnswer(a -> {
+            CompletableFuture<Optional<PingResult>> check = new CompletableFuture<>();
+            checks.add(check);
+            return check;
+        });
+        when(probeEngine.processPing(anyString(), anyInt(), any())).thenAnswer(a -> {
+            CompletableFuture<Optional<PingResult>> check = new CompletableFuture<>();
+            checks.add(check);
+            return check;
+        });
 
         // We expect no valid value
         assertTrue(subject.cache.isExpired());
         // Get value will issue a PresenceDetection internally.
         subject.getValue(callback);
         verify(subject).performPresenceDetection(eq(false));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detection);
         // There should be no straight callback yet
         verify(callback, times(0)).accept(any());
 
-        // Perform the different presence detection threads now
-        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
-        verify(executorService, times(3)).execute(capture.capture());
-        for (Runnable r : capture.getAllValues()) {
-            r.run();
+        // Complete the different presence detection checks now
+        assertThat(checks.size(), is(3));
+        for (CompletableFuture<Optional<PingResult>> check : checks) {
+            check.complete(Optional.of(new PingResult(true, 10)));
         }
         // "Wait" for the presence detection to finish
         subject.waitForPresenceDetection();
@@ -178,6 +210,38 @@ public class PresenceDetectionTest {
         verify(callback, times(2)).accept(any());
     }
 
+    @Test
+    public void resultsOfTimedOutDetectionAreIgnored() {
+        // Hold back the results of all checks, as if they waited for a free process slot
+        List<CompletableFuture<Optional<PingResult>>> checks = new ArrayList<>();
+        subject.probeEngine = probeEngine;
+        when(probeEngine.servicePing(anyString(), anyInt(), anyInt())).thenAnswer(a -> {
+            CompletableFuture<Optional<PingResult>> check = new CompletableFuture<>();
+            checks.add(check);
+            return check;
+        });
+        when(probeEngine.processPing(anyString(), anyInt(), any())).thenAnswer(a -> {
+            CompletableFuture<Optional<PingResult>> check = new CompletableFuture<>();
+            checks.add(check);
+            return check;
+        });
+
+        assertTrue(subject.performPresenceDetection(false));
+        subject.waitForPresenceDetection();
+        assertNull(subject.detection);
+
+        // The checks complete after the detection timed out
+        assertThat(checks.size(), is(3));
+        for (CompletableFuture<Optional<PingResult>> check : checks) {
+            check.complete(Optional.of(new PingResult(true, 10)));
+        }
+
+        verify(listener, times(0)).partialDetectionResult(any());
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(capture.capture());
+        assertFalse(capture.getValue().isReachable());
+    }
+
     @Test
     public void reuseValueTests() throws InterruptedException, IOException {
         final long START_TIME = 1000L;
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openhab.binding.network.internal.PresenceProbeEngine.ProcessCheck;
+import org.openhab.binding.network.internal.utils.PingResult;
+
+/**
+ * Tests the coalescing of identical checks by the {@link PresenceProbeEngine}.
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceProbeEngineTest {
+    private final PresenceProbeEngine engine = new PresenceProbeEngine(4);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final ProcessCheck check = () -> {
+        executions.incrementAndGet();
+        release.await(5, TimeUnit.SECONDS);
+        return Optional.of(new PingResult(true, 1));
+    };
+
+    @Test
+    public void identicalChecksAreCoalesced() throws Exception {
+        CompletableFuture<Optional<PingResult>> first = engine.processPing("icmp 192.168.0.1", 1000, check);
+        CompletableFuture<Optional<PingResult>> second = engine.processPing("icmp 192.168.0.1", 1000, check);
+
+        assertSame(first, second);
+        assertEquals(1, engine.getRunningChecks());
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).get().isSuccess());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void checksWithDifferentTimeoutsAreNotCoalesced() throws Exception {
+        CompletableFuture<Optional<PingResult>> longTimeout = engine.processPing("icmp 192.168.0.1", 5000, check);
+        CompletableFuture<Optional<PingResult>> shortTimeout = engine.processPing("icmp 192.168.0.1", 500, check);
+
+        assertNotSame(longTimeout, shortTimeout);
+        assertEquals(2, engine.getRunningChecks());
+
+        release.countDown();
+        longTimeout.get(5, TimeUnit.SECONDS);
+        shortTimeout.get(5, TimeUnit.SECONDS);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void finishedChecksAreNotCoalesced() throws Exception {
+        release.countDown();
+        engine.processPing("icmp 192.168.0.1", 1000, check).get(5, TimeUnit.SECONDS);
+        engine.processPing("icmp 192.168.0.1", 1000, check).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, executions.get());
+    }
+}
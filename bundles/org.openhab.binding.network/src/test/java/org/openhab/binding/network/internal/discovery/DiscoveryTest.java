@@ -12,12 +12,14 @@
  */
 package org.openhab.binding.network.internal.discovery;
 
-import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.smarthome.config.discovery.DiscoveryListener;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
@@ -27,7 +29,9 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.openhab.binding.network.internal.NetworkBindingConstants;
+import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
+import org.openhab.binding.network.internal.discovery.NetworkDiscoveryService.Scan;
 
 /**
  * Tests cases for {@see PresenceDetectionValue}
@@ -37,6 +41,37 @@ import org.openhab.binding.network.internal.PresenceDetectionValue;
 public class DiscoveryTest {
     private final String ip = "127.0.0.1";
 
+    /**
+     * Doesn't sweep the network and doesn't ping, the test drives the scans through their listeners.
+     */
+    private static class TestNetworkDiscoveryService extends NetworkDiscoveryService {
+        final List<PresenceDetectionListener> pings = new ArrayList<>();
+        int stoppedScans;
+
+        @Override
+        SubnetSweep createSweep(List<String> ips, int[] ports, SubnetSweep.Listener listener) {
+            return new SubnetSweep(Collections.emptyList(), ports, 1, 1, listener) {
+                @Override
+                synchronized void start() {
+                }
+            };
+        }
+
+        @Override
+        boolean startPings(String ip, PresenceDetectionListener listener) {
+            pings.add(listener);
+            return true;
+        }
+
+        @Override
+        protected synchronized void stopScan() {
+            if (getScan() != null) {
+                stoppedScans++;
+            }
+            super.stopScan();
+        }
+    }
+
     @Mock
     PresenceDetectionValue value;
 
@@ -87,4 +122,80 @@ public class DiscoveryTest {
         Assert.assertThat(dresult.getProperties().get(NetworkBindingConstants.PARAMETER_HOSTNAME), is(ip));
         Assert.assertThat(dresult.getProperties().get(NetworkBindingConstants.PARAMETER_PORT), is(1010));
     }
+
+    @Test
+    public void sweepResultsDiscovered() {
+        TestNetworkDiscoveryService d = new TestNetworkDiscoveryService();
+        d.addDiscoveryListener(listener);
+        d.startScan();
+        Scan scan = d.getScan();
+        Assert.assertThat(scan, is(notNullValue()));
+
+        ArgumentCaptor<DiscoveryResult> result = ArgumentCaptor.forClass(DiscoveryResult.class);
+        scan.serviceFound(ip, 80);
+        scan.hostFound(ip);
+        verify(listener, times(2)).thingDiscovered(any(), result.capture());
+        Assert.assertThat(result.getAllValues().get(0).getThingUID(),
+                is(NetworkDiscoveryService.createServiceUID(ip, 80)));
+        Assert.assertThat(result.getAllValues().get(1).getThingUID(), is(NetworkDiscoveryService.createPingUID(ip)));
+    }
+
+    @Test
+    public void scanFinishedAfterSweepAndPings() {
+        TestNetworkDiscoveryService d = new TestNetworkDiscoveryService();
+        d.startScan();
+        Scan scan = d.getScan();
+
+        scan.hostSilent("192.168.0.1");
+        scan.hostSilent("192.168.0.2");
+        scan.sweepFinished(2);
+        // pings are still running
+        Assert.assertThat(d.stoppedScans, is(0));
+
+        d.pings.get(0).finalDetectionResult(value);
+        Assert.assertThat(d.stoppedScans, is(0));
+        d.pings.get(1).finalDetectionResult(value);
+        Assert.assertThat(d.stoppedScans, is(1));
+        Assert.assertThat(d.getScan(), is(nullValue()));
+    }
+
+    @Test
+    public void scanFinishedWithSweepWithoutSilentHosts() {
+        TestNetworkDiscoveryService d = new TestNetworkDiscoveryService();
+        d.startScan();
+
+        d.getScan().sweepFinished(2);
+        Assert.assertThat(d.stoppedScans, is(1));
+        Assert.assertThat(d.getScan(), is(nullValue()));
+    }
+
+    @Test
+    public void pingsOfPreviousScanDontFinishNextScan() {
+        TestNetworkDiscoveryService d = new TestNetworkDiscoveryService();
+        d.startScan();
+        Scan first = d.getScan();
+        first.hostSilent("192.168.0.1");
+        first.hostSilent("192.168.0.2");
+        // e.g. the scan timeout expired
+        d.stopScan();
+        Assert.assertThat(d.stoppedScans, is(1));
+
+        d.startScan();
+        Scan second = d.getScan();
+        Assert.assertThat(second, is(not(first)));
+        second.hostSilent("192.168.0.1");
+
+        // the pings of the first scan finish during the second scan
+        d.pings.get(0).finalDetectionResult(value);
+        d.pings.get(1).finalDetectionResult(value);
+        Assert.assertThat(first.getPendingPings(), is(0));
+        Assert.assertThat(second.getPendingPings(), is(1));
+        Assert.assertThat(d.getScan(), is(second));
+
+        second.sweepFinished(1);
+        Assert.assertThat(d.stoppedScans, is(1));
+        d.pings.get(2).finalDetectionResult(value);
+        Assert.assertThat(d.stoppedScans, is(2));
+        Assert.assertThat(d.getScan(), is(nullValue()));
+    }
 }
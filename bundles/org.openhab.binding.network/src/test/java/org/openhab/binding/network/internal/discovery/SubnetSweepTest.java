@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SubnetSweep} with sockets on the loopback interface.
+ *
+ * @author agent - Initial contribution
+ */
+public class SubnetSweepTest {
+    private static final String LOCALHOST = "127.0.0.1";
+
+    private final List<String> services = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> hosts = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> silentHosts = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final List<Socket> sockets = new ArrayList<>();
+
+    private final SubnetSweep.Listener listener = new SubnetSweep.Listener() {
+        @Override
+        public void serviceFound(String ip, int port) {
+            services.add(ip + ":" + port);
+        }
+
+        @Override
+        public void hostFound(String ip) {
+            hosts.add(ip);
+        }
+
+        @Override
+        public void hostSilent(String ip) {
+            silentHosts.add(ip);
+        }
+
+        @Override
+        public void sweepFinished(int scannedHosts) {
+            finished.countDown();
+        }
+    };
+
+    private ServerSocket openPort;
+    private int closedPort;
+
+    @Before
+    public void setUp() throws IOException {
+        openPort = new ServerSocket(0, 50);
+        try (ServerSocket closed = new ServerSocket(0)) {
+            closedPort = closed.getLocalPort();
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        openPort.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void openAndRefusedPorts() throws InterruptedException {
+        long elapsedMillis = sweep(Collections.singletonList(LOCALHOST),
+                new int[] { closedPort, openPort.getLocalPort() }, 1000, 2000);
+
+        assertEquals(Collections.singletonList(LOCALHOST + ":" + openPort.getLocalPort()), services);
+        // reported once, although both ports answered
+        assertEquals(Collections.singletonList(LOCALHOST), hosts);
+        assertTrue(silentHosts.isEmpty());
+        assertTrue(elapsedMillis < 2000);
+    }
+
+    @Test
+    public void refusedConnectMeansHostPresent() throws InterruptedException {
+        sweep(Collections.singletonList(LOCALHOST), new int[] { closedPort }, 1000, 2000);
+
+        assertTrue(services.isEmpty());
+        assertEquals(Collections.singletonList(LOCALHOST), hosts);
+        assertTrue(silentHosts.isEmpty());
+    }
+
+    @Test
+    public void rateLimit() throws InterruptedException {
+        int packetsPerSecond = 100;
+        List<String> ips = Collections.nCopies(50, LOCALHOST);
+
+        long elapsedMillis = sweep(ips, new int[] { closedPort }, packetsPerSecond, 1000);
+
+        assertEquals(ips.size(), hosts.size());
+        // 50 connects at 100 per second take at least 490 ms
+        assertTrue("Sweep took only " + elapsedMillis + " ms",
+                elapsedMillis >= (ips.size() - 1) * 1000 / packetsPerSecond - 20);
+    }
+
+    @Test
+    public void pendingConnectsAreLimited() throws IOException, InterruptedException {
+        // Connects to a port whose accept queue is full stay pending until they time out
+        ServerSocket fullPort = new ServerSocket(0, 1);
+        try {
+            fillAcceptQueue(fullPort);
+            int hostTimeoutInMS = 500;
+            List<String> ips = Collections.nCopies(SubnetSweep.MAX_PENDING_CONNECTS + 50, LOCALHOST);
+
+            long elapsedMillis = sweep(ips, new int[] { fullPort.getLocalPort() }, 100_000, hostTimeoutInMS);
+
+            assertEquals(ips.size(), silentHosts.size());
+            // The connects beyond the limit are only started after the first ones timed out
+            assertTrue("Sweep took only " + elapsedMillis + " ms", elapsedMillis >= 2 * hostTimeoutInMS - 50);
+        } finally {
+            fullPort.close();
+        }
+    }
+
+    @Test
+    public void cancelledSweepReportsNothing() throws InterruptedException {
+        SubnetSweep sweep = new SubnetSweep(Collections.nCopies(100, LOCALHOST), new int[] { closedPort }, 10, 1000,
+                listener);
+        sweep.cancel();
+        sweep.start();
+
+        assertFalse(finished.await(500, TimeUnit.MILLISECONDS));
+        assertTrue(hosts.isEmpty());
+    }
+
+    private long sweep(List<String> ips, int[] ports, int packetsPerSecond, int hostTimeoutInMS)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        new SubnetSweep(ips, ports, packetsPerSecond, hostTimeoutInMS, listener).start();
+        assertTrue(finished.await(30, TimeUnit.SECONDS));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private void fillAcceptQueue(ServerSocket serverSocket) {
+        for (int i = 0; i < 3; i++) {
+            Socket socket = new Socket();
+            sockets.add(socket);
+            try {
+                socket.connect(new InetSocketAddress(LOCALHOST, serverSocket.getLocalPort()), 100);
+            } catch (IOException e) {
+                // the queue is full
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.openhab.io.transport.modbus.BasicModbusRegister;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of the register decoding paths of {@link ModbusBitUtilities}
+ *
+ * Compares, for each value type
+ * <ul>
+ * <li>the previous decoding with ByteBuffer and DecimalType, as it was before the raw bits API</li>
+ * <li>{@link ModbusBitUtilities#extractStateFromRegisters}</li>
+ * <li>{@link ModbusBitUtilities#extractDoubleFromRegisters}</li>
+ * <li>{@link ModbusBitUtilities#extractRawBitsFromRegisters} and comparison with the previous raw value, the path of
+ * the data thing when the polled data is unchanged</li>
+ * </ul>
+ *
+ * Run with the jmh profile, allocations per decoded value are reported by the gc profiler:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ModbusBitUtilitiesBenchmark -prof gc"
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ModbusBitUtilitiesBenchmark {
+
+    private static final int REGISTERS = 64;
+
+    @Param({ "INT16", "UINT16", "INT32", "UINT32", "FLOAT32", "INT64", "FLOAT32_SWAP" })
+    public ValueType type;
+
+    private ModbusRegisterArray registers;
+    private int indexCount;
+    private int index;
+    private long previousRawBits;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ModbusRegister[] registers = new ModbusRegister[REGISTERS];
+        for (int i = 0; i < REGISTERS; i++) {
+            registers[i] = new BasicModbusRegister(random.nextInt(0x10000));
+        }
+        this.registers = new BasicModbusRegisterArray(registers);
+        indexCount = REGISTERS - type.getBits() / 16 + 1;
+    }
+
+    /**
+     * Decodes at a different index on each call, so that the values are not constant
+     */
+    private int nextIndex() {
+        index = index + 1 < indexCount ? index + 1 : 0;
+        return index;
+    }
+
+    @Benchmark
+    public Optional<DecimalType> byteBuffer() {
+        return previousImplementation(registers, nextIndex(), type);
+    }
+
+    @Benchmark
+    public Optional<DecimalType> extractState() {
+        return ModbusBitUtilities.extractStateFromRegisters(registers, nextIndex(), type);
+    }
+
+    @Benchmark
+    public double extractDouble() {
+        return ModbusBitUtilities.extractDoubleFromRegisters(registers, nextIndex(), type);
+    }
+
+    @Benchmark
+    public boolean rawBitsUnchangedCheck() {
+        long rawBits = ModbusBitUtilities.extractRawBitsFromRegisters(registers, nextIndex(), type);
+        boolean same = rawBits == previousRawBits;
+        previousRawBits = rawBits;
+        return same;
+    }
+
+    /**
+     * Decoding of the benchmarked value types as implemented before the raw bits API
+     */
+    private static Optional<DecimalType> previousImplementation(ModbusRegisterArray registers, int index,
+            ValueType type) {
+        switch (type) {
+            case INT16: {
+                ByteBuffer buff = ByteBuffer.allocate(2);
+                buff.put(registers.getRegister(index).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
+            }
+            case UINT16:
+                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
+            case INT32: {
+                ByteBuffer buff = ByteBuffer.allocate(4);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
+            }
+            case UINT32: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.position(4);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            }
+            case FLOAT32: {
+                ByteBuffer buff = ByteBuffer.allocate(4);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                try {
+                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
+                } catch (NumberFormatException e) {
+                    // floating point NaN or infinity encountered
+                    return Optional.empty();
+                }
+            }
+            case INT64: {
+                ByteBuffer buff = ByteBuffer.allocate(8);
+                buff.put(registers.getRegister(index).getBytes());
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index + 2).getBytes());
+                buff.put(registers.getRegister(index + 3).getBytes());
+                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            }
+            case FLOAT32_SWAP: {
+                ByteBuffer buff = ByteBuffer.allocate(4);
+                buff.put(registers.getRegister(index + 1).getBytes());
+                buff.put(registers.getRegister(index).getBytes());
+                try {
+                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
+                } catch (NumberFormatException e) {
+                    // floating point NaN or infinity encountered
+                    return Optional.empty();
+                }
+            }
+            default:
+                throw new IllegalArgumentException(type.getConfigValue());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.TaskWithEndpoint;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.AggregateStopWatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.wimpi.modbus.procimg.SimpleRegister;
+
+/**
+ * JMH benchmark of the transport, regular polls of an in-process slave
+ *
+ * Each benchmark operation is one completed Modbus transaction of the regular polls, so the throughput reported by
+ * JMH is transactions per second. After each iteration, latency percentiles of the timing phases of
+ * {@link AggregateStopWatch} are printed. The phases are timed with millisecond resolution.
+ *
+ * Run with the jmh profile, the gc profiler reports the allocation rate of the polling:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ModbusManagerBenchmark -p server=TCP,UDP -p pollers=50 -prof gc"
+ * </pre>
+ *
+ * Only TCP and UDP slaves are benchmarked. A serial slave needs a pseudo terminal pair and native serial support,
+ * which depend on the system, see {@link IntegrationTestSupport}.
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ModbusManagerBenchmark extends IntegrationTestSupport {
+
+    static {
+        // Logging at debug or trace level would dominate the measurements. JMH runs the benchmark in a forked JVM
+        // of its own, so no test is affected by this.
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+    }
+
+    /**
+     * Timing info of a single operation
+     */
+    private static class OperationTiming {
+        private final long total;
+        private final long connection;
+        private final long transaction;
+        private final long callback;
+
+        public OperationTiming(AggregateStopWatch timer) {
+            total = timer.getTotalTimeMillis();
+            connection = timer.getConnectionTimeMillis();
+            transaction = timer.getTransactionTimeMillis();
+            callback = timer.getCallbackTimeMillis();
+        }
+    }
+
+    /**
+     * Manager passing timing info of all operations to the benchmark
+     */
+    private static class TimingModbusManager extends NonOSGIModbusManager {
+        private final BlockingQueue<OperationTiming> timings = new LinkedBlockingQueue<>();
+
+        @Override
+        protected void operationEnded(TaskWithEndpoint<?, ?> task, AggregateStopWatch timer) {
+            timings.add(new OperationTiming(timer));
+        }
+    }
+
+    @Param({ "TCP", "UDP" })
+    public String server;
+
+    /**
+     * Number of regular polls
+     */
+    @Param("10")
+    public int pollers;
+
+    /**
+     * Number of registers read by each poll
+     */
+    @Param("10")
+    public int registers;
+
+    @Param("10")
+    public int periodMillis;
+
+    /**
+     * Pipelined transactions with TCP
+     */
+    @Param("1")
+    public int maxInFlightTransactions;
+
+    private TimingModbusManager timingManager;
+    private final List<PollTask> tasks = new ArrayList<>();
+    private final List<OperationTiming> iterationTimings = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void startPolling() throws Exception {
+        serverType = ServerType.valueOf(server);
+        setUp();
+        modbusManager.close();
+        modbusManager = timingManager = new TimingModbusManager();
+
+        for (int i = 0; i < registers + pollers; i++) {
+            spi.addRegister(new SimpleRegister(i));
+        }
+        ModbusSlaveEndpoint endpoint = benchmarkEndpoint();
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setInterTransactionDelayMillis(0);
+        configuration.setInterConnectDelayMillis(0);
+        if (maxInFlightTransactions > 1) {
+            // pipelining requires keeping the connection open between transactions
+            configuration.setReconnectAfterMillis(-1);
+        }
+        configuration.setMaxInFlightTransactions(maxInFlightTransactions);
+        modbusManager.setEndpointPoolConfiguration(endpoint, configuration);
+
+        ModbusReadCallback callback = new ModbusReadCallback() {
+
+            @Override
+            public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            }
+
+            @Override
+            public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            }
+
+            @Override
+            public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                System.err.println("Poll failed: " + error);
+            }
+        };
+        for (int i = 0; i < pollers; i++) {
+            // Each poller starts from different register to keep the tasks distinct
+            tasks.add(new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                    ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, i, registers, 1), callback));
+        }
+        tasks.forEach(task -> modbusManager.registerRegularPoll(task, periodMillis, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPolling() {
+        tasks.forEach(modbusManager::unregisterRegularPoll);
+        tasks.clear();
+        tearDown();
+    }
+
+    private ModbusSlaveEndpoint benchmarkEndpoint() {
+        switch (serverType) {
+            case TCP:
+                return new ModbusTCPSlaveEndpoint("127.0.0.1", tcpModbusPort);
+            case UDP:
+                return new ModbusUDPSlaveEndpoint("127.0.0.1", udpModbusPort);
+            default:
+                throw new IllegalArgumentException("Server type not supported in benchmark: " + serverType);
+        }
+    }
+
+    /**
+     * Waits for the next completed transaction
+     */
+    @Benchmark
+    public boolean transaction() throws InterruptedException {
+        OperationTiming timing = timingManager.timings.poll(1, TimeUnit.SECONDS);
+        if (timing == null) {
+            return false;
+        }
+        iterationTimings.add(timing);
+        return true;
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        // operations of the previous iteration and of the pause between iterations are not measured
+        timingManager.timings.clear();
+        iterationTimings.clear();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPhases() {
+        System.out.println();
+        System.out.println("total:       " + describePhase(iterationTimings, timing -> timing.total));
+        System.out.println("connection:  " + describePhase(iterationTimings, timing -> timing.connection));
+        System.out.println("transaction: " + describePhase(iterationTimings, timing -> timing.transaction));
+        System.out.println("callback:    " + describePhase(iterationTimings, timing -> timing.callback));
+    }
+
+    private static long percentile(long[] sortedValues, double percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, Math.min(sortedValues.length - 1, index))];
+    }
+
+    private static String describePhase(List<OperationTiming> timings, ToLongFunction<OperationTiming> phase) {
+        long[] values = timings.stream().mapToLong(phase).sorted().toArray();
+        return String.format("p50=%d ms, p99=%d ms, max=%d ms", percentile(values, 50), percentile(values, 99),
+                values.length == 0 ? 0 : values[values.length - 1]);
+    }
+}
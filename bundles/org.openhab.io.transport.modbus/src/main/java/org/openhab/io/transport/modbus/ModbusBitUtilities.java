@@ -14,8 +14,6 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -101,6 +99,42 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
+        long rawBits = extractRawBitsFromRegisters(registers, index, type);
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                try {
+                    return Optional.of(new DecimalType(Float.intBitsToFloat((int) rawBits)));
+                } catch (NumberFormatException e) {
+                    // floating point NaN or infinity encountered
+                    return Optional.empty();
+                }
+            case UINT64:
+            case UINT64_SWAP:
+                return Optional.of(new DecimalType(new BigDecimal(toUnsignedBigInteger(rawBits))));
+            default:
+                return Optional.of(new DecimalType(rawBitsToLong(rawBits, type)));
+        }
+    }
+
+    /**
+     * Read raw bits of a value from registers, without interpreting them
+     *
+     * The bits are returned in the lowest bits of the result, with registers in the order specified by the type
+     * (registers swapped with the <tt>_SWAP</tt> types). Higher bits not covered by the type are zero. For example,
+     * INT16 register with value -1 is returned as 0xffff.
+     *
+     * This method does not allocate any objects, and can be used to detect changes in the polled data cheaply.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, interpreted as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return raw bits of the value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static long extractRawBitsFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
         int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
         // each register has 16 bits
         int lastValidIndex = registers.size() * 16 - 1;
@@ -111,107 +145,168 @@ public class ModbusBitUtilities {
         }
         switch (type) {
             case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
+                return (registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1;
             case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
             case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
+                return (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff;
+            case INT16:
             case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
+                return registers.getRegister(index).toUnsignedShort();
+            case INT32:
+            case UINT32:
+            case FLOAT32:
+                return ((long) registers.getRegister(index).toUnsignedShort() << 16)
+                        | registers.getRegister(index + 1).toUnsignedShort();
+            case INT32_SWAP:
+            case UINT32_SWAP:
+            case FLOAT32_SWAP:
+                return ((long) registers.getRegister(index + 1).toUnsignedShort() << 16)
+                        | registers.getRegister(index).toUnsignedShort();
+            case INT64:
+            case UINT64:
+                return ((long) registers.getRegister(index).toUnsignedShort() << 48)
+                        | ((long) registers.getRegister(index + 1).toUnsignedShort() << 32)
+                        | ((long) registers.getRegister(index + 2).toUnsignedShort() << 16)
+                        | registers.getRegister(index + 3).toUnsignedShort();
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return ((long) registers.getRegister(index + 3).toUnsignedShort() << 48)
+                        | ((long) registers.getRegister(index + 2).toUnsignedShort() << 32)
+                        | ((long) registers.getRegister(index + 1).toUnsignedShort() << 16)
+                        | registers.getRegister(index).toUnsignedShort();
             default:
                 throw new IllegalArgumentException(type.getConfigValue());
         }
     }
 
+    /**
+     * Read integer value from registers, without allocating objects
+     *
+     * Supported types are the ones having values that fit in int: BIT, INT8, UINT8, INT16, UINT16, INT32 and
+     * INT32_SWAP.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, interpreted as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or when type is not supported
+     */
+    public static int extractIntFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        switch (type) {
+            case BIT:
+            case INT8:
+            case UINT8:
+            case INT16:
+            case UINT16:
+            case INT32:
+            case INT32_SWAP:
+                return (int) rawBitsToLong(extractRawBitsFromRegisters(registers, index, type), type);
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type=%s cannot be represented as int, use long or double instead", type));
+        }
+    }
+
+    /**
+     * Read integer value from registers, without allocating objects
+     *
+     * All integer types are supported. Note that UINT64 and UINT64_SWAP values larger than {@link Long#MAX_VALUE}
+     * wrap around to negative values, use
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)} to get them in full
+     * precision.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, interpreted as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or with floating point types
+     */
+    public static long extractLongFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        if (type == ModbusConstants.ValueType.FLOAT32 || type == ModbusConstants.ValueType.FLOAT32_SWAP) {
+            throw new IllegalArgumentException(
+                    String.format("Type=%s cannot be represented as long, use float or double instead", type));
+        }
+        return rawBitsToLong(extractRawBitsFromRegisters(registers, index, type), type);
+    }
+
+    /**
+     * Read floating point value from registers, without allocating objects
+     *
+     * All types are supported. Integer types are converted to float, possibly losing precision.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, interpreted as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return value. Unlike with extractStateFromRegisters, NaN and infinity are returned as is.
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static float extractFloatFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        return (float) extractDoubleFromRegisters(registers, index, type);
+    }
+
+    /**
+     * Read floating point value from registers, without allocating objects
+     *
+     * All types are supported. 64bit integer types are converted to double, possibly losing precision.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, interpreted as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type
+     * @return value. Unlike with extractStateFromRegisters, NaN and infinity are returned as is.
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static double extractDoubleFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        long rawBits = extractRawBitsFromRegisters(registers, index, type);
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return Float.intBitsToFloat((int) rawBits);
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawBits < 0) {
+                    // highest bit set, value does not fit in signed long. Halve the value, keeping the lowest bit
+                    // for correct rounding, and double it back.
+                    return (double) ((rawBits >>> 1) | (rawBits & 1)) * 2.0;
+                }
+                return rawBits;
+            default:
+                return rawBitsToLong(rawBits, type);
+        }
+    }
+
+    /**
+     * Interpret raw bits of integer type as long, extending the sign with signed types
+     */
+    private static long rawBitsToLong(long rawBits, ModbusConstants.ValueType type) {
+        switch (type) {
+            case INT8:
+                return (byte) rawBits;
+            case INT16:
+                return (short) rawBits;
+            case INT32:
+            case INT32_SWAP:
+                return (int) rawBits;
+            default:
+                return rawBits;
+        }
+    }
+
+    private static BigInteger toUnsignedBigInteger(long rawBits) {
+        BigInteger value = BigInteger.valueOf(rawBits & Long.MAX_VALUE);
+        if (rawBits < 0) {
+            value = value.setBit(63);
+        }
+        return value;
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -27,6 +27,29 @@ import org.eclipse.jdt.annotation.Nullable;
 @NonNullByDefault
 public class ModbusConstants {
 
+    /**
+     * Maximum number of registers that can be read with a single request (FC3, FC4), as defined by the Modbus
+     * specification
+     */
+    public static final int MAX_REGISTERS_READ_COUNT = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs that can be read with a single request (FC1, FC2), as defined by the
+     * Modbus specification
+     */
+    public static final int MAX_BITS_READ_COUNT = 2000;
+
+    /**
+     * Maximum number of registers that can be written with a single request (FC16), as defined by the Modbus
+     * specification
+     */
+    public static final int MAX_REGISTERS_WRITE_COUNT = 123;
+
+    /**
+     * Maximum number of coils that can be written with a single request (FC15), as defined by the Modbus specification
+     */
+    public static final int MAX_BITS_WRITE_COUNT = 1968;
+
     /**
      * Value types for different number types.
      *
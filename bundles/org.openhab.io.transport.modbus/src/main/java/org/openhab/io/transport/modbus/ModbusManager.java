@@ -41,6 +41,9 @@ public interface ModbusManager {
      * Register regularly polled task. The method returns immediately, and the execution of the poll task will happen in
      * the background.
      *
+     * Registering a task that is registered already changes its poll period. Ongoing poll of the task is not
+     * interrupted.
+     *
      * @param task
      * @return
      */
@@ -103,4 +106,16 @@ public interface ModbusManager {
      * @return set of registered regular polls
      */
     public Set<PollTask> getRegisteredRegularPolls();
+
+    /**
+     * Get the ratio between regular polls of the endpoint, and the reads actually executed for them when polls are
+     * coalesced.
+     *
+     * For example, ratio of 4.0 means that on average, four regular polls are served with a single read. Ratio of 1.0
+     * is returned when nothing is coalesced.
+     *
+     * @param endpoint endpoint to query
+     * @return merge ratio of coalesced regular polls of the endpoint
+     */
+    public double getCoalescingMergeRatio(ModbusSlaveEndpoint endpoint);
 }
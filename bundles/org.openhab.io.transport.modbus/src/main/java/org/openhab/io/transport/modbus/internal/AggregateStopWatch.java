@@ -64,6 +64,42 @@ public class AggregateStopWatch {
         }
     }
 
+    /**
+     * Get total operation time
+     *
+     * @return total time in milliseconds
+     */
+    public long getTotalTimeMillis() {
+        return total.getTotalTimeMillis();
+    }
+
+    /**
+     * Get time spent in connection related actions
+     *
+     * @return connection time in milliseconds
+     */
+    public long getConnectionTimeMillis() {
+        return connection.getTotalTimeMillis();
+    }
+
+    /**
+     * Get time spent in the actual transaction
+     *
+     * @return transaction time in milliseconds
+     */
+    public long getTransactionTimeMillis() {
+        return transaction.getTotalTimeMillis();
+    }
+
+    /**
+     * Get time spent in calling the callback
+     *
+     * @return callback time in milliseconds
+     */
+    public long getCallbackTimeMillis() {
+        return callback.getTotalTimeMillis();
+    }
+
     @Override
     public String toString() {
         return String.format("{total: %d ms, connection: %d, transaction=%d, callback=%d}", total.getTotalTimeMillis(),
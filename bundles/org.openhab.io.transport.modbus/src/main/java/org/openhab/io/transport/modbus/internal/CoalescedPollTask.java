@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusUnexpectedResponseSizeException;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PollTask} which reads a single contiguous range covering the requests of several other poll tasks.
+ *
+ * The response is split back to the original tasks: each callback is called with the original request, and with data
+ * corresponding to the range of the original request.
+ *
+ * Instances are compared by identity.
+ *
+ * @author agent - Initial contribution
+ *
+ * @see ModbusReadRequestPlanner
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(CoalescedPollTask.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusReadRequestBlueprint request;
+    private final List<PollTask> members;
+    private final ModbusReadCallback callback = new SplittingReadCallback();
+
+    /**
+     * {@link ModbusReadCallback} delegating the relevant part of the response to the callbacks of the original poll
+     * tasks
+     */
+    private class SplittingReadCallback implements ModbusReadCallback {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            for (PollTask member : members) {
+                ModbusReadCallback memberCallback = member.getCallback();
+                if (memberCallback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint memberRequest = member.getRequest();
+                int offset = memberRequest.getReference() - request.getReference();
+                int length = memberRequest.getDataLength();
+                try {
+                    if (offset + length > registers.size()) {
+                        memberCallback.onError(memberRequest, new ModbusUnexpectedResponseSizeException(length,
+                                Math.max(0, registers.size() - offset)));
+                    } else {
+                        memberCallback.onRegisters(memberRequest, new RegisterArraySlice(registers, offset, length));
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Callback of poll task {} failed unexpectedly", member, e);
+                }
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            for (PollTask member : members) {
+                ModbusReadCallback memberCallback = member.getCallback();
+                if (memberCallback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint memberRequest = member.getRequest();
+                int offset = memberRequest.getReference() - request.getReference();
+                int length = memberRequest.getDataLength();
+                try {
+                    if (offset + length > bits.size()) {
+                        memberCallback.onError(memberRequest,
+                                new ModbusUnexpectedResponseSizeException(length, Math.max(0, bits.size() - offset)));
+                    } else {
+                        memberCallback.onBits(memberRequest, new BitArraySlice(bits, offset, length));
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Callback of poll task {} failed unexpectedly", member, e);
+                }
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            for (PollTask member : members) {
+                ModbusReadCallback memberCallback = member.getCallback();
+                if (memberCallback == null) {
+                    continue;
+                }
+                try {
+                    memberCallback.onError(member.getRequest(), error);
+                } catch (RuntimeException e) {
+                    logger.warn("Callback of poll task {} failed unexpectedly", member, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Construct coalesced poll task
+     *
+     * @param endpoint endpoint shared by all the members
+     * @param request request covering the requests of all the members
+     * @param members original poll tasks
+     */
+    public CoalescedPollTask(ModbusSlaveEndpoint endpoint, ModbusReadRequestBlueprint request, List<PollTask> members) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.members = Collections.unmodifiableList(members);
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    /**
+     * Get the original poll tasks covered by this task
+     *
+     * @return unmodifiable list of poll tasks
+     */
+    public List<PollTask> getMembers() {
+        return members;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("members", members.size()).toString();
+    }
+}
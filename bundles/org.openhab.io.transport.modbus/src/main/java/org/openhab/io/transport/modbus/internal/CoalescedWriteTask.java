@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusResponse;
+import org.openhab.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.openhab.io.transport.modbus.WriteTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link WriteTask} which writes a single contiguous range covering the requests of several other write tasks.
+ *
+ * The result is delivered back to the original tasks: each callback is called with the original request. Note that the
+ * response passed to the callbacks is the response of the combined write (FC15 or FC16).
+ *
+ * Instances are compared by identity.
+ *
+ * @author agent - Initial contribution
+ *
+ * @see ModbusWriteRequestPlanner
+ */
+@NonNullByDefault
+public class CoalescedWriteTask implements WriteTask {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(CoalescedWriteTask.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusWriteRequestBlueprint request;
+    private final List<WriteTask> members;
+    private final ModbusWriteCallback callback = new DelegatingWriteCallback();
+
+    /**
+     * {@link ModbusWriteCallback} delegating the result to the callbacks of the original write tasks
+     */
+    private class DelegatingWriteCallback implements ModbusWriteCallback {
+
+        @Override
+        public void onWriteResponse(ModbusWriteRequestBlueprint request, ModbusResponse response) {
+            for (WriteTask member : members) {
+                ModbusWriteCallback memberCallback = member.getCallback();
+                if (memberCallback == null) {
+                    continue;
+                }
+                try {
+                    memberCallback.onWriteResponse(member.getRequest(), response);
+                } catch (RuntimeException e) {
+                    logger.warn("Callback of write task {} failed unexpectedly", member, e);
+                }
+            }
+        }
+
+        @Override
+        public void onError(ModbusWriteRequestBlueprint request, Exception error) {
+            for (WriteTask member : members) {
+                ModbusWriteCallback memberCallback = member.getCallback();
+                if (memberCallback == null) {
+                    continue;
+                }
+                try {
+                    memberCallback.onError(member.getRequest(), error);
+                } catch (RuntimeException e) {
+                    logger.warn("Callback of write task {} failed unexpectedly", member, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Construct coalesced write task
+     *
+     * @param endpoint endpoint shared by all the members
+     * @param request request covering the requests of all the members
+     * @param members original write tasks
+     */
+    public CoalescedWriteTask(ModbusSlaveEndpoint endpoint, ModbusWriteRequestBlueprint request,
+            List<WriteTask> members) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.members = Collections.unmodifiableList(members);
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusWriteRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusWriteCallback getCallback() {
+        return callback;
+    }
+
+    /**
+     * Get the original write tasks covered by this task
+     *
+     * @return unmodifiable list of write tasks, in the order they were submitted
+     */
+    public List<WriteTask> getMembers() {
+        return members;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("members", members.size()).toString();
+    }
+}
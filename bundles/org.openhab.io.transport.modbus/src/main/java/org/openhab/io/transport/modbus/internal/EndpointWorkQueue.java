@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Work queue of a single endpoint.
+ *
+ * Work items are executed in the following order
+ * 1) priority items (writes) before others (polls)
+ * 2) earliest deadline first
+ * 3) submission order
+ *
+ * The queue is drained by at most <code>maxWorkers</code> workers at a time, typically exactly one since the endpoint
+ * can handle one transaction at a time. Each worker executes one item, and then yields the thread so that the queues of
+ * other endpoints get their share of the shared executor.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointWorkQueue {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final Comparator<WorkItem> EXECUTION_ORDER = Comparator
+            .<WorkItem> comparingInt(item -> item.priority ? 0 : 1).thenComparingLong(item -> item.deadlineMillis)
+            .thenComparingLong(item -> item.sequence);
+
+    /**
+     * Work item in the queue. Cancelling the item prevents its execution. Execution that has started already is
+     * interrupted only when cancelled with <code>mayInterruptIfRunning</code>.
+     */
+    private static class WorkItem extends FutureTask<@Nullable Void> implements ScheduledFuture<@Nullable Void> {
+
+        private final boolean priority;
+        private final long deadlineMillis;
+        private final long sequence = SEQUENCE.incrementAndGet();
+        private final @Nullable Object key;
+
+        public WorkItem(Runnable action, boolean priority, long deadlineMillis, @Nullable Object key) {
+            super(action, null);
+            this.priority = priority;
+            this.deadlineMillis = deadlineMillis;
+            this.key = key;
+        }
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            return TimeUnit.MILLISECONDS.convert(deadlineMillis - System.currentTimeMillis(), unit);
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            if (other == null) {
+                return 1;
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointWorkQueue.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+    private final PriorityQueue<WorkItem> queue = new PriorityQueue<>(EXECUTION_ORDER);
+    private final Set<WorkItem> running = new HashSet<>();
+    private int maxWorkers;
+    private int activeWorkers;
+    private long lastLatenessMillis;
+    private long maxLatenessMillis;
+
+    /**
+     * Construct work queue
+     *
+     * @param endpoint endpoint of this queue, used for logging
+     * @param executor executor to run the workers in
+     * @param maxWorkers maximum number of workers draining this queue concurrently
+     */
+    public EndpointWorkQueue(ModbusSlaveEndpoint endpoint, Executor executor, int maxWorkers) {
+        this.endpoint = endpoint;
+        this.executor = executor;
+        this.maxWorkers = Math.max(1, maxWorkers);
+    }
+
+    /**
+     * Submit work to the queue
+     *
+     * @param action action to execute
+     * @param priority whether the work should be executed before any non-priority work
+     * @param deadlineMillis time when the work is due, used for ordering and lateness statistics
+     * @param key key identifying the work. If there is a queued item with equal key still waiting for execution,
+     *            new work is not submitted. Use null to always submit.
+     * @return future representing the work, or null if the work was not submitted
+     */
+    public synchronized @Nullable ScheduledFuture<?> submit(Runnable action, boolean priority, long deadlineMillis,
+            @Nullable Object key) {
+        if (key != null && queue.stream().anyMatch(item -> key.equals(item.key) && !item.isDone())) {
+            return null;
+        }
+        WorkItem item = new WorkItem(action, priority, deadlineMillis, key);
+        queue.add(item);
+        startWorkers();
+        return item;
+    }
+
+    /**
+     * Cancel all work with the given key
+     *
+     * Queued work is removed from the queue. Work that has started already is interrupted if
+     * <code>mayInterruptIfRunning</code> is true, otherwise it is let to finish.
+     *
+     * @param key key of the work
+     * @param mayInterruptIfRunning whether to interrupt the work that has started already
+     */
+    public synchronized void cancel(Object key, boolean mayInterruptIfRunning) {
+        queue.removeIf(item -> {
+            if (key.equals(item.key)) {
+                item.cancel(false);
+                return true;
+            }
+            return false;
+        });
+        if (mayInterruptIfRunning) {
+            running.stream().filter(item -> key.equals(item.key)).forEach(item -> item.cancel(true));
+        }
+    }
+
+    /**
+     * Cancel all queued work
+     */
+    public synchronized void cancelAll() {
+        queue.forEach(item -> item.cancel(false));
+        queue.clear();
+    }
+
+    /**
+     * Set maximum number of workers draining the queue concurrently
+     *
+     * @param maxWorkers maximum number of workers
+     */
+    public synchronized void setMaxWorkers(int maxWorkers) {
+        this.maxWorkers = Math.max(1, maxWorkers);
+        startWorkers();
+    }
+
+    /**
+     * Get number of work items waiting for execution
+     *
+     * @return queue depth
+     */
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * Get lateness of the most recently started work, i.e. how long after its deadline the work was started
+     *
+     * @return lateness in milliseconds
+     */
+    public synchronized long getLastLatenessMillis() {
+        return lastLatenessMillis;
+    }
+
+    /**
+     * Get maximum lateness of started work since the previous call of this method
+     *
+     * @return maximum lateness in milliseconds
+     */
+    public synchronized long getAndResetMaxLatenessMillis() {
+        long max = maxLatenessMillis;
+        maxLatenessMillis = 0;
+        return max;
+    }
+
+    private void startWorkers() {
+        while (activeWorkers < maxWorkers && activeWorkers < queue.size()) {
+            activeWorkers++;
+            try {
+                executor.execute(this::work);
+            } catch (RejectedExecutionException e) {
+                activeWorkers--;
+                logger.warn("Could not start worker for endpoint {}: {}", endpoint, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void work() {
+        WorkItem item;
+        synchronized (this) {
+            item = queue.poll();
+            if (item == null) {
+                activeWorkers--;
+                return;
+            }
+            lastLatenessMillis = Math.max(0, System.currentTimeMillis() - item.deadlineMillis);
+            maxLatenessMillis = Math.max(maxLatenessMillis, lastLatenessMillis);
+            running.add(item);
+        }
+        try {
+            item.run();
+        } finally {
+            synchronized (this) {
+                running.remove(item);
+                activeWorkers--;
+                startWorkers();
+            }
+        }
+    }
+}
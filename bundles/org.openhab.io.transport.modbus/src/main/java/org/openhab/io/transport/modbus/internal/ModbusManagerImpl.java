@@ -14,6 +14,8 @@ package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,9 +27,12 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.imageio.IIOException;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.pool2.KeyedObjectPool;
 import org.apache.commons.pool2.SwallowedExceptionListener;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
@@ -40,6 +45,7 @@ import org.openhab.io.transport.modbus.ModbusConnectionException;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusUnexpectedResponseFunctionCodeException;
@@ -71,6 +77,7 @@ import net.wimpi.modbus.io.ModbusTransaction;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.ModbusResponse;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
 
 /**
  * Main implementation of ModbusManager
@@ -93,6 +100,46 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
+    /**
+     * Key identifying regular polls that are coalesced together: same endpoint, unit id, function code and poll
+     * period.
+     */
+    private static class CoalescingGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+        private final long pollPeriodMillis;
+
+        public CoalescingGroupKey(PollTask task, long pollPeriodMillis) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.functionCode = task.getRequest().getFunctionCode();
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(19, 71).append(endpoint).append(unitId).append(functionCode)
+                    .append(pollPeriodMillis).toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            CoalescingGroupKey rhs = (CoalescingGroupKey) obj;
+            return new EqualsBuilder().append(endpoint, rhs.endpoint).append(unitId, rhs.unitId)
+                    .append(functionCode, rhs.functionCode).append(pollPeriodMillis, rhs.pollPeriodMillis).isEquals();
+        }
+    }
+
     @FunctionalInterface
     private interface ModbusOperation<T> {
 
@@ -194,16 +241,13 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusReadCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, operationId);
@@ -232,17 +276,14 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusWriteCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
 
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, operationId);
@@ -254,6 +295,38 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Execute the request using the given connection, and return the response.
+     *
+     * Request is executed using the pipeline in case the connection is owned by one. Otherwise, regular
+     * transaction is used.
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param endpoint endpoint of the connection
+     * @param connection connection to use
+     * @param libRequest modbus request
+     * @return response to the request
+     * @throws ModbusException on Modbus protocol errors (e.g. ModbusIOException on I/O, ModbusSlaveException on
+     *             slave exception responses)
+     */
+    private ModbusResponse executeTransaction(AggregateStopWatch timer, ModbusSlaveEndpoint endpoint,
+            ModbusSlaveConnection connection, ModbusRequest libRequest) throws ModbusException {
+        @Nullable
+        ModbusTCPPipeline pipeline = pipelineConnections.get(connection);
+        if (pipeline != null) {
+            timer.transaction.resume();
+            try {
+                return pipeline.execute(libRequest);
+            } finally {
+                timer.transaction.suspend();
+            }
+        }
+        ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
+        transaction.setRequest(libRequest);
+        timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
+        return transaction.getResponse();
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusManagerImpl.class);
     private final Logger pollMonitorLogger = LoggerFactory
             .getLogger(ModbusManagerImpl.class.getName() + ".PollMonitor");
@@ -280,20 +353,36 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final String MODBUS_POLLER_THREAD_POOL_NAME = "modbusManagerPollerThreadPool";
 
     /**
-     * Log message with WARN level if the task queues exceed this limit.
+     * Log message with WARN level if the work queue of an endpoint exceeds this limit.
      *
-     * If the queues grow too large, it might be an issue with consumer of the ModbusManager.
+     * If the queues grow too large, it might be an issue with consumer of the ModbusManager, or the endpoint cannot
+     * keep up with the requested poll rate.
      *
      * You can generate large queue by spamming ModbusManager with one-off read or writes (submitOnTimePoll or
      * submitOneTimeWrite).
      *
-     * Note that there is no issue registering many regular polls, those do not "queue" the same way.
-     *
-     * Presumably slow callbacks can increase queue size with callbackThreadPool
+     * Note that there is no issue registering many regular polls, each regular poll is queued at most once at a time.
      */
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
+    /**
+     * Configuration property to enable coalescing of regular polls. When enabled, regular polls with the same
+     * endpoint, unit id, function code and poll period are merged into as few reads as possible.
+     *
+     * @see ModbusReadRequestPlanner
+     */
+    public static final String CONFIG_COALESCE_POLLS = "coalescePolls";
+
+    /**
+     * Configuration property for the window (in milliseconds) to collect one-off writes before submitting them. Writes
+     * to adjacent registers (or coils) of the same endpoint and unit id within the window are merged into a single
+     * write. Zero or negative value disables batching.
+     *
+     * @see ModbusWriteRequestPlanner
+     */
+    public static final String CONFIG_WRITE_BATCH_WINDOW_MILLIS = "writeBatchWindowMillis";
+
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
 
@@ -313,6 +402,29 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Regular polls registered while coalescing is enabled. These are not scheduled as such, instead the
+     * {@link CoalescedPollTask}s (stored in coalescedGroups) covering them are.
+     */
+    private volatile Map<PollTask, CoalescingGroupKey> coalescedPollTasks = new ConcurrentHashMap<>();
+    private volatile Map<CoalescingGroupKey, List<CoalescedPollTask>> coalescedGroups = new ConcurrentHashMap<>();
+    private volatile boolean coalescePolls;
+    private volatile @Nullable WriteBatcher writeBatcher;
+    /**
+     * Pipelines of endpoints having more than one in-flight transaction allowed. Each pipeline keeps one connection
+     * borrowed from the connection pool for its whole lifetime.
+     */
+    private volatile Map<ModbusSlaveEndpoint, ModbusTCPPipeline> pipelines = new ConcurrentHashMap<>();
+    /**
+     * Pipelines by their connection, including the retired and closed pipelines still used by some operation
+     */
+    private volatile Map<ModbusSlaveConnection, ModbusTCPPipeline> pipelineConnections = new ConcurrentHashMap<>();
+    private volatile Map<ModbusSlaveEndpoint, Object> pipelineLocks = new ConcurrentHashMap<>();
+    /**
+     * Work queues of the endpoints. All operations (polls and writes) are executed via these queues, one at a time
+     * per endpoint.
+     */
+    private volatile Map<ModbusSlaveEndpoint, EndpointWorkQueue> endpointQueues = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
@@ -373,6 +485,111 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private Optional<ModbusSlaveConnection> borrowConnection(ModbusSlaveEndpoint endpoint) {
+        int maxInFlightTransactions = getMaxInFlightTransactions(endpoint);
+        if (maxInFlightTransactions > 1) {
+            return borrowPipelinedConnection(endpoint, maxInFlightTransactions);
+        }
+        return borrowPooledConnection(endpoint);
+    }
+
+    private int getMaxInFlightTransactions(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            return 1;
+        }
+        // Reconnecting after every transaction (reconnectAfterMillis=0) rules out pipelining
+        return Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
+                .filter(cfg -> cfg.getReconnectAfterMillis() != 0).map(cfg -> cfg.getMaxInFlightTransactions())
+                .orElse(1);
+    }
+
+    /**
+     * Get the connection of the pipeline of the given endpoint. Pipeline is created with a new connection from the
+     * pool if the endpoint does not have open pipeline yet.
+     *
+     * The returned connection is shared by all the operations with the endpoint. Pipelines older than
+     * reconnectAfterMillis, or connected before a call to
+     * {@link ModbusSlaveConnectionFactoryImpl#disconnectOnReturn(ModbusSlaveEndpoint, long)}, are retired and their
+     * connection is returned to the pool once the operations using it have completed.
+     */
+    private Optional<ModbusSlaveConnection> borrowPipelinedConnection(ModbusSlaveEndpoint endpoint,
+            int maxInFlightTransactions) {
+        synchronized (pipelineLocks.computeIfAbsent(endpoint, e -> new Object())) {
+            @Nullable
+            ModbusTCPPipeline pipeline = pipelines.get(endpoint);
+            if (pipeline != null) {
+                if (!pipeline.isClosed() && pipeline.getConnection().isConnected()
+                        && !isPipelineDisconnectNeeded(endpoint, pipeline) && pipeline.acquire()) {
+                    return Optional.of(pipeline.getConnection());
+                }
+                retirePipeline(endpoint, pipeline);
+            }
+            Optional<ModbusSlaveConnection> connection = borrowPooledConnection(endpoint);
+            connection.ifPresent(con -> {
+                logger.debug("Starting pipelined transactions with endpoint {} (max in-flight {})", endpoint,
+                        maxInFlightTransactions);
+                ModbusTCPPipeline newPipeline = new ModbusTCPPipeline(endpoint, (TCPMasterConnection) con,
+                        maxInFlightTransactions);
+                newPipeline.acquire();
+                pipelineConnections.put(con, newPipeline);
+                pipelines.put(endpoint, newPipeline);
+            });
+            return connection;
+        }
+    }
+
+    private boolean isPipelineDisconnectNeeded(ModbusSlaveEndpoint endpoint, ModbusTCPPipeline pipeline) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        return connectionFactory != null && connectionFactory.isDisconnectNeeded(endpoint, pipeline.getCreated());
+    }
+
+    /**
+     * Stop using the pipeline for new operations. Its connection is returned to the pool, where the reconnect
+     * policies of the endpoint are applied, after the operations using the pipeline have completed.
+     */
+    private void retirePipeline(ModbusSlaveEndpoint endpoint, ModbusTCPPipeline pipeline) {
+        pipelines.remove(endpoint, pipeline);
+        if (pipeline.isClosed() || !pipeline.getConnection().isConnected()) {
+            closePipeline(endpoint, pipeline);
+            return;
+        }
+        logger.debug("Retiring pipelined connection with endpoint {}", endpoint);
+        if (pipeline.retire()) {
+            releasePipelineConnection(endpoint, pipeline);
+        }
+    }
+
+    /**
+     * Close the pipeline, failing its pending transactions, and invalidate its connection
+     */
+    private void closePipeline(ModbusSlaveEndpoint endpoint, ModbusTCPPipeline pipeline) {
+        pipelines.remove(endpoint, pipeline);
+        pipeline.close();
+        if (pipeline.retire()) {
+            releasePipelineConnection(endpoint, pipeline);
+        }
+    }
+
+    /**
+     * Give the connection of the retired or closed pipeline back to the pool, after the last operation using it
+     */
+    private void releasePipelineConnection(ModbusSlaveEndpoint endpoint, ModbusTCPPipeline pipeline) {
+        pipelineConnections.remove(pipeline.getConnection(), pipeline);
+        if (!pipeline.release()) {
+            return;
+        }
+        if (pipeline.isClosed()) {
+            invalidatePooledConnection(endpoint, Optional.of(pipeline.getConnection()));
+        } else {
+            returnPooledConnection(endpoint, Optional.of(pipeline.getConnection()));
+        }
+    }
+
+    private void closeAllPipelines() {
+        pipelines.forEach(this::closePipeline);
+    }
+
+    private Optional<ModbusSlaveConnection> borrowPooledConnection(ModbusSlaveEndpoint endpoint) {
         Optional<ModbusSlaveConnection> connection = Optional.empty();
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
@@ -390,7 +607,7 @@ public class ModbusManagerImpl implements ModbusManager {
             if (!slaveConnection.isConnected()) {
                 logger.trace(
                         "Received connection which is unconnected, preventing use by returning connection to pool.");
-                returnConnection(endpoint, connection);
+                returnPooledConnection(endpoint, connection);
                 connection = Optional.empty();
             }
         }
@@ -400,6 +617,20 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void invalidate(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
+        @Nullable
+        ModbusTCPPipeline pipeline = connection.map(pipelineConnections::get).orElse(null);
+        if (pipeline != null) {
+            // Connection is shared by all operations using the pipeline, close the whole pipeline
+            closePipeline(endpoint, pipeline);
+            if (pipeline.releaseUser()) {
+                releasePipelineConnection(endpoint, pipeline);
+            }
+            return;
+        }
+        invalidatePooledConnection(endpoint, connection);
+    }
+
+    private void invalidatePooledConnection(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
             return;
@@ -418,6 +649,19 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void returnConnection(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
+        @Nullable
+        ModbusTCPPipeline pipeline = connection.map(pipelineConnections::get).orElse(null);
+        if (pipeline != null) {
+            // Connection stays with the pipeline, unless the pipeline was retired and this was its last user
+            if (pipeline.releaseUser()) {
+                releasePipelineConnection(endpoint, pipeline);
+            }
+            return;
+        }
+        returnPooledConnection(endpoint, connection);
+    }
+
+    private void returnPooledConnection(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
             return;
@@ -733,22 +977,35 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+            operationEnded(task, timer);
         }
     }
 
+    /**
+     * Called after each operation with the timing info of the operation
+     *
+     * The default implementation does nothing. Subclasses can override this to collect statistics, e.g. in
+     * benchmarks. The method is called in the thread executing the operation, and should return quickly.
+     *
+     * @param task task of the operation
+     * @param timer timing info of the operation
+     */
+    protected void operationEnded(TaskWithEndpoint<?, ?> task, AggregateStopWatch timer) {
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimePoll(PollTask task) {
         ScheduledExecutorService executor = scheduledThreadPoolExecutor;
         Objects.requireNonNull(executor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
+        ScheduledFuture<?> future = getEndpointQueue(executor, task.getEndpoint()).submit(() -> {
+            long millisInQueueWaiting = System.currentTimeMillis() - scheduleTime;
+            logger.debug("Will now execute one-off poll task {}, waited in endpoint queue for {}", task,
+                    millisInQueueWaiting);
             executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        }, false, scheduleTime, null);
+        return Objects.requireNonNull(future);
     }
 
     @Override
@@ -758,36 +1015,135 @@ public class ModbusManagerImpl implements ModbusManager {
             Objects.requireNonNull(executor, "Not activated!");
             logger.trace("Registering poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
-            if (scheduledPollTasks.containsKey(task)) {
-                logger.trace("Unregistering previous poll task (possibly with different period)");
-                unregisterRegularPoll(task);
-            }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                try {
-                    executeOperation(task, false, pollOperation);
-                } catch (Exception e) {
-                    // We want to catch all unexpected exceptions since all unhandled exceptions make
-                    // ScheduledExecutorService halt the polling. It is better to print out the exception, and try again
-                    // (on next poll cycle)
-                    logger.warn(
-                            "Execution of scheduled ({}ms) poll task {} failed unexpectedly. Ignoring exception, polling again according to poll interval.",
-                            pollPeriodMillis, task, e);
-                }
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
-
-            scheduledPollTasks.put(task, future);
+            // Re-registration only changes the period. Connections are kept open, and an ongoing poll is let to
+            // finish since the task might be re-registered from its own callback.
+            @Nullable
+            CoalescingGroupKey previousGroupKey = coalescedPollTasks.remove(task);
+            @Nullable
+            ScheduledFuture<?> previousFuture = scheduledPollTasks.remove(task);
+            if (previousFuture != null) {
+                logger.trace("Canceling previous poll task (possibly with different period)");
+                previousFuture.cancel(false);
+                cancelQueuedWork(task, false);
+            }
+            @Nullable
+            CoalescingGroupKey groupKey = coalescePolls ? new CoalescingGroupKey(task, pollPeriodMillis) : null;
+            if (previousGroupKey != null && !previousGroupKey.equals(groupKey)) {
+                logger.trace("Removing previous poll task (possibly with different period) from its group");
+                replanCoalescedGroup(executor, previousGroupKey, previousGroupKey.pollPeriodMillis);
+            }
+            if (groupKey != null) {
+                coalescedPollTasks.put(task, groupKey);
+                replanCoalescedGroup(executor, groupKey, initialDelayMillis);
+            } else {
+                schedulePollTask(executor, task, pollPeriodMillis, initialDelayMillis);
+            }
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                     initialDelayMillis);
         }
     }
 
+    private void schedulePollTask(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        EndpointWorkQueue queue = getEndpointQueue(executor, task.getEndpoint());
+        Runnable poll = () -> {
+            long started = System.currentTimeMillis();
+            logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
+                    started);
+            try {
+                executeOperation(task, false, pollOperation);
+            } catch (Exception e) {
+                // We want to catch all unexpected exceptions since all unhandled exceptions make
+                // ScheduledExecutorService halt the polling. It is better to print out the exception, and try again
+                // (on next poll cycle)
+                logger.warn(
+                        "Execution of scheduled ({}ms) poll task {} failed unexpectedly. Ignoring exception, polling again according to poll interval.",
+                        pollPeriodMillis, task, e);
+            }
+            long finished = System.currentTimeMillis();
+            logger.debug(
+                    "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                    pollPeriodMillis, task, finished, started, finished - started);
+        };
+        // The timer only queues the poll, the actual execution happens in the endpoint queue, ordered by deadline.
+        // The poll is due by the time the next poll would be queued.
+        ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
+            if (queue.submit(poll, false, System.currentTimeMillis() + pollPeriodMillis, task) == null) {
+                logger.debug("Scheduled ({}ms) poll task {} is still waiting in the queue of endpoint {}, skipping",
+                        pollPeriodMillis, task, task.getEndpoint());
+            }
+        }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+
+        scheduledPollTasks.put(task, future);
+    }
+
+    /**
+     * Re-plan the reads of a coalescing group after its members have changed
+     *
+     * The previously scheduled coalesced tasks of the group are canceled, and new ones are scheduled.
+     *
+     * @param executor executor to use for scheduling
+     * @param groupKey group to re-plan
+     * @param initialDelayMillis initial delay for the new coalesced tasks
+     */
+    private void replanCoalescedGroup(ScheduledExecutorService executor, CoalescingGroupKey groupKey,
+            long initialDelayMillis) {
+        @Nullable
+        List<CoalescedPollTask> previous = coalescedGroups.remove(groupKey);
+        if (previous != null) {
+            for (CoalescedPollTask coalescedTask : previous) {
+                @Nullable
+                ScheduledFuture<?> future = scheduledPollTasks.remove(coalescedTask);
+                if (future != null) {
+                    // Do not interrupt, the ongoing read might serve the other members as well
+                    future.cancel(false);
+                }
+                cancelQueuedWork(coalescedTask, false);
+            }
+        }
+        List<PollTask> members = coalescedPollTasks.entrySet().stream()
+                .filter(entry -> groupKey.equals(entry.getValue())).map(entry -> entry.getKey())
+                .collect(Collectors.toList());
+        if (members.isEmpty()) {
+            return;
+        }
+        List<CoalescedPollTask> planned = ModbusReadRequestPlanner.plan(members);
+        for (CoalescedPollTask coalescedTask : planned) {
+            schedulePollTask(executor, coalescedTask, groupKey.pollPeriodMillis, initialDelayMillis);
+        }
+        coalescedGroups.put(groupKey, planned);
+        logger.debug("Coalesced {} regular poll tasks to {} reads (endpoint {}, unit id {}, function code {})",
+                members.size(), planned.size(), groupKey.endpoint, groupKey.unitId, groupKey.functionCode);
+    }
+
+    /**
+     * Get the ratio between regular polls registered with coalescing, and the reads actually scheduled for them.
+     *
+     * For example, ratio of 4.0 means that on average, four regular polls are served with a single read. Ratio of 1.0
+     * is returned when nothing is coalesced.
+     *
+     * @return merge ratio of coalesced regular polls
+     */
+    public double getCoalescingMergeRatio() {
+        int reads = coalescedGroups.values().stream().mapToInt(List::size).sum();
+        if (reads == 0) {
+            return 1.0;
+        }
+        return (double) coalescedPollTasks.size() / reads;
+    }
+
+    @Override
+    public double getCoalescingMergeRatio(ModbusSlaveEndpoint endpoint) {
+        int reads = coalescedGroups.entrySet().stream().filter(entry -> endpoint.equals(entry.getKey().endpoint))
+                .mapToInt(entry -> entry.getValue().size()).sum();
+        if (reads == 0) {
+            return 1.0;
+        }
+        long polls = coalescedPollTasks.values().stream().filter(groupKey -> endpoint.equals(groupKey.endpoint))
+                .count();
+        return (double) polls / reads;
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -797,6 +1153,20 @@ public class ModbusManagerImpl implements ModbusManager {
             Objects.requireNonNull(executor, "Not activated!");
             Objects.requireNonNull(factory, "Not activated!");
 
+            @Nullable
+            CoalescingGroupKey groupKey = coalescedPollTasks.remove(task);
+            if (groupKey != null) {
+                logger.info("Unregistering coalesced regular poll task {}", task);
+                // Remaining members of the group continue polling with the original period
+                replanCoalescedGroup(executor, groupKey, groupKey.pollPeriodMillis);
+                if (coalescedGroups.containsKey(groupKey)) {
+                    return true;
+                }
+                // Last member of the group, proceed with closing the connections below
+                factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
+                return clearConnections(task);
+            }
+
             // cancel poller
             @Nullable
             ScheduledFuture<?> future = scheduledPollTasks.remove(task);
@@ -812,37 +1182,101 @@ public class ModbusManagerImpl implements ModbusManager {
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
             future.cancel(true);
+            cancelQueuedWork(task, true);
 
             logger.info("Poll task {} canceled", task);
 
-            try {
-                // Close all idle connections as well (they will be reconnected if necessary on borrow)
-                if (connectionPool != null) {
-                    connectionPool.clear(task.getEndpoint());
-                }
-            } catch (Exception e) {
-                logger.error("Could not clear poll task {} endpoint {}. Stack trace follows", task, task.getEndpoint(),
-                        e);
-                return false;
-            }
+            return clearConnections(task);
+        }
+    }
+
+    private void cancelQueuedWork(PollTask task, boolean mayInterruptIfRunning) {
+        @Nullable
+        EndpointWorkQueue queue = endpointQueues.get(task.getEndpoint());
+        if (queue != null) {
+            queue.cancel(task, mayInterruptIfRunning);
+        }
+    }
 
-            return true;
+    /**
+     * Get the work queue of the endpoint, creating it if necessary
+     *
+     * Each queue is drained by one worker, or as many workers as there are transactions allowed in flight (see
+     * {@link EndpointPoolConfiguration#getMaxInFlightTransactions()}).
+     */
+    private EndpointWorkQueue getEndpointQueue(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint) {
+        return endpointQueues.computeIfAbsent(endpoint,
+                e -> new EndpointWorkQueue(e, executor, getMaxInFlightTransactions(e)));
+    }
+
+    /**
+     * Get the number of operations waiting for execution with the endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return queue depth of the endpoint
+     */
+    public int getEndpointQueueSize(ModbusSlaveEndpoint endpoint) {
+        @Nullable
+        EndpointWorkQueue queue = endpointQueues.get(endpoint);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Get the lateness of the most recently started operation with the endpoint, i.e. how long after its deadline the
+     * operation was started. One-off operations are due immediately, regular polls by the time the next poll of the
+     * same task would be queued.
+     *
+     * @param endpoint endpoint to query
+     * @return lateness in milliseconds
+     */
+    public long getEndpointLatenessMillis(ModbusSlaveEndpoint endpoint) {
+        @Nullable
+        EndpointWorkQueue queue = endpointQueues.get(endpoint);
+        return queue == null ? 0 : queue.getLastLatenessMillis();
+    }
+
+    @SuppressWarnings({ "null", "unused" })
+    private boolean clearConnections(PollTask task) {
+        @Nullable
+        ModbusTCPPipeline pipeline = pipelines.get(task.getEndpoint());
+        if (pipeline != null && isPipelineDisconnectNeeded(task.getEndpoint(), pipeline)) {
+            retirePipeline(task.getEndpoint(), pipeline);
         }
+        try {
+            // Close all idle connections as well (they will be reconnected if necessary on borrow)
+            if (connectionPool != null) {
+                connectionPool.clear(task.getEndpoint());
+            }
+        } catch (Exception e) {
+            logger.error("Could not clear poll task {} endpoint {}. Stack trace follows", task, task.getEndpoint(), e);
+            return false;
+        }
+        return true;
     }
 
     @Override
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task) {
+        WriteBatcher writeBatcher = this.writeBatcher;
+        if (writeBatcher != null) {
+            logger.debug("Adding one-off write task {} to write batch", task);
+            return writeBatcher.submit(task);
+        }
+        return submitWriteForExecution(task);
+    }
+
+    private ScheduledFuture<?> submitWriteForExecution(WriteTask task) {
         ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
+        // Writes are prioritized over polls of the same endpoint
+        ScheduledFuture<?> future = getEndpointQueue(scheduledThreadPoolExecutor, task.getEndpoint()).submit(() -> {
+            long millisInQueueWaiting = System.currentTimeMillis() - scheduleTime;
+            logger.debug("Will now execute one-off write task {}, waited in endpoint queue for {}", task,
+                    millisInQueueWaiting);
             executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        }, true, scheduleTime, null);
+        return Objects.requireNonNull(future);
     }
 
     @Override
@@ -850,6 +1284,17 @@ public class ModbusManagerImpl implements ModbusManager {
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        // Pipeline is re-created with the new configuration when needed
+        @Nullable
+        ModbusTCPPipeline pipeline = pipelines.get(endpoint);
+        if (pipeline != null) {
+            retirePipeline(endpoint, pipeline);
+        }
+        @Nullable
+        EndpointWorkQueue queue = endpointQueues.get(endpoint);
+        if (queue != null) {
+            queue.setMaxWorkers(getMaxInFlightTransactions(endpoint));
+        }
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
@@ -873,13 +1318,21 @@ public class ModbusManagerImpl implements ModbusManager {
 
     @Override
     public Set<@NonNull PollTask> getRegisteredRegularPolls() {
-        return this.scheduledPollTasks.keySet();
+        if (coalescedPollTasks.isEmpty()) {
+            return this.scheduledPollTasks.keySet();
+        }
+        // Report the original poll tasks instead of the coalesced tasks covering them
+        Set<@NonNull PollTask> polls = new HashSet<>(coalescedPollTasks.keySet());
+        scheduledPollTasks.keySet().stream().filter(task -> !(task instanceof CoalescedPollTask))
+                .forEach(polls::add);
+        return polls;
     }
 
     @Activate
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            coalescePolls = Boolean.parseBoolean(String.valueOf(configProperties.get(CONFIG_COALESCE_POLLS)));
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -892,6 +1345,11 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.error("Thread pool is shut down! Aborting activation of ModbusMangerImpl");
                 throw new IllegalStateException("Thread pool(s) shut down! Aborting activation of ModbusMangerImpl");
             }
+            long writeBatchWindowMillis = parseLong(configProperties.get(CONFIG_WRITE_BATCH_WINDOW_MILLIS), 0L);
+            if (writeBatchWindowMillis > 0) {
+                writeBatcher = new WriteBatcher(scheduledThreadPoolExecutor, writeBatchWindowMillis,
+                        this::submitWriteForExecution);
+            }
             monitorFuture = scheduledThreadPoolExecutor.scheduleWithFixedDelay(this::logTaskQueueInfo, 0,
                     MONITOR_QUEUE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
         }
@@ -900,13 +1358,21 @@ public class ModbusManagerImpl implements ModbusManager {
     @Deactivate
     protected void deactivate() {
         synchronized (this) {
+            WriteBatcher writeBatcher = this.writeBatcher;
+            if (writeBatcher != null) {
+                writeBatcher.cancel();
+                this.writeBatcher = null;
+            }
             KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool = this.connectionPool;
             if (connectionPool != null) {
-                Set<@NonNull PollTask> polls = getRegisteredRegularPolls();
+                Set<@NonNull PollTask> polls = new HashSet<>(getRegisteredRegularPolls());
                 for (PollTask task : polls) {
                     unregisterRegularPoll(task);
                 }
 
+                endpointQueues.values().forEach(EndpointWorkQueue::cancelAll);
+                endpointQueues.clear();
+                closeAllPipelines();
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
@@ -923,6 +1389,18 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    private long parseLong(@Nullable Object value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid numeric configuration value '{}', using default {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+
     private void logTaskQueueInfo() {
         synchronized (pollMonitorLogger) {
             ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
@@ -942,17 +1420,27 @@ public class ModbusManagerImpl implements ModbusManager {
                         task.getRequest().getDataLength(), future.isDone(), future.isCancelled(),
                         future.getDelay(TimeUnit.MILLISECONDS), task);
             });
+            if (!coalescedPollTasks.isEmpty()) {
+                pollMonitorLogger.debug("POLL MONITOR: {} coalesced regular poll tasks, merge ratio {}",
+                        coalescedPollTasks.size(), String.format("%.2f", getCoalescingMergeRatio()));
+            }
             if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
                 ThreadPoolExecutor executor = ((ThreadPoolExecutor) scheduledThreadPoolExecutor);
                 pollMonitorLogger.trace(
                         "POLL MONITOR: scheduledThreadPoolExecutor queue size: {}, remaining space {}. Active threads {}",
                         executor.getQueue().size(), executor.getQueue().remainingCapacity(), executor.getActiveCount());
-                if (executor.getQueue().size() >= WARN_QUEUE_SIZE) {
+            }
+            this.endpointQueues.forEach((endpoint, queue) -> {
+                int queueSize = queue.size();
+                pollMonitorLogger.debug(
+                        "POLL MONITOR: endpoint {} queue size: {}, max lateness since last report: {} ms", endpoint,
+                        queueSize, queue.getAndResetMaxLatenessMillis());
+                if (queueSize >= WARN_QUEUE_SIZE) {
                     pollMonitorLogger.warn(
-                            "Many ({}) tasks queued in scheduledThreadPoolExecutor! This might be sign of bad design or bug in the binding code.",
-                            executor.getQueue().size());
+                            "Many ({}) operations queued for endpoint {}! This might be sign of bad design or bug in the binding code, or the endpoint cannot keep up with the poll rate.",
+                            queueSize, endpoint);
                 }
-            }
+            });
 
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusConstants;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Plans the reads for a set of poll tasks such that the number of Modbus transactions is minimized.
+ *
+ * Poll tasks with the same endpoint, unit id and function code are merged when their ranges overlap or are adjacent,
+ * as long as the merged read stays within the protocol limits (see {@link ModbusConstants#MAX_REGISTERS_READ_COUNT}
+ * and {@link ModbusConstants#MAX_BITS_READ_COUNT}). Ranges separated by a gap are never merged since reading the gap
+ * might result in an error response from the slave.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusReadRequestPlanner {
+
+    /**
+     * Key identifying poll tasks that can be potentially merged together
+     */
+    private static class MergeKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+
+        public MergeKey(PollTask task) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.functionCode = task.getRequest().getFunctionCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(37, 11).append(endpoint).append(unitId).append(functionCode).toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            MergeKey rhs = (MergeKey) obj;
+            return new EqualsBuilder().append(endpoint, rhs.endpoint).append(unitId, rhs.unitId)
+                    .append(functionCode, rhs.functionCode).isEquals();
+        }
+    }
+
+    private static final Comparator<PollTask> BY_RANGE = Comparator
+            .<PollTask> comparingInt(task -> task.getRequest().getReference())
+            .thenComparingInt(task -> task.getRequest().getDataLength());
+
+    /**
+     * Get maximum number of items (registers, coils or discrete inputs) that can be read with one request
+     *
+     * @param functionCode read function code
+     * @return maximum number of items
+     */
+    public static int getMaxReadCount(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return ModbusConstants.MAX_BITS_READ_COUNT;
+            case READ_MULTIPLE_REGISTERS:
+            case READ_INPUT_REGISTERS:
+                return ModbusConstants.MAX_REGISTERS_READ_COUNT;
+            default:
+                throw new IllegalArgumentException(String.format("Unexpected function code %s", functionCode));
+        }
+    }
+
+    /**
+     * Plan the reads for the given poll tasks
+     *
+     * @param tasks poll tasks to plan
+     * @return coalesced poll tasks. Each of the given poll tasks is covered by exactly one of the returned tasks.
+     */
+    public static List<CoalescedPollTask> plan(Collection<PollTask> tasks) {
+        Map<MergeKey, List<PollTask>> groups = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            groups.computeIfAbsent(new MergeKey(task), key -> new ArrayList<>()).add(task);
+        }
+
+        List<CoalescedPollTask> planned = new ArrayList<>();
+        groups.forEach((key, group) -> planGroup(key, group, planned));
+        return planned;
+    }
+
+    private static void planGroup(MergeKey key, List<PollTask> group, List<CoalescedPollTask> planned) {
+        group.sort(BY_RANGE);
+        int maxCount = getMaxReadCount(key.functionCode);
+
+        List<PollTask> members = new ArrayList<>();
+        int start = 0;
+        int end = 0;
+        for (PollTask task : group) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int taskStart = request.getReference();
+            int taskEnd = taskStart + request.getDataLength();
+            if (!members.isEmpty() && taskStart <= end && Math.max(end, taskEnd) - start <= maxCount) {
+                members.add(task);
+                end = Math.max(end, taskEnd);
+                continue;
+            }
+            if (!members.isEmpty()) {
+                planned.add(createTask(key, start, end, members));
+            }
+            members = new ArrayList<>();
+            members.add(task);
+            start = taskStart;
+            end = taskEnd;
+        }
+        if (!members.isEmpty()) {
+            planned.add(createTask(key, start, end, members));
+        }
+    }
+
+    private static CoalescedPollTask createTask(MergeKey key, int start, int end, List<PollTask> members) {
+        int maxTries = members.stream().mapToInt(PollTask::getMaxTries).max().orElse(1);
+        BasicModbusReadRequestBlueprint request = new BasicModbusReadRequestBlueprint(key.unitId, key.functionCode,
+                start, end - start, maxTries);
+        return new CoalescedPollTask(key.endpoint, request, members);
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.TCPMasterConnection;
+
+/**
+ * Pipelined Modbus/TCP transactions over a single connection.
+ *
+ * Up to <code>maxInFlight</code> requests are written to the connection without waiting for the responses of the
+ * previous requests. Responses are matched to requests using the MBAP transaction id.
+ *
+ * There is no dedicated reader thread. Instead, the threads waiting for responses take turns in reading the next
+ * response from the connection, and complete the transaction it belongs to.
+ *
+ * Any I/O error while reading makes the response stream unreliable. In this case the pipeline is closed and all
+ * pending transactions fail. The connection should then be invalidated by the owner of the pipeline.
+ *
+ * The owner keeps track of the operations using the connection with {@link #acquire()} and {@link #releaseUser()}. A
+ * pipeline can be retired, for example when the connection is too old, so that the operations already using it
+ * complete normally but no new operations are accepted.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusTCPPipeline {
+
+    private static final int MAX_TRANSACTION_ID = 0xFFFF;
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusTCPPipeline.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final TCPMasterConnection connection;
+    private final Semaphore inFlight;
+    private final Map<Integer, CompletableFuture<ModbusResponse>> pending = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final ReentrantLock readLock = new ReentrantLock();
+    private final AtomicInteger lastTransactionId = new AtomicInteger();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final long created = System.currentTimeMillis();
+    private volatile boolean closed;
+    private int users;
+    private boolean retired;
+
+    /**
+     * Construct pipeline
+     *
+     * @param endpoint endpoint of the connection, used for logging
+     * @param connection connected connection. The pipeline assumes exclusive access to the connection.
+     * @param maxInFlight maximum number of outstanding requests
+     */
+    public ModbusTCPPipeline(ModbusSlaveEndpoint endpoint, TCPMasterConnection connection, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight should be positive");
+        }
+        this.endpoint = endpoint;
+        this.connection = connection;
+        this.inFlight = new Semaphore(maxInFlight, true);
+    }
+
+    /**
+     * Execute request and wait for the corresponding response
+     *
+     * The transaction id of the request is overwritten.
+     *
+     * @param request request to execute
+     * @return response with the same transaction id as the request
+     * @throws ModbusIOException on I/O errors, including timeout while waiting for the response. The pipeline is
+     *             closed after read errors.
+     * @throws ModbusSlaveException when the slave responds with an exception response
+     */
+    public ModbusResponse execute(ModbusRequest request) throws ModbusException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusIOException("Interrupted while waiting for a free transaction slot");
+        }
+        int transactionId = -1;
+        try {
+            CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+            transactionId = registerTransaction(future);
+            request.setTransactionID(transactionId);
+            synchronized (writeLock) {
+                checkOpen();
+                try {
+                    connection.getModbusTransport().writeMessage(request);
+                } catch (ModbusIOException e) {
+                    close(e);
+                    throw e;
+                }
+            }
+            while (!future.isDone()) {
+                readLock.lockInterruptibly();
+                try {
+                    if (!future.isDone()) {
+                        readNextResponse();
+                    }
+                } finally {
+                    readLock.unlock();
+                }
+            }
+            ModbusResponse response = getResponse(future);
+            if (response instanceof ExceptionResponse) {
+                throw new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusIOException("Interrupted while waiting for the response");
+        } finally {
+            if (transactionId >= 0) {
+                pending.remove(transactionId);
+            }
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Close the pipeline, failing all pending transactions
+     */
+    public void close() {
+        close(new ModbusIOException("Pipeline closed"));
+    }
+
+    /**
+     * Register new operation using the connection of this pipeline
+     *
+     * @return true if the operation can use the pipeline, false if the pipeline is closed or retired
+     */
+    public synchronized boolean acquire() {
+        if (closed || retired) {
+            return false;
+        }
+        users++;
+        return true;
+    }
+
+    /**
+     * Unregister operation using the connection of this pipeline
+     *
+     * @return true when the pipeline is retired or closed and this was the last operation using it
+     */
+    public synchronized boolean releaseUser() {
+        users--;
+        return (retired || closed) && users == 0;
+    }
+
+    /**
+     * Stop accepting new operations. Operations already using the pipeline are not affected.
+     *
+     * @return true when no operation is using the pipeline
+     */
+    public synchronized boolean retire() {
+        retired = true;
+        return users == 0;
+    }
+
+    /**
+     * Get the time this pipeline was created
+     *
+     * @return creation time in milliseconds since epoch
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Mark the connection of this pipeline as released by the owner
+     *
+     * @return true on the first call, false if the connection was released already
+     */
+    public boolean release() {
+        return released.compareAndSet(false, true);
+    }
+
+    /**
+     * Tells whether this pipeline is closed
+     *
+     * @return true when closed explicitly or due to I/O error
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Get the connection used by this pipeline
+     *
+     * @return connection
+     */
+    public TCPMasterConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Get number of transactions waiting for response
+     *
+     * @return number of outstanding requests
+     */
+    public int getInFlightCount() {
+        return pending.size();
+    }
+
+    private int registerTransaction(CompletableFuture<ModbusResponse> future) {
+        // Transaction ids are 16 bit and wrap around. Ids still in use are skipped. There is always a free id since
+        // the number of outstanding transactions is limited by the semaphore.
+        while (true) {
+            int transactionId = lastTransactionId.updateAndGet(id -> id >= MAX_TRANSACTION_ID ? 1 : id + 1);
+            if (pending.putIfAbsent(transactionId, future) == null) {
+                return transactionId;
+            }
+        }
+    }
+
+    private void readNextResponse() throws ModbusIOException {
+        checkOpen();
+        ModbusResponse response;
+        try {
+            response = connection.getModbusTransport().readResponse();
+        } catch (ModbusIOException e) {
+            // Partial reads leave the stream out of sync, the whole pipeline is unusable
+            logger.debug("Error reading response from endpoint {}, closing the pipeline: {} {}", endpoint,
+                    e.getClass().getName(), e.getMessage());
+            close(e);
+            throw e;
+        }
+        CompletableFuture<ModbusResponse> future = pending.get(response.getTransactionID());
+        if (future == null) {
+            logger.debug("Received response with unexpected transaction id {} from endpoint {}. Ignoring response.",
+                    response.getTransactionID(), endpoint);
+        } else {
+            future.complete(response);
+        }
+    }
+
+    private ModbusResponse getResponse(CompletableFuture<ModbusResponse> future)
+            throws ModbusIOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusIOException) {
+                throw (ModbusIOException) cause;
+            }
+            throw new ModbusIOException(String.valueOf(cause));
+        }
+    }
+
+    private void checkOpen() throws ModbusIOException {
+        if (closed) {
+            throw new ModbusIOException("Pipeline closed");
+        }
+    }
+
+    private void close(ModbusIOException cause) {
+        closed = true;
+        pending.values().forEach(future -> future.completeExceptionally(cause));
+    }
+}
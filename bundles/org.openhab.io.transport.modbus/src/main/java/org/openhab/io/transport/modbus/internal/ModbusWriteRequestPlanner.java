@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicModbusWriteCoilRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusWriteRegisterRequestBlueprint;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusConstants;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusWriteFunctionCode;
+import org.openhab.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.openhab.io.transport.modbus.WriteTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Plans the writes for a batch of write tasks such that the number of Modbus transactions is minimized.
+ *
+ * FC16 (FC15) write tasks with the same endpoint and unit id, writing adjacent registers (or adjacent coils), are
+ * merged into a single FC16 (or FC15) write, as long as the merged write stays within the protocol limits (see
+ * {@link ModbusConstants#MAX_REGISTERS_WRITE_COUNT} and {@link ModbusConstants#MAX_BITS_WRITE_COUNT}). FC6 (FC5)
+ * writes are never merged, since not all slaves implement the multiple register (coil) writes.
+ *
+ * The order of writes to each register (coil) is preserved: the planned tasks are returned in the order they should be
+ * executed, and a task writing registers written by an earlier task is never merged into a write executed before
+ * that.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusWriteRequestPlanner {
+
+    /**
+     * Key identifying write tasks that can be potentially merged together
+     */
+    private static class MergeKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final boolean coils;
+
+        public MergeKey(WriteTask task, boolean coils) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.coils = coils;
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(41, 13).append(endpoint).append(unitId).append(coils).toHashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            MergeKey rhs = (MergeKey) obj;
+            return new EqualsBuilder().append(endpoint, rhs.endpoint).append(unitId, rhs.unitId)
+                    .append(coils, rhs.coils).isEquals();
+        }
+    }
+
+    /**
+     * Write tasks planned to be executed as one write
+     */
+    private static class Batch {
+        private final @Nullable MergeKey key;
+        private final boolean mergeable;
+        private final List<WriteTask> members = new ArrayList<>();
+        private int start;
+        private int end;
+
+        public Batch(@Nullable MergeKey key, boolean mergeable, WriteTask task, int start, int end) {
+            this.key = key;
+            this.mergeable = mergeable;
+            this.members.add(task);
+            this.start = start;
+            this.end = end;
+        }
+
+        public boolean overlaps(MergeKey key, int start, int end) {
+            return key.equals(this.key) && start < this.end && this.start < end;
+        }
+
+        public boolean canAppend(MergeKey key, int start, int end) {
+            int maxCount = key.coils ? ModbusConstants.MAX_BITS_WRITE_COUNT : ModbusConstants.MAX_REGISTERS_WRITE_COUNT;
+            return mergeable && key.equals(this.key) && (start == this.end || end == this.start)
+                    && Math.max(end, this.end) - Math.min(start, this.start) <= maxCount;
+        }
+
+        public void append(WriteTask task, int start, int end) {
+            members.add(task);
+            this.start = Math.min(start, this.start);
+            this.end = Math.max(end, this.end);
+        }
+    }
+
+    private static final Comparator<WriteTask> BY_REFERENCE = Comparator
+            .comparingInt(task -> task.getRequest().getReference());
+
+    /**
+     * Plan the writes for the given write tasks
+     *
+     * @param tasks write tasks to plan, in the order they were submitted
+     * @return tasks to execute, in the order they should be executed. Write tasks that could not be merged with any
+     *         other task are returned as is, others are covered by {@link CoalescedWriteTask}s.
+     */
+    public static List<WriteTask> plan(List<WriteTask> tasks) {
+        List<Batch> batches = new ArrayList<>();
+        for (WriteTask task : tasks) {
+            ModbusWriteRequestBlueprint request = task.getRequest();
+            int length = getWriteCount(request);
+            if (length <= 0) {
+                // Unknown request type, not merged
+                batches.add(new Batch(null, false, task, 0, 0));
+                continue;
+            }
+            MergeKey key = new MergeKey(task, request instanceof ModbusWriteCoilRequestBlueprint);
+            int start = request.getReference();
+            int end = start + length;
+            if (!isMultipleWrite(request)) {
+                // Single register (coil) writes are executed as is, but still order the other writes
+                batches.add(new Batch(key, false, task, start, end));
+                continue;
+            }
+
+            // Task can be merged only with batches executed after all batches writing the same registers
+            int firstCandidate = 0;
+            for (int i = 0; i < batches.size(); i++) {
+                if (batches.get(i).overlaps(key, start, end)) {
+                    firstCandidate = i + 1;
+                }
+            }
+            Batch target = null;
+            for (int i = firstCandidate; i < batches.size(); i++) {
+                if (batches.get(i).canAppend(key, start, end)) {
+                    target = batches.get(i);
+                    break;
+                }
+            }
+            if (target == null) {
+                batches.add(new Batch(key, true, task, start, end));
+            } else {
+                target.append(task, start, end);
+            }
+        }
+
+        List<WriteTask> planned = new ArrayList<>();
+        for (Batch batch : batches) {
+            MergeKey key = batch.key;
+            if (key == null || batch.members.size() == 1) {
+                planned.add(batch.members.get(0));
+            } else {
+                planned.add(createTask(key, batch));
+            }
+        }
+        return planned;
+    }
+
+    /**
+     * Get number of registers or coils written by the request
+     *
+     * @return number of registers or coils, or zero with unknown request types
+     */
+    private static int getWriteCount(ModbusWriteRequestBlueprint request) {
+        if (request instanceof ModbusWriteRegisterRequestBlueprint) {
+            return ((ModbusWriteRegisterRequestBlueprint) request).getRegisters().size();
+        } else if (request instanceof ModbusWriteCoilRequestBlueprint) {
+            return ((ModbusWriteCoilRequestBlueprint) request).getCoils().size();
+        }
+        return 0;
+    }
+
+    private static boolean isMultipleWrite(ModbusWriteRequestBlueprint request) {
+        ModbusWriteFunctionCode functionCode = request.getFunctionCode();
+        return functionCode == ModbusWriteFunctionCode.WRITE_MULTIPLE_REGISTERS
+                || functionCode == ModbusWriteFunctionCode.WRITE_MULTIPLE_COILS;
+    }
+
+    private static CoalescedWriteTask createTask(MergeKey key, Batch batch) {
+        int maxTries = batch.members.stream().mapToInt(WriteTask::getMaxTries).max().orElse(1);
+        List<WriteTask> sorted = new ArrayList<>(batch.members);
+        sorted.sort(BY_REFERENCE);
+        ModbusWriteRequestBlueprint request;
+        if (key.coils) {
+            BasicBitArray bits = new BasicBitArray(batch.end - batch.start);
+            for (WriteTask member : sorted) {
+                ModbusWriteCoilRequestBlueprint memberRequest = (ModbusWriteCoilRequestBlueprint) member.getRequest();
+                BitArray memberBits = memberRequest.getCoils();
+                int offset = memberRequest.getReference() - batch.start;
+                for (int i = 0; i < memberBits.size(); i++) {
+                    bits.setBit(offset + i, memberBits.getBit(i));
+                }
+            }
+            request = new BasicModbusWriteCoilRequestBlueprint(key.unitId, batch.start, bits, true, maxTries);
+        } else {
+            ModbusRegister[] registers = new ModbusRegister[batch.end - batch.start];
+            for (WriteTask member : sorted) {
+                ModbusWriteRegisterRequestBlueprint memberRequest = (ModbusWriteRegisterRequestBlueprint) member
+                        .getRequest();
+                ModbusRegisterArray memberRegisters = memberRequest.getRegisters();
+                int offset = memberRequest.getReference() - batch.start;
+                for (int i = 0; i < memberRegisters.size(); i++) {
+                    registers[offset + i] = memberRegisters.getRegister(i);
+                }
+            }
+            request = new BasicModbusWriteRegisterRequestBlueprint(key.unitId, batch.start,
+                    new BasicModbusRegisterArray(registers), true, maxTries);
+        }
+        return new CoalescedWriteTask(key.endpoint, request, batch.members);
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.ModbusResponse;
+import org.openhab.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.openhab.io.transport.modbus.WriteTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects one-off writes submitted within a short window, and submits them as merged writes
+ *
+ * Writes are planned using {@link ModbusWriteRequestPlanner}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class WriteBatcher {
+
+    /**
+     * Future of a batched write. Completed once the callback of the write has been called.
+     */
+    private static class BatchedWriteFuture extends CompletableFuture<@Nullable Void>
+            implements ScheduledFuture<@Nullable Void> {
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            if (other == null) {
+                return 1;
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Write task waiting in the batch, completing the future when the original callback has been called
+     */
+    private static class BatchedWrite implements WriteTask, ModbusWriteCallback {
+
+        private final WriteTask task;
+        private final BatchedWriteFuture future = new BatchedWriteFuture();
+
+        public BatchedWrite(WriteTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public ModbusSlaveEndpoint getEndpoint() {
+            return task.getEndpoint();
+        }
+
+        @Override
+        public ModbusWriteRequestBlueprint getRequest() {
+            return task.getRequest();
+        }
+
+        @Override
+        public ModbusWriteCallback getCallback() {
+            return this;
+        }
+
+        @Override
+        public void onWriteResponse(ModbusWriteRequestBlueprint request, ModbusResponse response) {
+            try {
+                ModbusWriteCallback callback = task.getCallback();
+                if (callback != null) {
+                    callback.onWriteResponse(request, response);
+                }
+            } finally {
+                future.complete(null);
+            }
+        }
+
+        @Override
+        public void onError(ModbusWriteRequestBlueprint request, Exception error) {
+            try {
+                ModbusWriteCallback callback = task.getCallback();
+                if (callback != null) {
+                    callback.onError(request, error);
+                }
+            } finally {
+                future.complete(null);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(WriteBatcher.class);
+
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private final Consumer<WriteTask> submitter;
+    private List<BatchedWrite> pending = new ArrayList<>();
+    private @Nullable ScheduledFuture<?> flushFuture;
+
+    /**
+     * Construct write batcher
+     *
+     * @param executor executor used to schedule the submission of the batch
+     * @param windowMillis time to collect writes, counting from the first write of the batch
+     * @param submitter consumer submitting the planned write tasks for execution
+     */
+    public WriteBatcher(ScheduledExecutorService executor, long windowMillis, Consumer<WriteTask> submitter) {
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.submitter = submitter;
+    }
+
+    /**
+     * Add write task to the current batch
+     *
+     * @param task task to write
+     * @return future completed once the callback of the task has been called. Cancelling the future before the batch
+     *         is submitted removes the task from the batch.
+     */
+    public synchronized ScheduledFuture<?> submit(WriteTask task) {
+        BatchedWrite write = new BatchedWrite(task);
+        pending.add(write);
+        if (flushFuture == null) {
+            flushFuture = executor.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return write.future;
+    }
+
+    /**
+     * Submit the current batch for execution
+     */
+    public void flush() {
+        List<WriteTask> writes;
+        synchronized (this) {
+            writes = pending.stream().filter(write -> !write.future.isCancelled()).collect(Collectors.toList());
+            pending = new ArrayList<>();
+            flushFuture = null;
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+        List<WriteTask> planned = ModbusWriteRequestPlanner.plan(writes);
+        logger.debug("Submitting batch of {} write tasks as {} writes", writes.size(), planned.size());
+        planned.forEach(submitter);
+    }
+
+    /**
+     * Discard the current batch without submitting it
+     */
+    public synchronized void cancel() {
+        ScheduledFuture<?> flushFuture = this.flushFuture;
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+            this.flushFuture = null;
+        }
+        pending.forEach(write -> write.future.cancel(false));
+        pending = new ArrayList<>();
+    }
+}
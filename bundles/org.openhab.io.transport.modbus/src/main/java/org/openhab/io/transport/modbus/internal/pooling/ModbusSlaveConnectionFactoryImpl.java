@@ -202,10 +202,7 @@ public class ModbusSlaveConnectionFactoryImpl
         long reconnectAfterMillis = configuration == null ? 0 : configuration.getReconnectAfterMillis();
         long connectionAgeMillis = System.currentTimeMillis() - ((PooledConnection) obj).getLastConnected();
         long disconnectIfConnectedBeforeMillis = disconnectIfConnectedBefore.getOrDefault(endpoint, -1L);
-        boolean disconnectSinceTooOldConnection = disconnectIfConnectedBeforeMillis < 0L ? false
-                : connected <= disconnectIfConnectedBeforeMillis;
-        if (reconnectAfterMillis == 0 || (reconnectAfterMillis > 0 && connectionAgeMillis > reconnectAfterMillis)
-                || disconnectSinceTooOldConnection) {
+        if (isDisconnectNeeded(endpoint, connected)) {
             logger.trace(
                     "(passivate) Connection {} (endpoint {}) age {}ms is over the reconnectAfterMillis={}ms limit or has been connection time ({}) is after the \"disconnectBeforeConnectedMillis\"={} -> disconnecting.",
                     connection, endpoint, connectionAgeMillis, reconnectAfterMillis, connected,
@@ -335,6 +332,26 @@ public class ModbusSlaveConnectionFactoryImpl
         return millisToWaitStill;
     }
 
+    /**
+     * Tells whether connection established at the given time should be disconnected instead of being reused, according
+     * to the reconnectAfterMillis setting of the endpoint and {@link #disconnectOnReturn(ModbusSlaveEndpoint, long)}
+     *
+     * @param endpoint endpoint of the connection
+     * @param connectedMillis time when the connection was established
+     * @return true when the connection should be disconnected
+     */
+    public boolean isDisconnectNeeded(ModbusSlaveEndpoint endpoint, long connectedMillis) {
+        @Nullable
+        EndpointPoolConfiguration configuration = endpointPoolConfigs.get(endpoint);
+        long reconnectAfterMillis = configuration == null ? 0 : configuration.getReconnectAfterMillis();
+        long connectionAgeMillis = System.currentTimeMillis() - connectedMillis;
+        long disconnectIfConnectedBeforeMillis = disconnectIfConnectedBefore.getOrDefault(endpoint, -1L);
+        boolean disconnectSinceTooOldConnection = disconnectIfConnectedBeforeMillis < 0L ? false
+                : connectedMillis <= disconnectIfConnectedBeforeMillis;
+        return reconnectAfterMillis == 0 || (reconnectAfterMillis > 0 && connectionAgeMillis > reconnectAfterMillis)
+                || disconnectSinceTooOldConnection;
+    }
+
     /**
      * Disconnect returning connections which have been connected before certain time
      *
@@ -400,4 +400,21 @@ public class BitUtilitiesExtractStateFromRegistersTest {
         assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
                 is(equalTo(expectedStateWrapped)));
     }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testExtractDoubleFromRegisters() {
+        if (expectedResult instanceof Class && Exception.class.isAssignableFrom((Class) expectedResult)) {
+            shouldThrow.expect((Class) expectedResult);
+        }
+
+        double actual = ModbusBitUtilities.extractDoubleFromRegisters(this.registers, this.index, this.type);
+        String reason = String.format("registers=%s, index=%d, type=%s", registers, index, type);
+        if (expectedResult instanceof DecimalType) {
+            assertThat(reason, actual, is(equalTo(((DecimalType) expectedResult).doubleValue())));
+        } else {
+            // NaN or infinity
+            assertThat(reason, Double.isNaN(actual) || Double.isInfinite(actual), is(equalTo(true)));
+        }
+    }
 }
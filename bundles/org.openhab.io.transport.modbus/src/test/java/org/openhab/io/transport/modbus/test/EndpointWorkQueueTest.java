@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointWorkQueue;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EndpointWorkQueueTest {
+
+    private Queue<Runnable> workers;
+    private List<String> executed;
+    private EndpointWorkQueue queue;
+
+    @Before
+    public void setUp() {
+        workers = new LinkedList<>();
+        executed = new ArrayList<>();
+        queue = new EndpointWorkQueue(new ModbusTCPSlaveEndpoint("localhost", 502), workers::add, 1);
+    }
+
+    private void runWorkers() {
+        Runnable worker;
+        while ((worker = workers.poll()) != null) {
+            worker.run();
+        }
+    }
+
+    private Runnable record(String name) {
+        return () -> executed.add(name);
+    }
+
+    @Test
+    public void testSingleWorker() {
+        queue.submit(record("a"), false, 0, null);
+        queue.submit(record("b"), false, 0, null);
+        queue.submit(record("c"), false, 0, null);
+        assertThat(workers.size(), is(equalTo(1)));
+        assertThat(queue.size(), is(equalTo(3)));
+        runWorkers();
+        assertThat(executed, is(equalTo(Arrays.asList("a", "b", "c"))));
+        assertThat(queue.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testWritePriorityAndDeadlineOrder() {
+        queue.submit(record("poll-late-deadline"), false, 200, null);
+        queue.submit(record("poll-early-deadline"), false, 100, null);
+        queue.submit(record("write"), true, 300, null);
+        runWorkers();
+        assertThat(executed, is(equalTo(Arrays.asList("write", "poll-early-deadline", "poll-late-deadline"))));
+    }
+
+    @Test
+    public void testSameKeyQueuedOnce() {
+        Object key = new Object();
+        assertThat(queue.submit(record("a"), false, 0, key), is(notNullValue()));
+        assertThat(queue.submit(record("b"), false, 0, key), is(nullValue()));
+        runWorkers();
+        assertThat(executed, is(equalTo(Arrays.asList("a"))));
+        // after execution, the key can be queued again
+        assertThat(queue.submit(record("c"), false, 0, key), is(notNullValue()));
+    }
+
+    @Test
+    public void testCancel() {
+        Object key = new Object();
+        ScheduledFuture<?> future = queue.submit(record("a"), false, 0, key);
+        queue.submit(record("b"), false, 0, null);
+        queue.cancel(key, false);
+        runWorkers();
+        assertThat(executed, is(equalTo(Arrays.asList("b"))));
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void testCancelRunning() {
+        Object key = new Object();
+        queue.submit(() -> {
+            queue.cancel(key, false);
+            executed.add(Thread.interrupted() ? "interrupted" : "not interrupted");
+        }, false, 0, key);
+        runWorkers();
+        assertThat(executed, is(equalTo(Arrays.asList("not interrupted"))));
+        queue.submit(() -> {
+            queue.cancel(key, true);
+            executed.add(Thread.interrupted() ? "interrupted" : "not interrupted");
+        }, false, 0, key);
+        runWorkers();
+        assertThat(executed, is(equalTo(Arrays.asList("not interrupted", "interrupted"))));
+    }
+
+    @Test
+    public void testMultipleWorkers() {
+        queue.setMaxWorkers(2);
+        queue.submit(record("a"), false, 0, null);
+        queue.submit(record("b"), false, 0, null);
+        queue.submit(record("c"), false, 0, null);
+        assertThat(workers.size(), is(equalTo(2)));
+        runWorkers();
+        assertThat(executed.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testLateness() {
+        queue.submit(record("a"), false, System.currentTimeMillis() - 1000, null);
+        runWorkers();
+        assertTrue(queue.getLastLatenessMillis() >= 1000);
+        assertTrue(queue.getAndResetMaxLatenessMillis() >= 1000);
+        assertThat(queue.getAndResetMaxLatenessMillis(), is(equalTo(0L)));
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusUnexpectedResponseSizeException;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusReadRequestPlanner;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusReadRequestPlannerTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("thisisdummyhostname", 502);
+    private static final ModbusSlaveEndpoint ENDPOINT2 = new ModbusTCPSlaveEndpoint("thisisdummyhostname2", 502);
+
+    private static PollTask task(ModbusSlaveEndpoint endpoint, int unitId, ModbusReadFunctionCode functionCode,
+            int start, int length, ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(unitId, functionCode, start, length, 3), callback);
+    }
+
+    private static List<CoalescedPollTask> plan(PollTask... tasks) {
+        List<CoalescedPollTask> planned = ModbusReadRequestPlanner.plan(Arrays.asList(tasks));
+        planned.sort(Comparator.comparingInt(task -> task.getRequest().getReference()));
+        return planned;
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingAreMerged() {
+        PollTask task1 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, null);
+        PollTask task2 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 5, null);
+        PollTask task3 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 8, 4, null);
+        List<CoalescedPollTask> planned = plan(task3, task1, task2);
+
+        assertThat(planned.size(), is(equalTo(1)));
+        assertThat(planned.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(planned.get(0).getRequest().getDataLength(), is(equalTo(12)));
+        assertThat(planned.get(0).getMembers().size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testGapIsNotMerged() {
+        PollTask task1 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, null);
+        PollTask task2 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 6, 5, null);
+        List<CoalescedPollTask> planned = plan(task1, task2);
+
+        assertThat(planned.size(), is(equalTo(2)));
+        assertThat(planned.get(0).getRequest().getDataLength(), is(equalTo(5)));
+        assertThat(planned.get(1).getRequest().getReference(), is(equalTo(6)));
+    }
+
+    @Test
+    public void testDifferentEndpointUnitIdAndFunctionCodeAreNotMerged() {
+        List<CoalescedPollTask> planned = plan(
+                task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, null),
+                task(ENDPOINT2, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 5, null),
+                task(ENDPOINT, 2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 5, null),
+                task(ENDPOINT, 1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 5, 5, null));
+
+        assertThat(planned.size(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testProtocolLimitsAreRespected() {
+        List<CoalescedPollTask> planned = plan(
+                task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100, null),
+                task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 26, null));
+        assertThat(planned.size(), is(equalTo(2)));
+
+        planned = plan(task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100, null),
+                task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 25, null));
+        assertThat(planned.size(), is(equalTo(1)));
+
+        planned = plan(task(ENDPOINT, 1, ModbusReadFunctionCode.READ_COILS, 0, 1000, null),
+                task(ENDPOINT, 1, ModbusReadFunctionCode.READ_COILS, 1000, 1000, null));
+        assertThat(planned.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testRegistersAreSplitToOriginalCallbacks() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, callback1);
+        PollTask task2 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 3, callback2);
+        CoalescedPollTask coalesced = plan(task1, task2).get(0);
+
+        coalesced.getCallback().onRegisters(coalesced.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4));
+
+        ArgumentCaptor<ModbusRegisterArray> registers1 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback1).onRegisters(eq(task1.getRequest()), registers1.capture());
+        assertThat(registers1.getValue().size(), is(equalTo(2)));
+        assertThat(registers1.getValue().getRegister(0).getValue(), is(equalTo(1)));
+        assertThat(registers1.getValue().getRegister(1).getValue(), is(equalTo(2)));
+
+        ArgumentCaptor<ModbusRegisterArray> registers2 = ArgumentCaptor.forClass(ModbusRegisterArray.class);
+        verify(callback2).onRegisters(eq(task2.getRequest()), registers2.capture());
+        assertThat(registers2.getValue().size(), is(equalTo(3)));
+        assertThat(registers2.getValue().getRegister(0).getValue(), is(equalTo(2)));
+        assertThat(registers2.getValue().getRegister(2).getValue(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testBitsAreSplitToOriginalCallbacks() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_COILS, 0, 2, callback1);
+        PollTask task2 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_COILS, 2, 2, callback2);
+        CoalescedPollTask coalesced = plan(task1, task2).get(0);
+
+        coalesced.getCallback().onBits(coalesced.getRequest(), new BasicBitArray(true, false, false, true));
+
+        verify(callback1).onBits(eq(task1.getRequest()), eq(new BasicBitArray(true, false)));
+        verify(callback2).onBits(eq(task2.getRequest()), eq(new BasicBitArray(false, true)));
+    }
+
+    @Test
+    public void testTooShortResponseAndErrorsAreDelegated() {
+        ModbusReadCallback callback1 = mock(ModbusReadCallback.class);
+        ModbusReadCallback callback2 = mock(ModbusReadCallback.class);
+        PollTask task1 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 2, callback1);
+        PollTask task2 = task(ENDPOINT, 1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 2, 2, callback2);
+        CoalescedPollTask coalesced = plan(task1, task2).get(0);
+
+        coalesced.getCallback().onRegisters(coalesced.getRequest(), new BasicModbusRegisterArray(1, 2, 3));
+        verify(callback1).onRegisters(eq(task1.getRequest()), any());
+        verify(callback2).onError(eq(task2.getRequest()), any(ModbusUnexpectedResponseSizeException.class));
+
+        Exception error = new Exception("dummy");
+        coalesced.getCallback().onError(coalesced.getRequest(), error);
+        verify(callback1).onError(task1.getRequest(), error);
+        verify(callback2).onError(task2.getRequest(), error);
+        verify(callback1, never()).onBits(any(), any(BitArray.class));
+    }
+}
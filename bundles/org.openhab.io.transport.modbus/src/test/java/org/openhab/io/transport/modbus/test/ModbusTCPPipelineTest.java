@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusTCPPipeline;
+
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusMessage;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersResponse;
+import net.wimpi.modbus.net.TCPMasterConnection;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusTCPPipelineTest {
+
+    private ModbusTransport transport;
+    private TCPMasterConnection connection;
+    private List<Integer> writtenTransactionIds;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        transport = mock(ModbusTransport.class);
+        connection = mock(TCPMasterConnection.class);
+        when(connection.getModbusTransport()).thenReturn(transport);
+        writtenTransactionIds = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            writtenTransactionIds.add(((ModbusMessage) invocation.getArgument(0)).getTransactionID());
+            return null;
+        }).when(transport).writeMessage(any());
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static ModbusResponse response(int transactionId) {
+        ModbusResponse response = new ReadMultipleRegistersResponse();
+        response.setTransactionID(transactionId);
+        return response;
+    }
+
+    private ModbusTCPPipeline pipeline(int maxInFlight) {
+        return new ModbusTCPPipeline(new ModbusTCPSlaveEndpoint("thisisdummyhostname", 502), connection, maxInFlight);
+    }
+
+    @Test
+    public void testResponsesOutOfOrderAreMatchedByTransactionId() throws Exception {
+        when(transport.readResponse()).thenAnswer(invocation -> {
+            // Wait until both requests are written, and respond to the latest first
+            long deadline = System.currentTimeMillis() + 5000;
+            while (writtenTransactionIds.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            return response(writtenTransactionIds.remove(writtenTransactionIds.size() - 1));
+        });
+        ModbusTCPPipeline pipeline = pipeline(2);
+        ReadMultipleRegistersRequest request1 = new ReadMultipleRegistersRequest(0, 1);
+        ReadMultipleRegistersRequest request2 = new ReadMultipleRegistersRequest(5, 1);
+
+        Future<ModbusResponse> response1 = executor.submit(() -> pipeline.execute(request1));
+        Future<ModbusResponse> response2 = executor.submit(() -> pipeline.execute(request2));
+
+        assertThat(response1.get(5, TimeUnit.SECONDS).getTransactionID(), is(equalTo(request1.getTransactionID())));
+        assertThat(response2.get(5, TimeUnit.SECONDS).getTransactionID(), is(equalTo(request2.getTransactionID())));
+        assertThat(request1.getTransactionID(), is(not(equalTo(request2.getTransactionID()))));
+        assertThat(pipeline.getInFlightCount(), is(equalTo(0)));
+        assertFalse(pipeline.isClosed());
+    }
+
+    @Test
+    public void testUnexpectedTransactionIdIsIgnored() throws Exception {
+        when(transport.readResponse()).thenAnswer(invocation -> response(9999))
+                .thenAnswer(invocation -> response(writtenTransactionIds.get(0)));
+        ModbusTCPPipeline pipeline = pipeline(2);
+        ReadMultipleRegistersRequest request = new ReadMultipleRegistersRequest(0, 1);
+
+        ModbusResponse response = pipeline.execute(request);
+
+        assertThat(response.getTransactionID(), is(equalTo(request.getTransactionID())));
+    }
+
+    @Test(expected = ModbusSlaveException.class)
+    public void testExceptionResponse() throws Exception {
+        when(transport.readResponse()).thenAnswer(invocation -> {
+            ModbusResponse response = new ExceptionResponse(3, 2);
+            response.setTransactionID(writtenTransactionIds.get(0));
+            return response;
+        });
+        pipeline(2).execute(new ReadMultipleRegistersRequest(0, 1));
+    }
+
+    @Test
+    public void testReadErrorClosesPipeline() throws Exception {
+        when(transport.readResponse()).thenThrow(new ModbusIOException("dummy"));
+        ModbusTCPPipeline pipeline = pipeline(2);
+        try {
+            pipeline.execute(new ReadMultipleRegistersRequest(0, 1));
+            fail("Expected ModbusIOException");
+        } catch (ModbusIOException e) {
+            // expected
+        }
+        assertTrue(pipeline.isClosed());
+        try {
+            pipeline.execute(new ReadMultipleRegistersRequest(0, 1));
+            fail("Expected ModbusIOException");
+        } catch (ModbusIOException e) {
+            // expected
+        }
+        verify(transport, times(1)).writeMessage(any());
+    }
+
+    @Test
+    public void testRetiredPipelineIsReleasedByLastUser() {
+        ModbusTCPPipeline pipeline = pipeline(2);
+        assertTrue(pipeline.acquire());
+        assertTrue(pipeline.acquire());
+
+        assertFalse(pipeline.retire());
+        assertFalse(pipeline.acquire());
+        assertFalse(pipeline.releaseUser());
+        assertTrue(pipeline.releaseUser());
+        assertFalse(pipeline.isClosed());
+    }
+
+    @Test
+    public void testIdlePipelineIsReleasedOnRetire() {
+        ModbusTCPPipeline pipeline = pipeline(2);
+        assertTrue(pipeline.acquire());
+        assertFalse(pipeline.releaseUser());
+
+        assertTrue(pipeline.retire());
+        assertTrue(pipeline.release());
+        assertFalse(pipeline.release());
+    }
+
+    @Test
+    public void testClosedPipelineIsNotAcquired() {
+        ModbusTCPPipeline pipeline = pipeline(2);
+        assertTrue(pipeline.acquire());
+        pipeline.close();
+
+        assertFalse(pipeline.acquire());
+        assertTrue(pipeline.releaseUser());
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicModbusWriteCoilRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusWriteRegisterRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicWriteTask;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusConstants;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusResponse;
+import org.openhab.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusWriteFunctionCode;
+import org.openhab.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.openhab.io.transport.modbus.WriteTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedWriteTask;
+import org.openhab.io.transport.modbus.internal.ModbusWriteRequestPlanner;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusWriteRequestPlannerTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("thisisdummyhostname", 502);
+    private static final ModbusSlaveEndpoint ENDPOINT2 = new ModbusTCPSlaveEndpoint("thisisdummyhostname2", 502);
+
+    private static WriteTask registerWrite(ModbusSlaveEndpoint endpoint, int unitId, int reference,
+            ModbusWriteCallback callback, int... values) {
+        return new BasicWriteTask(endpoint, new BasicModbusWriteRegisterRequestBlueprint(unitId, reference,
+                new BasicModbusRegisterArray(values), true, 3), callback);
+    }
+
+    private static WriteTask singleRegisterWrite(ModbusSlaveEndpoint endpoint, int unitId, int reference, int value) {
+        return new BasicWriteTask(endpoint, new BasicModbusWriteRegisterRequestBlueprint(unitId, reference,
+                new BasicModbusRegisterArray(value), false, 3), null);
+    }
+
+    private static WriteTask coilWrite(ModbusSlaveEndpoint endpoint, int unitId, int reference, boolean value) {
+        return new BasicWriteTask(endpoint,
+                new BasicModbusWriteCoilRequestBlueprint(unitId, reference, value, true, 3), null);
+    }
+
+    private static WriteTask singleCoilWrite(ModbusSlaveEndpoint endpoint, int unitId, int reference, boolean value) {
+        return new BasicWriteTask(endpoint,
+                new BasicModbusWriteCoilRequestBlueprint(unitId, reference, value, false, 3), null);
+    }
+
+    private static List<WriteTask> plan(WriteTask... tasks) {
+        return ModbusWriteRequestPlanner.plan(Arrays.asList(tasks));
+    }
+
+    private static int[] registerValues(WriteTask task) {
+        ModbusRegisterArray registers = ((ModbusWriteRegisterRequestBlueprint) task.getRequest()).getRegisters();
+        int[] values = new int[registers.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = registers.getRegister(i).toUnsignedShort();
+        }
+        return values;
+    }
+
+    @Test
+    public void testAdjacentRegistersAreMerged() {
+        WriteTask task1 = registerWrite(ENDPOINT, 1, 10, null, 1);
+        WriteTask task2 = registerWrite(ENDPOINT, 1, 12, null, 3, 4);
+        WriteTask task3 = registerWrite(ENDPOINT, 1, 11, null, 2);
+        List<WriteTask> planned = plan(task1, task2, task3);
+
+        assertThat(planned.size(), is(equalTo(1)));
+        assertThat(planned.get(0), is(instanceOf(CoalescedWriteTask.class)));
+        ModbusWriteRequestBlueprint request = planned.get(0).getRequest();
+        assertThat(request.getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_MULTIPLE_REGISTERS)));
+        assertThat(request.getReference(), is(equalTo(10)));
+        assertThat(registerValues(planned.get(0)), is(equalTo(new int[] { 1, 2, 3, 4 })));
+        assertThat(((CoalescedWriteTask) planned.get(0)).getMembers(), is(equalTo(Arrays.asList(task1, task2, task3))));
+    }
+
+    @Test
+    public void testGapIsNotMerged() {
+        WriteTask task1 = registerWrite(ENDPOINT, 1, 10, null, 1);
+        WriteTask task2 = registerWrite(ENDPOINT, 1, 12, null, 3);
+        List<WriteTask> planned = plan(task1, task2);
+
+        // Unmerged tasks are returned as is
+        assertThat(planned, is(equalTo(Arrays.asList(task1, task2))));
+    }
+
+    @Test
+    public void testDifferentEndpointOrUnitIdNotMerged() {
+        WriteTask task1 = registerWrite(ENDPOINT, 1, 10, null, 1);
+        WriteTask task2 = registerWrite(ENDPOINT2, 1, 11, null, 2);
+        WriteTask task3 = registerWrite(ENDPOINT, 2, 11, null, 3);
+        List<WriteTask> planned = plan(task1, task2, task3);
+
+        assertThat(planned, is(equalTo(Arrays.asList(task1, task2, task3))));
+    }
+
+    @Test
+    public void testRegistersAndCoilsNotMerged() {
+        WriteTask task1 = registerWrite(ENDPOINT, 1, 10, null, 1);
+        WriteTask task2 = coilWrite(ENDPOINT, 1, 11, true);
+        List<WriteTask> planned = plan(task1, task2);
+
+        assertThat(planned, is(equalTo(Arrays.asList(task1, task2))));
+    }
+
+    @Test
+    public void testCoilsAreMerged() {
+        WriteTask task1 = coilWrite(ENDPOINT, 1, 5, true);
+        WriteTask task2 = coilWrite(ENDPOINT, 1, 6, false);
+        WriteTask task3 = coilWrite(ENDPOINT, 1, 7, true);
+        List<WriteTask> planned = plan(task1, task2, task3);
+
+        assertThat(planned.size(), is(equalTo(1)));
+        ModbusWriteCoilRequestBlueprint request = (ModbusWriteCoilRequestBlueprint) planned.get(0).getRequest();
+        assertThat(request.getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_MULTIPLE_COILS)));
+        assertThat(request.getReference(), is(equalTo(5)));
+        BitArray coils = request.getCoils();
+        assertThat(coils.size(), is(equalTo(3)));
+        assertThat(coils.getBit(0), is(equalTo(true)));
+        assertThat(coils.getBit(1), is(equalTo(false)));
+        assertThat(coils.getBit(2), is(equalTo(true)));
+    }
+
+    @Test
+    public void testSingleRegisterWritesAreNotMerged() {
+        WriteTask task1 = singleRegisterWrite(ENDPOINT, 1, 10, 1);
+        WriteTask task2 = singleRegisterWrite(ENDPOINT, 1, 11, 2);
+        WriteTask task3 = registerWrite(ENDPOINT, 1, 12, null, 3);
+        List<WriteTask> planned = plan(task1, task2, task3);
+
+        // FC6 writes are executed as FC6 writes, the slave might not support FC16
+        assertThat(planned, is(equalTo(Arrays.asList(task1, task2, task3))));
+        assertThat(planned.get(0).getRequest().getFunctionCode(),
+                is(equalTo(ModbusWriteFunctionCode.WRITE_SINGLE_REGISTER)));
+        assertThat(planned.get(1).getRequest().getFunctionCode(),
+                is(equalTo(ModbusWriteFunctionCode.WRITE_SINGLE_REGISTER)));
+    }
+
+    @Test
+    public void testSingleCoilWritesAreNotMerged() {
+        WriteTask task1 = singleCoilWrite(ENDPOINT, 1, 5, true);
+        WriteTask task2 = singleCoilWrite(ENDPOINT, 1, 6, false);
+        List<WriteTask> planned = plan(task1, task2);
+
+        assertThat(planned, is(equalTo(Arrays.asList(task1, task2))));
+        assertThat(planned.get(0).getRequest().getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_COIL)));
+        assertThat(planned.get(1).getRequest().getFunctionCode(), is(equalTo(ModbusWriteFunctionCode.WRITE_COIL)));
+    }
+
+    @Test
+    public void testWriteAfterSingleRegisterWriteNotMergedIntoEarlierBatch() {
+        WriteTask a = registerWrite(ENDPOINT, 1, 10, null, 1);
+        WriteTask b = singleRegisterWrite(ENDPOINT, 1, 11, 2);
+        // overwrites b, and is adjacent to a. Merging with a would execute it before b.
+        WriteTask c = registerWrite(ENDPOINT, 1, 11, null, 3);
+        List<WriteTask> planned = plan(a, b, c);
+
+        assertThat(planned, is(equalTo(Arrays.asList(a, b, c))));
+    }
+
+    @Test
+    public void testOrderOfWritesToSameRegisterIsPreserved() {
+        WriteTask first = registerWrite(ENDPOINT, 1, 10, null, 1);
+        WriteTask second = registerWrite(ENDPOINT, 1, 10, null, 2);
+        WriteTask adjacent = registerWrite(ENDPOINT, 1, 11, null, 3);
+        List<WriteTask> planned = plan(first, second, adjacent);
+
+        // The second write to register 10 must not be merged into the batch of the first write. The adjacent
+        // write does not overlap either, and is merged with the first one.
+        assertThat(planned.size(), is(equalTo(2)));
+        assertThat(registerValues(planned.get(0)), is(equalTo(new int[] { 1, 3 })));
+        assertThat(planned.get(1), is(equalTo(second)));
+    }
+
+    @Test
+    public void testLaterWriteNotMergedIntoEarlierBatch() {
+        WriteTask a = registerWrite(ENDPOINT, 1, 10, null, 1);
+        WriteTask b = registerWrite(ENDPOINT, 1, 20, null, 2);
+        // overwrites b, and is adjacent to a. Merging with a would execute it before b.
+        WriteTask c = registerWrite(ENDPOINT, 1, 11, null, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+        List<WriteTask> planned = plan(a, b, c);
+
+        assertThat(planned, is(equalTo(Arrays.asList(a, b, c))));
+    }
+
+    @Test
+    public void testMaxWriteCount() {
+        int[] values = new int[ModbusConstants.MAX_REGISTERS_WRITE_COUNT];
+        WriteTask task1 = registerWrite(ENDPOINT, 1, 0, null, values);
+        WriteTask task2 = registerWrite(ENDPOINT, 1, values.length, null, 1);
+        List<WriteTask> planned = plan(task1, task2);
+
+        assertThat(planned, is(equalTo(Arrays.asList(task1, task2))));
+    }
+
+    @Test
+    public void testResultIsDeliveredToEachMember() {
+        ModbusWriteCallback callback1 = mock(ModbusWriteCallback.class);
+        ModbusWriteCallback callback2 = mock(ModbusWriteCallback.class);
+        WriteTask task1 = registerWrite(ENDPOINT, 1, 10, callback1, 1);
+        WriteTask task2 = registerWrite(ENDPOINT, 1, 11, callback2, 2);
+        List<WriteTask> planned = plan(task1, task2);
+        assertThat(planned.size(), is(equalTo(1)));
+
+        ModbusResponse response = mock(ModbusResponse.class);
+        planned.get(0).getCallback().onWriteResponse(planned.get(0).getRequest(), response);
+        verify(callback1).onWriteResponse(same(task1.getRequest()), same(response));
+        verify(callback2).onWriteResponse(same(task2.getRequest()), same(response));
+
+        Exception error = new Exception();
+        planned.get(0).getCallback().onError(planned.get(0).getRequest(), error);
+        verify(callback1).onError(same(task1.getRequest()), same(error));
+        verify(callback2).onError(same(task2.getRequest()), same(error));
+    }
+}
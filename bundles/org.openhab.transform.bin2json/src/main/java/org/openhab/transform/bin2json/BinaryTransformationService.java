@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
+
+/**
+ * A {@link TransformationService} that also transforms binary data directly, without the hex string encoding.
+ *
+ * Bindings receiving raw bytes can get this service from the service registry to avoid encoding the data to a hex
+ * string that the transformation decodes again.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface BinaryTransformationService extends TransformationService {
+
+    /**
+     * Transforms the binary input <code>source</code> by the given function.
+     *
+     * @param function the function of the transformation, e.g. the Java Binary Block Parser syntax
+     * @param source the binary data to transform
+     * @return the transformed result
+     * @throws TransformationException if the transformation fails
+     */
+    String transform(String function, byte[] source) throws TransformationException;
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
@@ -26,6 +27,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.igormaznitsa.jbbp.JBBPParser;
 import com.igormaznitsa.jbbp.exceptions.JBBPException;
+import com.igormaznitsa.jbbp.io.JBBPBitInputStream;
 import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
 import com.igormaznitsa.jbbp.model.JBBPAbstractField;
 import com.igormaznitsa.jbbp.model.JBBPFieldArrayBit;
@@ -66,6 +68,8 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  * json.toString() = {"a":3,"b":-6,"c":255}
  * </pre>
  *
+ * The parser rule is compiled once, an instance can be reused for any number of conversions.
+ *
  * @author Pauli Anttila - Initial contribution
  *
  */
@@ -137,6 +141,44 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Convert a sequence of concatenated records to a JSON array, each record is parsed by the parser rule.
+     *
+     * @param data Data in byte array format.
+     * @return Gson {@link JsonArray} with one {@link JsonObject} per record
+     * @throws ConversionException
+     */
+    public JsonArray convertAll(byte[] data) throws ConversionException {
+        return convertAll(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Convert a sequence of concatenated records from {@link InputStream} to a JSON array, each record is parsed by the
+     * parser rule until the stream ends.
+     *
+     * @param inputStream
+     * @return Gson {@link JsonArray} with one {@link JsonObject} per record
+     * @throws ConversionException
+     */
+    public JsonArray convertAll(InputStream inputStream) throws ConversionException {
+        final JBBPBitInputStream bitStream = new JBBPBitInputStream(inputStream);
+        final JsonArray records = new JsonArray();
+        try {
+            while (bitStream.hasAvailableData()) {
+                final long position = bitStream.getCounter();
+                records.add(convert(parser.parse(bitStream)));
+                if (bitStream.getCounter() == position) {
+                    throw new ConversionException("Parser rule doesn't consume any data, records can't be separated");
+                }
+            }
+            return records;
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+        }
+    }
+
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
         try {
             LocalDateTime start = LocalDateTime.now();
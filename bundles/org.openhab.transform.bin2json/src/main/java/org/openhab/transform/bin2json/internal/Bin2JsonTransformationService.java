@@ -12,10 +12,15 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.transform.bin2json.BinaryTransformationService;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,14 +29,36 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * hexa string formatted binary data by Binary Block Parser syntax to JSON format.
  *
+ * If the syntax starts with {@value #RECORDS_PREFIX}, the data is a sequence of concatenated records which are
+ * converted to a JSON array. Compiled parsers are cached per syntax.
+ *
+ * The service is also registered as {@link BinaryTransformationService}, to transform binary data without the hex
+ * string encoding.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=BIN2JSON" })
-public class Bin2JsonTransformationService implements TransformationService {
+@Component(service = { TransformationService.class,
+        BinaryTransformationService.class }, immediate = true, property = { "smarthome.transform=BIN2JSON" })
+public class Bin2JsonTransformationService implements BinaryTransformationService {
 
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    /** Syntax prefix to convert a sequence of concatenated records to a JSON array */
+    static final String RECORDS_PREFIX = "[_]";
+
+    /** Maximum number of compiled parsers that are kept */
+    static final int MAX_CACHED_PARSERS = 64;
+
+    private final Map<String, Bin2Json> parsers = new LinkedHashMap<String, Bin2Json>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Bin2Json> eldest) {
+            return size() > MAX_CACHED_PARSERS;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -40,13 +67,37 @@ public class Bin2JsonTransformationService implements TransformationService {
      */
     @Override
     public @Nullable String transform(String syntax, String source) throws TransformationException {
+        final byte[] data;
+        try {
+            data = HexUtils.hexToBytes(source);
+        } catch (IllegalArgumentException e) {
+            throw new TransformationException("An error occurred while executing the converter. "
+                    + String.format("Illegal hexstring , reason: %s", e.getMessage()), e);
+        }
+        return transform(syntax, data);
+    }
+
+    /**
+     * Transforms the binary input <code>source</code> by Java Binary Block Parser syntax.
+     *
+     * @param syntax Java Binary Block Parser syntax.
+     * @param source the binary data to transform
+     */
+    @Override
+    public String transform(String syntax, byte[] source) throws TransformationException {
         final long startTime = System.currentTimeMillis();
-        logger.debug("About to transform '{}' by the Bin2Json syntax '{}'", source, syntax);
+        if (logger.isDebugEnabled()) {
+            logger.debug("About to transform '{}' by the Bin2Json syntax '{}'", HexUtils.bytesToHex(source), syntax);
+        }
 
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            if (syntax.startsWith(RECORDS_PREFIX)) {
+                result = String.valueOf(getParser(syntax.substring(RECORDS_PREFIX.length())).convertAll(source));
+            } else {
+                result = String.valueOf(getParser(syntax).convert(source));
+            }
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +107,21 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    /**
+     * Returns the compiled parser of the syntax, the least recently used parsers are dropped from the cache.
+     */
+    Bin2Json getParser(String syntax) throws ConversionException {
+        Bin2Json parser;
+        synchronized (parsers) {
+            parser = parsers.get(syntax);
+        }
+        if (parser == null) {
+            parser = new Bin2Json(syntax);
+            synchronized (parsers) {
+                parsers.put(syntax, parser);
+            }
+        }
+        return parser;
+    }
 }
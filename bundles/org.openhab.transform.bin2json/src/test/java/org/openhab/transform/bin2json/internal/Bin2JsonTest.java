@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    @Test
+    public void testSingleStruct() throws ConversionException {
+        Assert.assertEquals("{\"a\":3,\"b\":-6,\"c\":255}",
+                new Bin2Json("byte a; byte b; ubyte c;").convert("03FAFF").toString());
+    }
+
+    @Test
+    public void testNestedStruct() throws ConversionException {
+        Assert.assertEquals("{\"a\":1,\"inner\":{\"b\":255,\"c\":258}}",
+                new Bin2Json("byte a; inner { ubyte b; ushort c; }").convert("01FF0102").toString());
+    }
+
+    @Test
+    public void testParserIsReusable() throws ConversionException {
+        Bin2Json bin2Json = new Bin2Json("byte a; ubyte b;");
+
+        Assert.assertEquals("{\"a\":1,\"b\":255}", bin2Json.convert("01FF").toString());
+        Assert.assertEquals("{\"a\":2,\"b\":254}", bin2Json.convert(HexUtils.hexToBytes("02FE")).toString());
+    }
+
+    @Test
+    public void testConvertAllRepeatedStructs() throws ConversionException {
+        Assert.assertEquals("[{\"a\":3,\"b\":-6,\"c\":255},{\"a\":4,\"b\":-5,\"c\":254}]",
+                new Bin2Json("byte a; byte b; ubyte c;").convertAll(HexUtils.hexToBytes("03FAFF04FBFE")).toString());
+    }
+
+    @Test
+    public void testConvertAllSingleStruct() throws ConversionException {
+        Assert.assertEquals("[{\"a\":3,\"b\":-6,\"c\":255}]",
+                new Bin2Json("byte a; byte b; ubyte c;").convertAll(HexUtils.hexToBytes("03FAFF")).toString());
+    }
+
+    @Test
+    public void testConvertAllWithoutData() throws ConversionException {
+        Assert.assertEquals("[]", new Bin2Json("byte a; byte b; ubyte c;").convertAll(new byte[0]).toString());
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testConvertAllTrailingPartialStruct() throws ConversionException {
+        new Bin2Json("byte a; byte b; ubyte c;").convertAll(HexUtils.hexToBytes("03FAFF04FB"));
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testPartialStruct() throws ConversionException {
+        new Bin2Json("byte a; byte b; ubyte c;").convert("03FA");
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testInvalidFormat() throws ConversionException {
+        new Bin2Json("byte a; unknown b;");
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testInvalidHexString() throws ConversionException {
+        new Bin2Json("byte a; byte b; ubyte c;").convert("03FAF");
+    }
+}
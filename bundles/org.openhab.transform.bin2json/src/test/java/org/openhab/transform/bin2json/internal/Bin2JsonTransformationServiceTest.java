@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class Bin2JsonTransformationServiceTest {
+
+    private Bin2JsonTransformationService processor;
+
+    @Before
+    public void init() {
+        processor = new Bin2JsonTransformationService();
+    }
+
+    @Test
+    public void testTransform() throws TransformationException {
+        Assert.assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", processor.transform("byte a; byte b; ubyte c;", "03FAFF"));
+    }
+
+    @Test
+    public void testTransformBinary() throws TransformationException {
+        Assert.assertEquals("{\"a\":3,\"b\":-6,\"c\":255}",
+                processor.transform("byte a; byte b; ubyte c;", new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF }));
+    }
+
+    @Test
+    public void testTransformRecords() throws TransformationException {
+        Assert.assertEquals("[{\"a\":3,\"b\":-6,\"c\":255},{\"a\":4,\"b\":-5,\"c\":254}]",
+                processor.transform(Bin2JsonTransformationService.RECORDS_PREFIX + "byte a; byte b; ubyte c;",
+                        "03FAFF04FBFE"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformRecordsTrailingPartialStruct() throws TransformationException {
+        processor.transform(Bin2JsonTransformationService.RECORDS_PREFIX + "byte a; byte b; ubyte c;", "03FAFF04");
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformInvalidFormat() throws TransformationException {
+        processor.transform("byte a; unknown b;", "03FAFF");
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformInvalidHexString() throws TransformationException {
+        processor.transform("byte a; byte b; ubyte c;", "03FAF");
+    }
+
+    @Test
+    public void testCachedParserWithDifferentValues() throws TransformationException {
+        String syntax = "byte a; ubyte b;";
+
+        Assert.assertEquals("{\"a\":1,\"b\":255}", processor.transform(syntax, "01FF"));
+        Assert.assertEquals("{\"a\":2,\"b\":254}", processor.transform(syntax, "02FE"));
+    }
+
+    @Test
+    public void testParserCacheDropsLeastRecentlyUsed() throws ConversionException {
+        Bin2Json first = processor.getParser("byte a0;");
+        Bin2Json second = processor.getParser("byte a1;");
+        Assert.assertSame(first, processor.getParser("byte a0;"));
+
+        // fills the cache, the parser of the second syntax is the least recently used one
+        for (int i = 2; i <= Bin2JsonTransformationService.MAX_CACHED_PARSERS; i++) {
+            processor.getParser("byte a" + i + ";");
+        }
+
+        Assert.assertSame(first, processor.getParser("byte a0;"));
+        Assert.assertNotSame(second, processor.getParser("byte a1;"));
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.io.net.exec.ExecUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of the co-process mode against forking a new process for every value.
+ *
+ * Needs a POSIX shell. Run with the jmh profile, for example
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="CoProcessBenchmark -p command=cat"
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CoProcessBenchmark {
+
+    static {
+        // Logging at debug level would dominate the measurements, JMH runs the benchmark in a forked JVM of its own
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+    }
+
+    /**
+     * Command started once, it has to answer every line on stdin with a line on stdout
+     */
+    @Param("cat")
+    public String command;
+
+    /**
+     * Command line forked for every value, %s is replaced by the value
+     */
+    @Param("echo %s")
+    public String forkCommand;
+
+    private CoProcess coProcess;
+    private long count;
+
+    @Setup
+    public void startCoProcess() {
+        coProcess = new CoProcess(command, 32, 5000);
+    }
+
+    @TearDown
+    public void stopCoProcess() {
+        coProcess.shutdown();
+    }
+
+    @Benchmark
+    public String forkPerValue() {
+        String value = Long.toString(count++);
+        return check(value, ExecUtil.executeCommandLineAndWaitResponse(String.format(forkCommand, value), 5000));
+    }
+
+    @Benchmark
+    public String coProcess() throws TransformationException {
+        String value = Long.toString(count++);
+        return check(value, coProcess.transform(value));
+    }
+
+    private static String check(String value, String result) {
+        if (!value.equals(result.trim())) {
+            throw new IllegalStateException("Unexpected result '" + result + "' for '" + value + "'");
+        }
+        return result;
+    }
+}
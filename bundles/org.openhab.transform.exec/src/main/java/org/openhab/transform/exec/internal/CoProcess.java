@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long running process that transforms one input line on its stdin into one output line on its stdout.
+ *
+ * The process is started on the first request and restarted when it has terminated or didn't answer in time. An
+ * input the process crashed on is not sent again. Requests are processed one after another. The number of requests waiting for the process is bounded, further requests are
+ * rejected. After {@link #shutdown()} the process is not started again.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class CoProcess {
+    /** Put into the response queue when stdout was closed, compared by identity */
+    private static final String END_OF_STREAM = new String("<end of stream>");
+
+    /** Minimum time the process gets to answer a line, even if the request waited long in the queue */
+    private static final long MIN_ANSWER_MILLIS = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(CoProcess.class);
+
+    private final String[] command;
+    private final long timeoutMillis;
+    private final int maxQueuedRequests;
+    private final Semaphore queue;
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    private @Nullable Process process;
+    private @Nullable BufferedWriter stdin;
+    private BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+    private boolean closed;
+
+    /**
+     * @param commandLine the command to start, arguments are separated by spaces or by "@@" like in command lines of
+     *            the exec transformation
+     * @param maxQueuedRequests the maximum number of requests waiting for the process
+     * @param timeoutMillis the maximum time to wait for the answer of the process, including the time in the queue.
+     *            Once the input is sent, the process gets at least {@value #MIN_ANSWER_MILLIS} ms to answer, or the
+     *            whole timeout if it is shorter.
+     */
+    CoProcess(String commandLine, int maxQueuedRequests, long timeoutMillis) {
+        this.command = commandLine.contains("@@") ? commandLine.split("@@") : commandLine.trim().split("\\s+");
+        this.maxQueuedRequests = maxQueuedRequests;
+        this.queue = new Semaphore(maxQueuedRequests);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Sends the input to the process and waits for its answer.
+     *
+     * @param input the input, line breaks are replaced by spaces
+     * @return the answer of the process
+     * @throws TransformationException if the queue is full, the process can't be started or doesn't answer in time,
+     *             or if it was shut down
+     */
+    String transform(String input) throws TransformationException {
+        if (!queue.tryAcquire()) {
+            throw new TransformationException("Too many requests waiting for " + Arrays.toString(command));
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new TransformationException("Timeout waiting for " + Arrays.toString(command));
+            }
+            try {
+                if (closed) {
+                    throw new TransformationException("Process " + Arrays.toString(command) + " was shut down");
+                }
+                return process(input.replace('\r', ' ').replace('\n', ' '), deadline);
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for " + Arrays.toString(command), e);
+        } finally {
+            queue.release();
+        }
+    }
+
+    private String process(String line, long deadline) throws TransformationException, InterruptedException {
+        if (deadline - System.nanoTime() <= 0) {
+            // The process is not to blame, the request just waited too long for the previous ones
+            throw new TransformationException("Timeout waiting for " + Arrays.toString(command));
+        }
+        String response = send(line, deadline);
+        if (response == null) {
+            // The process terminated regularly or before it got the input, try once with a new process
+            response = send(line, deadline);
+        }
+        if (response == null || response == END_OF_STREAM) {
+            // Not sent again if the process crashed, the input itself might be the cause
+            throw new TransformationException("Process " + Arrays.toString(command) + " terminated without answering");
+        }
+        return response;
+    }
+
+    /**
+     * Sends the line to the process, starting it if needed, and waits for the answer.
+     *
+     * @return the answer, {@link #END_OF_STREAM} if the process crashed after it got the line, or null if the line
+     *         couldn't be sent or the process exited regularly without answering
+     */
+    private @Nullable String send(String line, long deadline) throws TransformationException, InterruptedException {
+        BufferedWriter stdin = this.stdin;
+        Process process = this.process;
+        if (process == null || stdin == null || !process.isAlive()) {
+            if (process != null && !process.isAlive()) {
+                logger.warn("Process {} terminated with exit code {}, restarting it", Arrays.toString(command),
+                        process.exitValue());
+            }
+            stdin = start();
+            process = this.process;
+        }
+
+        try {
+            stdin.write(line);
+            stdin.newLine();
+            stdin.flush();
+        } catch (IOException e) {
+            logger.debug("Failed to send input to {}: {}", Arrays.toString(command), e.getMessage());
+            stop();
+            return null;
+        }
+
+        final long answerTimeout = Math.max(deadline - System.nanoTime(),
+                TimeUnit.MILLISECONDS.toNanos(Math.min(MIN_ANSWER_MILLIS, timeoutMillis)));
+        String response = responses.poll(answerTimeout, TimeUnit.NANOSECONDS);
+        if (response == null) {
+            // The answer might still arrive and would be taken as the answer of the next request
+            logger.warn("Process {} didn't answer in time, restarting it", Arrays.toString(command));
+            stop();
+            throw new TransformationException("Timeout waiting for " + Arrays.toString(command));
+        }
+        if (response == END_OF_STREAM) {
+            // An exit code other than 0 means the process crashed, possibly because of this input
+            boolean exitedRegularly = process != null && process.waitFor(answerTimeout, TimeUnit.NANOSECONDS)
+                    && process.exitValue() == 0;
+            stop();
+            if (exitedRegularly) {
+                return null;
+            }
+            logger.warn("Process {} terminated without answering input '{}'", Arrays.toString(command), line);
+        }
+        return response;
+    }
+
+    private BufferedWriter start() throws TransformationException {
+        stop();
+        final Process process;
+        try {
+            process = new ProcessBuilder(command).start();
+        } catch (IOException e) {
+            throw new TransformationException("Failed to start " + Arrays.toString(command), e);
+        }
+        logger.debug("Started process {}", Arrays.toString(command));
+
+        // A new queue per process, so late answers of a previous process are never taken
+        final BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+        startReader("stdout", process.getInputStream(), responses::add, () -> responses.add(END_OF_STREAM));
+        startReader("stderr", process.getErrorStream(), line -> logger.debug("{}: {}", command[0], line), () -> {
+        });
+
+        final BufferedWriter stdin = new BufferedWriter(
+                new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        this.process = process;
+        this.stdin = stdin;
+        this.responses = responses;
+        return stdin;
+    }
+
+    private interface LineConsumer {
+        void accept(String line);
+    }
+
+    private void startReader(String stream, InputStream in, LineConsumer consumer, Runnable endOfStream) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    consumer.accept(line);
+                }
+            } catch (IOException e) {
+                logger.debug("Reading {} of {} failed: {}", stream, Arrays.toString(command), e.getMessage());
+            }
+            endOfStream.run();
+        }, "OH-exec-coprocess-" + stream + "-" + command[0]);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the process, it is started again by the next request.
+     */
+    void stop() {
+        final Process process = this.process;
+        final BufferedWriter stdin = this.stdin;
+        this.process = null;
+        this.stdin = null;
+        if (stdin != null) {
+            try {
+                stdin.close();
+            } catch (IOException e) {
+                // the process is destroyed anyway
+            }
+        }
+        if (process != null) {
+            process.destroy();
+            logger.debug("Stopped process {}", Arrays.toString(command));
+        }
+    }
+
+    /**
+     * Stops the process for good, waiting for a running request to complete.
+     */
+    void shutdown() {
+        lock.lock();
+        try {
+            closed = true;
+            stop();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests that are processed or waiting for the process.
+     */
+    int getQueuedRequests() {
+        return maxQueuedRequests - queue.availablePermits();
+    }
+}
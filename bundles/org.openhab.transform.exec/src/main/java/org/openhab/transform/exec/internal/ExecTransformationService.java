@@ -12,6 +12,9 @@
  */
 package org.openhab.transform.exec.internal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
@@ -19,6 +22,7 @@ import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,8 +37,15 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 @Component(immediate = true, property = { "smarthome.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
+    /** Prefix of command lines that are started once and transform every value via stdin and stdout */
+    static final String COPROCESS_PREFIX = "coprocess:";
+    static final int TIMEOUT_MILLIS = 5000;
+    static final int MAX_QUEUED_REQUESTS = 32;
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
+    private final Map<String, CoProcess> coProcesses = new ConcurrentHashMap<>();
     private final ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService;
+    private volatile boolean active = true;
 
     @Activate
     public ExecTransformationService(
@@ -42,11 +53,24 @@ public class ExecTransformationService implements TransformationService {
         this.execTransformationWhitelistWatchService = execTransformationWhitelistWatchService;
     }
 
+    @Deactivate
+    public void deactivate() {
+        // co-processes created by a concurrent transformation after this are shut down by that transformation
+        active = false;
+        for (String commandLine : coProcesses.keySet()) {
+            CoProcess coProcess = coProcesses.remove(commandLine);
+            if (coProcess != null) {
+                coProcess.shutdown();
+            }
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
      * @param commandLine the command to execute. Command line should contain %s string, which will be replaced by the
-     *            input data.
+     *            input data. If the command line starts with {@value #COPROCESS_PREFIX}, the command is started once
+     *            and the input data is written as a line to its stdin, the next line on its stdout is the result.
      * @param source the input to transform
      */
     @Override
@@ -63,10 +87,30 @@ public class ExecTransformationService implements TransformationService {
 
         long startTime = System.currentTimeMillis();
 
-        String formattedCommandLine = String.format(commandLine, source);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, 5000);
+        String result;
+        if (commandLine.startsWith(COPROCESS_PREFIX)) {
+            result = getCoProcess(commandLine).transform(source);
+        } else {
+            String formattedCommandLine = String.format(commandLine, source);
+            result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, TIMEOUT_MILLIS);
+        }
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
     }
+
+    private CoProcess getCoProcess(String commandLine) throws TransformationException {
+        if (!active) {
+            throw new TransformationException("EXEC transformation service is deactivated");
+        }
+        CoProcess coProcess = coProcesses.computeIfAbsent(commandLine,
+                c -> new CoProcess(c.substring(COPROCESS_PREFIX.length()), MAX_QUEUED_REQUESTS, TIMEOUT_MILLIS));
+        if (!active) {
+            // deactivate() may have missed the co-process that was just created
+            coProcesses.remove(commandLine, coProcess);
+            coProcess.shutdown();
+            throw new TransformationException("EXEC transformation service is deactivated");
+        }
+        return coProcess;
+    }
 }
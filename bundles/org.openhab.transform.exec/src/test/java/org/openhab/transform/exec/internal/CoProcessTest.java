@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CoProcess} with shell scripts, skipped if there is no POSIX shell.
+ *
+ * @author agent - Initial contribution
+ */
+public class CoProcessTest {
+
+    /** Answers every line with the line, exits on "crash" and answers "slow" after some time */
+    private static final String SCRIPT = "sh@@-c@@while read line; do " //
+            + "if [ \"$line\" = crash ]; then exit 1; fi; " //
+            + "if [ \"$line\" = slow ]; then sleep 10; fi; " //
+            + "echo \"answer $line\"; done";
+
+    private final List<CoProcess> coProcesses = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(new File("/bin/sh").canExecute());
+    }
+
+    @After
+    public void tearDown() {
+        coProcesses.forEach(CoProcess::shutdown);
+    }
+
+    @Test
+    public void testTransform() throws TransformationException {
+        CoProcess coProcess = create(SCRIPT, ExecTransformationService.MAX_QUEUED_REQUESTS,
+                ExecTransformationService.TIMEOUT_MILLIS);
+
+        assertEquals("answer 1", coProcess.transform("1"));
+        assertEquals("answer 2", coProcess.transform("2"));
+        // line breaks would split the input into two requests
+        assertEquals("answer 3 4", coProcess.transform("3\n4"));
+    }
+
+    @Test
+    public void testRestartAfterProcessDied() throws TransformationException {
+        CoProcess coProcess = create("sh@@-c@@read line; echo \"answer $line\"",
+                ExecTransformationService.MAX_QUEUED_REQUESTS, ExecTransformationService.TIMEOUT_MILLIS);
+
+        // the process exits after every answer
+        assertEquals("answer 1", coProcess.transform("1"));
+        assertEquals("answer 2", coProcess.transform("2"));
+        assertEquals("answer 3", coProcess.transform("3"));
+    }
+
+    @Test
+    public void testInputCrashingTheProcess() throws TransformationException, IOException {
+        Path received = Files.createTempFile("coprocess", ".txt");
+        try {
+            CoProcess coProcess = create("sh@@-c@@while read line; do echo \"$line\" >> " + received + "; " //
+                    + "if [ \"$line\" = crash ]; then exit 1; fi; echo \"answer $line\"; done",
+                    ExecTransformationService.MAX_QUEUED_REQUESTS, ExecTransformationService.TIMEOUT_MILLIS);
+
+            try {
+                coProcess.transform("crash");
+                fail("Expected TransformationException");
+            } catch (TransformationException e) {
+                // the process terminated without answering
+            }
+            assertEquals("answer 1", coProcess.transform("1"));
+
+            // the input that crashed the process is not sent again to the restarted process
+            assertEquals(Arrays.asList("crash", "1"), Files.readAllLines(received));
+        } finally {
+            Files.delete(received);
+        }
+    }
+
+    @Test
+    public void testTimeout() throws TransformationException {
+        CoProcess coProcess = create(SCRIPT, ExecTransformationService.MAX_QUEUED_REQUESTS,
+                ExecTransformationService.TIMEOUT_MILLIS);
+        assertEquals("answer 1", coProcess.transform("1"));
+
+        long start = System.nanoTime();
+        try {
+            coProcess.transform("slow");
+            fail("Expected TransformationException");
+        } catch (TransformationException e) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis >= ExecTransformationService.TIMEOUT_MILLIS);
+            assertTrue(elapsedMillis < ExecTransformationService.TIMEOUT_MILLIS + 2000);
+        }
+
+        // the process was restarted, the late answer is not taken as answer of the next request
+        assertEquals("answer 2", coProcess.transform("2"));
+    }
+
+    @Test
+    public void testQueueLimit() throws Exception {
+        int maxQueuedRequests = ExecTransformationService.MAX_QUEUED_REQUESTS;
+        CoProcess coProcess = create(SCRIPT, maxQueuedRequests, 1000);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < maxQueuedRequests; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    coProcess.transform("slow");
+                } catch (TransformationException e) {
+                    // times out
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coProcess.getQueuedRequests() < maxQueuedRequests && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(maxQueuedRequests, coProcess.getQueuedRequests());
+
+        long start = System.nanoTime();
+        try {
+            coProcess.transform("1");
+            fail("Expected TransformationException");
+        } catch (TransformationException e) {
+            // rejected without waiting
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        }
+
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+        assertEquals(0, coProcess.getQueuedRequests());
+        assertEquals("answer 1", coProcess.transform("1"));
+    }
+
+    @Test
+    public void testNoRestartAfterShutdown() throws TransformationException {
+        CoProcess coProcess = create(SCRIPT, ExecTransformationService.MAX_QUEUED_REQUESTS,
+                ExecTransformationService.TIMEOUT_MILLIS);
+        assertEquals("answer 1", coProcess.transform("1"));
+
+        coProcess.shutdown();
+        try {
+            coProcess.transform("2");
+            fail("Expected TransformationException");
+        } catch (TransformationException e) {
+            // shut down for good
+        }
+    }
+
+    private CoProcess create(String commandLine, int maxQueuedRequests, long timeoutMillis) {
+        CoProcess coProcess = new CoProcess(commandLine, maxQueuedRequests, timeoutMillis);
+        coProcesses.add(coProcess);
+        return coProcess;
+    }
+}
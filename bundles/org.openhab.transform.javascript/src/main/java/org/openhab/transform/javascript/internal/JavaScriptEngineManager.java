@@ -13,13 +13,23 @@
 package org.openhab.transform.javascript.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
@@ -27,13 +37,21 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple cache for compiled JavaScript files.
+ * Pool of JavaScript engines with a cache of compiled JavaScript files.
+ *
+ * A script engine must not be used by more than one thread at a time, so every transformation leases an engine of
+ * the pool for the time of its execution. Each engine keeps its own compiled copy of the scripts. The source of the
+ * scripts is shared and read from storage only once, until the file changes. Up to one engine per processor is
+ * created, so that many transformations can run in parallel.
+ *
+ * The execution time of every script is recorded, so that slow scripts can be identified.
  *
  * @author Thomas Kordelle - pre compiled scripts
  *
@@ -42,38 +60,240 @@ import org.slf4j.LoggerFactory;
 @Component(service = JavaScriptEngineManager.class)
 public class JavaScriptEngineManager {
 
+    /** Executions taking longer are logged as a warning */
+    private static final long SLOW_EXECUTION_MILLIS = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+
+    /** Source of the scripts by file name, replaced when the file changes */
+    private final Map<String, ScriptSource> sources = new ConcurrentHashMap<>();
+    private final Map<String, ScriptStatistics> statistics = new ConcurrentHashMap<>();
+
+    /** Incremented whenever a script is removed from the cache, to detect sources loaded while a file changed */
+    private final AtomicLong cacheVersion = new AtomicLong();
+
+    /** All engines of the pool, leased or idle */
+    private final Set<PooledEngine> engines = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<PooledEngine> idleEngines = new ConcurrentLinkedQueue<>();
+    private final Semaphore availableEngines;
+    private final AtomicInteger createdEngines = new AtomicInteger();
+    private final String scriptFolder;
+
+    /**
+     * The source of a script file. A new instance is created whenever the file is loaded, so compiled copies can
+     * detect that they are outdated.
+     */
+    private static class ScriptSource {
+        final String code;
+
+        ScriptSource(String code) {
+            this.code = code;
+        }
+    }
+
+    /**
+     * An engine of the pool with its compiled copies of the scripts. Only used by the thread that leased it, except
+     * for removing compiled copies of changed scripts.
+     */
+    private static class PooledEngine {
+        final ScriptEngine engine;
+        final Map<String, CompiledCopy> scripts = new ConcurrentHashMap<>();
+
+        PooledEngine(ScriptEngine engine) {
+            this.engine = engine;
+        }
+    }
+
+    private static class CompiledCopy {
+        final ScriptSource source;
+        final CompiledScript script;
+
+        CompiledCopy(ScriptSource source, CompiledScript script) {
+            this.source = source;
+            this.script = script;
+        }
+    }
+
+    /**
+     * Execution time statistics of one script.
+     */
+    public static class ScriptStatistics {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        public double getAverageMillis() {
+            long count = executions.sum();
+            return count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d executions, average %.1f ms, max %d ms", getExecutions(), getAverageMillis(),
+                    getMaxMillis());
+        }
+    }
+
+    public JavaScriptEngineManager() {
+        this(TransformationScriptWatcher.TRANSFORM_FOLDER, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param scriptFolder folder of the JavaScript files
+     * @param maxEngines maximum number of engines, and so of parallel executions
+     */
+    JavaScriptEngineManager(String scriptFolder, int maxEngines) {
+        this.scriptFolder = scriptFolder;
+        availableEngines = new Semaphore(Math.max(1, maxEngines));
+    }
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
+     * Executes a script on an engine of the pool. The script is loaded from storage and compiled for the engine, if
+     * this didn't happen before.
      *
-     * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
-     * @throws TransformationException if compile of JavaScript failed
+     * @param filename name of the JavaScript file to execute
+     * @param input the value of the 'input' variable of the script
+     * @return the result of the script
+     * @throws TransformationException if the JavaScript file can't be loaded or compiled
+     * @throws ScriptException if the execution of the script fails
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
+    protected @Nullable Object eval(final String filename, final String input)
+            throws TransformationException, ScriptException {
+        final ScriptSource source = getSource(filename);
+        final PooledEngine pooledEngine = leaseEngine();
+        try {
+            final CompiledScript cScript = getCompiledScript(pooledEngine, filename, source);
+            final Bindings bindings = pooledEngine.engine.createBindings();
+            bindings.put("input", input);
+
+            final long start = System.nanoTime();
+            try {
+                return cScript.eval(bindings);
+            } finally {
+                recordExecution(filename, System.nanoTime() - start);
             }
+        } finally {
+            releaseEngine(pooledEngine);
+        }
+    }
+
+    /**
+     * Returns the execution time statistics of the scripts executed since they were last loaded, by file name.
+     */
+    public Map<String, ScriptStatistics> getStatistics() {
+        return Collections.unmodifiableMap(new HashMap<>(statistics));
+    }
+
+    /**
+     * Returns the number of engines created by the pool.
+     */
+    int getEngineCount() {
+        return createdEngines.get();
+    }
+
+    /**
+     * Returns the number of engines having a compiled copy of the script.
+     */
+    int getCompiledCopyCount(String filename) {
+        return (int) engines.stream().filter(pooledEngine -> pooledEngine.scripts.containsKey(filename)).count();
+    }
+
+    private ScriptSource getSource(final String filename) throws TransformationException {
+        ScriptSource source = sources.get(filename);
+        if (source != null) {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+            return source;
+        }
+        final long version = cacheVersion.get();
+        final String path = scriptFolder + File.separator + filename;
+        logger.debug("Loading script {} from storage ", path);
+        try {
+            source = new ScriptSource(new String(Files.readAllBytes(Paths.get(path)), Charset.defaultCharset()));
+        } catch (IOException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+        }
+        // if another thread was faster, use its instance so that compiled copies are shared
+        final ScriptSource existing = sources.putIfAbsent(filename, source);
+        if (existing != null) {
+            return existing;
+        }
+        if (cacheVersion.get() != version) {
+            // a script was removed from the cache while this one was read, it might be the outdated content
+            sources.remove(filename, source);
+        }
+        return source;
+    }
+
+    private CompiledScript getCompiledScript(PooledEngine pooledEngine, String filename, ScriptSource source)
+            throws TransformationException {
+        final CompiledCopy copy = pooledEngine.scripts.get(filename);
+        if (copy != null && copy.source == source) {
+            return copy.script;
+        }
+        try {
+            final CompiledScript cScript = ((Compilable) pooledEngine.engine).compile(source.code);
+            logger.debug("Putting compiled JavaScript {} to cache.", cScript);
+            pooledEngine.scripts.put(filename, new CompiledCopy(source, cScript));
+            return cScript;
+        } catch (ScriptException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+        }
+    }
+
+    private PooledEngine leaseEngine() throws TransformationException {
+        try {
+            availableEngines.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for a JavaScript engine", e);
+        }
+        final PooledEngine idle = idleEngines.poll();
+        if (idle != null) {
+            return idle;
+        }
+        final ScriptEngine engine = manager.getEngineByName("javascript");
+        if (engine == null) {
+            availableEngines.release();
+            throw new TransformationException("No JavaScript engine available");
+        }
+        createdEngines.incrementAndGet();
+        logger.debug("Created JavaScript engine {}", engine);
+        final PooledEngine pooledEngine = new PooledEngine(engine);
+        engines.add(pooledEngine);
+        return pooledEngine;
+    }
+
+    private void releaseEngine(PooledEngine pooledEngine) {
+        idleEngines.offer(pooledEngine);
+        availableEngines.release();
+    }
+
+    private void recordExecution(String filename, long nanos) {
+        statistics.computeIfAbsent(filename, f -> new ScriptStatistics()).record(nanos);
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis >= SLOW_EXECUTION_MILLIS) {
+            logger.warn("JavaScript {} took {} ms to execute ({})", filename, millis, statistics.get(filename));
+        } else {
+            logger.trace("JavaScript {} took {} ms to execute", filename, millis);
         }
     }
 
@@ -84,6 +304,13 @@ public class JavaScriptEngineManager {
      */
     protected void removeFromCache(String fileName) {
         logger.debug("Removing JavaScript {} from cache.", fileName);
-        compiledScriptMap.remove(fileName);
+        cacheVersion.incrementAndGet();
+        sources.remove(fileName);
+        // an engine executing the script right now might compile it again, but its copy is outdated and replaced
+        // when the script is used next time
+        for (PooledEngine pooledEngine : engines) {
+            pooledEngine.scripts.remove(fileName);
+        }
+        statistics.remove(fileName);
     }
 }
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.ScriptEngineManager;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.ScriptStatistics;
+
+/**
+ * Tests the engine pool and the script cache of the {@link JavaScriptEngineManager}.
+ *
+ * Skipped if the JVM doesn't provide a JavaScript engine.
+ *
+ * @author agent - Initial contribution
+ */
+public class JavaScriptEngineManagerTest {
+
+    private static final int MAX_ENGINES = 2;
+
+    private Path scriptFolder;
+    private JavaScriptEngineManager manager;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeNotNull(new ScriptEngineManager().getEngineByName("javascript"));
+        scriptFolder = Files.createTempDirectory("javascript");
+        manager = new JavaScriptEngineManager(scriptFolder.toString(), MAX_ENGINES);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (scriptFolder != null) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(scriptFolder)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(scriptFolder);
+        }
+    }
+
+    @Test
+    public void testMoreConcurrentTransformationsThanEngines() throws Exception {
+        writeScript("slow.js", "java.lang.Thread.sleep(20); 'result ' + input");
+
+        int callers = MAX_ENGINES * 4;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String input = String.valueOf(i);
+                Callable<Object> transformation = () -> manager.eval("slow.js", input);
+                results.add(executor.submit(transformation));
+            }
+            for (int i = 0; i < callers; i++) {
+                assertEquals("result " + i, String.valueOf(results.get(i).get(10, TimeUnit.SECONDS)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(manager.getEngineCount() <= MAX_ENGINES);
+        assertEquals(callers, manager.getStatistics().get("slow.js").getExecutions());
+    }
+
+    @Test
+    public void testRecompiledAfterFileChange() throws Exception {
+        writeScript("version.js", "input + ' v1'");
+        assertEquals("x v1", String.valueOf(manager.eval("version.js", "x")));
+
+        // the cached script is used until the file watcher reports the change
+        writeScript("version.js", "input + ' v2'");
+        assertEquals("x v1", String.valueOf(manager.eval("version.js", "x")));
+
+        manager.removeFromCache("version.js");
+        assertEquals("x v2", String.valueOf(manager.eval("version.js", "x")));
+    }
+
+    @Test
+    public void testCompiledCopiesRemovedWithScript() throws Exception {
+        writeScript("copies.js", "input");
+        writeScript("other.js", "input");
+        manager.eval("copies.js", "x");
+        manager.eval("other.js", "x");
+        assertEquals(1, manager.getCompiledCopyCount("copies.js"));
+
+        manager.removeFromCache("copies.js");
+        assertEquals(0, manager.getCompiledCopyCount("copies.js"));
+        assertEquals(1, manager.getCompiledCopyCount("other.js"));
+    }
+
+    @Test
+    public void testStatisticsRemovedWithScript() throws Exception {
+        writeScript("stats.js", "input");
+        manager.eval("stats.js", "x");
+        manager.eval("stats.js", "y");
+
+        Map<String, ScriptStatistics> statistics = manager.getStatistics();
+        assertEquals(2, statistics.get("stats.js").getExecutions());
+
+        manager.removeFromCache("stats.js");
+        assertFalse(manager.getStatistics().containsKey("stats.js"));
+        // the statistics returned before are a snapshot
+        assertEquals(2, statistics.get("stats.js").getExecutions());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testStatisticsAreUnmodifiable() {
+        manager.getStatistics().clear();
+    }
+
+    private void writeScript(String filename, String code) throws IOException {
+        Files.write(scriptFolder.resolve(filename), code.getBytes(Charset.defaultCharset()));
+    }
+}
@@ -13,12 +13,11 @@
 package org.openhab.transform.jinja.internal;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -31,6 +30,12 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.InterpretException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -45,7 +50,22 @@ public class JinjaTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
-    private Jinjava jinjava = new Jinjava();
+    /** Maximum number of parsed templates that are kept */
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
+    private final Jinjava jinjava = new Jinjava();
+
+    /** Thread-safe once configured, shared by all transformations */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Node> templates = new LinkedHashMap<String, Node>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Node> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -62,46 +82,73 @@ public class JinjaTransformationService implements TransformationService {
         bindings.put("value", value);
 
         try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
+            JsonNode tree = objectMapper.readTree(value);
+            bindings.put("value_json", JsonNodeView.of(tree));
         } catch (IOException e) {
             // ok, then value_json is null...
         }
 
-        String transformationResult = jinjava.render(template, bindings);
+        String transformationResult = render(template, bindings);
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
-    private static @Nullable Object toObject(JsonNode node) {
-        switch (node.getNodeType()) {
-            case ARRAY: {
-                List<@Nullable Object> result = new ArrayList<>();
-                for (JsonNode el : node) {
-                    result.add(toObject(el));
-                }
-                return result;
-            }
-            case NUMBER:
-                return node.decimalValue();
-            case OBJECT: {
-                Map<String, @Nullable Object> result = new HashMap<>();
-                Iterator<Entry<String, JsonNode>> it = node.fields();
-                while (it.hasNext()) {
-                    Entry<String, JsonNode> field = it.next();
-                    result.put(field.getKey(), toObject(field.getValue()));
-                }
-                return result;
-            }
-            case STRING:
-                return node.asText();
-            case BOOLEAN:
-                return node.asBoolean();
-            case NULL:
-            default:
-                return null;
+    /**
+     * Renders the parsed tree of the template, which equals {@link Jinjava#render(String, Map)} without parsing the
+     * template again.
+     */
+    private String render(String template, Map<String, @Nullable Object> bindings) throws TransformationException {
+        Node root = getParsedTemplate(template);
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava,
+                new Context(jinjava.getGlobalContext(), bindings), jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            String result = interpreter.render(root);
+            checkFatalErrors(template, interpreter);
+            return result;
+        } catch (InterpretException e) {
+            throw new TransformationException("An error occurred while rendering template '" + template + "'", e);
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    /**
+     * Returns the parsed tree of the template from the cache. Templates with syntax errors are not cached.
+     */
+    private Node getParsedTemplate(String template) throws TransformationException {
+        Node root;
+        synchronized (templates) {
+            root = templates.get(template);
+        }
+        if (root != null) {
+            return root;
+        }
+
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, new Context(jinjava.getGlobalContext()),
+                jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            root = interpreter.parse(template);
+            checkFatalErrors(template, interpreter);
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+
+        synchronized (templates) {
+            templates.put(template, root);
+        }
+        return root;
+    }
+
+    private void checkFatalErrors(String template, JinjavaInterpreter interpreter) throws TransformationException {
+        List<TemplateError> fatalErrors = interpreter.getErrors().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).collect(Collectors.toList());
+        if (!fatalErrors.isEmpty()) {
+            throw new TransformationException("Template '" + template + "' has errors: " + fatalErrors.stream()
+                    .map(TemplateError::getMessage).collect(Collectors.joining(", ")));
         }
     }
 }
@@ -58,4 +58,23 @@ public class JinjaTransformationServiceTest {
         // Asserts
         Assert.assertEquals("Hello world!", transformedResponse);
     }
+
+    @Test
+    public void testCachedTemplateWithDifferentValues() throws TransformationException {
+        String template = "{{ value_json.power }} W";
+
+        Assert.assertEquals("12 W", processor.transform(template, "{\"power\":12}"));
+        Assert.assertEquals("34 W", processor.transform(template, "{\"power\":34}"));
+    }
+
+    @Test
+    public void testNestedArrayAccess() throws TransformationException {
+        String json = "{\"sensors\":[{\"id\":\"a\",\"on\":true},{\"id\":\"b\",\"on\":false}]}";
+        // method under test
+        String transformedResponse = processor.transform(
+                "{{ value_json.sensors|length }} {{ value_json.sensors[1].id }} {{ value_json.sensors[0].on }}", json);
+
+        // Asserts
+        Assert.assertEquals("2 b true", transformedResponse);
+    }
 }
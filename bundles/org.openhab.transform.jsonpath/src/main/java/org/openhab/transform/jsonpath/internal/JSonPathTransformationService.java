@@ -26,13 +26,15 @@ import org.slf4j.LoggerFactory;
 
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * Parsed payloads and compiled expressions are cached, so that evaluating many expressions on the same payload
+ * parses it only once.
+ *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
  *
@@ -43,6 +45,16 @@ public class JSonPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    /** Number of recently parsed payloads that are kept */
+    private static final int MAX_CACHED_DOCUMENTS = 8;
+    /** Time a parsed payload is kept, long enough for all channels fed by one update */
+    private static final long DOCUMENT_TIME_TO_LIVE_MILLIS = 2000;
+    /** Maximum number of compiled expressions that are kept */
+    private static final int MAX_CACHED_PATHS = 512;
+
+    private final ParsedDocumentCache cache = new ParsedDocumentCache(MAX_CACHED_DOCUMENTS,
+            DOCUMENT_TIME_TO_LIVE_MILLIS, MAX_CACHED_PATHS);
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +72,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = cache.read(jsonPathExpression, source);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
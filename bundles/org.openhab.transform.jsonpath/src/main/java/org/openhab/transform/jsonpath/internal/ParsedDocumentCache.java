@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Keeps recently parsed JSON documents and compiled {@link JsonPath} expressions.
+ *
+ * Bindings usually evaluate many expressions on the same payload in a short time, e.g. one per channel when an HTTP
+ * response or MQTT message arrives. The documents are therefore kept for a short time only. A payload is found by
+ * identity first and by hash code and equality otherwise, so one parse serves all expressions of an update cycle.
+ *
+ * The parsed documents are shared and must not be modified.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ParsedDocumentCache {
+    private static class Entry {
+        final String source;
+        final int hash;
+        final Object document;
+        final long expiresAt;
+
+        Entry(String source, Object document, long expiresAt) {
+            this.source = source;
+            this.hash = source.hashCode();
+            this.document = document;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean matches(String other, int otherHash) {
+            return source == other || (hash == otherHash && source.equals(other));
+        }
+    }
+
+    private final Configuration configuration = Configuration.defaultConfiguration();
+    private final long timeToLiveNanos;
+    private final @Nullable Entry[] documents;
+    private int nextSlot = 0;
+
+    private final Map<String, JsonPath> paths;
+
+    /**
+     * @param maxDocuments the number of most recently parsed documents that are kept
+     * @param timeToLiveMillis how long a parsed document is kept
+     * @param maxPaths the maximum number of compiled expressions that are kept
+     */
+    ParsedDocumentCache(int maxDocuments, long timeToLiveMillis, final int maxPaths) {
+        this.documents = new @Nullable Entry[maxDocuments];
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.paths = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+                return size() > maxPaths;
+            }
+        };
+    }
+
+    /**
+     * Evaluates the expression on the given JSON payload, parsing the payload only if it isn't cached.
+     *
+     * @param jsonPathExpression the JsonPath expression
+     * @param source the JSON payload
+     * @return the result of the expression
+     * @throws InvalidPathException if the expression is invalid or doesn't match
+     * @throws InvalidJsonException if the payload isn't valid JSON
+     */
+    @Nullable
+    Object read(String jsonPathExpression, String source) throws InvalidPathException, InvalidJsonException {
+        return getPath(jsonPathExpression).read(getDocument(source), configuration);
+    }
+
+    /**
+     * Returns the compiled expression, compiling it on a cache miss.
+     */
+    JsonPath getPath(String jsonPathExpression) throws InvalidPathException {
+        JsonPath path;
+        synchronized (paths) {
+            path = paths.get(jsonPathExpression);
+        }
+        if (path == null) {
+            path = JsonPath.compile(jsonPathExpression);
+            synchronized (paths) {
+                paths.put(jsonPathExpression, path);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the parsed document of the payload, parsing it on a cache miss.
+     */
+    Object getDocument(String source) throws InvalidJsonException {
+        final int hash = source.hashCode();
+        final long now = System.nanoTime();
+        synchronized (documents) {
+            for (Entry entry : documents) {
+                if (entry != null && now - entry.expiresAt < 0 && entry.matches(source, hash)) {
+                    return entry.document;
+                }
+            }
+        }
+
+        Object document = configuration.jsonProvider().parse(source);
+        synchronized (documents) {
+            documents[nextSlot] = new Entry(source, document, now + timeToLiveNanos);
+            nextSlot = (nextSlot + 1) % documents.length;
+        }
+        return document;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.jayway.jsonpath.InvalidJsonException;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ParsedDocumentCacheTest {
+
+    private static final String JSON = "{\"meter\":{\"power\":1234,\"energy\":5678.9}}";
+
+    @Test
+    public void testSamePayloadIsParsedOnce() {
+        ParsedDocumentCache cache = new ParsedDocumentCache(2, 60000, 10);
+
+        Object document = cache.getDocument(JSON);
+
+        assertSame(document, cache.getDocument(JSON));
+        // an equal payload in a different String instance is found by hash code and equality
+        assertSame(document, cache.getDocument(new String(JSON)));
+        assertEquals(1234, cache.read("$.meter.power", JSON));
+        assertEquals(5678.9, cache.read("$.meter.energy", JSON));
+    }
+
+    @Test
+    public void testOldestPayloadIsEvicted() {
+        ParsedDocumentCache cache = new ParsedDocumentCache(2, 60000, 10);
+
+        Object first = cache.getDocument("[1]");
+        cache.getDocument("[2]");
+        cache.getDocument("[3]");
+
+        assertNotSame(first, cache.getDocument("[1]"));
+    }
+
+    @Test
+    public void testExpiredPayloadIsParsedAgain() throws InterruptedException {
+        ParsedDocumentCache cache = new ParsedDocumentCache(2, 1, 10);
+
+        Object first = cache.getDocument(JSON);
+        Thread.sleep(10);
+
+        assertNotSame(first, cache.getDocument(JSON));
+    }
+
+    @Test
+    public void testCompiledPathIsReused() {
+        ParsedDocumentCache cache = new ParsedDocumentCache(2, 60000, 10);
+
+        assertSame(cache.getPath("$.meter.power"), cache.getPath("$.meter.power"));
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void testInvalidPayloadThrows() {
+        ParsedDocumentCache cache = new ParsedDocumentCache(2, 60000, 10);
+
+        cache.getDocument("{id:");
+    }
+}
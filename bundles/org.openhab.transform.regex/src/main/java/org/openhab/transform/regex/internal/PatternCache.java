@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A bounded cache of compiled {@link Pattern}s, evicting the least recently used pattern. The number of hits and
+ * misses is counted.
+ *
+ * {@link Pattern} instances are immutable and can be shared between threads.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class PatternCache {
+    private final Map<String, Pattern> patterns;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize the maximum number of patterns kept
+     */
+    PatternCache(final int maxSize) {
+        patterns = new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, Pattern> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled pattern of the given regular expression and flags, compiling it on a cache miss.
+     *
+     * @param regex the regular expression
+     * @param flags the match flags, see {@link Pattern#compile(String, int)}
+     * @throws PatternSyntaxException if the expression is invalid
+     */
+    Pattern get(String regex, int flags) throws PatternSyntaxException {
+        String key = flags + "/" + regex;
+        Pattern pattern;
+        synchronized (patterns) {
+            pattern = patterns.get(key);
+        }
+        if (pattern != null) {
+            hits.incrementAndGet();
+            return pattern;
+        }
+        misses.incrementAndGet();
+        // Compile outside of the lock, a concurrent miss of the same key only compiles twice
+        pattern = Pattern.compile(regex, flags);
+        synchronized (patterns) {
+            patterns.put(key, pattern);
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns the number of cached patterns.
+     */
+    int size() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that were served from the cache.
+     */
+    long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to compile the pattern.
+     */
+    long getMisses() {
+        return misses.get();
+    }
+}
@@ -39,6 +39,12 @@ public class RegExTransformationService implements TransformationService {
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+    private static final Pattern GROUPS_PATTERN = Pattern.compile("^g/(.*)/(\\w*)$", Pattern.DOTALL);
+
+    /** Maximum number of compiled regular expressions kept in the cache */
+    static final int MAX_CACHED_PATTERNS = 256;
+
+    private final PatternCache patternCache = new PatternCache(MAX_CACHED_PATTERNS);
 
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
@@ -56,42 +62,140 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher matcher = getPattern(regex, 0).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = matcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = matcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher groupsMatcher = GROUPS_PATTERN.matcher(regExpression);
+        if (groupsMatcher.matches()) {
+            logger.debug("Using group extraction form of regex transformation");
+            return extractGroups(groupsMatcher.group(1), groupsMatcher.group(2), source);
+        }
+
+        Matcher matcher = getPattern("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
                     regExpression, source);
             return null;
         }
-        matcher.reset();
-
-        while (matcher.find()) {
-            if (matcher.groupCount() == 0) {
-                logger.info(
-                        "the given regular expression '^{}$' doesn't contain a group. No content will be extracted and returned!",
-                        regExpression);
-                continue;
+
+        // The expression is anchored at both ends, so the match above is the only one
+        if (matcher.groupCount() == 0) {
+            logger.info(
+                    "the given regular expression '^{}$' doesn't contain a group. No content will be extracted and returned!",
+                    regExpression);
+            return result;
+        }
+
+        result = matcher.group(1);
+
+        if (matcher.groupCount() > 1) {
+            logger.debug(
+                    "the given regular expression '^{}$' contains more than one group. Only the first group will be returned!",
+                    regExpression);
+        }
+
+        return result;
+    }
+
+    /**
+     * Matches the whole source once and returns either all capture groups or the selected one.
+     *
+     * @param regex the regular expression, implicitly anchored at both ends
+     * @param selector empty to return all groups as a JSON array, otherwise the name or number of the group to
+     *            return
+     * @param source the input to transform
+     * @return the extracted content or null if the expression doesn't match
+     * @throws TransformationException if the selected group doesn't exist
+     */
+    private @Nullable String extractGroups(String regex, String selector, String source)
+            throws TransformationException {
+        Matcher matcher = getPattern("^" + regex + "$", Pattern.DOTALL).matcher(source.trim());
+        if (!matcher.matches()) {
+            logger.debug(
+                    "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
+                    regex, source);
+            return null;
+        }
+
+        if (selector.isEmpty()) {
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 1; i <= matcher.groupCount(); i++) {
+                if (i > 1) {
+                    json.append(',');
+                }
+                appendJsonString(json, matcher.group(i));
             }
+            return json.append(']').toString();
+        }
 
-            result = matcher.group(1);
+        try {
+            if (selector.chars().allMatch(Character::isDigit)) {
+                return matcher.group(Integer.parseInt(selector));
+            }
+            return matcher.group(selector);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new TransformationException(
+                    "the given regular expression '^" + regex + "$' doesn't contain the group '" + selector + "'", e);
+        }
+    }
 
-            if (matcher.groupCount() > 1) {
-                logger.debug(
-                        "the given regular expression '^{}$' contains more than one group. Only the first group will be returned!",
-                        regExpression);
+    private static void appendJsonString(StringBuilder json, @Nullable String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
             }
         }
+        json.append('"');
+    }
 
-        return result;
+    private Pattern getPattern(String regex, int flags) {
+        Pattern pattern = patternCache.get(regex, flags);
+        if (logger.isTraceEnabled()) {
+            logger.trace("pattern cache: {} patterns, {} hits, {} misses", patternCache.size(),
+                    patternCache.getHits(), patternCache.getMisses());
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns the cache of compiled patterns, for tests and diagnostics.
+     */
+    PatternCache getPatternCache() {
+        return patternCache;
     }
 }
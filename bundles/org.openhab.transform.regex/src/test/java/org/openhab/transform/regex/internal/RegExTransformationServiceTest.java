@@ -12,7 +12,7 @@
  */
 package org.openhab.transform.regex.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -75,4 +75,74 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_allGroups() throws TransformationException {
+        // method under test
+        String transformedResponse = processor.transform("g/(\\d+)-(\\d+)-(\\d+) (\\w+) (\".*\")?.*/",
+                "2020-04-13 WARN \"disk\" full");
+
+        // Asserts
+        assertEquals("[\"2020\",\"04\",\"13\",\"WARN\",\"\\\"disk\\\"\"]", transformedResponse);
+    }
+
+    @Test
+    public void testTransformByRegex_unmatchedOptionalGroup() throws TransformationException {
+        // method under test
+        String transformedResponse = processor.transform("g/(\\w+)(,\\w+)?/", "X12");
+
+        // Asserts
+        assertEquals("[\"X12\",null]", transformedResponse);
+    }
+
+    @Test
+    public void testTransformByRegex_namedGroup() throws TransformationException {
+        // method under test
+        String transformedResponse = processor.transform("g/.*?temp=(?<temp>[\\d.]+).*?hum=(?<hum>\\d+).*/hum",
+                "sensor1 temp=21.5 hum=48 bat=ok");
+
+        // Asserts
+        assertEquals("48", transformedResponse);
+    }
+
+    @Test
+    public void testTransformByRegex_groupByNumber() throws TransformationException {
+        // method under test
+        String transformedResponse = processor.transform("g/OP:(.*?),ARG:(.*)/2", "OP:SetMode,ARG:42");
+
+        // Asserts
+        assertEquals("42", transformedResponse);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformByRegex_unknownGroup() throws TransformationException {
+        processor.transform("g/OP:(.*?),ARG:(.*)/value", "OP:SetMode,ARG:42");
+    }
+
+    @Test
+    public void testTransformByRegex_groupsNoMatch() throws TransformationException {
+        assertNull(processor.transform("g/OP:(.*?),ARG:(.*)/", "unrelated"));
+    }
+
+    @Test
+    public void testPatternCache() throws TransformationException {
+        processor.transform(".*?<temp_c data=\"(.*?)\".*", source);
+        processor.transform(".*?<temp_c data=\"(.*?)\".*", source);
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "X12,Y54");
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "X12,Y54");
+
+        PatternCache cache = processor.getPatternCache();
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testPatternCacheIsBounded() throws TransformationException {
+        for (int i = 0; i <= RegExTransformationService.MAX_CACHED_PATTERNS; i++) {
+            assertEquals(String.valueOf(i), processor.transform("(" + i + ")", String.valueOf(i)));
+        }
+
+        assertEquals(RegExTransformationService.MAX_CACHED_PATTERNS, processor.getPatternCache().size());
+    }
 }
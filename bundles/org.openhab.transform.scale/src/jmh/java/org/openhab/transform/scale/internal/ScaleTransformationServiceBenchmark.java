@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of the compiled {@link Scale} against the former lookup, which scanned all ranges of the scale file
+ * in order and formatted the result with regular expressions.
+ *
+ * Run with the jmh profile, for example
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ScaleTransformationServiceBenchmark -p ranges=10,120,500 -prof gc"
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScaleTransformationServiceBenchmark {
+
+    private static final String FORMAT = "%label% (%value%)";
+    private static final int INPUTS = 1024;
+
+    /**
+     * Number of ranges of the scale, a catch all range is added
+     */
+    @Param("120")
+    public int ranges;
+
+    private Scale scale;
+    private Map<Range, String> legacy;
+    private String[] inputs;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        // Consecutive ranges [i * 5..(i + 1) * 5[ like an AQI or colour scale, followed by a catch all
+        List<Range> scaleRanges = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        legacy = new LinkedHashMap<>();
+        for (int i = 0; i < ranges; i++) {
+            Range range = Range.closedOpen(BigDecimal.valueOf(i * 5), BigDecimal.valueOf((i + 1) * 5));
+            scaleRanges.add(range);
+            labels.add("level " + i);
+            legacy.put(range, "level " + i);
+        }
+        scaleRanges.add(Range.all());
+        labels.add("out of range");
+        legacy.put(Range.all(), "out of range");
+        scale = new Scale(scaleRanges, labels, null, FORMAT);
+
+        Random random = new Random(42);
+        inputs = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = String.format("%.1f", random.nextDouble() * ranges * 5).replace(',', '.');
+        }
+        for (String input : inputs) {
+            if (!transformLinear(input).equals(transformCompiled(input))) {
+                throw new IllegalStateException("Results differ for " + input);
+            }
+        }
+    }
+
+    private String nextInput() {
+        index = index + 1 < INPUTS ? index + 1 : 0;
+        return inputs[index];
+    }
+
+    private String transformLinear(String source) {
+        BigDecimal value = new BigDecimal(source);
+        String label = legacy.entrySet().stream().filter(entry -> entry.getKey().contains(value)).findFirst()
+                .map(Map.Entry::getValue).orElseThrow(IllegalStateException::new);
+        return FORMAT.replaceAll(Scale.FORMAT_VALUE, source).replaceAll(Scale.FORMAT_LABEL, label);
+    }
+
+    private String transformCompiled(String source) {
+        return scale.format(source, scale.lookup(source));
+    }
+
+    @Benchmark
+    public String linear() {
+        return transformLinear(nextInput());
+    }
+
+    @Benchmark
+    public String compiled() {
+        return transformCompiled(nextInput());
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Compiled representation of a scale file.
+ *
+ * The ranges of a scale file may overlap, the first range in file order wins. When compiled, all bounds are sorted
+ * and the label of every bound and of every gap between two neighbouring bounds is resolved once. A lookup is then a
+ * binary search over the sorted bounds. If all bounds are exactly representable as doubles, numeric inputs are
+ * searched as doubles and the exact {@link BigDecimal} comparison is only needed when the input hits a bound.
+ *
+ * @author agent - Initial contribution
+ */
+public class Scale {
+
+    static final String FORMAT_VALUE = "%value%";
+    static final String FORMAT_LABEL = "%label%";
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    /** Sorted, distinct bounds of all ranges */
+    private final BigDecimal[] bounds;
+    /** The same bounds as doubles, null if one of them is not exactly representable */
+    private final double[] doubleBounds;
+    /** Label of the value equal to bounds[i], null if no range matches */
+    private final String[] boundLabels;
+    /** Label of the values between bounds[i - 1] and bounds[i], null if no range matches */
+    private final String[] gapLabels;
+
+    private final String nonNumeric;
+
+    /** Parts of the format, either literal text or one of the placeholders */
+    private final String[] formatParts;
+
+    /**
+     * Compiles a scale.
+     *
+     * @param ranges the ranges in the order of the scale file
+     * @param labels the label of each range
+     * @param nonNumeric the result for non numeric inputs, null if not defined
+     * @param format the output format, may contain {@link #FORMAT_VALUE} and {@link #FORMAT_LABEL}
+     */
+    Scale(List<Range> ranges, List<String> labels, String nonNumeric, String format) {
+        TreeSet<BigDecimal> sortedBounds = new TreeSet<>();
+        for (Range range : ranges) {
+            if (range.min != null) {
+                sortedBounds.add(range.min);
+            }
+            if (range.max != null) {
+                sortedBounds.add(range.max);
+            }
+        }
+        bounds = sortedBounds.toArray(new BigDecimal[sortedBounds.size()]);
+
+        boundLabels = new String[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            boundLabels[i] = firstMatch(ranges, labels, bounds[i]);
+        }
+
+        // No bound lies within a gap, so any value of the gap represents it
+        gapLabels = new String[bounds.length + 1];
+        for (int i = 0; i <= bounds.length; i++) {
+            final BigDecimal representative;
+            if (bounds.length == 0) {
+                representative = BigDecimal.ZERO;
+            } else if (i == 0) {
+                representative = bounds[0].subtract(BigDecimal.ONE);
+            } else if (i == bounds.length) {
+                representative = bounds[i - 1].add(BigDecimal.ONE);
+            } else {
+                representative = bounds[i - 1].add(bounds[i]).divide(TWO);
+            }
+            gapLabels[i] = firstMatch(ranges, labels, representative);
+        }
+
+        doubleBounds = toExactDoubles(bounds);
+        this.nonNumeric = nonNumeric;
+        this.formatParts = parseFormat(format);
+    }
+
+    private static String firstMatch(List<Range> ranges, List<String> labels, BigDecimal value) {
+        for (int i = 0; i < ranges.size(); i++) {
+            if (ranges.get(i).contains(value)) {
+                return labels.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static double[] toExactDoubles(BigDecimal[] bounds) {
+        double[] result = new double[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            double bound = bounds[i].doubleValue();
+            if (Double.isInfinite(bound) || new BigDecimal(bound).compareTo(bounds[i]) != 0) {
+                return null;
+            }
+            result[i] = bound;
+        }
+        return result;
+    }
+
+    private static String[] parseFormat(String format) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        while (start < format.length()) {
+            int value = format.indexOf(FORMAT_VALUE, start);
+            int label = format.indexOf(FORMAT_LABEL, start);
+            int next = value < 0 ? label : label < 0 ? value : Math.min(value, label);
+            if (next < 0) {
+                parts.add(format.substring(start));
+                break;
+            }
+            if (next > start) {
+                parts.add(format.substring(start, next));
+            }
+            // placeholders are stored as the constant instances, so they can be told apart from literal text
+            parts.add(next == value ? FORMAT_VALUE : FORMAT_LABEL);
+            start = next + (next == value ? FORMAT_VALUE.length() : FORMAT_LABEL.length());
+        }
+        return parts.toArray(new String[parts.size()]);
+    }
+
+    /**
+     * Checks whether the input is a plain decimal number with ASCII digits, as accepted by both
+     * {@link BigDecimal#BigDecimal(String)} and {@link Double#parseDouble(String)}, without the cost of an exception
+     * for non numeric inputs.
+     *
+     * @param source the input
+     * @return true if the input is a plain decimal number
+     */
+    static boolean isDecimal(String source) {
+        int length = source.length();
+        int i = 0;
+        if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && isAsciiDigit(source.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && source.charAt(i) == '.') {
+            i++;
+            while (i < length && isAsciiDigit(source.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && isAsciiDigit(source.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Returns the label of the first range containing the given decimal number.
+     *
+     * @param decimal a number, see {@link #isDecimal(String)}
+     * @return the label or null if no range matches
+     * @throws NumberFormatException if the number can't be represented
+     */
+    String lookup(String decimal) throws NumberFormatException {
+        if (doubleBounds != null) {
+            // parsing rounds monotonically and the bounds are exact, so the result is exact unless a bound is hit.
+            // Adding 0.0 turns -0.0 into 0.0, which binarySearch would order below 0.0
+            int index = Arrays.binarySearch(doubleBounds, Double.parseDouble(decimal) + 0.0);
+            if (index < 0) {
+                return gapLabels[-index - 1];
+            }
+        }
+        return lookup(new BigDecimal(decimal));
+    }
+
+    /**
+     * Returns the label of the first range containing the given value.
+     *
+     * @param value a number
+     * @return the label or null if no range matches
+     */
+    String lookup(BigDecimal value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return index >= 0 ? boundLabels[index] : gapLabels[-index - 1];
+    }
+
+    /**
+     * Returns the result for non numeric inputs.
+     *
+     * @return the result or null if the scale doesn't define one
+     */
+    String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Formats the result according to the format of the scale.
+     *
+     * @param source the input
+     * @param label the label of the matching range
+     * @return the formatted result
+     */
+    String format(String source, String label) {
+        if (formatParts.length == 1 && formatParts[0] == FORMAT_LABEL) {
+            return label;
+        }
+        StringBuilder result = new StringBuilder();
+        for (String part : formatParts) {
+            if (part == FORMAT_VALUE) {
+                result.append(source);
+            } else if (part == FORMAT_LABEL) {
+                result.append(label);
+            } else {
+                result.append(part);
+            }
+        }
+        return result.toString();
+    }
+}
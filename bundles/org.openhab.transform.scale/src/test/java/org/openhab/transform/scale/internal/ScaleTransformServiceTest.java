@@ -146,4 +146,16 @@ public class ScaleTransformServiceTest {
         String transformedResponse = processor.transform(existingscale, source);
         Assert.assertEquals("Correcte (992) !", transformedResponse);
     }
+
+    @Test
+    public void testTransformByScaleAtBounds() throws TransformationException {
+        String existingscale = "scale/limits.scale";
+
+        Assert.assertEquals("high", processor.transform(existingscale, "20"));
+        Assert.assertEquals("high", processor.transform(existingscale, "2e1"));
+        // closer to the bound than a double can represent
+        Assert.assertEquals("middle", processor.transform(existingscale, "19.99999999999999999999"));
+        Assert.assertEquals("low", processor.transform(existingscale, "-0"));
+        Assert.assertEquals("extreme", processor.transform(existingscale, "300.0"));
+    }
 }
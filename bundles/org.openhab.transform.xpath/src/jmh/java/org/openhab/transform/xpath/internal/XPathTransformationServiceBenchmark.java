@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+
+/**
+ * JMH benchmark of {@link XPathTransformationService} against the former implementation, which created all
+ * factories, the parser and the compiled expression on every call.
+ *
+ * Run with the jmh profile, the number of threads transforming concurrently is set with -t:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="XPathTransformationServiceBenchmark -t 4 -prof gc"
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class XPathTransformationServiceBenchmark extends AbstractTransformationServiceTest {
+
+    private static final String[] EXPRESSIONS = { "//current_conditions/temp_c/@data",
+            "//current_conditions/humidity/@data", "//forecast_conditions[1]/high/@data" };
+
+    static {
+        // Logging at debug level would dominate the measurements, JMH runs the benchmark in a forked JVM of its own
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+    }
+
+    /**
+     * Expression to transform with next, per thread
+     */
+    @State(Scope.Thread)
+    public static class Expressions {
+        private int index;
+
+        private String next() {
+            index = index + 1 < EXPRESSIONS.length ? index + 1 : 0;
+            return EXPRESSIONS[index];
+        }
+    }
+
+    private final XPathTransformationService service = new XPathTransformationService();
+
+    /**
+     * The implementation before caching was introduced
+     */
+    @Benchmark
+    public String uncached(Expressions expressions) throws Exception {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        InputSource inputSource = new InputSource(new StringReader(source));
+        inputSource.setEncoding("UTF-8");
+        return (String) XPathFactory.newInstance().newXPath().compile(expressions.next())
+                .evaluate(domFactory.newDocumentBuilder().parse(inputSource), XPathConstants.STRING);
+    }
+
+    @Benchmark
+    public String cached(Expressions expressions) throws TransformationException {
+        return service.transform(expressions.next(), source);
+    }
+}
@@ -38,4 +38,13 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByXPathBeyondExpressionCache() throws TransformationException {
+        for (int i = 0; i <= XPathTransformationService.MAX_CACHED_EXPRESSIONS; i++) {
+            assertEquals(String.valueOf(i), processor.transform("string(" + i + ")", source));
+        }
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("46", processor.transform("//current_conditions/temp_f/@data", source));
+    }
 }
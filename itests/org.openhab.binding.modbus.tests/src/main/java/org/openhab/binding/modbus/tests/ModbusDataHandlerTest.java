@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -584,6 +585,60 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         assertSingleStateUpdate(dataHandler, CHANNEL_STRING, is(equalTo(new StringType("ON"))));
     }
 
+    @Test
+    public void testOnRegistersUnchangedDataIsNotTransformedAgain() throws InvalidSyntaxException {
+        AtomicInteger transformations = new AtomicInteger();
+        mockTransformation("MULTIPLY", new TransformationService() {
+
+            @Override
+            public String transform(String function, String source) throws TransformationException {
+                transformations.incrementAndGet();
+                return String.valueOf(Integer.parseInt(function) * Integer.parseInt(source));
+            }
+        });
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readTransform", "MULTIPLY(10)");
+        dataConfig.put("readValueType", "int16");
+        dataConfig.put("updateUnchangedValuesEveryMillis", 60_000L);
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig), bundleContext);
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        ModbusRegisterArray registers = new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) });
+        dataHandler.onRegisters(request, registers);
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(-30));
+        int transformationsOfFirstPoll = transformations.get();
+        assertThat(transformationsOfFirstPoll, is(not(equalTo(0))));
+
+        // Same data again: previous states are re-used, only last read success is updated
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }));
+        ChannelUID lastReadSuccessUID = new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_LAST_READ_SUCCESS);
+        waitForAssert(() -> assertThat(getStateUpdates(getItemName(lastReadSuccessUID)).size(), is(equalTo(2))));
+        assertThat(transformations.get(), is(equalTo(transformationsOfFirstPoll)));
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(-30));
+        assertSingleStateUpdate(dataHandler, CHANNEL_STRING, new StringType("-30"));
+
+        // Changed data is processed in full
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0x00, (byte) 0x02) }));
+        ChannelUID numberUID = new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER);
+        waitForAssert(() -> assertThat(getStateUpdates(getItemName(numberUID)),
+                is(equalTo(Arrays.<State> asList(new DecimalType(-30), new DecimalType(20))))));
+        assertThat(transformations.get(), is(equalTo(2 * transformationsOfFirstPoll)));
+    }
+
     @Test
     public void testWriteRealTransformation() throws InvalidSyntaxException {
         captureModbusWrites();
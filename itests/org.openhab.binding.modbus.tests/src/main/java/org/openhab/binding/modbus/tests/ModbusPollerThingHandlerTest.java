@@ -45,10 +45,13 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.handler.ModbusPollerThingHandlerImpl;
 import org.openhab.binding.modbus.internal.handler.ModbusTcpThingHandler;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicModbusWriteRegisterRequestBlueprint;
 import org.openhab.io.transport.modbus.BitArray;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
@@ -710,4 +713,139 @@ public class ModbusPollerThingHandlerTest extends AbstractModbusOSGiTest {
         thingHandler.refresh();
         verify(mockedModbusManager).submitOneTimePoll(any());
     }
+
+    private ModbusPollerThingHandlerImpl createAdaptivePoller(long refresh, long maxRefresh) {
+        Configuration pollerConfig = new Configuration();
+        pollerConfig.put("refresh", refresh);
+        pollerConfig.put("maxRefresh", maxRefresh);
+        pollerConfig.put("start", 5);
+        pollerConfig.put("length", 13);
+        pollerConfig.put("type", "holding");
+        poller = createPollerThingBuilder("poller").withConfiguration(pollerConfig).withBridge(endpoint.getUID())
+                .build();
+        addThing(poller);
+        verifyEndpointBasicInitInteraction();
+        assertThat(poller.getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        ModbusPollerThingHandlerImpl thingHandler = (ModbusPollerThingHandlerImpl) poller.getHandler();
+        assertNotNull(thingHandler);
+        return thingHandler;
+    }
+
+    private long getCurrentRefresh(ModbusPollerThingHandlerImpl handler)
+            throws NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
+        Field field = ModbusPollerThingHandlerImpl.class.getDeclaredField("currentRefresh");
+        field.setAccessible(true);
+        return (long) field.get(handler);
+    }
+
+    private ModbusPollerConfiguration getPollerConfig(ModbusPollerThingHandlerImpl handler)
+            throws NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
+        Field field = ModbusPollerThingHandlerImpl.class.getDeclaredField("config");
+        field.setAccessible(true);
+        return (ModbusPollerConfiguration) field.get(handler);
+    }
+
+    @Test
+    public void testAdaptivePollingRegistration() throws IllegalArgumentException, IllegalAccessException,
+            NoSuchFieldException, SecurityException, InterruptedException {
+        ModbusPollerThingHandlerImpl thingHandler = createAdaptivePoller(50L, 1000L);
+
+        // one-off polls are scheduled by the handler, no regular poll
+        verify(mockedModbusManager, timeout(1000).atLeast(2)).submitOneTimePoll(any());
+        verify(mockedModbusManager, never()).registerRegularPoll(any(), anyLong(), anyLong());
+
+        // configuration changed after registration, the poll mode from the registration is used
+        getPollerConfig(thingHandler).setMaxRefresh(0L);
+        disposeThing(poller);
+        verify(mockedModbusManager, never()).unregisterRegularPoll(any());
+
+        // no more polls after dispose
+        reset(mockedModbusManager);
+        Thread.sleep(200L);
+        verify(mockedModbusManager, never()).submitOneTimePoll(any());
+    }
+
+    @Test
+    public void testRegularPollUnregisteredAfterConfigurationChange()
+            throws IllegalArgumentException, IllegalAccessException, NoSuchFieldException, SecurityException {
+        Configuration pollerConfig = new Configuration();
+        pollerConfig.put("refresh", 150L);
+        pollerConfig.put("start", 5);
+        pollerConfig.put("length", 13);
+        pollerConfig.put("type", "coil");
+        poller = createPollerThingBuilder("poller").withConfiguration(pollerConfig).withBridge(endpoint.getUID())
+                .build();
+        addThing(poller);
+        verifyEndpointBasicInitInteraction();
+
+        ArgumentCaptor<PollTask> pollTaskCapturer = ArgumentCaptor.forClass(PollTask.class);
+        verify(mockedModbusManager).registerRegularPoll(pollTaskCapturer.capture(), eq(150l), eq(0L));
+        ModbusPollerThingHandlerImpl thingHandler = (ModbusPollerThingHandlerImpl) poller.getHandler();
+        assertNotNull(thingHandler);
+
+        // configuration changed after registration, the regular poll must still be unregistered
+        getPollerConfig(thingHandler).setMaxRefresh(1000L);
+        disposeThing(poller);
+        verify(mockedModbusManager).unregisterRegularPoll(same(pollTaskCapturer.getValue()));
+        verify(mockedModbusManager, never()).submitOneTimePoll(any());
+    }
+
+    @Test
+    public void testAdaptivePollInterval()
+            throws IllegalArgumentException, IllegalAccessException, NoSuchFieldException, SecurityException {
+        ModbusPollerThingHandlerImpl thingHandler = createAdaptivePoller(100L, 700L);
+        ModbusReadCallback pollerReadCallback = getPollerCallback(thingHandler);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(100L)));
+
+        // first data, nothing to compare with
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 2));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(100L)));
+
+        // unchanged data doubles the interval, up to maxRefresh
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 2));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(200L)));
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 2));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(400L)));
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 2));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(700L)));
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 2));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(700L)));
+
+        // changed data resets the interval
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 3));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(100L)));
+
+        // as do errors
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 3));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(200L)));
+        pollerReadCallback.onError(request, new Exception("dummy error"));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(100L)));
+    }
+
+    @Test
+    public void testAdaptivePollIntervalResetOnOverlappingWrite()
+            throws IllegalArgumentException, IllegalAccessException, NoSuchFieldException, SecurityException {
+        ModbusPollerThingHandlerImpl thingHandler = createAdaptivePoller(100L, 700L);
+        ModbusReadCallback pollerReadCallback = getPollerCallback(thingHandler);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 2));
+        pollerReadCallback.onRegisters(request, new BasicModbusRegisterArray(1, 2));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(200L)));
+
+        // write outside the polled registers 5..17
+        thingHandler.writeIssued(new BasicModbusWriteRegisterRequestBlueprint(9, 18,
+                new BasicModbusRegisterArray(1), false, 1));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(200L)));
+        // write to another unit id
+        thingHandler.writeIssued(new BasicModbusWriteRegisterRequestBlueprint(8, 6,
+                new BasicModbusRegisterArray(1), false, 1));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(200L)));
+
+        // overlapping write
+        thingHandler.writeIssued(new BasicModbusWriteRegisterRequestBlueprint(9, 4,
+                new BasicModbusRegisterArray(1, 2), true, 1));
+        assertThat(getCurrentRefresh(thingHandler), is(equalTo(100L)));
+    }
 }